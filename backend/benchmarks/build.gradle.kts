@@ -0,0 +1,28 @@
+plugins {
+    java
+    id("me.champeau.jmh") version "0.7.3"
+}
+
+dependencies {
+    jmh(platform("org.springframework.boot:spring-boot-dependencies:3.5.7"))
+    jmh(project(":libs:shared-kernel"))
+    jmh(project(":services:wallet-service"))
+    jmh(project(":services:transfer-service"))
+    jmh("jakarta.persistence:jakarta.persistence-api")
+    jmh("org.springframework:spring-tx")
+    jmh("com.fasterxml.jackson.core:jackson-databind")
+    jmh("com.fasterxml.jackson.datatype:jackson-datatype-jsr310")
+    jmh("com.h2database:h2")
+    jmh("org.postgresql:postgresql")
+}
+
+// ./gradlew :benchmarks:jmh -Pjmh.includes=Money  writes build/results/jmh/results.json
+jmh {
+    jmhVersion = "1.37"
+    warmupIterations = 3
+    iterations = 5
+    fork = 1
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+    (findProperty("jmh.includes") as String?)?.let { includes = listOf(it) }
+}
@@ -0,0 +1,103 @@
+package com.momentum.benchmarks;
+
+import com.momentum.sharedkernel.json.RawJson;
+import com.momentum.sharedkernel.messaging.MessageCodec;
+import com.momentum.transfer.messaging.payload.WalletTransactionResultMessage;
+import com.momentum.wallet.messaging.payload.WalletCommandMessage;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+/**
+ * Saga envelopes through the AMQP message converters the services build from {@code *.messaging.codec}, per wire
+ * format. Body sizes are printed once per fork during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageCodecBenchmark {
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    private MessageCodec codec;
+
+    private MessageConverter converter;
+    private WalletCommandMessage command;
+    private WalletTransactionResultMessage result;
+    private Message commandMessage;
+    private Message resultMessage;
+
+    @Setup
+    public void setUp() {
+        converter = codec.newConverter();
+        UUID transferId = UUID.randomUUID();
+        UUID commandId = UUID.randomUUID();
+        command = new WalletCommandMessage(
+                UUID.randomUUID(),
+                OffsetDateTime.now(),
+                UUID.randomUUID(),
+                commandId,
+                "wallet.debit.command",
+                "1.0.0",
+                new WalletCommandMessage.Payload(
+                        commandId,
+                        transferId,
+                        UUID.randomUUID(),
+                        12_500,
+                        "USD",
+                        "invoice-2041",
+                        "Monthly settlement",
+                        new RawJson("{\"channel\":\"api\",\"attempt\":1}")));
+        result = new WalletTransactionResultMessage(
+                UUID.randomUUID(),
+                OffsetDateTime.now(),
+                UUID.randomUUID(),
+                commandId,
+                "wallet.transaction.result",
+                "1.0.0",
+                new WalletTransactionResultMessage.Payload(
+                        commandId,
+                        transferId,
+                        UUID.randomUUID(),
+                        WalletTransactionResultMessage.Type.DEBIT,
+                        WalletTransactionResultMessage.Status.SUCCEEDED,
+                        12_500,
+                        987_500L,
+                        "invoice-2041",
+                        null));
+        commandMessage = converter.toMessage(command, new MessageProperties());
+        resultMessage = converter.toMessage(result, new MessageProperties());
+        System.out.printf("%n%s body bytes: command=%d result=%d%n",
+                codec, commandMessage.getBody().length, resultMessage.getBody().length);
+    }
+
+    @Benchmark
+    public Message serializeCommand() {
+        return converter.toMessage(command, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object deserializeCommand() {
+        return converter.fromMessage(commandMessage);
+    }
+
+    @Benchmark
+    public Message serializeResult() {
+        return converter.toMessage(result, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object deserializeResult() {
+        return converter.fromMessage(resultMessage);
+    }
+}
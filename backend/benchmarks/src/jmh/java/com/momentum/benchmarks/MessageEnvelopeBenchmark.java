@@ -0,0 +1,97 @@
+package com.momentum.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.momentum.sharedkernel.json.RawJson;
+import com.momentum.transfer.messaging.payload.WalletTransactionResultMessage;
+import com.momentum.wallet.messaging.payload.WalletCommandMessage;
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Jackson round trips of the saga message envelopes, configured like the services' Boot {@link ObjectMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageEnvelopeBenchmark {
+
+    private ObjectMapper objectMapper;
+    private WalletCommandMessage command;
+    private WalletTransactionResultMessage result;
+    private byte[] commandJson;
+    private byte[] resultJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        UUID transferId = UUID.randomUUID();
+        UUID commandId = UUID.randomUUID();
+        command = new WalletCommandMessage(
+                UUID.randomUUID(),
+                OffsetDateTime.now(),
+                UUID.randomUUID(),
+                commandId,
+                "wallet.debit.command",
+                "1.0.0",
+                new WalletCommandMessage.Payload(
+                        commandId,
+                        transferId,
+                        UUID.randomUUID(),
+                        12_500,
+                        "USD",
+                        "invoice-2041",
+                        "Monthly settlement",
+                        new RawJson("{\"channel\":\"api\",\"attempt\":1}")));
+        result = new WalletTransactionResultMessage(
+                UUID.randomUUID(),
+                OffsetDateTime.now(),
+                UUID.randomUUID(),
+                commandId,
+                "wallet.transaction.result",
+                "1.0.0",
+                new WalletTransactionResultMessage.Payload(
+                        commandId,
+                        transferId,
+                        UUID.randomUUID(),
+                        WalletTransactionResultMessage.Type.DEBIT,
+                        WalletTransactionResultMessage.Status.SUCCEEDED,
+                        12_500,
+                        987_500L,
+                        "invoice-2041",
+                        null));
+        commandJson = objectMapper.writeValueAsBytes(command);
+        resultJson = objectMapper.writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public byte[] serializeCommand() throws IOException {
+        return objectMapper.writeValueAsBytes(command);
+    }
+
+    @Benchmark
+    public WalletCommandMessage deserializeCommand() throws IOException {
+        return objectMapper.readValue(commandJson, WalletCommandMessage.class);
+    }
+
+    @Benchmark
+    public byte[] serializeResult() throws IOException {
+        return objectMapper.writeValueAsBytes(result);
+    }
+
+    @Benchmark
+    public WalletTransactionResultMessage deserializeResult() throws IOException {
+        return objectMapper.readValue(resultJson, WalletTransactionResultMessage.class);
+    }
+}
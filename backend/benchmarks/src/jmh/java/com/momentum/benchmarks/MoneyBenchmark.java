@@ -0,0 +1,70 @@
+package com.momentum.benchmarks;
+
+import com.momentum.sharedkernel.domain.value.CurrencyRegistry;
+import com.momentum.sharedkernel.domain.value.Money;
+import com.momentum.sharedkernel.domain.value.MoneyMath;
+import java.util.Currency;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Arithmetic and identity operations of {@link Money}; run with {@code -prof gc} to see allocation per call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoneyBenchmark {
+
+    private Money left;
+    private Money right;
+    private int usd;
+
+    @Setup
+    public void setUp() {
+        Currency usd = Currency.getInstance("USD");
+        left = Money.ofMinor(125_050, usd);
+        right = Money.ofMinor(4_999, usd);
+        this.usd = CurrencyRegistry.ordinal(usd);
+    }
+
+    @Benchmark
+    public Money add() {
+        return left.add(right);
+    }
+
+    @Benchmark
+    public Money subtract() {
+        return left.subtract(right);
+    }
+
+    @Benchmark
+    public Money negate() {
+        return left.negate();
+    }
+
+    @Benchmark
+    public int compareTo() {
+        return left.compareTo(right);
+    }
+
+    @Benchmark
+    public int hashCodeOf() {
+        return left.hashCode();
+    }
+
+    @Benchmark
+    public long addPrimitive() {
+        return MoneyMath.add(usd, left.toMinorUnits(), usd, right.toMinorUnits());
+    }
+
+    @Benchmark
+    public Money ofMinor() {
+        return Money.ofMinor(125_050, left.currency());
+    }
+}
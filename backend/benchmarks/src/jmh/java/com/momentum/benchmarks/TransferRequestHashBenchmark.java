@@ -0,0 +1,46 @@
+package com.momentum.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.momentum.sharedkernel.json.RawJson;
+import com.momentum.transfer.api.dto.TransferRequest;
+import com.momentum.transfer.idempotency.TransferRequestHasher;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Idempotency hash of a transfer request, as computed for every transfer submission.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransferRequestHashBenchmark {
+
+    private TransferRequestHasher hasher;
+    private TransferRequest request;
+
+    @Setup
+    public void setUp() {
+        hasher = new TransferRequestHasher(new ObjectMapper());
+        request = new TransferRequest(
+                UUID.randomUUID(),
+                UUID.randomUUID(),
+                12_500,
+                "USD",
+                "invoice-2041",
+                "Monthly settlement",
+                new RawJson("{\"channel\":\"api\"}"),
+                UUID.randomUUID().toString());
+    }
+
+    @Benchmark
+    public String hashRequest() {
+        return hasher.hash(request);
+    }
+}
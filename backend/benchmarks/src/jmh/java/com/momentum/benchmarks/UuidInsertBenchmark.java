@@ -0,0 +1,103 @@
+package com.momentum.benchmarks;
+
+import com.momentum.sharedkernel.id.UuidV7;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Insert throughput into a UUID-keyed table shaped like {@code ledger_entries}, with random v4 keys versus UUIDv7.
+ *
+ * <p>Runs against in-memory H2 by default. Pass {@code -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/momentum}
+ * (plus {@code bench.jdbc.user} / {@code bench.jdbc.password}) to measure PostgreSQL, where the index locality
+ * difference is far larger once the primary key no longer fits in shared buffers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UuidInsertBenchmark {
+
+    private static final int ROWS_PER_COMMIT = 100;
+    private static final int PRELOADED_ROWS = 200_000;
+
+    @Param({"random", "v7"})
+    public String keys;
+
+    private Supplier<UUID> ids;
+    private Connection connection;
+    private PreparedStatement insert;
+
+    @Setup
+    public void setUp() throws SQLException, ClassNotFoundException {
+        // the shadowed jmh jar keeps only one META-INF/services/java.sql.Driver, so register both drivers explicitly
+        Class.forName("org.h2.Driver");
+        Class.forName("org.postgresql.Driver");
+        ids = "v7".equals(keys) ? UuidV7::next : UUID::randomUUID;
+        connection = DriverManager.getConnection(
+                System.getProperty("bench.jdbc.url", "jdbc:h2:mem:uuid_bench;MODE=PostgreSQL"),
+                System.getProperty("bench.jdbc.user", "sa"),
+                System.getProperty("bench.jdbc.password", ""));
+        connection.setAutoCommit(false);
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS uuid_insert_bench");
+            ddl.execute("""
+                    CREATE TABLE uuid_insert_bench (
+                        id UUID PRIMARY KEY,
+                        wallet_id UUID NOT NULL,
+                        amount_minor_units BIGINT NOT NULL,
+                        reference VARCHAR(128) NOT NULL)
+                    """);
+        }
+        connection.commit();
+        insert = connection.prepareStatement(
+                "INSERT INTO uuid_insert_bench (id, wallet_id, amount_minor_units, reference) VALUES (?, ?, ?, ?)");
+        for (int i = 0; i < PRELOADED_ROWS / ROWS_PER_COMMIT; i++) {
+            insertBatch();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_COMMIT)
+    public void insert() throws SQLException {
+        insertBatch();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE uuid_insert_bench");
+        }
+        connection.commit();
+        connection.close();
+    }
+
+    private void insertBatch() throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < ROWS_PER_COMMIT; i++) {
+            UUID id = ids.get();
+            insert.setObject(1, id);
+            insert.setObject(2, id);
+            insert.setLong(3, random.nextLong(1, 100_000));
+            insert.setString(4, id.toString());
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+}
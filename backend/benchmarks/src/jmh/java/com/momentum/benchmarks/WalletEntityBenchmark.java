@@ -0,0 +1,53 @@
+package com.momentum.benchmarks;
+
+import com.momentum.sharedkernel.domain.value.Money;
+import com.momentum.wallet.persistence.user.UserEntity;
+import com.momentum.wallet.persistence.user.UserStatus;
+import com.momentum.wallet.persistence.wallet.WalletEntity;
+import java.util.Currency;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Balance mutation and balance reads on a detached {@link WalletEntity}, the in-memory part of every ledger write.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WalletEntityBenchmark {
+
+    private WalletEntity wallet;
+    private Money amount;
+
+    @Setup
+    public void setUp() {
+        Currency usd = Currency.getInstance("USD");
+        UserEntity user = new UserEntity(UUID.randomUUID(), "bench-user", UserStatus.ACTIVE);
+        wallet = new WalletEntity(UUID.randomUUID(), user, usd, Money.ofMinor(1_000_000, usd));
+        amount = Money.ofMinor(1_250, usd);
+    }
+
+    @Benchmark
+    public Money creditThenDebit() {
+        wallet.credit(amount);
+        wallet.debit(amount);
+        return wallet.getBalance();
+    }
+
+    @Benchmark
+    public Money balance() {
+        return wallet.getBalance();
+    }
+
+    @Benchmark
+    public Currency currency() {
+        return wallet.getCurrency();
+    }
+}
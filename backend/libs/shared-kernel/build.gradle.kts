@@ -11,6 +11,10 @@ dependencies {
     api(platform("org.springframework.boot:spring-boot-dependencies:3.5.7"))
 
     implementation("org.springframework:spring-context")
+    implementation("com.fasterxml.jackson.core:jackson-databind")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-cbor")
+    api("org.springframework.amqp:spring-amqp")
 
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine")
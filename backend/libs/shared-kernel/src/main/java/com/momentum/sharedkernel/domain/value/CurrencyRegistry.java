@@ -0,0 +1,101 @@
+package com.momentum.sharedkernel.domain.value;
+
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Process-wide table of ISO currencies addressed by a compact ordinal.
+ *
+ * <p>Ordinals follow the alphabetical order of currency codes on the running JDK, so they are stable within a process
+ * but must never be persisted or sent over the wire; use the currency code for that. Fraction digits and the
+ * minor-units-per-major factor are precomputed so hot paths avoid {@link Currency#getInstance(String)}.
+ */
+public final class CurrencyRegistry {
+
+    private static final Currency[] CURRENCIES;
+    private static final int[] FRACTION_DIGITS;
+    private static final long[] MINOR_PER_MAJOR;
+    private static final Map<String, Integer> ORDINALS;
+
+    static {
+        List<Currency> currencies = Currency.getAvailableCurrencies().stream()
+                .sorted(Comparator.comparing(Currency::getCurrencyCode))
+                .toList();
+        CURRENCIES = currencies.toArray(Currency[]::new);
+        FRACTION_DIGITS = new int[CURRENCIES.length];
+        MINOR_PER_MAJOR = new long[CURRENCIES.length];
+        Map<String, Integer> ordinals = new HashMap<>(CURRENCIES.length * 2);
+        for (int ordinal = 0; ordinal < CURRENCIES.length; ordinal++) {
+            // pseudo-currencies such as XAU report -1; treat them as having no minor unit
+            int digits = Math.max(0, CURRENCIES[ordinal].getDefaultFractionDigits());
+            FRACTION_DIGITS[ordinal] = digits;
+            MINOR_PER_MAJOR[ordinal] = pow10(digits);
+            ordinals.put(CURRENCIES[ordinal].getCurrencyCode(), ordinal);
+        }
+        ORDINALS = Map.copyOf(ordinals);
+    }
+
+    private CurrencyRegistry() {}
+
+    /**
+     * @param currencyCode ISO 4217 code
+     * @throws IllegalArgumentException if the code is unknown
+     */
+    public static int ordinal(String currencyCode) {
+        Integer ordinal = ORDINALS.get(currencyCode);
+        if (ordinal == null) {
+            throw new IllegalArgumentException("Unknown currency: " + currencyCode);
+        }
+        return ordinal;
+    }
+
+    public static int ordinal(Currency currency) {
+        return ordinal(currency.getCurrencyCode());
+    }
+
+    public static Currency currency(int ordinal) {
+        return CURRENCIES[checkOrdinal(ordinal)];
+    }
+
+    /**
+     * Cached equivalent of {@link Currency#getInstance(String)}.
+     */
+    public static Currency currency(String currencyCode) {
+        return CURRENCIES[ordinal(currencyCode)];
+    }
+
+    public static String code(int ordinal) {
+        return currency(ordinal).getCurrencyCode();
+    }
+
+    public static int fractionDigits(int ordinal) {
+        return FRACTION_DIGITS[checkOrdinal(ordinal)];
+    }
+
+    /** @return how many minor units make one major unit, e.g. {@code 100} for USD. */
+    public static long minorPerMajor(int ordinal) {
+        return MINOR_PER_MAJOR[checkOrdinal(ordinal)];
+    }
+
+    public static int size() {
+        return CURRENCIES.length;
+    }
+
+    private static int checkOrdinal(int ordinal) {
+        if (ordinal < 0 || ordinal >= CURRENCIES.length) {
+            throw new IllegalArgumentException("Unknown currency ordinal: " + ordinal);
+        }
+        return ordinal;
+    }
+
+    private static long pow10(int exponent) {
+        long value = 1;
+        for (int i = 0; i < exponent; i++) {
+            value *= 10;
+        }
+        return value;
+    }
+}
@@ -5,10 +5,12 @@ import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Currency;
-import java.util.Objects;
 
 /**
  * Money is represented as minor currency units (cents) to avoid floating point errors.
+ *
+ * <p>Arithmetic is overflow checked. Hot paths that should not allocate can use {@link MoneyMath} on raw minor units
+ * instead.
  */
 public final class Money implements Comparable<Money>, Serializable {
     @Serial
@@ -63,10 +65,11 @@ public final class Money implements Comparable<Money>, Serializable {
      *
      * @param other value to add
      * @return new {@link Money} instance with summed value
+     * @throws ArithmeticException if the sum overflows
      */
     public Money add(Money other) {
         ensureSameCurrency(other);
-        return new Money(this.amountMinor + other.amountMinor, currency);
+        return new Money(MoneyMath.add(this.amountMinor, other.amountMinor), currency);
     }
 
     /**
@@ -77,12 +80,12 @@ public final class Money implements Comparable<Money>, Serializable {
      */
     public Money subtract(Money other) {
         ensureSameCurrency(other);
-        return new Money(this.amountMinor - other.amountMinor, currency);
+        return new Money(MoneyMath.subtract(this.amountMinor, other.amountMinor), currency);
     }
 
     /** Creates a copy with the amount negated. */
     public Money negate() {
-        return new Money(-amountMinor, currency);
+        return new Money(MoneyMath.negate(amountMinor), currency);
     }
 
     /** @return {@code true} if the amount is below zero. */
@@ -136,7 +139,7 @@ public final class Money implements Comparable<Money>, Serializable {
 
     @Override
     public int hashCode() {
-        return Objects.hash(amountMinor, currency);
+        return 31 * Long.hashCode(amountMinor) + currency.hashCode();
     }
 
     @Override
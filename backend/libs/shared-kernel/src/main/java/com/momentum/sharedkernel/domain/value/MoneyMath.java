@@ -0,0 +1,71 @@
+package com.momentum.sharedkernel.domain.value;
+
+/**
+ * Allocation-free companion of {@link Money} for hot paths that keep amounts as {@code long} minor units.
+ *
+ * <p>Currencies are identified by their {@link CurrencyRegistry} ordinal. Every operation is overflow checked and
+ * throws {@link ArithmeticException} instead of wrapping; currency mismatches throw {@link IllegalArgumentException}
+ * like {@link Money} does.
+ */
+public final class MoneyMath {
+
+    private MoneyMath() {}
+
+    public static long add(long amountMinor, long otherMinor) {
+        return Math.addExact(amountMinor, otherMinor);
+    }
+
+    public static long subtract(long amountMinor, long otherMinor) {
+        return Math.subtractExact(amountMinor, otherMinor);
+    }
+
+    public static long negate(long amountMinor) {
+        return Math.negateExact(amountMinor);
+    }
+
+    public static int compare(long amountMinor, long otherMinor) {
+        return Long.compare(amountMinor, otherMinor);
+    }
+
+    /**
+     * Adds two amounts after checking that both are in the same currency.
+     */
+    public static long add(int currency, long amountMinor, int otherCurrency, long otherMinor) {
+        requireSameCurrency(currency, otherCurrency);
+        return Math.addExact(amountMinor, otherMinor);
+    }
+
+    /**
+     * Subtracts two amounts after checking that both are in the same currency.
+     */
+    public static long subtract(int currency, long amountMinor, int otherCurrency, long otherMinor) {
+        requireSameCurrency(currency, otherCurrency);
+        return Math.subtractExact(amountMinor, otherMinor);
+    }
+
+    public static int compare(int currency, long amountMinor, int otherCurrency, long otherMinor) {
+        requireSameCurrency(currency, otherCurrency);
+        return Long.compare(amountMinor, otherMinor);
+    }
+
+    /**
+     * Converts a whole number of major units (e.g. dollars) to minor units.
+     */
+    public static long majorToMinor(int currency, long amountMajor) {
+        return Math.multiplyExact(amountMajor, CurrencyRegistry.minorPerMajor(currency));
+    }
+
+    public static void requireSameCurrency(int currency, int otherCurrency) {
+        if (currency != otherCurrency) {
+            throw new IllegalArgumentException("Currency mismatch: %s vs %s"
+                    .formatted(CurrencyRegistry.code(currency), CurrencyRegistry.code(otherCurrency)));
+        }
+    }
+
+    /**
+     * Boxes a primitive amount back into the public value type at an API boundary.
+     */
+    public static Money toMoney(int currency, long amountMinor) {
+        return Money.ofMinor(amountMinor, CurrencyRegistry.currency(currency));
+    }
+}
@@ -1,5 +1,6 @@
 package com.momentum.sharedkernel.events;
 
+import com.momentum.sharedkernel.id.UuidV7;
 import java.time.Instant;
 import java.util.Objects;
 import java.util.UUID;
@@ -23,13 +24,13 @@ public record PayloadDomainEvent<T>(UUID id, Instant occurredOn, String type, T
     }
 
     /**
-     * Creates a new event using random identifiers and {@link Instant#now()}.
+     * Creates a new event with a time-ordered identifier and {@link Instant#now()}.
      *
      * @param type event type name
      * @param payload domain payload
      * @return new {@link PayloadDomainEvent}
      */
     public static <T> PayloadDomainEvent<T> of(String type, T payload) {
-        return new PayloadDomainEvent<>(UUID.randomUUID(), Instant.now(), type, payload);
+        return new PayloadDomainEvent<>(UuidV7.next(), Instant.now(), type, payload);
     }
 }
@@ -0,0 +1,114 @@
+package com.momentum.sharedkernel.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Objects;
+
+/**
+ * An opaque, already-serialized JSON value such as free-form transfer metadata.
+ *
+ * <p>Reading one copies the token stream of the value into compact JSON text without building a {@code Map} or tree;
+ * writing one splices the text into the output unchanged. A value can therefore travel from the API through the
+ * database and message envelopes while being parsed only once, when it first enters the system. Binary message
+ * formats are the exception: they re-encode the text on write and turn it back into JSON text on read.
+ */
+@JsonSerialize(using = RawJson.Serializer.class)
+@JsonDeserialize(using = RawJson.Deserializer.class)
+public record RawJson(String json) {
+
+    public static final RawJson EMPTY_OBJECT = new RawJson("{}");
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    public RawJson {
+        Objects.requireNonNull(json, "json");
+    }
+
+    /**
+     * Wraps stored JSON text; {@code null} or blank text becomes {@code null}.
+     */
+    public static RawJson of(String json) {
+        return json == null || json.isBlank() ? null : new RawJson(json);
+    }
+
+    /**
+     * Like {@link #of} but maps missing text to {@link #EMPTY_OBJECT}.
+     */
+    public static RawJson orEmptyObject(String json) {
+        RawJson raw = of(json);
+        return raw == null ? EMPTY_OBJECT : raw;
+    }
+
+    /**
+     * JSON text to store, or {@code null} for a missing or empty object.
+     */
+    public static String toStored(RawJson raw) {
+        return raw == null || raw.isEmptyObject() ? null : raw.json();
+    }
+
+    public boolean isEmptyObject() {
+        return EMPTY_OBJECT.json().equals(json);
+    }
+
+    @Override
+    public String toString() {
+        return json;
+    }
+
+    static final class Serializer extends StdSerializer<RawJson> {
+
+        Serializer() {
+            super(RawJson.class);
+        }
+
+        @Override
+        public void serialize(RawJson value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            if (!generator.canWriteBinaryNatively()) {
+                generator.writeRawValue(value.json());
+                return;
+            }
+            // binary formats such as Smile cannot splice in text, so the value is transcoded event by event
+            try (JsonParser parser = JSON.createParser(value.json())) {
+                while (parser.nextToken() != null) {
+                    generator.copyCurrentEventExact(parser);
+                }
+            }
+        }
+    }
+
+    static final class Deserializer extends StdDeserializer<RawJson> {
+
+        Deserializer() {
+            super(RawJson.class);
+        }
+
+        @Override
+        public RawJson deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            StringWriter writer = new StringWriter();
+            try (JsonGenerator generator = JSON.createGenerator(writer)) {
+                // copy event by event with exact numbers so decimals such as 1.50 keep their scale
+                int depth = 0;
+                do {
+                    JsonToken token = parser.currentToken();
+                    generator.copyCurrentEventExact(parser);
+                    if (token.isStructStart()) {
+                        depth++;
+                    } else if (token.isStructEnd()) {
+                        depth--;
+                    }
+                } while (depth > 0 && parser.nextToken() != null);
+            }
+            return new RawJson(writer.toString());
+        }
+    }
+}
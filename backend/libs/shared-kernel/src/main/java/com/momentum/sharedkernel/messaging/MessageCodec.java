@@ -0,0 +1,83 @@
+package com.momentum.sharedkernel.messaging;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import java.lang.reflect.Type;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJackson2MessageConverter;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.util.MimeType;
+
+/**
+ * Wire formats for inter-service message envelopes, identified by the AMQP {@code content_type} property.
+ *
+ * <p>The binary formats carry the same Jackson data model as JSON, but field names are back-referenced or length
+ * prefixed instead of quoted, numbers are written in binary, and UUIDs are written as 16 raw bytes instead of 36
+ * characters of text.
+ */
+public enum MessageCodec {
+
+    JSON("application/json"),
+    SMILE("application/x-jackson-smile"),
+    CBOR("application/cbor");
+
+    private final String contentType;
+
+    MessageCodec(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    /**
+     * Converter that writes this format and reads every format by the content type of the incoming message, so the
+     * outbound format can be switched without coordinating with consumers that still publish another one.
+     */
+    public MessageConverter newConverter() {
+        ContentTypeDelegatingMessageConverter converter = new ContentTypeDelegatingMessageConverter(newDelegate());
+        for (MessageCodec codec : values()) {
+            converter.addDelegate(codec.contentType, codec.newDelegate());
+        }
+        return converter;
+    }
+
+    AbstractJackson2MessageConverter newDelegate() {
+        return switch (this) {
+            case JSON -> new Jackson2JsonMessageConverter();
+            case SMILE -> new BinaryJackson2MessageConverter(configure(SmileMapper.builder()), MimeType.valueOf(contentType));
+            case CBOR -> new BinaryJackson2MessageConverter(configure(CBORMapper.builder()), MimeType.valueOf(contentType));
+        };
+    }
+
+    // the same settings Jackson2JsonMessageConverter applies to its own mapper
+    private static ObjectMapper configure(MapperBuilder<?, ?> builder) {
+        return builder.findAndAddModules()
+                .disable(MapperFeature.DEFAULT_VIEW_INCLUSION)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+    }
+
+    private static final class BinaryJackson2MessageConverter extends AbstractJackson2MessageConverter {
+
+        BinaryJackson2MessageConverter(ObjectMapper objectMapper, MimeType contentType) {
+            super(objectMapper, contentType, "*");
+        }
+
+        // a binary body has no character encoding, and one would make the base class decode it as text
+        @Override
+        protected Message createMessage(Object object, MessageProperties messageProperties, Type genericType) {
+            Message message = super.createMessage(object, messageProperties, genericType);
+            message.getMessageProperties().setContentEncoding(null);
+            return message;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.momentum.sharedkernel.domain.value;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Currency;
+import org.junit.jupiter.api.Test;
+
+class MoneyMathTest {
+
+    private static final int USD = CurrencyRegistry.ordinal("USD");
+    private static final int EUR = CurrencyRegistry.ordinal("EUR");
+
+    @Test
+    void addsAmountsOfSameCurrency() {
+        assertThat(MoneyMath.add(USD, 500, USD, 250)).isEqualTo(750);
+        assertThat(MoneyMath.subtract(USD, 500, USD, 250)).isEqualTo(250);
+    }
+
+    @Test
+    void rejectsDifferentCurrencies() {
+        assertThatThrownBy(() -> MoneyMath.add(USD, 100, EUR, 100))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("USD")
+                .hasMessageContaining("EUR");
+    }
+
+    @Test
+    void overflowThrowsInsteadOfWrapping() {
+        assertThatThrownBy(() -> MoneyMath.add(Long.MAX_VALUE, 1)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> MoneyMath.negate(Long.MIN_VALUE)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.ofMinor(Long.MAX_VALUE, Currency.getInstance("USD"))
+                        .add(Money.ofMinor(1, Currency.getInstance("USD"))))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void registryPrecomputesFractionDigits() {
+        assertThat(CurrencyRegistry.currency(USD)).isEqualTo(Currency.getInstance("USD"));
+        assertThat(CurrencyRegistry.fractionDigits(CurrencyRegistry.ordinal("JPY"))).isZero();
+        assertThat(MoneyMath.majorToMinor(CurrencyRegistry.ordinal("BHD"), 2)).isEqualTo(2_000);
+        assertThat(MoneyMath.toMoney(USD, 1025)).isEqualTo(Money.ofMinor(1025, Currency.getInstance("USD")));
+        assertThatThrownBy(() -> CurrencyRegistry.ordinal("XXZ")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,91 @@
+package com.momentum.sharedkernel.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class UuidV7Test {
+
+    @Test
+    void encodesVersionVariantAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7.next();
+        long after = System.currentTimeMillis();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(UuidV7.timestamp(id)).isBetween(before, after + 1);
+        assertThatThrownBy(() -> UuidV7.timestamp(UUID.randomUUID())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void idsStrictlyIncreaseWithinAMillisecond() {
+        UUID previous = UuidV7.next();
+        for (int i = 0; i < 100_000; i++) {
+            UUID current = UuidV7.next();
+            assertThat(current).isGreaterThan(previous);
+            previous = current;
+        }
+    }
+
+    @Test
+    void lowerBoundsSplitIdsByMintingTime() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7.next();
+
+        assertThat(UuidV7.UNSIGNED_ORDER.compare(UuidV7.lowerBound(before), id)).isNegative();
+        assertThat(UuidV7.UNSIGNED_ORDER.compare(id, UuidV7.lowerBound(UuidV7.timestamp(id) + 1))).isNegative();
+    }
+
+    @Test
+    void unsignedOrderSortsLikeTheDatabase() {
+        UUID low = UUID.fromString("7fffffff-ffff-7fff-bfff-ffffffffffff");
+        UUID high = UUID.fromString("80000000-0000-4000-8000-000000000000");
+
+        assertThat(low.compareTo(high)).isPositive();
+        assertThat(UuidV7.UNSIGNED_ORDER.compare(low, high)).isNegative();
+    }
+
+    @Test
+    void concurrentCallersNeverCollide() throws Exception {
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<UUID>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    List<UUID> ids = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(UuidV7.next());
+                    }
+                    return ids;
+                }));
+            }
+            Set<UUID> seen = new HashSet<>();
+            Set<Long> orderKeys = new HashSet<>();
+            for (Future<List<UUID>> future : futures) {
+                List<UUID> ids = future.get();
+                for (int i = 1; i < ids.size(); i++) {
+                    assertThat(ids.get(i)).isGreaterThan(ids.get(i - 1));
+                }
+                seen.addAll(ids);
+                ids.forEach(id -> orderKeys.add(id.getMostSignificantBits()));
+            }
+            assertThat(seen).hasSize(threads * perThread);
+            // the timestamp and counter alone are already unique across threads
+            assertThat(orderKeys).hasSize(threads * perThread);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.momentum.sharedkernel.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+class RawJsonTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    record Envelope(String reference, RawJson metadata) {}
+
+    @Test
+    void readsNestedValueAsCompactText() throws Exception {
+        Envelope envelope = objectMapper.readValue(
+                "{\"reference\":\"r-1\",\"metadata\": {\"channel\" : \"api\", \"tags\": [1, 2], \"n\": null}}",
+                Envelope.class);
+
+        assertThat(envelope.metadata().json()).isEqualTo("{\"channel\":\"api\",\"tags\":[1,2],\"n\":null}");
+    }
+
+    @Test
+    void writesTextVerbatimAndRoundTrips() throws Exception {
+        Envelope envelope = new Envelope("r-1", new RawJson("{\"a\":{\"b\":1.50}}"));
+
+        String json = objectMapper.writeValueAsString(envelope);
+
+        assertThat(json).isEqualTo("{\"reference\":\"r-1\",\"metadata\":{\"a\":{\"b\":1.50}}}");
+        assertThat(objectMapper.readValue(json, Envelope.class)).isEqualTo(envelope);
+    }
+
+    @Test
+    void nullAndEmptyValuesAreNotStored() throws Exception {
+        assertThat(objectMapper.readValue("{\"reference\":\"r-1\",\"metadata\":null}", Envelope.class).metadata())
+                .isNull();
+        assertThat(RawJson.toStored(RawJson.EMPTY_OBJECT)).isNull();
+        assertThat(RawJson.toStored(null)).isNull();
+        assertThat(RawJson.orEmptyObject(null)).isEqualTo(RawJson.EMPTY_OBJECT);
+        assertThat(RawJson.of(" ")).isNull();
+    }
+}
@@ -0,0 +1,54 @@
+package com.momentum.sharedkernel.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.momentum.sharedkernel.json.RawJson;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+class MessageCodecTest {
+
+    record Envelope(UUID eventId, UUID transferId, String eventType, long amountMinorUnits, RawJson metadata) {}
+
+    private final Envelope envelope = new Envelope(
+            UUID.randomUUID(),
+            UUID.randomUUID(),
+            "wallet.debit.command",
+            12_500L,
+            new RawJson("{\"channel\":\"api\",\"fee\":1.50,\"tags\":[\"a\",\"b\"]}"));
+
+    @Test
+    void everyCodecRoundTripsAndLabelsItsContentType() {
+        for (MessageCodec codec : MessageCodec.values()) {
+            Message message = codec.newConverter().toMessage(envelope, new MessageProperties());
+
+            assertThat(message.getMessageProperties().getContentType()).isEqualTo(codec.contentType());
+            assertThat(codec.newConverter().fromMessage(message)).isEqualTo(envelope);
+        }
+    }
+
+    @Test
+    void readsWhicheverFormatTheProducerChose() {
+        MessageConverter jsonConsumer = MessageCodec.JSON.newConverter();
+
+        for (MessageCodec producer : MessageCodec.values()) {
+            Message message = producer.newConverter().toMessage(envelope, new MessageProperties());
+            assertThat(jsonConsumer.fromMessage(message)).isEqualTo(envelope);
+        }
+    }
+
+    @Test
+    void binaryFormatsAreSmallerThanJson() {
+        int json = size(MessageCodec.JSON);
+
+        assertThat(size(MessageCodec.SMILE)).isLessThan(json);
+        assertThat(size(MessageCodec.CBOR)).isLessThan(json);
+    }
+
+    private int size(MessageCodec codec) {
+        return codec.newConverter().toMessage(envelope, new MessageProperties()).getBody().length;
+    }
+}
@@ -0,0 +1,34 @@
+package com.momentum.transfer.api;
+
+import com.momentum.transfer.api.dto.ApiError;
+import com.momentum.transfer.domain.IdempotencyConflictException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class RestExceptionHandler {
+
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ApiError> handleIdempotencyConflict(IdempotencyConflictException ex) {
+        return error(HttpStatus.CONFLICT, ex.getMessage(), List.of());
+    }
+
+    /**
+     * No pooled database connection became free within the pool's connection timeout, or the database is down.
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<ApiError> handleConnectionUnavailable(Exception ex) {
+        return error(HttpStatus.SERVICE_UNAVAILABLE, "Database unavailable, retry later", List.of());
+    }
+
+    private static ResponseEntity<ApiError> error(HttpStatus status, String message, List<String> details) {
+        ApiError body = new ApiError(OffsetDateTime.now(), status.value(), message, details);
+        return ResponseEntity.status(status).body(body);
+    }
+}
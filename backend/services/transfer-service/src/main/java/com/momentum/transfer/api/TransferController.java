@@ -1,11 +1,18 @@
 package com.momentum.transfer.api;
 
+import com.momentum.transfer.api.dto.BatchTransferRequest;
+import com.momentum.transfer.api.dto.BatchTransferResponse;
+import com.momentum.transfer.api.dto.BatchTransferStatusResponse;
 import com.momentum.transfer.api.dto.TransferRequest;
 import com.momentum.transfer.api.dto.TransferResponse;
+import com.momentum.transfer.domain.TransferBatchService;
 import com.momentum.transfer.domain.TransferSagaService;
 import jakarta.validation.Valid;
+import java.util.UUID;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -16,9 +23,11 @@ import org.springframework.web.bind.annotation.RestController;
 public class TransferController {
 
     private final TransferSagaService transferSagaService;
+    private final TransferBatchService transferBatchService;
 
-    public TransferController(TransferSagaService transferSagaService) {
+    public TransferController(TransferSagaService transferSagaService, TransferBatchService transferBatchService) {
         this.transferSagaService = transferSagaService;
+        this.transferBatchService = transferBatchService;
     }
 
     @PostMapping
@@ -27,4 +36,14 @@ public class TransferController {
         HttpStatus status = response.status().isTerminal() ? HttpStatus.OK : HttpStatus.ACCEPTED;
         return ResponseEntity.status(status).body(response);
     }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchTransferResponse> initiateBatch(@Valid @RequestBody BatchTransferRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(transferBatchService.initiateBatch(request.transfers()));
+    }
+
+    @GetMapping("/batch/{batchId}")
+    public ResponseEntity<BatchTransferStatusResponse> getBatch(@PathVariable UUID batchId) {
+        return ResponseEntity.of(transferBatchService.getBatch(batchId));
+    }
 }
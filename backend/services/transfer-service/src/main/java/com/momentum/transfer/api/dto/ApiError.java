@@ -0,0 +1,11 @@
+package com.momentum.transfer.api.dto;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public record ApiError(
+        OffsetDateTime timestamp,
+        int status,
+        String message,
+        List<String> details) {
+}
@@ -0,0 +1,24 @@
+package com.momentum.transfer.api.dto;
+
+import com.momentum.transfer.persistence.transfer.TransferStatus;
+import java.util.UUID;
+
+/**
+ * Outcome of one item of a bulk submission, in request order.
+ *
+ * @param transferId the created transfer, or the existing one for duplicates; {@code null} when rejected
+ */
+public record BatchTransferItemResult(
+        int index,
+        String idempotencyKey,
+        Outcome outcome,
+        UUID transferId,
+        TransferStatus status,
+        String error) {
+
+    public enum Outcome {
+        ACCEPTED,
+        DUPLICATE,
+        REJECTED
+    }
+}
@@ -0,0 +1,11 @@
+package com.momentum.transfer.api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Bulk submission. Items are validated one by one so an invalid item is reported in its result instead of failing
+ * the whole batch.
+ */
+public record BatchTransferRequest(@NotEmpty @Size(max = 10_000) List<TransferRequest> transfers) {}
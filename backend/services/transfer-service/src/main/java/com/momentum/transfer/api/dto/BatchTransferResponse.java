@@ -0,0 +1,11 @@
+package com.momentum.transfer.api.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BatchTransferResponse(
+        UUID batchId,
+        int accepted,
+        int duplicates,
+        int rejected,
+        List<BatchTransferItemResult> items) {}
@@ -0,0 +1,20 @@
+package com.momentum.transfer.api.dto;
+
+import com.momentum.transfer.persistence.transfer.TransferStatus;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Progress of a bulk submission.
+ *
+ * @param transfersByStatus current status counts of the transfers the batch created
+ */
+public record BatchTransferStatusResponse(
+        UUID batchId,
+        int itemCount,
+        int accepted,
+        int duplicates,
+        int rejected,
+        Map<TransferStatus, Long> transfersByStatus,
+        OffsetDateTime createdAt) {}
@@ -1,9 +1,9 @@
 package com.momentum.transfer.api.dto;
 
+import com.momentum.sharedkernel.json.RawJson;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
-import java.util.Map;
 import java.util.UUID;
 
 public record TransferRequest(
@@ -13,5 +13,5 @@ public record TransferRequest(
         @NotBlank String currency,
         @NotBlank String reference,
         String description,
-        Map<String, Object> metadata,
+        RawJson metadata,
         @NotBlank String idempotencyKey) {}
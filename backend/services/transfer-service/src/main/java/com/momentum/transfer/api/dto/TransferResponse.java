@@ -1,9 +1,9 @@
 package com.momentum.transfer.api.dto;
 
+import com.momentum.sharedkernel.json.RawJson;
 import com.momentum.transfer.persistence.transfer.TransferFailureStage;
 import com.momentum.transfer.persistence.transfer.TransferStatus;
 import java.time.OffsetDateTime;
-import java.util.Map;
 import java.util.UUID;
 
 public record TransferResponse(
@@ -14,7 +14,7 @@ public record TransferResponse(
         String currency,
         String reference,
         String description,
-        Map<String, Object> metadata,
+        RawJson metadata,
         TransferStatus status,
         TransferFailureStage failureStage,
         String failureReason,
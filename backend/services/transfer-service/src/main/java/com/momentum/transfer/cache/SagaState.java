@@ -0,0 +1,38 @@
+package com.momentum.transfer.cache;
+
+import com.momentum.transfer.persistence.command.TransferCommandEntity;
+import com.momentum.transfer.persistence.command.TransferCommandStatus;
+import com.momentum.transfer.persistence.command.TransferCommandType;
+import com.momentum.transfer.persistence.transfer.TransferEntity;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * A transfer together with all of its commands, as needed to advance the saga by one step.
+ */
+public record SagaState(TransferEntity transfer, List<TransferCommandEntity> commands) {
+
+    public SagaState {
+        commands = new ArrayList<>(commands);
+    }
+
+    public UUID transferId() {
+        return transfer.getId();
+    }
+
+    public Optional<TransferCommandEntity> command(UUID commandId) {
+        return commands.stream().filter(command -> command.getId().equals(commandId)).findFirst();
+    }
+
+    public Optional<TransferCommandEntity> pendingCommand(TransferCommandType type) {
+        return commands.stream()
+                .filter(command -> command.getType() == type && command.getStatus() == TransferCommandStatus.PENDING)
+                .findFirst();
+    }
+
+    public void addCommand(TransferCommandEntity command) {
+        commands.add(command);
+    }
+}
@@ -0,0 +1,51 @@
+package com.momentum.transfer.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.momentum.transfer.config.SagaCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache of detached {@link SagaState}s keyed by transfer id.
+ *
+ * <p>A saga step {@link #take takes} the state out of the cache, so concurrent deliveries for one transfer never share
+ * mutable entities; the step puts it back once its transaction has committed. Sagas that reached a terminal status
+ * are not stored. Cached state may be stale when another instance handled a step, so callers must verify it against
+ * the database when they write.
+ */
+@Component
+public class SagaStateCache {
+
+    private final Cache<UUID, SagaState> cache;
+
+    public SagaStateCache(SagaCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "transfer.saga.states");
+    }
+
+    public Optional<SagaState> take(UUID transferId) {
+        // getIfPresent records the hit or miss; the conditional remove makes this caller the only owner
+        SagaState state = cache.getIfPresent(transferId);
+        return state != null && cache.asMap().remove(transferId, state) ? Optional.of(state) : Optional.empty();
+    }
+
+    public void put(SagaState state) {
+        if (state.transfer().getStatus().isTerminal()) {
+            cache.invalidate(state.transferId());
+        } else {
+            cache.put(state.transferId(), state);
+        }
+    }
+
+    public boolean contains(UUID transferId) {
+        return cache.asMap().containsKey(transferId);
+    }
+}
@@ -0,0 +1,8 @@
+package com.momentum.transfer.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CommandRecoveryProperties.class)
+public class CommandRecoveryConfiguration {}
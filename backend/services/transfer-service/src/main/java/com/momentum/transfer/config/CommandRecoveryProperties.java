@@ -0,0 +1,36 @@
+package com.momentum.transfer.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Re-sending of wallet commands that were sent but never answered.
+ *
+ * @param enabled whether this instance scans for overdue commands; several instances may scan concurrently
+ * @param batchSize overdue commands claimed per recovery transaction
+ * @param pollInterval delay between scans once no overdue command is left
+ * @param maxBatchesPerPoll upper bound on consecutive full batches handled before yielding to the next scan
+ * @param ackTimeout how long a command waits for a wallet result before its first resend; doubled for every resend
+ * @param maxBackoff cap on the doubled wait
+ * @param maxAttempts resends after which the command is abandoned and its transfer parked as {@code OUTCOME_UNKNOWN}
+ *     until a late wallet result or a manual reconciliation settles it
+ */
+@ConfigurationProperties(prefix = "transfer.recovery")
+public record CommandRecoveryProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100") int batchSize,
+        @DefaultValue("5s") Duration pollInterval,
+        @DefaultValue("20") int maxBatchesPerPoll,
+        @DefaultValue("30s") Duration ackTimeout,
+        @DefaultValue("10m") Duration maxBackoff,
+        @DefaultValue("5") int maxAttempts) {
+
+    /**
+     * Wait before a command that has been resent {@code retryCount} times is considered overdue again.
+     */
+    public Duration retryDelay(int retryCount) {
+        Duration delay = ackTimeout.multipliedBy(1L << Math.min(retryCount, 30));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+}
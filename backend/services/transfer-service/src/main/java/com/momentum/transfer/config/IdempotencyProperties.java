@@ -0,0 +1,34 @@
+package com.momentum.transfer.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Idempotency key handling for transfer submissions.
+ *
+ * @param ttl how long a key identifies its transfer request; a reused key with a different request is rejected
+ *     until then
+ * @param filterEnabled skips the idempotency lookup for keys this instance has certainly not seen
+ * @param filterExpectedKeys keys per filter generation (one idempotency TTL) the filter is sized for
+ * @param filterFalsePositiveRate share of unseen keys still looked up once the filter holds the expected keys
+ * @param sweepEnabled whether this instance deletes expired idempotency rows
+ * @param sweepInterval delay between sweeps once no expired row is left
+ * @param sweepBatchSize expired rows deleted per transaction
+ * @param sweepMaxBatches upper bound on consecutive full batches deleted before yielding to the next sweep
+ * @param responseCacheSize recently answered keys whose response snapshot is kept in memory
+ * @param responseCacheTtl how long a cached snapshot is served; bounds how stale a status written by another
+ *     instance can be
+ */
+@ConfigurationProperties(prefix = "transfer.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("1d") Duration ttl,
+        @DefaultValue("true") boolean filterEnabled,
+        @DefaultValue("1000000") int filterExpectedKeys,
+        @DefaultValue("0.01") double filterFalsePositiveRate,
+        @DefaultValue("true") boolean sweepEnabled,
+        @DefaultValue("1m") Duration sweepInterval,
+        @DefaultValue("1000") int sweepBatchSize,
+        @DefaultValue("100") int sweepMaxBatches,
+        @DefaultValue("10000") int responseCacheSize,
+        @DefaultValue("30s") Duration responseCacheTtl) {}
@@ -0,0 +1,24 @@
+package com.momentum.transfer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Consumer sizing for transfer listener containers.
+ *
+ * <p>Consumers run in parallel: every saga step locks its command row and then its transfer row, so duplicate wallet
+ * results for one command are still applied one after the other.
+ *
+ * @param concurrency consumers started per listener
+ * @param maxConcurrency upper bound the container may scale consumers up to under load
+ * @param prefetch unacknowledged messages the broker may push to each consumer
+ * @param batchSize messages acknowledged together
+ * @param virtualThreads run consumers on virtual threads instead of a platform thread per consumer
+ */
+@ConfigurationProperties(prefix = "transfer.messaging.listener")
+public record ListenerProperties(
+        @DefaultValue("4") int concurrency,
+        @DefaultValue("8") int maxConcurrency,
+        @DefaultValue("100") int prefetch,
+        @DefaultValue("1") int batchSize,
+        @DefaultValue("false") boolean virtualThreads) {}
@@ -1,7 +1,14 @@
 package com.momentum.transfer.config;
 
+import com.momentum.sharedkernel.messaging.MessageCodec;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 
+/**
+ * @param walletPartitionHeader header carrying the wallet id that the wallet service partitions commands on;
+ *     {@code null} publishes commands without it
+ * @param codec format of outgoing envelopes; incoming ones are decoded by their content type whatever this is
+ */
 @ConfigurationProperties(prefix = "transfer.messaging")
 public record MessagingProperties(
         String walletCommandExchange,
@@ -13,4 +20,6 @@ public record MessagingProperties(
         String transferEventExchange,
         String transferCompletedRoutingKey,
         String transferFailedRoutingKey,
-        String transferCompensationRoutingKey) {}
+        String transferCompensationRoutingKey,
+        String walletPartitionHeader,
+        @DefaultValue("json") MessageCodec codec) {}
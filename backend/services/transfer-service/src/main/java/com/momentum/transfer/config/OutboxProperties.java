@@ -0,0 +1,44 @@
+package com.momentum.transfer.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Outbox relay tuning.
+ *
+ * @param relayEnabled whether this instance polls the outbox; several instances may relay concurrently
+ * @param batchSize messages claimed and published per relay transaction
+ * @param pollInterval delay between polls once the outbox has been drained
+ * @param maxBatchesPerPoll upper bound on consecutive full batches relayed before yielding to the next poll
+ * @param confirmTimeout how long a batch waits for publisher confirms before the unconfirmed rows are retried
+ * @param maxAttempts publish attempts after which a message is parked instead of retried
+ * @param retryBackoff delay before the second attempt; doubles with every further failed attempt
+ * @param maxRetryBackoff upper bound on the delay between two attempts
+ * @param retention how long published messages are kept before they are deleted
+ * @param purgeInterval delay between deletions of published messages past the retention
+ * @param purgeBatchSize published messages deleted per transaction
+ */
+@ConfigurationProperties(prefix = "transfer.outbox")
+public record OutboxProperties(
+        @DefaultValue("true") boolean relayEnabled,
+        @DefaultValue("100") int batchSize,
+        @DefaultValue("100ms") Duration pollInterval,
+        @DefaultValue("50") int maxBatchesPerPoll,
+        @DefaultValue("5s") Duration confirmTimeout,
+        @DefaultValue("10") int maxAttempts,
+        @DefaultValue("1s") Duration retryBackoff,
+        @DefaultValue("5m") Duration maxRetryBackoff,
+        @DefaultValue("7d") Duration retention,
+        @DefaultValue("10m") Duration purgeInterval,
+        @DefaultValue("1000") int purgeBatchSize) {
+
+    /**
+     * @param attempts failed attempts so far, at least 1
+     */
+    public Duration backoffAfter(int attempts) {
+        int doublings = Math.min(attempts - 1, 30);
+        Duration backoff = retryBackoff.multipliedBy(1L << doublings);
+        return backoff.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : backoff;
+    }
+}
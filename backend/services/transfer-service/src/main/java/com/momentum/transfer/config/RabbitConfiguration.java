@@ -1,32 +1,85 @@
 package com.momentum.transfer.config;
 
+import com.momentum.transfer.messaging.ListenerLagRecorder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Date;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueInformation;
 import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 
 @Configuration
-@EnableConfigurationProperties(MessagingProperties.class)
+@EnableConfigurationProperties({MessagingProperties.class, ListenerProperties.class})
 public class RabbitConfiguration {
 
     @Bean
-    public Jackson2JsonMessageConverter messageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter messageConverter(MessagingProperties properties) {
+        return properties.codec().newConverter();
     }
 
+    /**
+     * Mandatory publishing so the outbox relay sees unroutable messages as returns rather than silent drops.
+     */
     @Bean
-    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, Jackson2JsonMessageConverter converter) {
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, MessageConverter converter) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setMessageConverter(converter);
+        template.setMandatory(true);
+        template.addBeforePublishPostProcessors(RabbitConfiguration::stampTimestamp);
         return template;
     }
 
+    /**
+     * Default container factory, replacing Boot's single-consumer default with the sizing from
+     * {@code transfer.messaging.listener}. Containers publish the {@code spring.rabbitmq.listener} timer per listener
+     * id and record delivery lag per queue.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            ListenerProperties listenerProperties,
+            ListenerLagRecorder lagRecorder) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setConcurrentConsumers(listenerProperties.concurrency());
+        factory.setMaxConcurrentConsumers(
+                Math.max(listenerProperties.concurrency(), listenerProperties.maxConcurrency()));
+        factory.setPrefetchCount(listenerProperties.prefetch());
+        factory.setBatchSize(listenerProperties.batchSize());
+        factory.setAfterReceivePostProcessors(lagRecorder);
+        factory.setMicrometerEnabled(true);
+        if (listenerProperties.virtualThreads()) {
+            factory.setTaskExecutor(new VirtualThreadTaskExecutor("transfer-listener-"));
+        }
+        return factory;
+    }
+
+    /**
+     * Queue depth of the wallet result queue, read with a passive declare on each scrape.
+     */
+    @Bean
+    public MeterBinder transferQueueDepthMetrics(AmqpAdmin amqpAdmin, MessagingProperties properties) {
+        String queue = properties.walletTransactionResultQueue();
+        return registry -> Gauge.builder("transfer.messaging.queue.depth", amqpAdmin, admin -> queueDepth(admin, queue))
+                .tag("queue", queue)
+                .register(registry);
+    }
+
     @Bean
     public TopicExchange walletCommandExchange(MessagingProperties properties) {
         return new TopicExchange(properties.walletCommandExchange(), true, false);
@@ -56,4 +109,20 @@ public class RabbitConfiguration {
                 .to(walletTransactionResultExchange)
                 .with(properties.walletTransactionResultRoutingKey());
     }
+
+    private static double queueDepth(AmqpAdmin admin, String queue) {
+        try {
+            QueueInformation information = admin.getQueueInfo(queue);
+            return information == null ? Double.NaN : information.getMessageCount();
+        } catch (AmqpException ex) {
+            return Double.NaN;
+        }
+    }
+
+    private static Message stampTimestamp(Message message) {
+        if (message.getMessageProperties().getTimestamp() == null) {
+            message.getMessageProperties().setTimestamp(new Date());
+        }
+        return message;
+    }
 }
@@ -0,0 +1,18 @@
+package com.momentum.transfer.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * In-process cache of in-flight saga state, consulted when a wallet result arrives.
+ *
+ * @param enabled skips the transfer and command reads for sagas this instance has seen last
+ * @param maximumSize sagas kept; least recently used ones fall back to a database read
+ * @param ttl time to live, dropping sagas whose results are handled by another instance or never arrive
+ */
+@ConfigurationProperties(prefix = "transfer.saga.cache")
+public record SagaCacheProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10000") long maximumSize,
+        @DefaultValue("5m") Duration ttl) {}
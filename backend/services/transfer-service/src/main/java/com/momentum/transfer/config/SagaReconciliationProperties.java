@@ -0,0 +1,33 @@
+package com.momentum.transfer.config;
+
+import java.net.URI;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Periodic comparison of finished transfer sagas with the ledger legs the wallet service posted for them.
+ *
+ * @param enabled whether this instance runs reconciliation windows; instances that overlap skip their turn
+ * @param walletServiceUrl base URL of the wallet service the ledger legs are streamed from
+ * @param interval delay between runs
+ * @param settleDelay age a transfer must reach before it is reconciled, so in-flight sagas are not reported
+ * @param maxWindow upper bound on the span of transfer creation times covered by one run
+ * @param fetchSize transfer rows fetched per database round trip
+ * @param batchSize discrepancies buffered before they are written
+ * @param staleRunTimeout age after which an unfinished run is considered abandoned and cleared
+ * @param connectTimeout connect timeout towards the wallet service
+ * @param readTimeout longest pause tolerated between chunks of the ledger leg stream
+ */
+@ConfigurationProperties(prefix = "transfer.reconciliation")
+public record SagaReconciliationProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("http://localhost:8080") URI walletServiceUrl,
+        @DefaultValue("1h") Duration interval,
+        @DefaultValue("1h") Duration settleDelay,
+        @DefaultValue("1d") Duration maxWindow,
+        @DefaultValue("1000") int fetchSize,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("6h") Duration staleRunTimeout,
+        @DefaultValue("5s") Duration connectTimeout,
+        @DefaultValue("5m") Duration readTimeout) {}
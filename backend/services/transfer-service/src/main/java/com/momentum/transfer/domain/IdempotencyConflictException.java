@@ -0,0 +1,13 @@
+package com.momentum.transfer.domain;
+
+import com.momentum.sharedkernel.error.DomainException;
+
+/**
+ * An idempotency key was reused for a request that differs from the one it was first used for.
+ */
+public class IdempotencyConflictException extends DomainException {
+
+    public IdempotencyConflictException(String idempotencyKey) {
+        super("Idempotency key %s was already used for a different request".formatted(idempotencyKey));
+    }
+}
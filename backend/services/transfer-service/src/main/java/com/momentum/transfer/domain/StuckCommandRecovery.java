@@ -0,0 +1,106 @@
+package com.momentum.transfer.domain;
+
+import com.momentum.transfer.config.CommandRecoveryProperties;
+import com.momentum.transfer.messaging.WalletCommandPublisher;
+import com.momentum.transfer.persistence.command.TransferCommandEntity;
+import com.momentum.transfer.persistence.repository.TransferCommandRepository;
+import com.momentum.transfer.persistence.repository.TransferRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Re-drives wallet commands that were sent but never answered, so a lost command or result cannot leave a saga
+ * waiting forever.
+ *
+ * <p>Each batch of overdue commands is claimed with {@code FOR UPDATE SKIP LOCKED}, so instances share the work
+ * and a command is resent by one of them only. A resend stages the command in the outbox again under the same
+ * command id, which the wallet service applies at most once, and pushes the next attempt out by a doubling delay.
+ * Once {@code maxAttempts} resends went unanswered the command is abandoned: since the wallet may still have applied
+ * it, the saga is parked with an unknown outcome rather than failed or compensated.
+ */
+@Component
+@ConditionalOnProperty(prefix = "transfer.recovery", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StuckCommandRecovery {
+
+    private static final Logger log = LoggerFactory.getLogger(StuckCommandRecovery.class);
+
+    private final TransferCommandRepository transferCommandRepository;
+    private final TransferRepository transferRepository;
+    private final WalletCommandPublisher walletCommandPublisher;
+    private final TransferSagaService transferSagaService;
+    private final TransactionTemplate transactionTemplate;
+    private final CommandRecoveryProperties properties;
+    private final Counter resentCounter;
+    private final Counter abandonedCounter;
+
+    public StuckCommandRecovery(
+            TransferCommandRepository transferCommandRepository,
+            TransferRepository transferRepository,
+            WalletCommandPublisher walletCommandPublisher,
+            TransferSagaService transferSagaService,
+            PlatformTransactionManager transactionManager,
+            CommandRecoveryProperties properties,
+            MeterRegistry meterRegistry) {
+        this.transferCommandRepository = transferCommandRepository;
+        this.transferRepository = transferRepository;
+        this.walletCommandPublisher = walletCommandPublisher;
+        this.transferSagaService = transferSagaService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.resentCounter = Counter.builder("transfer.commands.resent")
+                .description("Wallet commands resent after their result was overdue")
+                .register(meterRegistry);
+        this.abandonedCounter = Counter.builder("transfer.commands.abandoned")
+                .description("Wallet commands given up on after the last resend went unanswered")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${transfer.recovery.poll-interval:5s}",
+            initialDelayString = "${transfer.recovery.poll-interval:5s}")
+    public void recoverOverdue() {
+        for (int batch = 0; batch < properties.maxBatchesPerPoll(); batch++) {
+            Integer claimed = transactionTemplate.execute(status -> recoverBatch());
+            if (claimed == null || claimed < properties.batchSize()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return number of overdue commands claimed in this batch
+     */
+    int recoverBatch() {
+        List<TransferCommandEntity> overdue =
+                transferCommandRepository.lockOverdue(OffsetDateTime.now(), properties.batchSize());
+        if (overdue.isEmpty()) {
+            return 0;
+        }
+        // one query for the transfers the resent envelopes are built from
+        transferRepository.findAllById(overdue.stream().map(command -> command.getTransfer().getId()).toList());
+
+        for (TransferCommandEntity command : overdue) {
+            if (command.getRetryCount() < properties.maxAttempts()) {
+                command.markRetried();
+                walletCommandPublisher.publish(command);
+                resentCounter.increment();
+            } else {
+                String reason = "No wallet result after %d resends".formatted(command.getRetryCount());
+                log.warn("Abandoning {} command {} of transfer {}: {}",
+                        command.getType(), command.getId(), command.getTransfer().getId(), reason);
+                transferSagaService.abandonCommand(command, reason);
+                abandonedCounter.increment();
+            }
+        }
+        return overdue.size();
+    }
+}
@@ -0,0 +1,237 @@
+package com.momentum.transfer.domain;
+
+import com.momentum.sharedkernel.id.UuidV7;
+import com.momentum.transfer.api.dto.BatchTransferItemResult;
+import com.momentum.transfer.api.dto.BatchTransferItemResult.Outcome;
+import com.momentum.transfer.api.dto.BatchTransferResponse;
+import com.momentum.transfer.api.dto.BatchTransferStatusResponse;
+import com.momentum.transfer.api.dto.TransferRequest;
+import com.momentum.transfer.idempotency.IdempotencyKeyFilter;
+import com.momentum.transfer.idempotency.TransferRequestHasher;
+import com.momentum.transfer.messaging.WalletCommandPublisher;
+import com.momentum.transfer.persistence.batch.TransferBatchEntity;
+import com.momentum.transfer.persistence.command.TransferCommandEntity;
+import com.momentum.transfer.persistence.command.TransferCommandType;
+import com.momentum.transfer.persistence.idempotency.TransferIdempotencyEntity;
+import com.momentum.transfer.persistence.repository.TransferBatchRepository;
+import com.momentum.transfer.persistence.repository.TransferBulkRepository;
+import com.momentum.transfer.persistence.repository.TransferBulkRepository.ExistingTransfer;
+import com.momentum.transfer.persistence.repository.TransferRepository;
+import com.momentum.transfer.persistence.transfer.TransferEntity;
+import com.momentum.transfer.persistence.transfer.TransferStatus;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Starts the sagas of a bulk submission in one transaction.
+ *
+ * <p>Items are validated individually, idempotency keys are resolved with one lookup, and the transfers, commands,
+ * idempotency rows and outbox messages of all accepted items are written with JDBC batch inserts. Each item gets the
+ * same idempotency semantics as {@link TransferSagaService#initiateTransfer}: a known key returns the existing
+ * transfer, and a known key with a different request is rejected.
+ *
+ * <p>The transaction spans the whole submission, at most 10,000 items per request, so a batch lands whole or not at
+ * all. Problems with a single item reject that item instead of rolling back the others.
+ */
+@Service
+public class TransferBatchService {
+
+    private final TransferSagaService transferSagaService;
+    private final TransferBulkRepository bulkRepository;
+    private final TransferBatchRepository batchRepository;
+    private final TransferRepository transferRepository;
+    private final WalletCommandPublisher walletCommandPublisher;
+    private final IdempotencyKeyFilter idempotencyKeyFilter;
+    private final TransferRequestHasher requestHasher;
+    private final Validator validator;
+
+    public TransferBatchService(
+            TransferSagaService transferSagaService,
+            TransferBulkRepository bulkRepository,
+            TransferBatchRepository batchRepository,
+            TransferRepository transferRepository,
+            WalletCommandPublisher walletCommandPublisher,
+            IdempotencyKeyFilter idempotencyKeyFilter,
+            TransferRequestHasher requestHasher,
+            Validator validator) {
+        this.transferSagaService = transferSagaService;
+        this.bulkRepository = bulkRepository;
+        this.batchRepository = batchRepository;
+        this.transferRepository = transferRepository;
+        this.walletCommandPublisher = walletCommandPublisher;
+        this.idempotencyKeyFilter = idempotencyKeyFilter;
+        this.requestHasher = requestHasher;
+        this.validator = validator;
+    }
+
+    @Transactional
+    public BatchTransferResponse initiateBatch(List<TransferRequest> requests) {
+        TransferBatchEntity batch = batchRepository.saveAndFlush(new TransferBatchEntity(UuidV7.next(), requests.size()));
+        BatchTransferItemResult[] results = new BatchTransferItemResult[requests.size()];
+        String[] hashes = new String[requests.size()];
+
+        // validate and collapse repeated keys onto their first occurrence
+        Map<String, Integer> firstIndexByKey = new LinkedHashMap<>();
+        List<Integer> repeats = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            TransferRequest request = requests.get(i);
+            String violations = request == null ? "must not be null" : describe(validator.validate(request));
+            if (violations != null) {
+                results[i] = rejected(i, request, violations);
+                continue;
+            }
+            hashes[i] = requestHasher.hash(request);
+            if (firstIndexByKey.putIfAbsent(request.idempotencyKey(), i) != null) {
+                repeats.add(i);
+            }
+        }
+
+        // keys the filter has certainly not seen are left to the conflict check after the insert
+        List<String> maybeSeen = firstIndexByKey.keySet().stream().filter(idempotencyKeyFilter::mightContain).toList();
+        Map<String, ExistingTransfer> existing =
+                maybeSeen.isEmpty() ? Map.of() : bulkRepository.findByIdempotencyKeys(maybeSeen);
+        List<TransferEntity> candidates = new ArrayList<>();
+        Map<UUID, Integer> indexByTransfer = new HashMap<>();
+        for (int i : firstIndexByKey.values()) {
+            TransferRequest request = requests.get(i);
+            ExistingTransfer known = existing.get(request.idempotencyKey());
+            if (known != null) {
+                results[i] = resolveKnown(i, request, hashes[i], known);
+                continue;
+            }
+            TransferEntity transfer = transferSagaService.newTransfer(request);
+            transfer.setStatus(TransferStatus.DEBIT_IN_PROGRESS);
+            transfer.setBatchId(batch.getId());
+            candidates.add(transfer);
+            indexByTransfer.put(transfer.getId(), i);
+        }
+
+        OffsetDateTime now = OffsetDateTime.now();
+        bulkRepository.insertTransfers(candidates, now);
+        // concurrent submissions may have claimed some keys between the lookup and the insert
+        Map<String, ExistingTransfer> owners = bulkRepository.findByIdempotencyKeys(
+                candidates.stream().map(TransferEntity::getIdempotencyKey).toList());
+        List<TransferEntity> accepted = new ArrayList<>(candidates.size());
+        for (TransferEntity transfer : candidates) {
+            int i = indexByTransfer.get(transfer.getId());
+            ExistingTransfer owner = owners.get(transfer.getIdempotencyKey());
+            if (owner == null) {
+                // the insert only skips rows whose key is taken, so the owner vanished between insert and lookup
+                results[i] = rejected(i, requests.get(i), "Idempotency key is held by a transfer that could not be "
+                        + "read back; resubmit the item");
+            } else if (owner.transferId().equals(transfer.getId())) {
+                accepted.add(transfer);
+                results[i] = item(i, requests.get(i), Outcome.ACCEPTED, transfer.getId(), transfer.getStatus(), null);
+            } else {
+                results[i] = resolveKnown(i, requests.get(i), hashes[i], owner);
+            }
+        }
+        stageSagas(accepted, hashes, indexByTransfer, now);
+        firstIndexByKey.keySet().forEach(idempotencyKeyFilter::add);
+
+        for (int i : repeats) {
+            TransferRequest request = requests.get(i);
+            int first = firstIndexByKey.get(request.idempotencyKey());
+            BatchTransferItemResult original = results[first];
+            if (!hashes[first].equals(hashes[i])) {
+                results[i] = rejected(i, request, "Idempotency key already used for a different request");
+            } else if (original.transferId() == null) {
+                results[i] = rejected(i, request, original.error());
+            } else {
+                results[i] = item(i, request, Outcome.DUPLICATE, original.transferId(), original.status(), null);
+            }
+        }
+
+        Map<Outcome, Long> counts = Arrays.stream(results)
+                .collect(Collectors.groupingBy(BatchTransferItemResult::outcome, Collectors.counting()));
+        int acceptedCount = counts.getOrDefault(Outcome.ACCEPTED, 0L).intValue();
+        int duplicateCount = counts.getOrDefault(Outcome.DUPLICATE, 0L).intValue();
+        int rejectedCount = counts.getOrDefault(Outcome.REJECTED, 0L).intValue();
+        batch.recordOutcome(acceptedCount, duplicateCount, rejectedCount);
+        return new BatchTransferResponse(batch.getId(), acceptedCount, duplicateCount, rejectedCount, List.of(results));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<BatchTransferStatusResponse> getBatch(UUID batchId) {
+        return batchRepository.findById(batchId).map(batch -> {
+            Map<TransferStatus, Long> byStatus = new EnumMap<>(TransferStatus.class);
+            transferRepository.countByBatchIdGroupByStatus(batchId)
+                    .forEach(count -> byStatus.put(count.getStatus(), count.getCount()));
+            return new BatchTransferStatusResponse(
+                    batch.getId(),
+                    batch.getItemCount(),
+                    batch.getAcceptedCount(),
+                    batch.getDuplicateCount(),
+                    batch.getRejectedCount(),
+                    byStatus,
+                    batch.getCreatedAt());
+        });
+    }
+
+    private void stageSagas(
+            List<TransferEntity> transfers, String[] hashes, Map<UUID, Integer> indexByTransfer, OffsetDateTime now) {
+        if (transfers.isEmpty()) {
+            return;
+        }
+        List<TransferCommandEntity> commands = new ArrayList<>(transfers.size() * 2);
+        List<TransferCommandEntity> debits = new ArrayList<>(transfers.size());
+        List<TransferIdempotencyEntity> idempotency = new ArrayList<>(transfers.size());
+        OffsetDateTime expiresAt = transferSagaService.idempotencyExpiry(now);
+        for (TransferEntity transfer : transfers) {
+            TransferCommandEntity debit = new TransferCommandEntity(
+                    UuidV7.next(), transfer, TransferCommandType.DEBIT, transfer.getSourceWalletId(), transfer.getAmountMinorUnits());
+            commands.add(debit);
+            commands.add(new TransferCommandEntity(
+                    UuidV7.next(), transfer, TransferCommandType.CREDIT, transfer.getDestinationWalletId(), transfer.getAmountMinorUnits()));
+            debits.add(debit);
+            idempotency.add(new TransferIdempotencyEntity(
+                    transfer.getIdempotencyKey(), transfer, hashes[indexByTransfer.get(transfer.getId())], expiresAt));
+        }
+        // staging the debits marks them sent, so they are inserted with their dispatch state
+        walletCommandPublisher.publishAll(debits);
+        bulkRepository.insertCommands(commands, now);
+        bulkRepository.insertIdempotency(idempotency, now);
+    }
+
+    private static BatchTransferItemResult resolveKnown(
+            int index, TransferRequest request, String requestHash, ExistingTransfer known) {
+        if (known.requestHash() != null && !known.requestHash().equals(requestHash)) {
+            return rejected(index, request, "Idempotency key already used for a different request");
+        }
+        return item(index, request, Outcome.DUPLICATE, known.transferId(), known.status(), null);
+    }
+
+    private static BatchTransferItemResult rejected(int index, TransferRequest request, String error) {
+        return item(index, request, Outcome.REJECTED, null, null, error);
+    }
+
+    private static BatchTransferItemResult item(
+            int index, TransferRequest request, Outcome outcome, UUID transferId, TransferStatus status, String error) {
+        String key = request == null ? null : request.idempotencyKey();
+        return new BatchTransferItemResult(index, key, outcome, transferId, status, error);
+    }
+
+    private static String describe(Set<ConstraintViolation<TransferRequest>> violations) {
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+}
@@ -1,10 +1,17 @@
 package com.momentum.transfer.domain;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.momentum.sharedkernel.id.UuidV7;
+import com.momentum.sharedkernel.json.RawJson;
 import com.momentum.transfer.api.dto.TransferRequest;
 import com.momentum.transfer.api.dto.TransferResponse;
+import com.momentum.transfer.cache.SagaState;
+import com.momentum.transfer.cache.SagaStateCache;
+import com.momentum.transfer.config.IdempotencyProperties;
+import com.momentum.transfer.config.SagaCacheProperties;
+import com.momentum.transfer.idempotency.IdempotencyKeyFilter;
+import com.momentum.transfer.idempotency.ResponseSnapshotStore;
+import com.momentum.transfer.idempotency.ResponseSnapshotStore.StoredResponse;
+import com.momentum.transfer.idempotency.TransferRequestHasher;
 import com.momentum.transfer.messaging.TransferEventPublisher;
 import com.momentum.transfer.messaging.WalletCommandPublisher;
 import com.momentum.transfer.messaging.payload.WalletTransactionResultMessage;
@@ -12,20 +19,26 @@ import com.momentum.transfer.persistence.command.TransferCommandEntity;
 import com.momentum.transfer.persistence.command.TransferCommandStatus;
 import com.momentum.transfer.persistence.command.TransferCommandType;
 import com.momentum.transfer.persistence.idempotency.TransferIdempotencyEntity;
+import com.momentum.transfer.persistence.repository.TransferBulkRepository;
 import com.momentum.transfer.persistence.repository.TransferCommandRepository;
 import com.momentum.transfer.persistence.repository.TransferIdempotencyRepository;
 import com.momentum.transfer.persistence.repository.TransferRepository;
 import com.momentum.transfer.persistence.transfer.TransferEntity;
 import com.momentum.transfer.persistence.transfer.TransferFailureStage;
 import com.momentum.transfer.persistence.transfer.TransferStatus;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class TransferSagaService {
@@ -33,134 +46,329 @@ public class TransferSagaService {
     private final TransferRepository transferRepository;
     private final TransferCommandRepository transferCommandRepository;
     private final TransferIdempotencyRepository idempotencyRepository;
+    private final TransferBulkRepository bulkRepository;
     private final WalletCommandPublisher walletCommandPublisher;
     private final TransferEventPublisher transferEventPublisher;
-    private final ObjectMapper objectMapper;
+    private final TransferRequestHasher requestHasher;
+    private final SagaStateCache sagaStateCache;
+    private final SagaCacheProperties sagaCacheProperties;
+    private final IdempotencyKeyFilter idempotencyKeyFilter;
+    private final IdempotencyProperties idempotencyProperties;
+    private final ResponseSnapshotStore responseSnapshots;
+    private final TransactionTemplate transactionTemplate;
 
     public TransferSagaService(
             TransferRepository transferRepository,
             TransferCommandRepository transferCommandRepository,
             TransferIdempotencyRepository idempotencyRepository,
+            TransferBulkRepository bulkRepository,
             WalletCommandPublisher walletCommandPublisher,
             TransferEventPublisher transferEventPublisher,
-            ObjectMapper objectMapper) {
+            TransferRequestHasher requestHasher,
+            SagaStateCache sagaStateCache,
+            SagaCacheProperties sagaCacheProperties,
+            IdempotencyKeyFilter idempotencyKeyFilter,
+            IdempotencyProperties idempotencyProperties,
+            ResponseSnapshotStore responseSnapshots,
+            PlatformTransactionManager transactionManager) {
         this.transferRepository = transferRepository;
         this.transferCommandRepository = transferCommandRepository;
         this.idempotencyRepository = idempotencyRepository;
+        this.bulkRepository = bulkRepository;
         this.walletCommandPublisher = walletCommandPublisher;
         this.transferEventPublisher = transferEventPublisher;
-        this.objectMapper = objectMapper;
+        this.requestHasher = requestHasher;
+        this.sagaStateCache = sagaStateCache;
+        this.sagaCacheProperties = sagaCacheProperties;
+        this.idempotencyKeyFilter = idempotencyKeyFilter;
+        this.idempotencyProperties = idempotencyProperties;
+        this.responseSnapshots = responseSnapshots;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    @Transactional
+    /**
+     * Starts a transfer saga, or returns the transfer an earlier request with the same idempotency key started.
+     *
+     * <p>A key the {@link IdempotencyKeyFilter} has certainly not seen goes straight to the insert. If the key turns
+     * out to be taken after all, by a concurrent request or one older than the filter remembers, the unique key on
+     * {@code transfers} fails that transaction and the request is resolved against the existing transfer instead.
+     * Existing keys are answered from the response snapshot stored with the key, without reading the saga tables;
+     * a different request under the same key is rejected with an {@link IdempotencyConflictException}.
+     */
     public TransferResponse initiateTransfer(TransferRequest request) {
-        Optional<TransferEntity> existing = transferRepository.findByIdempotencyKey(request.idempotencyKey());
-        if (existing.isPresent()) {
-            return toResponse(existing.get());
+        String requestHash = requestHasher.hash(request);
+        if (!idempotencyKeyFilter.mightContain(request.idempotencyKey())) {
+            try {
+                return transactionTemplate.execute(status -> startTransfer(request, requestHash));
+            } catch (DataIntegrityViolationException ex) {
+                if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                    // the caller's transaction is already marked for rollback
+                    throw ex;
+                }
+            }
         }
+        return transactionTemplate.execute(status -> findExisting(request, requestHash)
+                .orElseGet(() -> startTransfer(request, requestHash)));
+    }
 
-        TransferEntity transfer = new TransferEntity(
-                UUID.randomUUID(),
-                request.sourceWalletId(),
-                request.destinationWalletId(),
-                request.amountMinorUnits(),
-                request.currency(),
-                request.reference(),
-                request.description(),
-                serializeMetadata(request.metadata()),
-                UUID.randomUUID(),
-                request.idempotencyKey());
+    private Optional<TransferResponse> findExisting(TransferRequest request, String requestHash) {
+        String key = request.idempotencyKey();
+        Optional<StoredResponse> stored = responseSnapshots.find(key);
+        if (stored.isPresent()) {
+            idempotencyKeyFilter.add(key);
+            if (!stored.get().requestHash().equals(requestHash)) {
+                throw new IdempotencyConflictException(key);
+            }
+            if (stored.get().response() != null) {
+                return Optional.of(stored.get().response());
+            }
+            // written by a bulk submission, which leaves the snapshot to the first transition
+            TransferResponse response = toResponse(transferRepository.findById(stored.get().transferId()).orElseThrow());
+            responseSnapshots.backfill(key, requestHash, response);
+            return Optional.of(response);
+        }
+        // the idempotency row was swept, but the key stays unique on the transfer
+        return bulkRepository.findByIdempotencyKey(key).map(existing -> {
+            idempotencyKeyFilter.add(key);
+            return toResponse(transferRepository.findById(existing.transferId()).orElseThrow());
+        });
+    }
 
+    private TransferResponse startTransfer(TransferRequest request, String requestHash) {
+        TransferEntity transfer = newTransfer(request);
         transfer.setStatus(TransferStatus.DEBIT_IN_PROGRESS);
         TransferEntity persisted = transferRepository.save(transfer);
+        TransferResponse response = toResponse(persisted);
 
         TransferIdempotencyEntity idempotency = new TransferIdempotencyEntity(
-                request.idempotencyKey(), persisted, hashRequest(request), OffsetDateTime.now().plusDays(1));
+                request.idempotencyKey(),
+                persisted,
+                requestHash,
+                responseSnapshots.serialize(response),
+                idempotencyExpiry(OffsetDateTime.now()));
         idempotencyRepository.save(idempotency);
 
         TransferCommandEntity debitCommand = transferCommandRepository.save(new TransferCommandEntity(
-                UUID.randomUUID(), persisted, TransferCommandType.DEBIT, persisted.getSourceWalletId(), persisted.getAmountMinorUnits()));
+                UuidV7.next(), persisted, TransferCommandType.DEBIT, persisted.getSourceWalletId(), persisted.getAmountMinorUnits()));
 
-        transferCommandRepository.save(new TransferCommandEntity(
-                UUID.randomUUID(), persisted, TransferCommandType.CREDIT, persisted.getDestinationWalletId(), persisted.getAmountMinorUnits()));
+        TransferCommandEntity creditCommand = transferCommandRepository.save(new TransferCommandEntity(
+                UuidV7.next(), persisted, TransferCommandType.CREDIT, persisted.getDestinationWalletId(), persisted.getAmountMinorUnits()));
 
         walletCommandPublisher.publish(debitCommand);
-        return toResponse(persisted);
+        idempotencyKeyFilter.add(request.idempotencyKey());
+        responseSnapshots.remember(request.idempotencyKey(), requestHash, response);
+        cacheAfterCommit(new SagaState(persisted, List.of(debitCommand, creditCommand)));
+        return response;
+    }
+
+    OffsetDateTime idempotencyExpiry(OffsetDateTime now) {
+        return now.plus(idempotencyProperties.ttl());
     }
 
+    /**
+     * Advances the saga by one wallet result.
+     *
+     * <p>With the saga cache enabled, state cached by an earlier step on this instance is updated without reading it
+     * back: the command and transfer rows are written with guarded updates that only apply if the rows still have
+     * the status the cache holds. A stale command falls back to the database path before anything is written; a
+     * stale transfer rolls the step back so the result is redelivered. Otherwise the command the result is for and
+     * then its transfer are locked, and the saga is loaded with one join-fetch query.
+     *
+     * <p>A result for a command that is already acknowledged or failed is a duplicate, from a redelivery or from a
+     * command the recovery resent, and is dropped. A result for an unanswered command settles its parked saga.
+     */
     @Transactional
     public void handleWalletResult(WalletTransactionResultMessage message) {
-        TransferEntity transfer = transferRepository
-                .findById(message.payload().transferId())
-                .orElseThrow(() -> new IllegalStateException("Transfer %s not found".formatted(message.payload().transferId())));
+        UUID transferId = message.payload().transferId();
+        if (sagaCacheProperties.enabled()) {
+            Optional<SagaState> cached = sagaStateCache.take(transferId);
+            if (cached.isPresent()) {
+                TransferStatus before = cached.get().transfer().getStatus();
+                if (applyToCachedState(cached.get(), message)) {
+                    snapshotIfChanged(cached.get().transfer(), before);
+                    cacheAfterCommit(cached.get());
+                    return;
+                }
+            }
+        }
 
-        TransferCommandEntity command = transferCommandRepository
-                .findById(message.payload().commandId())
-                .orElseThrow(() -> new IllegalStateException("Command %s not found".formatted(message.payload().commandId())));
+        SagaState state = lockState(transferId, message.payload().commandId());
+        TransferCommandEntity command = state.command(message.payload().commandId()).orElseThrow();
+        if (!command.getStatus().isTerminal()) {
+            TransferStatus before = state.transfer().getStatus();
+            recordOutcome(command, message);
+            advance(state, command, message);
+            snapshotIfChanged(state.transfer(), before);
+        }
+        cacheAfterCommit(state);
+    }
 
+    private boolean applyToCachedState(SagaState state, WalletTransactionResultMessage message) {
+        Optional<TransferCommandEntity> cachedCommand = state.command(message.payload().commandId());
+        if (cachedCommand.isEmpty()) {
+            return false;
+        }
+        TransferCommandEntity command = cachedCommand.get();
+        if (command.getStatus().isTerminal()) {
+            return true;
+        }
+        Map<UUID, TransferCommandStatus> commandStatuses = state.commands().stream()
+                .collect(Collectors.toMap(TransferCommandEntity::getId, TransferCommandEntity::getStatus));
+        TransferStatus transferStatus = state.transfer().getStatus();
+
+        recordOutcome(command, message);
+        if (!transferCommandRepository.writeOutcome(command, commandStatuses.get(command.getId()))) {
+            return false;
+        }
+        advance(state, command, message);
+        // the next command of the saga has been dispatched; a new reversal is persisted and has no entry here
+        for (TransferCommandEntity other : state.commands()) {
+            TransferCommandStatus before = commandStatuses.get(other.getId());
+            if (other != command && before != null && other.getStatus() != before
+                    && !transferCommandRepository.writeOutcome(other, before)) {
+                throw new IllegalStateException("Command %s changed concurrently".formatted(other.getId()));
+            }
+        }
+        if (state.transfer().getStatus() != transferStatus
+                && !transferRepository.writeState(state.transfer(), transferStatus)) {
+            throw new IllegalStateException("Transfer %s changed concurrently".formatted(state.transferId()));
+        }
+        return true;
+    }
+
+    /**
+     * Gives up resending a command the wallet service has not answered after every resend. The wallet may have
+     * applied it or not, so the saga can neither fail nor compensate: the command is marked unanswered and the
+     * transfer parked as {@link TransferStatus#OUTCOME_UNKNOWN}. A late result for the command still settles the
+     * saga; otherwise it is left to reconciliation. The caller holds the command row lock.
+     */
+    @Transactional
+    public void abandonCommand(TransferCommandEntity command, String reason) {
+        if (sagaCacheProperties.enabled()) {
+            sagaStateCache.take(command.getTransfer().getId());
+        }
+        SagaState state = lockState(command.getTransfer().getId(), command.getId());
+        if (command.getStatus() != TransferCommandStatus.SENT) {
+            return;
+        }
+        TransferStatus before = state.transfer().getStatus();
+        command.markUnanswered(reason);
+        state.transfer().markOutcomeUnknown(failureStage(command.getType()), reason);
+        snapshotIfChanged(state.transfer(), before);
+        cacheAfterCommit(state);
+    }
+
+    /**
+     * Loads the saga after locking the command being acted on and then its transfer, so that steps for one transfer,
+     * including the recovery abandoning its command, run one after another.
+     */
+    private SagaState lockState(UUID transferId, UUID commandId) {
+        transferCommandRepository.findByIdForUpdate(commandId)
+                .orElseThrow(() -> new IllegalStateException("Command %s not found".formatted(commandId)));
+        transferRepository.findByIdForUpdate(transferId)
+                .orElseThrow(() -> new IllegalStateException("Transfer %s not found".formatted(transferId)));
+        return loadState(transferId);
+    }
+
+    private SagaState loadState(UUID transferId) {
+        List<TransferCommandEntity> commands = transferCommandRepository.findAllWithTransfer(transferId);
+        if (commands.isEmpty()) {
+            throw new IllegalStateException("Transfer %s not found".formatted(transferId));
+        }
+        return new SagaState(commands.get(0).getTransfer(), commands);
+    }
+
+    private void recordOutcome(TransferCommandEntity command, WalletTransactionResultMessage message) {
         if (message.payload().status() == WalletTransactionResultMessage.Status.SUCCEEDED) {
             command.markAcknowledged(message.occurredAt());
-            transferCommandRepository.save(command);
+        } else {
+            command.markFailed(message.payload().failureReason());
+        }
+    }
+
+    /**
+     * Moves the transfer on from an acknowledged or failed command. Only mutates the entities and stages outbox
+     * messages; persisting the transfer is left to the caller.
+     */
+    private void advance(SagaState state, TransferCommandEntity command, WalletTransactionResultMessage message) {
+        TransferEntity transfer = state.transfer();
+        if (message.payload().status() == WalletTransactionResultMessage.Status.SUCCEEDED) {
             if (command.getType() == TransferCommandType.DEBIT) {
-                sendCreditCommand(transfer);
+                transfer.markCreditInProgress();
+                state.pendingCommand(TransferCommandType.CREDIT).ifPresent(walletCommandPublisher::publish);
             } else if (command.getType() == TransferCommandType.CREDIT) {
-                markCompleted(transfer, message.occurredAt());
+                transfer.markCompleted(message.occurredAt());
+                transferEventPublisher.publishCompleted(transfer);
             } else if (command.getType() == TransferCommandType.REVERSAL) {
-                finalizeCompensation(transfer);
+                transfer.markFailureCompensated(creditFailureReason(state));
+                transferEventPublisher.publishFailed(transfer, transfer.getFailureReason());
             }
         } else {
-            command.markFailed(message.payload().failureReason());
-            transferCommandRepository.save(command);
-            markFailed(transfer, command.getType(), message.payload().failureReason());
+            markFailed(state, command.getType(), message.payload().failureReason());
         }
     }
 
-    private void sendCreditCommand(TransferEntity transfer) {
-        transfer.setStatus(TransferStatus.CREDIT_IN_PROGRESS);
-        transferRepository.save(transfer);
-        transferCommandRepository.findByTransfer_IdAndType(transfer.getId(), TransferCommandType.CREDIT).stream()
-                .filter(command -> command.getStatus() == TransferCommandStatus.PENDING)
-                .findFirst()
-                .ifPresent(walletCommandPublisher::publish);
-    }
-
-    private void markCompleted(TransferEntity transfer, OffsetDateTime completedAt) {
-        transfer.markCompleted(completedAt);
-        transferRepository.save(transfer);
-        transferEventPublisher.publishCompleted(transfer);
-    }
-
-    private void markFailed(TransferEntity transfer, TransferCommandType stage, String reason) {
+    private void markFailed(SagaState state, TransferCommandType stage, String reason) {
+        TransferEntity transfer = state.transfer();
         if (stage == TransferCommandType.CREDIT) {
             transfer.markCompensationPending(reason);
-            transferRepository.save(transfer);
-            issueCompensationCommand(transfer, reason);
+            issueCompensationCommand(state);
             transferEventPublisher.publishCompensation(transfer, reason);
             return;
         }
 
-        TransferFailureStage failureStage =
-                stage == TransferCommandType.DEBIT ? TransferFailureStage.DEBIT : TransferFailureStage.REVERSAL;
-
-        transfer.markFailure(failureStage, reason);
-        transferRepository.save(transfer);
+        transfer.markFailure(failureStage(stage), reason);
         transferEventPublisher.publishFailed(transfer, reason);
     }
 
-    private void issueCompensationCommand(TransferEntity transfer, String reason) {
+    private static TransferFailureStage failureStage(TransferCommandType type) {
+        return switch (type) {
+            case DEBIT -> TransferFailureStage.DEBIT;
+            case CREDIT -> TransferFailureStage.CREDIT;
+            case REVERSAL -> TransferFailureStage.REVERSAL;
+        };
+    }
+
+    /**
+     * Why the credit failed; the transfer's own reason is replaced while an unanswered reversal parks the saga.
+     */
+    private static String creditFailureReason(SagaState state) {
+        return state.commands().stream()
+                .filter(command -> command.getType() == TransferCommandType.CREDIT
+                        && command.getStatus() == TransferCommandStatus.FAILED)
+                .map(TransferCommandEntity::getLastError)
+                .findFirst()
+                .orElse(state.transfer().getFailureReason());
+    }
+
+    private void issueCompensationCommand(SagaState state) {
+        TransferEntity transfer = state.transfer();
         TransferCommandEntity reversal = transferCommandRepository.save(new TransferCommandEntity(
-                UUID.randomUUID(),
+                UuidV7.next(),
                 transfer,
                 TransferCommandType.REVERSAL,
                 transfer.getSourceWalletId(),
                 transfer.getAmountMinorUnits()));
+        state.addCommand(reversal);
         walletCommandPublisher.publish(reversal);
     }
 
-    private void finalizeCompensation(TransferEntity transfer) {
-        transfer.markFailureCompensated(transfer.getFailureReason());
-        transferRepository.save(transfer);
-        transferEventPublisher.publishFailed(transfer, transfer.getFailureReason());
+    private void snapshotIfChanged(TransferEntity transfer, TransferStatus before) {
+        if (transfer.getStatus() != before) {
+            responseSnapshots.update(transfer.getIdempotencyKey(), toResponse(transfer));
+        }
+    }
+
+    private void cacheAfterCommit(SagaState state) {
+        if (!sagaCacheProperties.enabled()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                sagaStateCache.put(state);
+            }
+        });
     }
 
     private TransferResponse toResponse(TransferEntity transfer) {
@@ -172,7 +380,7 @@ public class TransferSagaService {
                 transfer.getCurrency(),
                 transfer.getReference(),
                 transfer.getDescription(),
-                deserializeMetadata(transfer.getMetadata()),
+                RawJson.orEmptyObject(transfer.getMetadata()),
                 transfer.getStatus(),
                 transfer.getFailureStage(),
                 transfer.getFailureReason(),
@@ -181,40 +389,17 @@ public class TransferSagaService {
                 transfer.getCompletedAt());
     }
 
-    private String serializeMetadata(Map<String, Object> metadata) {
-        if (metadata == null || metadata.isEmpty()) {
-            return null;
-        }
-        try {
-            return objectMapper.writeValueAsString(metadata);
-        } catch (JsonProcessingException e) {
-            throw new IllegalArgumentException("Unable to serialize metadata", e);
-        }
-    }
-
-    private Map<String, Object> deserializeMetadata(String metadataJson) {
-        if (metadataJson == null || metadataJson.isBlank()) {
-            return Map.of();
-        }
-        try {
-            return objectMapper.readValue(metadataJson, new TypeReference<>() {});
-        } catch (JsonProcessingException e) {
-            throw new IllegalStateException("Unable to deserialize metadata", e);
-        }
-    }
-
-    private String hashRequest(TransferRequest request) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] bytes = objectMapper.writeValueAsBytes(request);
-            byte[] hash = digest.digest(bytes);
-            StringBuilder builder = new StringBuilder();
-            for (byte b : hash) {
-                builder.append(String.format("%02x", b));
-            }
-            return builder.toString();
-        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
-            throw new IllegalStateException("Unable to hash transfer request", e);
-        }
+    TransferEntity newTransfer(TransferRequest request) {
+        return new TransferEntity(
+                UuidV7.next(),
+                request.sourceWalletId(),
+                request.destinationWalletId(),
+                request.amountMinorUnits(),
+                request.currency(),
+                request.reference(),
+                request.description(),
+                RawJson.toStored(request.metadata()),
+                UuidV7.next(),
+                request.idempotencyKey());
     }
 }
@@ -0,0 +1,129 @@
+package com.momentum.transfer.idempotency;
+
+import com.momentum.transfer.config.IdempotencyProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Probabilistic record of the idempotency keys this instance has seen, so submissions with a fresh key can skip
+ * the idempotency lookup.
+ *
+ * <p>Keys are added to the current of two Bloom filter generations. Each generation spans one idempotency TTL; when
+ * it is over the current generation becomes the previous one and the oldest is dropped, so a key is remembered for
+ * at least one TTL and memory stays bounded by two generations. A negative answer can still be wrong for keys used
+ * before that window, on another instance or before the filter was seeded at startup; callers rely on the unique
+ * idempotency key of {@code transfers} to catch those.
+ */
+@Component
+public class IdempotencyKeyFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyKeyFilter.class);
+
+    private final IdempotencyProperties properties;
+    private final Duration window;
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter skippedCounter;
+    private final Counter checkedCounter;
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+    private volatile long rotateAtNanos;
+    private volatile boolean seeded;
+
+    public IdempotencyKeyFilter(IdempotencyProperties properties, JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.window = properties.ttl();
+        this.jdbcTemplate = jdbcTemplate;
+        this.current = newGeneration();
+        this.previous = newGeneration();
+        this.rotateAtNanos = System.nanoTime() + window.toNanos();
+        this.skippedCounter = Counter.builder("transfer.idempotency.filter")
+                .tag("result", "skipped")
+                .description("Submissions whose idempotency lookup was skipped because the key is certainly new")
+                .register(meterRegistry);
+        this.checkedCounter = Counter.builder("transfer.idempotency.filter")
+                .tag("result", "checked")
+                .description("Submissions whose key may have been seen and was looked up")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return {@code false} only if this instance has not seen {@code key} within the last idempotency TTL
+     */
+    public boolean mightContain(String key) {
+        if (!properties.filterEnabled() || !seeded) {
+            return true;
+        }
+        rotateIfDue();
+        boolean seen = current.mightContain(key) || previous.mightContain(key);
+        (seen ? checkedCounter : skippedCounter).increment();
+        return seen;
+    }
+
+    public void add(String key) {
+        if (properties.filterEnabled()) {
+            rotateIfDue();
+            current.add(key);
+        }
+    }
+
+    /**
+     * Loads the keys of unexpired idempotency rows. Until this has run every key is reported as possibly seen.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (!properties.filterEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        int[] loaded = {0};
+        jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                            "SELECT idempotency_key FROM transfer_idempotency WHERE expires_at IS NULL OR expires_at > ?");
+                    statement.setObject(1, OffsetDateTime.now());
+                    statement.setFetchSize(10_000);
+                    return statement;
+                },
+                rs -> {
+                    current.add(rs.getString(1));
+                    loaded[0]++;
+                });
+        seeded = true;
+        log.info("Seeded idempotency key filter with {} keys in {} ms",
+                loaded[0], Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    /**
+     * Starts a new generation now, forgetting the keys of the previous one.
+     */
+    public synchronized void rotate() {
+        previous = current;
+        current = newGeneration();
+        rotateAtNanos = System.nanoTime() + window.toNanos();
+    }
+
+    private void rotateIfDue() {
+        long now = System.nanoTime();
+        if (now - rotateAtNanos >= 0) {
+            synchronized (this) {
+                if (now - rotateAtNanos >= 0) {
+                    rotate();
+                }
+            }
+        }
+    }
+
+    private BloomFilter newGeneration() {
+        return new BloomFilter(properties.filterExpectedKeys(), properties.filterFalsePositiveRate());
+    }
+}
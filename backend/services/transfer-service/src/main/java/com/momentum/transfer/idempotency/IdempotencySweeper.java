@@ -0,0 +1,66 @@
+package com.momentum.transfer.idempotency;
+
+import com.momentum.transfer.config.IdempotencyProperties;
+import com.momentum.transfer.persistence.repository.TransferIdempotencyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Deletes expired idempotency rows in short transactions of {@code sweepBatchSize} rows, oldest expiry first, so
+ * the table and its index stay proportional to one TTL of traffic.
+ *
+ * <p>Each batch deletes one contiguous slice of the expiry index and holds its row locks only briefly. Instances may
+ * sweep concurrently; a row deleted by another instance is simply not deleted twice.
+ */
+@Component
+@ConditionalOnProperty(prefix = "transfer.idempotency", name = "sweep-enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencySweeper {
+
+    private final TransferIdempotencyRepository idempotencyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final IdempotencyProperties properties;
+    private final Counter sweptCounter;
+
+    public IdempotencySweeper(
+            TransferIdempotencyRepository idempotencyRepository,
+            PlatformTransactionManager transactionManager,
+            IdempotencyProperties properties,
+            MeterRegistry meterRegistry) {
+        this.idempotencyRepository = idempotencyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.sweptCounter = Counter.builder("transfer.idempotency.swept")
+                .description("Expired idempotency rows deleted")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${transfer.idempotency.sweep-interval:1m}",
+            initialDelayString = "${transfer.idempotency.sweep-interval:1m}")
+    public void sweepExpired() {
+        for (int batch = 0; batch < properties.sweepMaxBatches(); batch++) {
+            Integer selected = transactionTemplate.execute(status -> sweepBatch(OffsetDateTime.now()));
+            if (selected == null || selected < properties.sweepBatchSize()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return number of expired keys selected in this batch
+     */
+    int sweepBatch(OffsetDateTime now) {
+        List<String> keys = idempotencyRepository.findExpiredKeys(now, properties.sweepBatchSize());
+        if (!keys.isEmpty()) {
+            sweptCounter.increment(idempotencyRepository.deleteExpired(keys, now));
+        }
+        return keys.size();
+    }
+}
@@ -0,0 +1,131 @@
+package com.momentum.transfer.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.momentum.transfer.api.dto.TransferResponse;
+import com.momentum.transfer.config.IdempotencyProperties;
+import com.momentum.transfer.persistence.repository.TransferIdempotencyRepository;
+import com.momentum.transfer.persistence.repository.TransferIdempotencyRepository.IdempotencyRecord;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Responses already given for an idempotency key, so a repeated request is answered without reading the saga tables.
+ *
+ * <p>The snapshot lives in {@code transfer_idempotency.response_snapshot} and is rewritten whenever the saga moves the
+ * transfer on. Recently answered keys are also held in a bounded LRU; entries are refreshed after commit by
+ * transitions on this instance and expire after {@link IdempotencyProperties#responseCacheTtl()} to pick up those
+ * made elsewhere.
+ */
+@Component
+public class ResponseSnapshotStore {
+
+    private final TransferIdempotencyRepository idempotencyRepository;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, StoredResponse> cache;
+
+    public ResponseSnapshotStore(
+            TransferIdempotencyRepository idempotencyRepository,
+            ObjectMapper objectMapper,
+            IdempotencyProperties properties,
+            MeterRegistry meterRegistry) {
+        this.idempotencyRepository = idempotencyRepository;
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.responseCacheSize())
+                .expireAfterWrite(properties.responseCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "transfer.idempotency.responses");
+    }
+
+    /**
+     * @return the stored request hash and response for {@code idempotencyKey}, empty if it has no idempotency row
+     */
+    public Optional<StoredResponse> find(String idempotencyKey) {
+        StoredResponse cached = cache.getIfPresent(idempotencyKey);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return idempotencyRepository.findRecord(idempotencyKey).map(record -> {
+            StoredResponse stored = toStoredResponse(record);
+            if (stored.response() != null) {
+                cache.put(idempotencyKey, stored);
+            }
+            return stored;
+        });
+    }
+
+    /**
+     * Keeps the response of a newly started transfer once its transaction commits; the row itself is written with
+     * the snapshot from {@link #serialize}.
+     */
+    public void remember(String idempotencyKey, String requestHash, TransferResponse response) {
+        afterCommit(() -> cache.put(idempotencyKey, new StoredResponse(response.transferId(), requestHash, response)));
+    }
+
+    /**
+     * Replaces the snapshot after a status transition.
+     */
+    public void update(String idempotencyKey, TransferResponse response) {
+        idempotencyRepository.updateSnapshot(response.transferId(), serialize(response), OffsetDateTime.now());
+        afterCommit(() -> cache.asMap().computeIfPresent(idempotencyKey,
+                (key, stored) -> new StoredResponse(stored.transferId(), stored.requestHash(), response)));
+    }
+
+    /**
+     * Stores a snapshot for a row written without one. A transition that committed in the meantime wins, since its
+     * snapshot is newer than the state {@code response} was built from.
+     */
+    public void backfill(String idempotencyKey, String requestHash, TransferResponse response) {
+        if (idempotencyRepository.fillSnapshot(response.transferId(), serialize(response), OffsetDateTime.now()) > 0) {
+            remember(idempotencyKey, requestHash, response);
+        }
+    }
+
+    public String serialize(TransferResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize transfer response", e);
+        }
+    }
+
+    private StoredResponse toStoredResponse(IdempotencyRecord record) {
+        TransferResponse response = null;
+        if (record.getResponseSnapshot() != null) {
+            try {
+                response = objectMapper.readValue(record.getResponseSnapshot(), TransferResponse.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Unreadable response snapshot for " + record.getTransferId(), e);
+            }
+        }
+        return new StoredResponse(record.getTransferId(), record.getRequestHash(), response);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * @param response the last response given for the key; {@code null} if the row has no snapshot yet
+     */
+    public record StoredResponse(UUID transferId, String requestHash, TransferResponse response) {}
+}
@@ -0,0 +1,37 @@
+package com.momentum.transfer.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.momentum.transfer.api.dto.TransferRequest;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import org.springframework.stereotype.Component;
+
+/**
+ * SHA-256 of a transfer request's JSON form, stored with its idempotency key so a reused key with a different request
+ * can be told apart from a retry.
+ */
+@Component
+public class TransferRequestHasher {
+
+    private final ObjectMapper objectMapper;
+
+    public TransferRequestHasher(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public String hash(TransferRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = objectMapper.writeValueAsBytes(request);
+            byte[] hash = digest.digest(bytes);
+            StringBuilder builder = new StringBuilder();
+            for (byte b : hash) {
+                builder.append(String.format("%02x", b));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Unable to hash transfer request", e);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.momentum.transfer.messaging;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.momentum.transfer.config.OutboxProperties;
+import com.momentum.transfer.persistence.outbox.OutboxMessageEntity;
+import com.momentum.transfer.persistence.repository.OutboxMessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.MessagePropertiesBuilder;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Publishes outbox rows to RabbitMQ in batches.
+ *
+ * <p>Each batch is claimed with {@code FOR UPDATE SKIP LOCKED}, published back to back, and then the relay waits for
+ * the publisher confirms of the whole batch before marking the confirmed rows as sent in the same transaction.
+ * Unconfirmed rows stay pending and are retried after an exponential backoff, so delivery is at-least-once; consumers
+ * deduplicate on the message id, which is the outbox row id. A row still failing after {@code maxAttempts} is parked
+ * for manual inspection, so a poisoned message cannot hold up the rest of the outbox. Published rows are deleted once
+ * past the retention period.
+ */
+@Component
+@ConditionalOnProperty(prefix = "transfer.outbox", name = "relay-enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final TypeReference<Map<String, String>> HEADERS_TYPE = new TypeReference<>() {};
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Counter parkedCounter;
+    private final Counter purgedCounter;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer lagTimer;
+
+    public OutboxRelay(
+            OutboxMessageRepository outboxMessageRepository,
+            RabbitTemplate rabbitTemplate,
+            PlatformTransactionManager transactionManager,
+            OutboxProperties properties,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.publishedCounter = Counter.builder("transfer.outbox.published")
+                .description("Outbox messages confirmed by the broker")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("transfer.outbox.failed")
+                .description("Outbox publish attempts that were nacked, timed out or errored")
+                .register(meterRegistry);
+        this.parkedCounter = Counter.builder("transfer.outbox.parked")
+                .description("Outbox messages parked after running out of publish attempts")
+                .register(meterRegistry);
+        this.purgedCounter = Counter.builder("transfer.outbox.purged")
+                .description("Published outbox messages deleted after the retention period")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("transfer.outbox.batch.size")
+                .description("Messages claimed per relay batch")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("transfer.outbox.lag")
+                .description("Time from outbox write to broker confirm")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${transfer.outbox.poll-interval:100ms}")
+    public void relayPending() {
+        for (int batch = 0; batch < properties.maxBatchesPerPoll(); batch++) {
+            Integer claimed = transactionTemplate.execute(status -> relayBatch());
+            if (claimed == null || claimed < properties.batchSize()) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${transfer.outbox.purge-interval:10m}",
+            initialDelayString = "${transfer.outbox.purge-interval:10m}")
+    public void purgePublished() {
+        for (int batch = 0; batch < properties.maxBatchesPerPoll(); batch++) {
+            Integer selected = transactionTemplate.execute(
+                    status -> purgeBatch(OffsetDateTime.now().minus(properties.retention())));
+            if (selected == null || selected < properties.purgeBatchSize()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return number of messages claimed in this batch, whether or not they were confirmed
+     */
+    int relayBatch() {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<OutboxMessageEntity> batch = outboxMessageRepository.lockNextBatch(now, properties.batchSize());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        batchSizeSummary.record(batch.size());
+
+        List<CorrelationData> confirms = new ArrayList<>(batch.size());
+        for (OutboxMessageEntity message : batch) {
+            CorrelationData correlation = new CorrelationData(message.getId().toString());
+            try {
+                rabbitTemplate.send(message.getExchange(), message.getRoutingKey(), toAmqpMessage(message), correlation);
+            } catch (AmqpException ex) {
+                log.warn("Outbox relay could not publish {}: {}", message.getId(), ex.getMessage());
+                break;
+            }
+            confirms.add(correlation);
+        }
+
+        long deadline = System.nanoTime() + properties.confirmTimeout().toNanos();
+        OffsetDateTime confirmedAt = OffsetDateTime.now();
+        int published = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxMessageEntity message = batch.get(i);
+            String error = i < confirms.size() ? awaitConfirm(confirms.get(i), deadline) : "Not sent";
+            if (error == null) {
+                message.markPublished(confirmedAt);
+                lagTimer.record(Duration.between(message.getCreatedAt(), confirmedAt));
+                published++;
+            } else {
+                failedCounter.increment();
+                if (message.getAttempts() + 1 >= properties.maxAttempts()) {
+                    log.error("Parking outbox message {} after {} attempts: {}",
+                            message.getId(), message.getAttempts() + 1, error);
+                    message.park(error, confirmedAt);
+                    parkedCounter.increment();
+                } else {
+                    message.markAttemptFailed(
+                            error, confirmedAt.plus(properties.backoffAfter(message.getAttempts() + 1)));
+                }
+            }
+        }
+        publishedCounter.increment(published);
+        return batch.size();
+    }
+
+    /**
+     * @return number of published messages past the retention selected in this batch
+     */
+    int purgeBatch(OffsetDateTime cutoff) {
+        List<UUID> ids = outboxMessageRepository.findPublishedBefore(cutoff, Limit.of(properties.purgeBatchSize()));
+        if (!ids.isEmpty()) {
+            purgedCounter.increment(outboxMessageRepository.deletePublishedBefore(ids, cutoff));
+        }
+        return ids.size();
+    }
+
+    private String awaitConfirm(CorrelationData correlation, long deadlineNanos) {
+        try {
+            CorrelationData.Confirm confirm =
+                    correlation.getFuture().get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (!confirm.isAck()) {
+                return "Nacked: " + confirm.getReason();
+            }
+            return correlation.getReturned() == null ? null : "Returned: " + correlation.getReturned().getReplyText();
+        } catch (TimeoutException ex) {
+            return "Publisher confirm timed out";
+        } catch (ExecutionException ex) {
+            return ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return "Interrupted while awaiting publisher confirm";
+        }
+    }
+
+    private Message toAmqpMessage(OutboxMessageEntity message) {
+        MessageProperties properties = MessagePropertiesBuilder.newInstance()
+                .setContentType(message.getContentType())
+                .setMessageId(message.getId().toString())
+                .setTimestamp(Date.from(message.getCreatedAt().toInstant()))
+                .build();
+        readHeaders(message).forEach(properties::setHeader);
+        return new Message(message.getPayload(), properties);
+    }
+
+    private Map<String, String> readHeaders(OutboxMessageEntity message) {
+        if (message.getHeaders() == null) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(message.getHeaders(), HEADERS_TYPE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to parse headers of outbox message " + message.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.momentum.transfer.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.momentum.transfer.persistence.outbox.OutboxMessageEntity;
+import com.momentum.transfer.persistence.repository.OutboxMessageRepository;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Stages outgoing messages in the outbox as part of the caller's transaction; {@link OutboxRelay} publishes them
+ * once that transaction has committed.
+ */
+@Component
+public class OutboxWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO outbox_messages (id, exchange, routing_key, content_type, payload, headers, attempts,
+                                         created_at)
+            VALUES (:id, :exchange, :routingKey, :contentType, :payload, :headers, 0, :createdAt)
+            """;
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final MessageConverter messageConverter;
+    private final ObjectMapper objectMapper;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public OutboxWriter(
+            OutboxMessageRepository outboxMessageRepository,
+            MessageConverter messageConverter,
+            ObjectMapper objectMapper,
+            NamedParameterJdbcTemplate jdbcTemplate) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.messageConverter = messageConverter;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(UUID messageId, String exchange, String routingKey, Object payload) {
+        append(messageId, exchange, routingKey, payload, Map.of());
+    }
+
+    /**
+     * @param headers AMQP headers the relay sets on the published message
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(UUID messageId, String exchange, String routingKey, Object payload, Map<String, String> headers) {
+        Message message = messageConverter.toMessage(payload, new MessageProperties());
+        outboxMessageRepository.save(new OutboxMessageEntity(
+                messageId,
+                exchange,
+                routingKey,
+                message.getMessageProperties().getContentType(),
+                message.getBody(),
+                serializeHeaders(headers)));
+    }
+
+    /**
+     * Stages many messages with one JDBC batch insert instead of one JPA insert each.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(List<OutboxEntry> entries) {
+        OffsetDateTime now = OffsetDateTime.now();
+        SqlParameterSource[] batch = entries.stream()
+                .map(entry -> {
+                    Message message = messageConverter.toMessage(entry.payload(), new MessageProperties());
+                    return new MapSqlParameterSource()
+                            .addValue("id", entry.messageId())
+                            .addValue("exchange", entry.exchange())
+                            .addValue("routingKey", entry.routingKey())
+                            .addValue("contentType", message.getMessageProperties().getContentType())
+                            .addValue("payload", message.getBody())
+                            .addValue("headers", serializeHeaders(entry.headers()))
+                            .addValue("createdAt", now);
+                })
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+    }
+
+    private String serializeHeaders(Map<String, String> headers) {
+        if (headers.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(headers);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize outbox headers", e);
+        }
+    }
+
+    public record OutboxEntry(
+            UUID messageId, String exchange, String routingKey, Object payload, Map<String, String> headers) {}
+}
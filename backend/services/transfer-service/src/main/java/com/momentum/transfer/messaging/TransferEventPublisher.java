@@ -1,15 +1,12 @@
 package com.momentum.transfer.messaging;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.momentum.sharedkernel.id.UuidV7;
+import com.momentum.sharedkernel.json.RawJson;
 import com.momentum.transfer.config.MessagingProperties;
 import com.momentum.transfer.persistence.transfer.TransferEntity;
 import com.momentum.transfer.persistence.transfer.TransferFailureStage;
-import java.io.IOException;
 import java.time.OffsetDateTime;
-import java.util.Map;
 import java.util.UUID;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -17,15 +14,13 @@ public class TransferEventPublisher {
 
     private static final String PAYLOAD_VERSION = "1.0.0";
 
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxWriter outboxWriter;
     private final MessagingProperties properties;
-    private final ObjectMapper objectMapper;
 
     public TransferEventPublisher(
-            RabbitTemplate rabbitTemplate, MessagingProperties properties, ObjectMapper objectMapper) {
-        this.rabbitTemplate = rabbitTemplate;
+            OutboxWriter outboxWriter, MessagingProperties properties) {
+        this.outboxWriter = outboxWriter;
         this.properties = properties;
-        this.objectMapper = objectMapper;
     }
 
     public void publishCompleted(TransferEntity transfer) {
@@ -37,11 +32,11 @@ public class TransferEventPublisher {
                 transfer.getCurrency(),
                 transfer.getReference(),
                 transfer.getDescription(),
-                deserializeMetadata(transfer.getMetadata()),
+                RawJson.orEmptyObject(transfer.getMetadata()),
                 transfer.getCompletedAt() != null ? transfer.getCompletedAt() : OffsetDateTime.now());
 
         Envelope<CompletedPayload> message = new Envelope<>(
-                UUID.randomUUID(),
+                UuidV7.next(),
                 OffsetDateTime.now(),
                 transfer.getCorrelationId(),
                 transfer.getId(),
@@ -49,7 +44,11 @@ public class TransferEventPublisher {
                 PAYLOAD_VERSION,
                 payload);
 
-        rabbitTemplate.convertAndSend(properties.transferEventExchange(), properties.transferCompletedRoutingKey(), message);
+        outboxWriter.append(
+                message.messageId(),
+                properties.transferEventExchange(),
+                properties.transferCompletedRoutingKey(),
+                message);
     }
 
     public void publishFailed(TransferEntity transfer, String failureReason) {
@@ -61,13 +60,13 @@ public class TransferEventPublisher {
                 transfer.getCurrency(),
                 transfer.getReference(),
                 transfer.getDescription(),
-                deserializeMetadata(transfer.getMetadata()),
+                RawJson.orEmptyObject(transfer.getMetadata()),
                 transfer.getFailureStage() != null ? transfer.getFailureStage() : TransferFailureStage.UNKNOWN,
                 failureReason,
                 OffsetDateTime.now());
 
         Envelope<FailedPayload> message = new Envelope<>(
-                UUID.randomUUID(),
+                UuidV7.next(),
                 OffsetDateTime.now(),
                 transfer.getCorrelationId(),
                 transfer.getId(),
@@ -75,7 +74,11 @@ public class TransferEventPublisher {
                 PAYLOAD_VERSION,
                 payload);
 
-        rabbitTemplate.convertAndSend(properties.transferEventExchange(), properties.transferFailedRoutingKey(), message);
+        outboxWriter.append(
+                message.messageId(),
+                properties.transferEventExchange(),
+                properties.transferFailedRoutingKey(),
+                message);
     }
 
     public void publishCompensation(TransferEntity transfer, String reason) {
@@ -86,12 +89,12 @@ public class TransferEventPublisher {
                 transfer.getAmountMinorUnits(),
                 transfer.getCurrency(),
                 transfer.getReference(),
-                deserializeMetadata(transfer.getMetadata()),
+                RawJson.orEmptyObject(transfer.getMetadata()),
                 reason,
                 OffsetDateTime.now());
 
         Envelope<CompensationPayload> message = new Envelope<>(
-                UUID.randomUUID(),
+                UuidV7.next(),
                 OffsetDateTime.now(),
                 transfer.getCorrelationId(),
                 transfer.getId(),
@@ -99,19 +102,11 @@ public class TransferEventPublisher {
                 PAYLOAD_VERSION,
                 payload);
 
-        rabbitTemplate.convertAndSend(
-                properties.transferEventExchange(), properties.transferCompensationRoutingKey(), message);
-    }
-
-    private Map<String, Object> deserializeMetadata(String metadataJson) {
-        if (metadataJson == null || metadataJson.isBlank()) {
-            return Map.of();
-        }
-        try {
-            return objectMapper.readValue(metadataJson, new TypeReference<>() {});
-        } catch (IOException e) {
-            throw new IllegalStateException("Failed to parse metadata JSON", e);
-        }
+        outboxWriter.append(
+                message.messageId(),
+                properties.transferEventExchange(),
+                properties.transferCompensationRoutingKey(),
+                message);
     }
 
     private record Envelope<T>(
@@ -131,7 +126,7 @@ public class TransferEventPublisher {
             String currency,
             String reference,
             String description,
-            Map<String, Object> metadata,
+            RawJson metadata,
             OffsetDateTime completedAt) {}
 
     private record FailedPayload(
@@ -142,7 +137,7 @@ public class TransferEventPublisher {
             String currency,
             String reference,
             String description,
-            Map<String, Object> metadata,
+            RawJson metadata,
             TransferFailureStage failureStage,
             String failureReason,
             OffsetDateTime failedAt) {}
@@ -154,7 +149,7 @@ public class TransferEventPublisher {
             long amountMinorUnits,
             String currency,
             String reference,
-            Map<String, Object> metadata,
+            RawJson metadata,
             String reason,
             OffsetDateTime requestedAt) {}
 }
@@ -1,16 +1,16 @@
 package com.momentum.transfer.messaging;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.momentum.sharedkernel.id.UuidV7;
+import com.momentum.sharedkernel.json.RawJson;
+import com.momentum.transfer.config.CommandRecoveryProperties;
 import com.momentum.transfer.config.MessagingProperties;
 import com.momentum.transfer.persistence.command.TransferCommandEntity;
 import com.momentum.transfer.persistence.command.TransferCommandType;
 import com.momentum.transfer.persistence.transfer.TransferEntity;
-import java.io.IOException;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -18,18 +18,36 @@ public class WalletCommandPublisher {
 
     private static final String PAYLOAD_VERSION = "1.0.0";
 
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxWriter outboxWriter;
     private final MessagingProperties properties;
-    private final ObjectMapper objectMapper;
+    private final CommandRecoveryProperties recoveryProperties;
 
     public WalletCommandPublisher(
-            RabbitTemplate rabbitTemplate, MessagingProperties properties, ObjectMapper objectMapper) {
-        this.rabbitTemplate = rabbitTemplate;
+            OutboxWriter outboxWriter, MessagingProperties properties, CommandRecoveryProperties recoveryProperties) {
+        this.outboxWriter = outboxWriter;
         this.properties = properties;
-        this.objectMapper = objectMapper;
+        this.recoveryProperties = recoveryProperties;
     }
 
+    /**
+     * Stages the command in the outbox and marks it sent, due for a resend if no result arrives within the retry
+     * delay for its attempt.
+     */
     public void publish(TransferCommandEntity command) {
+        OutboxWriter.OutboxEntry entry = toOutboxEntry(command, OffsetDateTime.now());
+        outboxWriter.append(entry.messageId(), entry.exchange(), entry.routingKey(), entry.payload(), entry.headers());
+    }
+
+    /**
+     * Stages the commands of a bulk submission with a single batched outbox insert.
+     */
+    public void publishAll(List<TransferCommandEntity> commands) {
+        OffsetDateTime now = OffsetDateTime.now();
+        outboxWriter.appendAll(commands.stream().map(command -> toOutboxEntry(command, now)).toList());
+    }
+
+    private OutboxWriter.OutboxEntry toOutboxEntry(TransferCommandEntity command, OffsetDateTime now) {
+        command.markSent(now, now.plus(recoveryProperties.retryDelay(command.getRetryCount())));
         TransferEntity transfer = command.getTransfer();
         WalletCommandPayload payload = new WalletCommandPayload(
                 command.getId(),
@@ -39,11 +57,11 @@ public class WalletCommandPublisher {
                 transfer.getCurrency(),
                 transfer.getReference(),
                 transfer.getDescription(),
-                deserializeMetadata(transfer.getMetadata()));
+                RawJson.orEmptyObject(transfer.getMetadata()));
 
         WalletCommandMessage message = new WalletCommandMessage(
-                UUID.randomUUID(),
-                OffsetDateTime.now(),
+                UuidV7.next(),
+                now,
                 transfer.getCorrelationId(),
                 command.getId(),
                 messageType(command.getType()),
@@ -53,24 +71,17 @@ public class WalletCommandPublisher {
         String routingKey = command.getType() == TransferCommandType.DEBIT
                 ? properties.walletDebitRoutingKey()
                 : properties.walletCreditRoutingKey();
-        rabbitTemplate.convertAndSend(properties.walletCommandExchange(), routingKey, message);
+        Map<String, String> headers = properties.walletPartitionHeader() == null
+                ? Map.of()
+                : Map.of(properties.walletPartitionHeader(), command.getWalletId().toString());
+        return new OutboxWriter.OutboxEntry(
+                message.messageId(), properties.walletCommandExchange(), routingKey, message, headers);
     }
 
     private String messageType(TransferCommandType type) {
         return type == TransferCommandType.DEBIT ? "wallet.debit.command" : "wallet.credit.command";
     }
 
-    private Map<String, Object> deserializeMetadata(String metadataJson) {
-        if (metadataJson == null || metadataJson.isBlank()) {
-            return Map.of();
-        }
-        try {
-            return objectMapper.readValue(metadataJson, new TypeReference<>() {});
-        } catch (IOException e) {
-            throw new IllegalStateException("Failed to parse metadata JSON", e);
-        }
-    }
-
     private record WalletCommandMessage(
             UUID messageId,
             OffsetDateTime occurredAt,
@@ -88,5 +99,5 @@ public class WalletCommandPublisher {
             String currency,
             String reference,
             String description,
-            Map<String, Object> metadata) {}
+            RawJson metadata) {}
 }
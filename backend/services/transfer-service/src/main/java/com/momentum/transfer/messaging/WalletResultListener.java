@@ -13,7 +13,7 @@ public class WalletResultListener {
         this.transferSagaService = transferSagaService;
     }
 
-    @RabbitListener(queues = "${transfer.messaging.wallet-transaction-result-queue}")
+    @RabbitListener(id = "wallet-results", queues = "${transfer.messaging.wallet-transaction-result-queue}")
     public void onWalletResult(WalletTransactionResultMessage message) {
         transferSagaService.handleWalletResult(message);
     }
@@ -0,0 +1,96 @@
+package com.momentum.transfer.persistence.batch;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.UUID;
+import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * One bulk submission and how its items were triaged when it was accepted.
+ */
+@Entity
+@Table(name = "transfer_batches")
+public class TransferBatchEntity implements Persistable<UUID> {
+
+    @Id
+    @Column(name = "batch_id", nullable = false, updatable = false)
+    private UUID id;
+
+    @Column(name = "item_count", nullable = false, updatable = false)
+    private int itemCount;
+
+    @Column(name = "accepted_count", nullable = false)
+    private int acceptedCount;
+
+    @Column(name = "duplicate_count", nullable = false)
+    private int duplicateCount;
+
+    @Column(name = "rejected_count", nullable = false)
+    private int rejectedCount;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected TransferBatchEntity() {
+        // JPA
+    }
+
+    public TransferBatchEntity(UUID id, int itemCount) {
+        this.id = Objects.requireNonNull(id, "id");
+        this.itemCount = itemCount;
+    }
+
+    @Override
+    public UUID getId() {
+        return id;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public int getAcceptedCount() {
+        return acceptedCount;
+    }
+
+    public int getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    public int getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void recordOutcome(int acceptedCount, int duplicateCount, int rejectedCount) {
+        this.acceptedCount = acceptedCount;
+        this.duplicateCount = duplicateCount;
+        this.rejectedCount = rejectedCount;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -9,16 +9,20 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import java.time.OffsetDateTime;
 import java.util.Objects;
 import java.util.UUID;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.springframework.data.domain.Persistable;
 
 @Entity
 @Table(name = "transfer_commands")
-public class TransferCommandEntity {
+public class TransferCommandEntity implements Persistable<UUID> {
 
     @Id
     @Column(name = "command_id", nullable = false, updatable = false)
@@ -51,6 +55,9 @@ public class TransferCommandEntity {
     @Column(name = "sent_at")
     private OffsetDateTime sentAt;
 
+    @Column(name = "next_attempt_at")
+    private OffsetDateTime nextAttemptAt;
+
     @Column(name = "acknowledged_at")
     private OffsetDateTime acknowledgedAt;
 
@@ -62,6 +69,9 @@ public class TransferCommandEntity {
     @Column(name = "updated_at", nullable = false)
     private OffsetDateTime updatedAt;
 
+    @Transient
+    private boolean isNew = true;
+
     protected TransferCommandEntity() {
         // JPA
     }
@@ -82,6 +92,7 @@ public class TransferCommandEntity {
         this.amountMinorUnits = amountMinorUnits;
     }
 
+    @Override
     public UUID getId() {
         return id;
     }
@@ -118,6 +129,10 @@ public class TransferCommandEntity {
         return sentAt;
     }
 
+    public OffsetDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
     public OffsetDateTime getAcknowledgedAt() {
         return acknowledgedAt;
     }
@@ -130,19 +145,49 @@ public class TransferCommandEntity {
         return updatedAt;
     }
 
-    public void markSent(OffsetDateTime sentAt) {
+    /**
+     * @param nextAttemptAt when the command is resent if no wallet result has arrived by then
+     */
+    public void markSent(OffsetDateTime sentAt, OffsetDateTime nextAttemptAt) {
         this.status = TransferCommandStatus.SENT;
         this.sentAt = sentAt;
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public void markRetried() {
+        this.retryCount++;
     }
 
     public void markAcknowledged(OffsetDateTime acknowledgedAt) {
         this.status = TransferCommandStatus.ACKED;
         this.acknowledgedAt = acknowledgedAt;
+        this.nextAttemptAt = null;
+    }
+
+    /**
+     * Stops resending the command without deciding its outcome.
+     */
+    public void markUnanswered(String errorMessage) {
+        this.status = TransferCommandStatus.UNANSWERED;
+        this.nextAttemptAt = null;
+        this.lastError = errorMessage;
     }
 
     public void markFailed(String errorMessage) {
         this.status = TransferCommandStatus.FAILED;
+        this.nextAttemptAt = null;
         this.lastError = errorMessage;
         this.retryCount++;
     }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.isNew = false;
+    }
 }
@@ -2,10 +2,18 @@ package com.momentum.transfer.persistence.command;
 
 /**
  * State of a command dispatched to the wallet service.
+ *
+ * <p>{@link #UNANSWERED} marks a command the recovery stopped resending: the wallet may or may not have applied it,
+ * so it is not terminal and a late result is still applied.
  */
 public enum TransferCommandStatus {
     PENDING,
     SENT,
+    UNANSWERED,
     ACKED,
-    FAILED
+    FAILED;
+
+    public boolean isTerminal() {
+        return this == ACKED || this == FAILED;
+    }
 }
@@ -7,15 +7,21 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import java.time.OffsetDateTime;
 import java.util.Objects;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
 
 @Entity
 @Table(name = "transfer_idempotency")
-public class TransferIdempotencyEntity {
+public class TransferIdempotencyEntity implements Persistable<String> {
 
     @Id
     @Column(name = "idempotency_key", nullable = false, updatable = false, length = 120)
@@ -28,6 +34,8 @@ public class TransferIdempotencyEntity {
     @Column(name = "request_hash", nullable = false, length = 64)
     private String requestHash;
 
+    /** The {@code TransferResponse} last returned for this key, as JSON. */
+    @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "response_snapshot", columnDefinition = "jsonb")
     private String responseSnapshot;
 
@@ -42,15 +50,28 @@ public class TransferIdempotencyEntity {
     @Column(name = "updated_at", nullable = false)
     private OffsetDateTime updatedAt;
 
+    @Transient
+    private boolean isNew = true;
+
     protected TransferIdempotencyEntity() {
         // JPA
     }
 
     public TransferIdempotencyEntity(
             String idempotencyKey, TransferEntity transfer, String requestHash, OffsetDateTime expiresAt) {
+        this(idempotencyKey, transfer, requestHash, null, expiresAt);
+    }
+
+    public TransferIdempotencyEntity(
+            String idempotencyKey,
+            TransferEntity transfer,
+            String requestHash,
+            String responseSnapshot,
+            OffsetDateTime expiresAt) {
         this.idempotencyKey = Objects.requireNonNull(idempotencyKey, "idempotencyKey");
         this.transfer = Objects.requireNonNull(transfer, "transfer");
         this.requestHash = Objects.requireNonNull(requestHash, "requestHash");
+        this.responseSnapshot = responseSnapshot;
         this.expiresAt = expiresAt;
     }
 
@@ -89,4 +110,20 @@ public class TransferIdempotencyEntity {
     public OffsetDateTime getUpdatedAt() {
         return updatedAt;
     }
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.isNew = false;
+    }
 }
@@ -0,0 +1,162 @@
+package com.momentum.transfer.persistence.outbox;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.UUID;
+import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * A broker message waiting to be relayed. The id doubles as the AMQP message id.
+ */
+@Entity
+@Table(name = "outbox_messages")
+public class OutboxMessageEntity implements Persistable<UUID> {
+
+    @Id
+    @Column(name = "id", nullable = false, updatable = false)
+    private UUID id;
+
+    @Column(name = "exchange", nullable = false, updatable = false, length = 120)
+    private String exchange;
+
+    @Column(name = "routing_key", nullable = false, updatable = false, length = 120)
+    private String routingKey;
+
+    @Column(name = "content_type", nullable = false, updatable = false, length = 64)
+    private String contentType;
+
+    @Column(name = "payload", nullable = false, updatable = false, columnDefinition = "bytea")
+    private byte[] payload;
+
+    /** AMQP headers as a JSON object; {@code null} when the message carries none. */
+    @Column(name = "headers", updatable = false, columnDefinition = "text")
+    private String headers;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "published_at")
+    private OffsetDateTime publishedAt;
+
+    /** Earliest time the relay claims the message again after a failed attempt; {@code null} means now. */
+    @Column(name = "next_attempt_at")
+    private OffsetDateTime nextAttemptAt;
+
+    /** Set once the message ran out of attempts; parked messages are no longer relayed. */
+    @Column(name = "parked_at")
+    private OffsetDateTime parkedAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected OutboxMessageEntity() {
+        // JPA
+    }
+
+    public OutboxMessageEntity(UUID id, String exchange, String routingKey, String contentType, byte[] payload) {
+        this(id, exchange, routingKey, contentType, payload, null);
+    }
+
+    public OutboxMessageEntity(
+            UUID id, String exchange, String routingKey, String contentType, byte[] payload, String headers) {
+        this.id = Objects.requireNonNull(id, "id");
+        this.exchange = Objects.requireNonNull(exchange, "exchange");
+        this.routingKey = Objects.requireNonNull(routingKey, "routingKey");
+        this.contentType = Objects.requireNonNull(contentType, "contentType");
+        this.payload = Objects.requireNonNull(payload, "payload");
+        this.headers = headers;
+    }
+
+    @Override
+    public UUID getId() {
+        return id;
+    }
+
+    public String getExchange() {
+        return exchange;
+    }
+
+    public String getRoutingKey() {
+        return routingKey;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public String getHeaders() {
+        return headers;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public OffsetDateTime getPublishedAt() {
+        return publishedAt;
+    }
+
+    public OffsetDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public OffsetDateTime getParkedAt() {
+        return parkedAt;
+    }
+
+    public void markPublished(OffsetDateTime publishedAt) {
+        this.attempts++;
+        this.publishedAt = Objects.requireNonNull(publishedAt, "publishedAt");
+        this.lastError = null;
+    }
+
+    public void markAttemptFailed(String error, OffsetDateTime nextAttemptAt) {
+        this.attempts++;
+        this.lastError = error;
+        this.nextAttemptAt = Objects.requireNonNull(nextAttemptAt, "nextAttemptAt");
+    }
+
+    public void park(String error, OffsetDateTime parkedAt) {
+        this.attempts++;
+        this.lastError = error;
+        this.parkedAt = Objects.requireNonNull(parkedAt, "parkedAt");
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
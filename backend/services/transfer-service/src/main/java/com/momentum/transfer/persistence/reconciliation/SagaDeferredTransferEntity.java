@@ -0,0 +1,77 @@
+package com.momentum.transfer.persistence.reconciliation;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.UUID;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Transfer a saga reconciliation run skipped because it was still in flight, kept until a later run compares it.
+ */
+@Entity
+@Table(name = "saga_reconciliation_deferred")
+public class SagaDeferredTransferEntity implements Persistable<UUID> {
+
+    @Id
+    @Column(name = "transfer_id", nullable = false, updatable = false)
+    private UUID transferId;
+
+    @Column(name = "deferred_at", nullable = false, updatable = false)
+    private OffsetDateTime deferredAt;
+
+    @Column(name = "outcome_unknown_reported_at")
+    private OffsetDateTime outcomeUnknownReportedAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected SagaDeferredTransferEntity() {
+        // JPA
+    }
+
+    /**
+     * @param outcomeUnknownReportedAt when the transfer was reported as parked with an unknown outcome, or
+     *     {@code null}
+     */
+    public SagaDeferredTransferEntity(
+            UUID transferId, OffsetDateTime deferredAt, OffsetDateTime outcomeUnknownReportedAt) {
+        this.transferId = Objects.requireNonNull(transferId, "transferId");
+        this.deferredAt = Objects.requireNonNull(deferredAt, "deferredAt");
+        this.outcomeUnknownReportedAt = outcomeUnknownReportedAt;
+    }
+
+    @Override
+    public UUID getId() {
+        return transferId;
+    }
+
+    public UUID getTransferId() {
+        return transferId;
+    }
+
+    public OffsetDateTime getDeferredAt() {
+        return deferredAt;
+    }
+
+    public OffsetDateTime getOutcomeUnknownReportedAt() {
+        return outcomeUnknownReportedAt;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -0,0 +1,123 @@
+package com.momentum.transfer.persistence.reconciliation;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.UUID;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Disagreement between a transfer saga and its ledger legs, found by a saga reconciliation run.
+ */
+@Entity
+@Table(name = "saga_reconciliation_discrepancies")
+public class SagaDiscrepancyEntity implements Persistable<UUID> {
+
+    @Id
+    @Column(name = "id", nullable = false, updatable = false)
+    private UUID id;
+
+    @Column(name = "run_id", nullable = false, updatable = false)
+    private UUID runId;
+
+    @Column(name = "transfer_id", nullable = false, updatable = false)
+    private UUID transferId;
+
+    @Column(name = "entry_id", updatable = false)
+    private UUID entryId;
+
+    @Column(name = "wallet_id", updatable = false)
+    private UUID walletId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, updatable = false, length = 32)
+    private SagaDiscrepancyType type;
+
+    @Column(name = "detail", updatable = false)
+    private String detail;
+
+    @Column(name = "detected_at", nullable = false, updatable = false)
+    private OffsetDateTime detectedAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected SagaDiscrepancyEntity() {
+        // JPA
+    }
+
+    /**
+     * @param entryId offending ledger entry, or {@code null} when a leg is missing
+     * @param walletId wallet the leg was or should have been posted to
+     */
+    public SagaDiscrepancyEntity(
+            UUID id,
+            UUID runId,
+            UUID transferId,
+            UUID entryId,
+            UUID walletId,
+            SagaDiscrepancyType type,
+            String detail,
+            OffsetDateTime detectedAt) {
+        this.id = Objects.requireNonNull(id, "id");
+        this.runId = Objects.requireNonNull(runId, "runId");
+        this.transferId = Objects.requireNonNull(transferId, "transferId");
+        this.entryId = entryId;
+        this.walletId = walletId;
+        this.type = Objects.requireNonNull(type, "type");
+        this.detail = detail;
+        this.detectedAt = Objects.requireNonNull(detectedAt, "detectedAt");
+    }
+
+    @Override
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getRunId() {
+        return runId;
+    }
+
+    public UUID getTransferId() {
+        return transferId;
+    }
+
+    public UUID getEntryId() {
+        return entryId;
+    }
+
+    public UUID getWalletId() {
+        return walletId;
+    }
+
+    public SagaDiscrepancyType getType() {
+        return type;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public OffsetDateTime getDetectedAt() {
+        return detectedAt;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
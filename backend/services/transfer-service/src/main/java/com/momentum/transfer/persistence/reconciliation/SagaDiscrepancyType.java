@@ -0,0 +1,37 @@
+package com.momentum.transfer.persistence.reconciliation;
+
+/**
+ * Ways a finished transfer saga can disagree with the ledger legs the wallet service posted for it.
+ */
+public enum SagaDiscrepancyType {
+    /**
+     * A completed transfer has no debit on its source wallet or no credit on its destination wallet.
+     */
+    MISSING_LEG,
+    /**
+     * A leg was posted more than once.
+     */
+    DUPLICATED_LEG,
+    /**
+     * A failed transfer debited its source wallet and never reversed the debit.
+     */
+    UNCOMPENSATED_DEBIT,
+    /**
+     * A leg the transfer's outcome rules out: a credit or reversal the saga never asked for, or an entry on a wallet
+     * that is not part of the transfer.
+     */
+    UNEXPECTED_LEG,
+    /**
+     * A leg's amount differs from the transfer amount.
+     */
+    AMOUNT_MISMATCH,
+    /**
+     * A ledger entry names a transfer this service has no record of.
+     */
+    ORPHANED_LEG,
+    /**
+     * A transfer is parked because the wallet service never answered one of its commands; its legs cannot be checked
+     * until the outcome is settled. Reported once per transfer.
+     */
+    OUTCOME_UNKNOWN
+}
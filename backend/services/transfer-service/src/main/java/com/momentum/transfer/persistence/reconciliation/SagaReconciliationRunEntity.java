@@ -0,0 +1,125 @@
+package com.momentum.transfer.persistence.reconciliation;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.UUID;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * One saga reconciliation pass over the transfers created in {@code [windowFrom, windowTo)}.
+ */
+@Entity
+@Table(name = "saga_reconciliation_runs")
+public class SagaReconciliationRunEntity implements Persistable<UUID> {
+
+    @Id
+    @Column(name = "id", nullable = false, updatable = false)
+    private UUID id;
+
+    @Column(name = "window_from", nullable = false, updatable = false)
+    private OffsetDateTime windowFrom;
+
+    @Column(name = "window_to", nullable = false, updatable = false)
+    private OffsetDateTime windowTo;
+
+    @Column(name = "started_at", nullable = false, updatable = false)
+    private OffsetDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private OffsetDateTime finishedAt;
+
+    @Column(name = "transfers_checked", nullable = false)
+    private long transfersChecked;
+
+    @Column(name = "transfers_in_flight", nullable = false)
+    private long transfersInFlight;
+
+    @Column(name = "legs_checked", nullable = false)
+    private long legsChecked;
+
+    @Column(name = "discrepancies_found", nullable = false)
+    private long discrepanciesFound;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected SagaReconciliationRunEntity() {
+        // JPA
+    }
+
+    public SagaReconciliationRunEntity(
+            UUID id, OffsetDateTime windowFrom, OffsetDateTime windowTo, OffsetDateTime startedAt) {
+        this.id = Objects.requireNonNull(id, "id");
+        this.windowFrom = Objects.requireNonNull(windowFrom, "windowFrom");
+        this.windowTo = Objects.requireNonNull(windowTo, "windowTo");
+        this.startedAt = Objects.requireNonNull(startedAt, "startedAt");
+    }
+
+    @Override
+    public UUID getId() {
+        return id;
+    }
+
+    public OffsetDateTime getWindowFrom() {
+        return windowFrom;
+    }
+
+    public OffsetDateTime getWindowTo() {
+        return windowTo;
+    }
+
+    public OffsetDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public OffsetDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public long getTransfersChecked() {
+        return transfersChecked;
+    }
+
+    public long getTransfersInFlight() {
+        return transfersInFlight;
+    }
+
+    public long getLegsChecked() {
+        return legsChecked;
+    }
+
+    public long getDiscrepanciesFound() {
+        return discrepanciesFound;
+    }
+
+    public void complete(
+            long transfersChecked,
+            long transfersInFlight,
+            long legsChecked,
+            long discrepanciesFound,
+            OffsetDateTime finishedAt) {
+        this.transfersChecked = transfersChecked;
+        this.transfersInFlight = transfersInFlight;
+        this.legsChecked = legsChecked;
+        this.discrepanciesFound = discrepanciesFound;
+        this.finishedAt = Objects.requireNonNull(finishedAt, "finishedAt");
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -0,0 +1,39 @@
+package com.momentum.transfer.persistence.repository;
+
+import com.momentum.transfer.persistence.outbox.OutboxMessageEntity;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessageEntity, UUID> {
+
+    /**
+     * Claims the oldest unpublished messages that are due for an attempt for the current transaction. Parked
+     * messages are left alone, and rows claimed by another relay instance are skipped rather than waited on.
+     */
+    @Query(
+            value = """
+                    SELECT * FROM outbox_messages
+                     WHERE published_at IS NULL
+                       AND parked_at IS NULL
+                       AND (next_attempt_at IS NULL OR next_attempt_at <= :now)
+                     ORDER BY created_at
+                     LIMIT :limit
+                       FOR UPDATE SKIP LOCKED
+                    """,
+            nativeQuery = true)
+    List<OutboxMessageEntity> lockNextBatch(@Param("now") OffsetDateTime now, @Param("limit") int limit);
+
+    @Query("select m.id from OutboxMessageEntity m where m.publishedAt < :cutoff order by m.publishedAt")
+    List<UUID> findPublishedBefore(@Param("cutoff") OffsetDateTime cutoff, Limit limit);
+
+    @Modifying
+    @Query("delete from OutboxMessageEntity m where m.id in :ids and m.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("ids") Collection<UUID> ids, @Param("cutoff") OffsetDateTime cutoff);
+}
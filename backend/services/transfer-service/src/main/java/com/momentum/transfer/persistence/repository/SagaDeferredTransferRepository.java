@@ -0,0 +1,19 @@
+package com.momentum.transfer.persistence.repository;
+
+import com.momentum.transfer.persistence.reconciliation.SagaDeferredTransferEntity;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface SagaDeferredTransferRepository extends JpaRepository<SagaDeferredTransferEntity, UUID> {
+
+    @Modifying
+    @Query("update SagaDeferredTransferEntity d set d.outcomeUnknownReportedAt = :reportedAt "
+            + "where d.transferId in :transferIds")
+    int markOutcomeUnknownReported(
+            @Param("transferIds") Collection<UUID> transferIds, @Param("reportedAt") OffsetDateTime reportedAt);
+}
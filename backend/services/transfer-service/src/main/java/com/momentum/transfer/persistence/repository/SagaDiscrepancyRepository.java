@@ -0,0 +1,13 @@
+package com.momentum.transfer.persistence.repository;
+
+import com.momentum.transfer.persistence.reconciliation.SagaDiscrepancyEntity;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SagaDiscrepancyRepository extends JpaRepository<SagaDiscrepancyEntity, UUID> {
+
+    List<SagaDiscrepancyEntity> findByRunId(UUID runId);
+
+    List<SagaDiscrepancyEntity> findByRunIdAndTransferId(UUID runId, UUID transferId);
+}
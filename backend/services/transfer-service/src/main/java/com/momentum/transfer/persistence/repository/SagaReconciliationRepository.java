@@ -0,0 +1,89 @@
+package com.momentum.transfer.persistence.repository;
+
+import com.momentum.transfer.persistence.transfer.TransferStatus;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Transfer side of saga reconciliation: the transfers of an id range streamed in id order off a forward-only cursor.
+ *
+ * <p>PostgreSQL only honours the fetch size inside a transaction, so callers must hold one open.
+ */
+@Repository
+public class SagaReconciliationRepository {
+
+    private static final String TRANSFERS_SQL = """
+            SELECT transfer_id, status, source_wallet_id, destination_wallet_id, amount_minor_units
+              FROM transfers
+             WHERE transfer_id >= ? AND transfer_id < ?
+             ORDER BY transfer_id
+            """;
+
+    private static final String DEFERRED_SQL = """
+            SELECT t.transfer_id, t.status, t.source_wallet_id, t.destination_wallet_id, t.amount_minor_units,
+                   d.outcome_unknown_reported_at
+              FROM saga_reconciliation_deferred d
+              JOIN transfers t ON t.transfer_id = d.transfer_id
+             ORDER BY d.transfer_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SagaReconciliationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Streams every transfer with {@code fromTransferId <= id < toTransferId}, ascending.
+     */
+    public void streamTransfers(
+            UUID fromTransferId, UUID toTransferId, int fetchSize, Consumer<TransferRow> consumer) {
+        jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                            TRANSFERS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(fetchSize);
+                    statement.setObject(1, fromTransferId);
+                    statement.setObject(2, toTransferId);
+                    return statement;
+                },
+                (RowCallbackHandler) rs -> consumer.accept(transferRow(rs)));
+    }
+
+    /**
+     * Transfers earlier runs skipped while in flight, with their current status. The set is bounded by the transfers
+     * in flight at any one time plus those parked with an unknown outcome, so it is read in one go.
+     */
+    public List<DeferredTransferRow> findDeferredTransfers() {
+        return jdbcTemplate.query(DEFERRED_SQL, (rs, rowNum) -> new DeferredTransferRow(
+                transferRow(rs), rs.getObject("outcome_unknown_reported_at") != null));
+    }
+
+    private static TransferRow transferRow(ResultSet rs) throws SQLException {
+        return new TransferRow(
+                rs.getObject("transfer_id", UUID.class),
+                TransferStatus.valueOf(rs.getString("status")),
+                rs.getObject("source_wallet_id", UUID.class),
+                rs.getObject("destination_wallet_id", UUID.class),
+                rs.getLong("amount_minor_units"));
+    }
+
+    public record TransferRow(
+            UUID transferId,
+            TransferStatus status,
+            UUID sourceWalletId,
+            UUID destinationWalletId,
+            long amountMinorUnits) {}
+
+    /**
+     * @param outcomeUnknownReported whether the transfer was already reported as parked with an unknown outcome
+     */
+    public record DeferredTransferRow(TransferRow transfer, boolean outcomeUnknownReported) {}
+}
@@ -0,0 +1,27 @@
+package com.momentum.transfer.persistence.repository;
+
+import com.momentum.transfer.persistence.reconciliation.SagaReconciliationRunEntity;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface SagaReconciliationRunRepository extends JpaRepository<SagaReconciliationRunEntity, UUID> {
+
+    Optional<SagaReconciliationRunEntity> findFirstByFinishedAtIsNotNullOrderByWindowToDesc();
+
+    /**
+     * Removes runs that were abandoned mid-window, such as by a crashed instance; their discrepancies go first.
+     */
+    @Modifying
+    @Query("delete from SagaDiscrepancyEntity d where d.runId in "
+            + "(select r.id from SagaReconciliationRunEntity r where r.finishedAt is null and r.startedAt < :cutoff)")
+    int deleteDiscrepanciesOfUnfinishedRuns(@Param("cutoff") OffsetDateTime startedBefore);
+
+    @Modifying
+    @Query("delete from SagaReconciliationRunEntity r where r.finishedAt is null and r.startedAt < :cutoff")
+    int deleteUnfinishedRuns(@Param("cutoff") OffsetDateTime startedBefore);
+}
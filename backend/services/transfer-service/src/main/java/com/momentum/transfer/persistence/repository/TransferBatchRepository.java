@@ -0,0 +1,7 @@
+package com.momentum.transfer.persistence.repository;
+
+import com.momentum.transfer.persistence.batch.TransferBatchEntity;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TransferBatchRepository extends JpaRepository<TransferBatchEntity, UUID> {}
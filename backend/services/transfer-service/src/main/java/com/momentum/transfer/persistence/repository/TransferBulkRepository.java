@@ -0,0 +1,165 @@
+package com.momentum.transfer.persistence.repository;
+
+import com.momentum.transfer.persistence.command.TransferCommandEntity;
+import com.momentum.transfer.persistence.idempotency.TransferIdempotencyEntity;
+import com.momentum.transfer.persistence.transfer.TransferEntity;
+import com.momentum.transfer.persistence.transfer.TransferStatus;
+import java.sql.DatabaseMetaData;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC batch writes for bulk transfer submissions, bypassing per-entity JPA inserts.
+ *
+ * <p>All methods join the caller's transaction. Transfers are inserted with
+ * {@code ON CONFLICT (idempotency_key) DO NOTHING} so a concurrent submission of the same idempotency key loses quietly
+ * instead of failing the whole batch; callers re-read the keys afterwards to learn which rows are theirs. Any other
+ * constraint violation still fails the insert.
+ */
+@Repository
+public class TransferBulkRepository {
+
+    /** Keeps {@code IN} lists well below driver parameter limits. */
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private static final String FIND_BY_KEYS_SQL = """
+            SELECT t.idempotency_key, t.transfer_id, t.status, i.request_hash
+              FROM transfers t
+              LEFT JOIN transfer_idempotency i ON i.idempotency_key = t.idempotency_key
+             WHERE t.idempotency_key IN (:keys)
+            """;
+
+    private static final String INSERT_TRANSFER_SQL = """
+            INSERT INTO transfers (transfer_id, source_wallet_id, destination_wallet_id, amount_minor_units, currency,
+                                   reference, description, metadata, correlation_id, idempotency_key, status,
+                                   batch_id, created_at, updated_at)
+            VALUES (:id, :source, :destination, :amount, :currency, :reference, :description,
+                    CAST(:metadata AS jsonb), :correlationId, :idempotencyKey, :status, :batchId, :now, :now)
+            ON CONFLICT %s DO NOTHING
+            """;
+
+    private static final String INSERT_COMMAND_SQL = """
+            INSERT INTO transfer_commands (command_id, transfer_id, type, wallet_id, amount_minor_units, status,
+                                           retry_count, sent_at, next_attempt_at, created_at, updated_at)
+            VALUES (:id, :transferId, :type, :walletId, :amount, :status, 0, :sentAt, :nextAttemptAt, :now, :now)
+            """;
+
+    private static final String INSERT_IDEMPOTENCY_SQL = """
+            INSERT INTO transfer_idempotency (idempotency_key, transfer_id, request_hash, expires_at, created_at,
+                                              updated_at)
+            VALUES (:key, :transferId, :requestHash, :expiresAt, :now, :now)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final String insertTransferSql;
+
+    public TransferBulkRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.insertTransferSql = INSERT_TRANSFER_SQL.formatted(conflictTarget(jdbcTemplate));
+    }
+
+    /**
+     * Looks up the transfer holding {@code idempotencyKey}, reading only its id, status and request hash.
+     */
+    public Optional<ExistingTransfer> findByIdempotencyKey(String idempotencyKey) {
+        return Optional.ofNullable(findByIdempotencyKeys(List.of(idempotencyKey)).get(idempotencyKey));
+    }
+
+    /**
+     * Looks up the transfers already holding any of {@code idempotencyKeys}.
+     */
+    public Map<String, ExistingTransfer> findByIdempotencyKeys(Collection<String> idempotencyKeys) {
+        Map<String, ExistingTransfer> existing = new HashMap<>();
+        List<String> keys = List.copyOf(idempotencyKeys);
+        for (int from = 0; from < keys.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = keys.subList(from, Math.min(keys.size(), from + LOOKUP_CHUNK_SIZE));
+            jdbcTemplate.query(FIND_BY_KEYS_SQL, new MapSqlParameterSource("keys", chunk), rs -> {
+                existing.put(rs.getString("idempotency_key"), new ExistingTransfer(
+                        rs.getObject("transfer_id", UUID.class),
+                        TransferStatus.valueOf(rs.getString("status")),
+                        rs.getString("request_hash")));
+            });
+        }
+        return existing;
+    }
+
+    public void insertTransfers(List<TransferEntity> transfers, OffsetDateTime now) {
+        SqlParameterSource[] batch = transfers.stream()
+                .map(transfer -> new MapSqlParameterSource()
+                        .addValue("id", transfer.getId())
+                        .addValue("source", transfer.getSourceWalletId())
+                        .addValue("destination", transfer.getDestinationWalletId())
+                        .addValue("amount", transfer.getAmountMinorUnits())
+                        .addValue("currency", transfer.getCurrency())
+                        .addValue("reference", transfer.getReference())
+                        .addValue("description", transfer.getDescription())
+                        .addValue("metadata", transfer.getMetadata(), Types.VARCHAR)
+                        .addValue("correlationId", transfer.getCorrelationId())
+                        .addValue("idempotencyKey", transfer.getIdempotencyKey())
+                        .addValue("status", transfer.getStatus().name())
+                        .addValue("batchId", transfer.getBatchId())
+                        .addValue("now", now))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(insertTransferSql, batch);
+    }
+
+    public void insertCommands(List<TransferCommandEntity> commands, OffsetDateTime now) {
+        SqlParameterSource[] batch = commands.stream()
+                .map(command -> new MapSqlParameterSource()
+                        .addValue("id", command.getId())
+                        .addValue("transferId", command.getTransfer().getId())
+                        .addValue("type", command.getType().name())
+                        .addValue("walletId", command.getWalletId())
+                        .addValue("amount", command.getAmountMinorUnits())
+                        .addValue("status", command.getStatus().name())
+                        .addValue("sentAt", command.getSentAt())
+                        .addValue("nextAttemptAt", command.getNextAttemptAt())
+                        .addValue("now", now))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_COMMAND_SQL, batch);
+    }
+
+    public void insertIdempotency(List<TransferIdempotencyEntity> records, OffsetDateTime now) {
+        SqlParameterSource[] batch = records.stream()
+                .map(record -> new MapSqlParameterSource()
+                        .addValue("key", record.getIdempotencyKey())
+                        .addValue("transferId", record.getTransfer().getId())
+                        .addValue("requestHash", record.getRequestHash())
+                        .addValue("expiresAt", record.getExpiresAt())
+                        .addValue("now", now))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_IDEMPOTENCY_SQL, batch);
+    }
+
+    /**
+     * H2, used by the tests, only accepts {@code ON CONFLICT DO NOTHING} without a target.
+     */
+    private static String conflictTarget(NamedParameterJdbcTemplate jdbcTemplate) {
+        DataSource dataSource = Objects.requireNonNull(jdbcTemplate.getJdbcTemplate().getDataSource(), "dataSource");
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "H2".equals(product) ? "" : "(idempotency_key)";
+        } catch (MetaDataAccessException ex) {
+            throw new IllegalStateException("Could not determine the database product", ex);
+        }
+    }
+
+    /**
+     * @param requestHash hash of the request that created the transfer; {@code null} if its idempotency row expired
+     */
+    public record ExistingTransfer(UUID transferId, TransferStatus status, String requestHash) {}
+}
@@ -3,9 +3,16 @@ package com.momentum.transfer.persistence.repository;
 import com.momentum.transfer.persistence.command.TransferCommandEntity;
 import com.momentum.transfer.persistence.command.TransferCommandStatus;
 import com.momentum.transfer.persistence.command.TransferCommandType;
+import jakarta.persistence.LockModeType;
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface TransferCommandRepository extends JpaRepository<TransferCommandEntity, UUID> {
 
@@ -14,4 +21,70 @@ public interface TransferCommandRepository extends JpaRepository<TransferCommand
     List<TransferCommandEntity> findByTransfer_IdAndType(UUID transferId, TransferCommandType type);
 
     List<TransferCommandEntity> findByStatus(TransferCommandStatus status);
+
+    /**
+     * Loads every command of a transfer together with the transfer itself in one query.
+     */
+    @Query("select c from TransferCommandEntity c join fetch c.transfer t where t.id = :transferId")
+    List<TransferCommandEntity> findAllWithTransfer(@Param("transferId") UUID transferId);
+
+    /**
+     * Locks a single command. Saga steps lock the command they act on before its transfer, the order in which the
+     * recovery holds them too.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from TransferCommandEntity c where c.id = :id")
+    Optional<TransferCommandEntity> findByIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * Claims the oldest sent commands whose wallet result is overdue for the current transaction. Rows claimed by
+     * another instance, or being acknowledged right now, are skipped rather than waited on.
+     */
+    @Query(
+            value = """
+                    SELECT * FROM transfer_commands
+                     WHERE status = 'SENT'
+                       AND next_attempt_at <= :now
+                     ORDER BY next_attempt_at
+                     LIMIT :limit
+                       FOR UPDATE SKIP LOCKED
+                    """,
+            nativeQuery = true)
+    List<TransferCommandEntity> lockOverdue(@Param("now") OffsetDateTime now, @Param("limit") int limit);
+
+    /**
+     * Writes the outcome and dispatch state of a detached command, provided its row still has the status the caller
+     * last saw.
+     *
+     * @return {@code false} when the row has moved on and the caller's copy is stale
+     */
+    default boolean writeOutcome(TransferCommandEntity command, TransferCommandStatus expected) {
+        return updateOutcome(
+                        command.getId(),
+                        expected,
+                        command.getStatus(),
+                        command.getLastError(),
+                        command.getRetryCount(),
+                        command.getSentAt(),
+                        command.getNextAttemptAt(),
+                        command.getAcknowledgedAt(),
+                        OffsetDateTime.now())
+                == 1;
+    }
+
+    @Modifying
+    @Query("update TransferCommandEntity c set c.status = :status, c.lastError = :lastError, "
+            + "c.retryCount = :retryCount, c.sentAt = :sentAt, c.nextAttemptAt = :nextAttemptAt, "
+            + "c.acknowledgedAt = :acknowledgedAt, c.updatedAt = :updatedAt "
+            + "where c.id = :id and c.status = :expected")
+    int updateOutcome(
+            @Param("id") UUID id,
+            @Param("expected") TransferCommandStatus expected,
+            @Param("status") TransferCommandStatus status,
+            @Param("lastError") String lastError,
+            @Param("retryCount") int retryCount,
+            @Param("sentAt") OffsetDateTime sentAt,
+            @Param("nextAttemptAt") OffsetDateTime nextAttemptAt,
+            @Param("acknowledgedAt") OffsetDateTime acknowledgedAt,
+            @Param("updatedAt") OffsetDateTime updatedAt);
 }
@@ -1,11 +1,69 @@
 package com.momentum.transfer.persistence.repository;
 
 import com.momentum.transfer.persistence.idempotency.TransferIdempotencyEntity;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface TransferIdempotencyRepository extends JpaRepository<TransferIdempotencyEntity, String> {
 
     Optional<TransferIdempotencyEntity> findByTransfer_Id(UUID transferId);
+
+    /**
+     * Reads what is needed to answer a repeated request: the transfer id, request hash and response snapshot.
+     */
+    @Query("select i.transfer.id as transferId, i.requestHash as requestHash, i.responseSnapshot as responseSnapshot "
+            + "from TransferIdempotencyEntity i where i.idempotencyKey = :key")
+    Optional<IdempotencyRecord> findRecord(@Param("key") String idempotencyKey);
+
+    @Modifying
+    @Query("update TransferIdempotencyEntity i set i.responseSnapshot = :snapshot, i.updatedAt = :updatedAt "
+            + "where i.transfer.id = :transferId")
+    int updateSnapshot(
+            @Param("transferId") UUID transferId,
+            @Param("snapshot") String snapshot,
+            @Param("updatedAt") OffsetDateTime updatedAt);
+
+    @Modifying
+    @Query("update TransferIdempotencyEntity i set i.responseSnapshot = :snapshot, i.updatedAt = :updatedAt "
+            + "where i.transfer.id = :transferId and i.responseSnapshot is null")
+    int fillSnapshot(
+            @Param("transferId") UUID transferId,
+            @Param("snapshot") String snapshot,
+            @Param("updatedAt") OffsetDateTime updatedAt);
+
+    /**
+     * Keys of the rows that expired first, read off the {@code expires_at} index in expiry order.
+     */
+    @Query(
+            value = """
+                    SELECT idempotency_key FROM transfer_idempotency
+                     WHERE expires_at < :now
+                     ORDER BY expires_at
+                     LIMIT :limit
+                    """,
+            nativeQuery = true)
+    List<String> findExpiredKeys(@Param("now") OffsetDateTime now, @Param("limit") int limit);
+
+    /**
+     * Deletes the given rows if they are still expired; a key renewed in the meantime is kept.
+     */
+    @Modifying
+    @Query("delete from TransferIdempotencyEntity i where i.idempotencyKey in :keys and i.expiresAt < :now")
+    int deleteExpired(@Param("keys") Collection<String> keys, @Param("now") OffsetDateTime now);
+
+    interface IdempotencyRecord {
+        UUID getTransferId();
+
+        String getRequestHash();
+
+        /** {@code null} for rows written before snapshots were kept, or by a bulk submission. */
+        String getResponseSnapshot();
+    }
 }
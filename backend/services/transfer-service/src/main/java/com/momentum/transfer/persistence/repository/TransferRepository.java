@@ -1,11 +1,18 @@
 package com.momentum.transfer.persistence.repository;
 
 import com.momentum.transfer.persistence.transfer.TransferEntity;
+import com.momentum.transfer.persistence.transfer.TransferFailureStage;
 import com.momentum.transfer.persistence.transfer.TransferStatus;
+import jakarta.persistence.LockModeType;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface TransferRepository extends JpaRepository<TransferEntity, UUID> {
 
@@ -14,4 +21,48 @@ public interface TransferRepository extends JpaRepository<TransferEntity, UUID>
     Optional<TransferEntity> findByCorrelationId(UUID correlationId);
 
     List<TransferEntity> findByStatus(TransferStatus status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from TransferEntity t where t.id = :id")
+    Optional<TransferEntity> findByIdForUpdate(@Param("id") UUID id);
+
+    @Query("select t.status as status, count(t) as count from TransferEntity t "
+            + "where t.batchId = :batchId group by t.status")
+    List<StatusCount> countByBatchIdGroupByStatus(@Param("batchId") UUID batchId);
+
+    /**
+     * Writes the saga state of a detached transfer, provided its row still has the status the caller last saw.
+     *
+     * @return {@code false} when the row has moved on and the caller's copy is stale
+     */
+    default boolean writeState(TransferEntity transfer, TransferStatus expected) {
+        return updateState(
+                        transfer.getId(),
+                        expected,
+                        transfer.getStatus(),
+                        transfer.getFailureStage(),
+                        transfer.getFailureReason(),
+                        transfer.getCompletedAt(),
+                        OffsetDateTime.now())
+                == 1;
+    }
+
+    @Modifying
+    @Query("update TransferEntity t set t.status = :status, t.failureStage = :failureStage, "
+            + "t.failureReason = :failureReason, t.completedAt = :completedAt, t.updatedAt = :updatedAt "
+            + "where t.id = :id and t.status = :expected")
+    int updateState(
+            @Param("id") UUID id,
+            @Param("expected") TransferStatus expected,
+            @Param("status") TransferStatus status,
+            @Param("failureStage") TransferFailureStage failureStage,
+            @Param("failureReason") String failureReason,
+            @Param("completedAt") OffsetDateTime completedAt,
+            @Param("updatedAt") OffsetDateTime updatedAt);
+
+    interface StatusCount {
+        TransferStatus getStatus();
+
+        long getCount();
+    }
 }
@@ -5,7 +5,10 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import java.sql.Types;
 import java.time.OffsetDateTime;
 import java.util.Objects;
@@ -13,10 +16,12 @@ import java.util.UUID;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
 
 @Entity
 @Table(name = "transfers")
-public class TransferEntity {
+public class TransferEntity implements Persistable<UUID> {
 
     @Id
     @Column(name = "transfer_id", nullable = false, updatable = false)
@@ -41,6 +46,7 @@ public class TransferEntity {
     @Column(name = "description")
     private String description;
 
+    @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "metadata", columnDefinition = "jsonb")
     private String metadata;
 
@@ -72,6 +78,17 @@ public class TransferEntity {
     @Column(name = "completed_at")
     private OffsetDateTime completedAt;
 
+    /** Bulk submission that created the transfer; {@code null} for single submissions. */
+    @Column(name = "batch_id", updatable = false)
+    private UUID batchId;
+
+    /**
+     * With assigned ids Spring Data cannot tell new entities apart and merges them, costing a select per save. The
+     * flag lets {@code save} persist new instances directly; it flips once the entity is persisted or loaded.
+     */
+    @Transient
+    private boolean isNew = true;
+
     protected TransferEntity() {
         // JPA
     }
@@ -103,6 +120,7 @@ public class TransferEntity {
         this.status = TransferStatus.PENDING;
     }
 
+    @Override
     public UUID getId() {
         return id;
     }
@@ -167,6 +185,14 @@ public class TransferEntity {
         return completedAt;
     }
 
+    public UUID getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(UUID batchId) {
+        this.batchId = batchId;
+    }
+
     public void setDescription(String description) {
         this.description = description;
     }
@@ -179,6 +205,12 @@ public class TransferEntity {
         this.status = Objects.requireNonNull(status, "status");
     }
 
+    public void markOutcomeUnknown(TransferFailureStage stage, String reason) {
+        this.failureStage = stage;
+        this.failureReason = reason;
+        this.status = TransferStatus.OUTCOME_UNKNOWN;
+    }
+
     public void markFailure(TransferFailureStage stage, String reason) {
         this.failureStage = stage;
         this.failureReason = reason;
@@ -192,6 +224,12 @@ public class TransferEntity {
         this.completedAt = OffsetDateTime.now();
     }
 
+    public void markCreditInProgress() {
+        this.status = TransferStatus.CREDIT_IN_PROGRESS;
+        this.failureStage = null;
+        this.failureReason = null;
+    }
+
     public void markCompleted(OffsetDateTime completedAt) {
         this.status = TransferStatus.COMPLETED;
         this.failureStage = null;
@@ -204,4 +242,15 @@ public class TransferEntity {
         this.failureStage = TransferFailureStage.CREDIT;
         this.failureReason = reason;
     }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.isNew = false;
+    }
 }
@@ -2,12 +2,16 @@ package com.momentum.transfer.persistence.transfer;
 
 /**
  * Lifecycle for a transfer saga.
+ *
+ * <p>{@link #OUTCOME_UNKNOWN} parks a saga whose last command went unanswered after every resend, until a late wallet
+ * result or a manual reconciliation settles it.
  */
 public enum TransferStatus {
     PENDING,
     DEBIT_IN_PROGRESS,
     CREDIT_IN_PROGRESS,
     COMPENSATION_PENDING,
+    OUTCOME_UNKNOWN,
     FAILED_COMPENSATED,
     COMPLETED,
     FAILED;
@@ -0,0 +1,15 @@
+package com.momentum.transfer.reconciliation;
+
+import java.util.UUID;
+
+/**
+ * Ledger entry the wallet service posted for a transfer saga.
+ *
+ * @param type ledger entry type as named by the wallet service: {@code DEBIT}, {@code CREDIT} or {@code REVERSAL}
+ */
+public record LedgerLeg(
+        UUID transferId,
+        UUID entryId,
+        UUID walletId,
+        String type,
+        long amountMinorUnits) {}
@@ -0,0 +1,16 @@
+package com.momentum.transfer.reconciliation;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Ledger side of saga reconciliation.
+ */
+public interface LedgerLegSource {
+
+    /**
+     * Streams the legs of every transfer with {@code fromTransferId <= transfer id < toTransferId}, sorted by transfer
+     * id and then entry id, both compared as unsigned 128-bit values. The stream holds resources and must be closed.
+     */
+    Stream<LedgerLeg> streamLegs(UUID fromTransferId, UUID toTransferId);
+}
@@ -0,0 +1,107 @@
+package com.momentum.transfer.reconciliation;
+
+import com.momentum.transfer.persistence.reconciliation.SagaDiscrepancyType;
+import com.momentum.transfer.persistence.repository.SagaReconciliationRepository.TransferRow;
+import com.momentum.transfer.persistence.transfer.TransferStatus;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Checks the ledger legs of one finished transfer against its outcome.
+ *
+ * <p>A leg is the debit when it debits the source wallet, the credit when it credits the destination wallet and the
+ * reversal when it credits the source wallet back. A completed transfer must have exactly one debit and one credit and
+ * no reversal. A failed transfer must leave both wallets as they were: no credit, and a debit only together with its
+ * reversal.
+ */
+final class SagaLegVerifier {
+
+    private SagaLegVerifier() {}
+
+    /**
+     * @param legs every ledger leg of the transfer; the transfer must be in a terminal state
+     */
+    static List<Finding> verify(TransferRow transfer, List<LedgerLeg> legs) {
+        List<Finding> findings = new ArrayList<>();
+        List<LedgerLeg> debits = new ArrayList<>();
+        List<LedgerLeg> credits = new ArrayList<>();
+        List<LedgerLeg> reversals = new ArrayList<>();
+        for (LedgerLeg leg : legs) {
+            boolean debit = "DEBIT".equals(leg.type());
+            if (debit && leg.walletId().equals(transfer.sourceWalletId())) {
+                debits.add(leg);
+            } else if (!debit && leg.walletId().equals(transfer.destinationWalletId())) {
+                credits.add(leg);
+            } else if (!debit && leg.walletId().equals(transfer.sourceWalletId())) {
+                reversals.add(leg);
+            } else {
+                findings.add(Finding.of(transfer, leg, SagaDiscrepancyType.UNEXPECTED_LEG,
+                        "%s on wallet %s, which is not part of the transfer".formatted(leg.type(), leg.walletId())));
+                continue;
+            }
+            if (leg.amountMinorUnits() != transfer.amountMinorUnits()) {
+                findings.add(Finding.of(transfer, leg, SagaDiscrepancyType.AMOUNT_MISMATCH,
+                        "expected %d, posted %d".formatted(transfer.amountMinorUnits(), leg.amountMinorUnits())));
+            }
+        }
+
+        duplicates(transfer, debits, "debit", findings);
+        duplicates(transfer, reversals, "reversal", findings);
+        if (transfer.status() == TransferStatus.COMPLETED) {
+            duplicates(transfer, credits, "credit", findings);
+            if (debits.isEmpty()) {
+                findings.add(new Finding(transfer.transferId(), null, transfer.sourceWalletId(),
+                        SagaDiscrepancyType.MISSING_LEG, "no debit on the source wallet"));
+            }
+            if (credits.isEmpty()) {
+                findings.add(new Finding(transfer.transferId(), null, transfer.destinationWalletId(),
+                        SagaDiscrepancyType.MISSING_LEG, "no credit on the destination wallet"));
+            }
+            unexpected(transfer, reversals, "reversal of a completed transfer", findings);
+        } else {
+            unexpected(transfer, credits, "credit of a failed transfer", findings);
+            if (!debits.isEmpty() && reversals.isEmpty()) {
+                LedgerLeg debit = debits.get(0);
+                findings.add(Finding.of(transfer, debit, SagaDiscrepancyType.UNCOMPENSATED_DEBIT,
+                        "debit of a %s transfer was never reversed".formatted(transfer.status())));
+            } else if (debits.isEmpty() && !reversals.isEmpty()) {
+                unexpected(transfer, reversals.subList(0, 1), "reversal without a debit", findings);
+            }
+        }
+        return findings;
+    }
+
+    static Finding outcomeUnknown(TransferRow transfer) {
+        return new Finding(transfer.transferId(), null, null, SagaDiscrepancyType.OUTCOME_UNKNOWN,
+                "saga parked until the outcome of its unanswered command is settled");
+    }
+
+    static Finding orphan(LedgerLeg leg) {
+        return new Finding(leg.transferId(), leg.entryId(), leg.walletId(), SagaDiscrepancyType.ORPHANED_LEG,
+                "%s for an unknown transfer".formatted(leg.type()));
+    }
+
+    private static void duplicates(TransferRow transfer, List<LedgerLeg> legs, String leg, List<Finding> findings) {
+        for (LedgerLeg duplicate : legs.subList(Math.min(1, legs.size()), legs.size())) {
+            findings.add(Finding.of(transfer, duplicate, SagaDiscrepancyType.DUPLICATED_LEG,
+                    "%s posted %d times".formatted(leg, legs.size())));
+        }
+    }
+
+    private static void unexpected(TransferRow transfer, List<LedgerLeg> legs, String detail, List<Finding> findings) {
+        for (LedgerLeg leg : legs) {
+            findings.add(Finding.of(transfer, leg, SagaDiscrepancyType.UNEXPECTED_LEG, detail));
+        }
+    }
+
+    /**
+     * @param entryId offending ledger entry, or {@code null} when a leg is missing
+     */
+    record Finding(UUID transferId, UUID entryId, UUID walletId, SagaDiscrepancyType type, String detail) {
+
+        static Finding of(TransferRow transfer, LedgerLeg leg, SagaDiscrepancyType type, String detail) {
+            return new Finding(transfer.transferId(), leg.entryId(), leg.walletId(), type, detail);
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.momentum.transfer.reconciliation;
+
+import com.momentum.sharedkernel.id.UuidV7;
+import com.momentum.transfer.config.SagaReconciliationProperties;
+import com.momentum.transfer.persistence.reconciliation.SagaDeferredTransferEntity;
+import com.momentum.transfer.persistence.reconciliation.SagaDiscrepancyEntity;
+import com.momentum.transfer.persistence.reconciliation.SagaReconciliationRunEntity;
+import com.momentum.transfer.persistence.repository.SagaDeferredTransferRepository;
+import com.momentum.transfer.persistence.repository.SagaDiscrepancyRepository;
+import com.momentum.transfer.persistence.repository.SagaReconciliationRepository;
+import com.momentum.transfer.persistence.repository.SagaReconciliationRepository.DeferredTransferRow;
+import com.momentum.transfer.persistence.repository.SagaReconciliationRepository.TransferRow;
+import com.momentum.transfer.persistence.repository.SagaReconciliationRunRepository;
+import com.momentum.transfer.persistence.transfer.TransferStatus;
+import com.momentum.transfer.reconciliation.SagaLegVerifier.Finding;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Compares finished transfer sagas with the ledger legs the wallet service posted for them, without a cross-database
+ * join.
+ *
+ * <p>Each run covers the transfers created in a time window that ended at least {@code settleDelay} ago, picking up
+ * where the last finished run stopped. Transfer ids are version 7 UUIDs, so the window is an id range. Both sides are
+ * streamed sorted by transfer id, the transfers off a database cursor and the legs off the wallet service's NDJSON
+ * export, and merge-joined in a single pass that holds one transfer's legs at a time. Legs of a transfer this service
+ * does not know are orphans; the legs of a known transfer are checked against its outcome by {@link SagaLegVerifier}.
+ * Discrepancies are written in batches as they are found.
+ *
+ * <p>Transfers still in flight are counted and recorded in {@code saga_reconciliation_deferred}, since no later window
+ * covers them again. Every run then re-reads the deferred transfers and compares each one that has become terminal
+ * with its own legs, removing it from the set. Transfers parked as {@link TransferStatus#OUTCOME_UNKNOWN} stay
+ * deferred and are reported once. The deferred set only changes together with the run's completion, so a failed run
+ * leaves it as it was.
+ *
+ * <p>The first run on an empty history only records its window end, so transfers from before the ledger recorded
+ * transfer ids are never compared.
+ */
+@Component
+@ConditionalOnProperty(
+        prefix = "transfer.reconciliation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SagaReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(SagaReconciler.class);
+
+    private final SagaReconciliationRepository readRepository;
+    private final SagaReconciliationRunRepository runRepository;
+    private final SagaDiscrepancyRepository discrepancyRepository;
+    private final SagaDeferredTransferRepository deferredRepository;
+    private final LedgerLegSource legSource;
+    private final TransactionTemplate readTemplate;
+    private final TransactionTemplate writeTemplate;
+    private final SagaReconciliationProperties properties;
+    private final Counter transfersCounter;
+    private final Counter legsCounter;
+    private final Counter discrepanciesCounter;
+
+    public SagaReconciler(
+            SagaReconciliationRepository readRepository,
+            SagaReconciliationRunRepository runRepository,
+            SagaDiscrepancyRepository discrepancyRepository,
+            SagaDeferredTransferRepository deferredRepository,
+            LedgerLegSource legSource,
+            PlatformTransactionManager transactionManager,
+            SagaReconciliationProperties properties,
+            MeterRegistry meterRegistry) {
+        this.readRepository = readRepository;
+        this.runRepository = runRepository;
+        this.discrepancyRepository = discrepancyRepository;
+        this.deferredRepository = deferredRepository;
+        this.legSource = legSource;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        // discrepancies are written while the read transaction still holds the transfer cursor open
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = properties;
+        this.transfersCounter = Counter.builder("transfer.reconciliation.transfers")
+                .description("Finished transfers compared with their ledger legs")
+                .register(meterRegistry);
+        this.legsCounter = Counter.builder("transfer.reconciliation.legs")
+                .description("Ledger legs read from the wallet service")
+                .register(meterRegistry);
+        this.discrepanciesCounter = Counter.builder("transfer.reconciliation.discrepancies")
+                .description("Disagreements found between transfer sagas and the ledger")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${transfer.reconciliation.interval:1h}",
+            initialDelayString = "${transfer.reconciliation.interval:1h}")
+    public void reconcileSettled() {
+        OffsetDateTime to = OffsetDateTime.now().minus(properties.settleDelay());
+        OffsetDateTime from = runRepository.findFirstByFinishedAtIsNotNullOrderByWindowToDesc()
+                .map(SagaReconciliationRunEntity::getWindowTo)
+                .orElse(to);
+        if (from.isAfter(to)) {
+            return;
+        }
+        if (from.plus(properties.maxWindow()).isBefore(to)) {
+            to = from.plus(properties.maxWindow());
+        }
+        try {
+            reconcile(from, to);
+        } catch (DataIntegrityViolationException ex) {
+            log.debug("Saga reconciliation already running on another instance");
+        }
+    }
+
+    /**
+     * Reconciles the transfers created in {@code [from, to)} and those deferred by earlier runs, and records the run.
+     *
+     * @throws DataIntegrityViolationException when another run is unfinished
+     */
+    public SagaReconciliationRunEntity reconcile(OffsetDateTime from, OffsetDateTime to) {
+        OffsetDateTime startedAt = OffsetDateTime.now();
+        OffsetDateTime staleBefore = startedAt.minus(properties.staleRunTimeout());
+        SagaReconciliationRunEntity run = writeTemplate.execute(status -> {
+            runRepository.deleteDiscrepanciesOfUnfinishedRuns(staleBefore);
+            runRepository.deleteUnfinishedRuns(staleBefore);
+            return runRepository.saveAndFlush(new SagaReconciliationRunEntity(UuidV7.next(), from, to, startedAt));
+        });
+
+        Merge merge = new Merge(run.getId());
+        try {
+            readTemplate.executeWithoutResult(status -> {
+                if (from.isBefore(to)) {
+                    UUID lower = UuidV7.lowerBound(from.toInstant().toEpochMilli());
+                    UUID upper = UuidV7.lowerBound(to.toInstant().toEpochMilli());
+                    try (Stream<LedgerLeg> legs = legSource.streamLegs(lower, upper)) {
+                        merge.start(legs.iterator());
+                        readRepository.streamTransfers(lower, upper, properties.fetchSize(), merge::accept);
+                        merge.finish();
+                    }
+                }
+                readRepository.findDeferredTransfers().forEach(merge::resume);
+                merge.flush();
+            });
+            OffsetDateTime finishedAt = OffsetDateTime.now();
+            run.complete(merge.transfersChecked, merge.transfersInFlight, merge.legsChecked, merge.discrepancies,
+                    finishedAt);
+            writeTemplate.executeWithoutResult(status -> {
+                deferredRepository.saveAll(merge.deferred);
+                deferredRepository.deleteAllByIdInBatch(merge.resolved);
+                if (!merge.reported.isEmpty()) {
+                    deferredRepository.markOutcomeUnknownReported(merge.reported, finishedAt);
+                }
+                runRepository.save(run);
+            });
+        } catch (RuntimeException ex) {
+            writeTemplate.executeWithoutResult(status -> {
+                discrepancyRepository.deleteAllInBatch(discrepancyRepository.findByRunId(run.getId()));
+                runRepository.deleteById(run.getId());
+            });
+            throw ex;
+        }
+
+        transfersCounter.increment(merge.transfersChecked);
+        legsCounter.increment(merge.legsChecked);
+        discrepanciesCounter.increment(merge.discrepancies);
+        if (merge.discrepancies > 0) {
+            log.warn("Saga reconciliation of transfers created in [{}, {}) found {} discrepancies (run {})",
+                    from, to, merge.discrepancies, run.getId());
+        }
+        return run;
+    }
+
+    /**
+     * Single pass over both sorted streams. Transfers are pushed in id order; legs are pulled up to the current
+     * transfer id. Deferred transfers are resumed afterwards, each with its own legs.
+     */
+    private final class Merge {
+
+        private final UUID runId;
+        private final List<SagaDiscrepancyEntity> pending = new ArrayList<>();
+        private final List<SagaDeferredTransferEntity> deferred = new ArrayList<>();
+        private final List<UUID> resolved = new ArrayList<>();
+        private final List<UUID> reported = new ArrayList<>();
+        private Iterator<LedgerLeg> legs;
+        private LedgerLeg leg;
+        private long transfersChecked;
+        private long transfersInFlight;
+        private long legsChecked;
+        private long discrepancies;
+
+        Merge(UUID runId) {
+            this.runId = runId;
+        }
+
+        void start(Iterator<LedgerLeg> legs) {
+            this.legs = legs;
+            advance();
+        }
+
+        void accept(TransferRow transfer) {
+            while (leg != null && UuidV7.UNSIGNED_ORDER.compare(leg.transferId(), transfer.transferId()) < 0) {
+                record(SagaLegVerifier.orphan(leg));
+                advance();
+            }
+            List<LedgerLeg> matched = new ArrayList<>();
+            while (leg != null && leg.transferId().equals(transfer.transferId())) {
+                matched.add(leg);
+                advance();
+            }
+            if (!transfer.status().isTerminal()) {
+                transfersInFlight++;
+                boolean parked = transfer.status() == TransferStatus.OUTCOME_UNKNOWN;
+                if (parked) {
+                    record(SagaLegVerifier.outcomeUnknown(transfer));
+                }
+                OffsetDateTime now = OffsetDateTime.now();
+                deferred.add(new SagaDeferredTransferEntity(transfer.transferId(), now, parked ? now : null));
+                return;
+            }
+            transfersChecked++;
+            SagaLegVerifier.verify(transfer, matched).forEach(this::record);
+        }
+
+        /**
+         * Compares a transfer deferred by an earlier run once it is terminal; reports it if it has since been parked.
+         */
+        void resume(DeferredTransferRow row) {
+            TransferRow transfer = row.transfer();
+            if (!transfer.status().isTerminal()) {
+                if (transfer.status() == TransferStatus.OUTCOME_UNKNOWN && !row.outcomeUnknownReported()) {
+                    record(SagaLegVerifier.outcomeUnknown(transfer));
+                    reported.add(transfer.transferId());
+                }
+                return;
+            }
+            List<LedgerLeg> matched;
+            try (Stream<LedgerLeg> legs =
+                    legSource.streamLegs(transfer.transferId(), successor(transfer.transferId()))) {
+                matched = legs.toList();
+            }
+            legsChecked += matched.size();
+            transfersChecked++;
+            SagaLegVerifier.verify(transfer, matched).forEach(this::record);
+            resolved.add(transfer.transferId());
+        }
+
+        void finish() {
+            while (leg != null) {
+                record(SagaLegVerifier.orphan(leg));
+                advance();
+            }
+            flush();
+        }
+
+        private void advance() {
+            LedgerLeg next = legs.hasNext() ? legs.next() : null;
+            if (next != null && leg != null
+                    && UuidV7.UNSIGNED_ORDER.compare(next.transferId(), leg.transferId()) < 0) {
+                throw new IllegalStateException("Ledger legs out of transfer id order at " + next.entryId());
+            }
+            if (next != null) {
+                legsChecked++;
+            }
+            leg = next;
+        }
+
+        private void record(Finding finding) {
+            pending.add(new SagaDiscrepancyEntity(
+                    UuidV7.next(),
+                    runId,
+                    finding.transferId(),
+                    finding.entryId(),
+                    finding.walletId(),
+                    finding.type(),
+                    finding.detail(),
+                    OffsetDateTime.now()));
+            discrepancies++;
+            if (pending.size() >= properties.batchSize()) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            writeTemplate.executeWithoutResult(status -> discrepancyRepository.saveAll(pending));
+            pending.clear();
+        }
+    }
+
+    /**
+     * Next UUID in unsigned order, the exclusive upper bound of a range holding only {@code id}.
+     */
+    private static UUID successor(UUID id) {
+        long least = id.getLeastSignificantBits() + 1;
+        long most = least == 0 ? id.getMostSignificantBits() + 1 : id.getMostSignificantBits();
+        return new UUID(most, least);
+    }
+}
@@ -0,0 +1,72 @@
+package com.momentum.transfer.reconciliation;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.momentum.transfer.config.SagaReconciliationProperties;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.springframework.boot.http.client.ClientHttpRequestFactoryBuilder;
+import org.springframework.boot.http.client.ClientHttpRequestFactorySettings;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Reads ledger legs from the wallet service's NDJSON export, one document at a time off the open response, so a
+ * window of any size is compared in constant memory.
+ */
+@Component
+public class WalletLedgerClient implements LedgerLegSource {
+
+    private final RestClient restClient;
+    private final ObjectReader legReader;
+
+    public WalletLedgerClient(
+            RestClient.Builder restClientBuilder, ObjectMapper objectMapper, SagaReconciliationProperties properties) {
+        ClientHttpRequestFactorySettings settings = ClientHttpRequestFactorySettings.defaults()
+                .withConnectTimeout(properties.connectTimeout())
+                .withReadTimeout(properties.readTimeout());
+        this.restClient = restClientBuilder
+                .baseUrl(properties.walletServiceUrl().toString())
+                .requestFactory(ClientHttpRequestFactoryBuilder.detect().build(settings))
+                .build();
+        this.legReader = objectMapper.readerFor(LedgerLeg.class);
+    }
+
+    /**
+     * @throws IllegalStateException when the wallet service does not answer with a 2xx status
+     */
+    @Override
+    public Stream<LedgerLeg> streamLegs(UUID fromTransferId, UUID toTransferId) {
+        return restClient.get()
+                .uri("/api/v1/ledger/transfer-legs?from={from}&to={to}", fromTransferId, toTransferId)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange((request, response) -> open(response), false);
+    }
+
+    private Stream<LedgerLeg> open(ClientHttpResponse response) throws IOException {
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            response.close();
+            throw new IllegalStateException("Wallet service answered the ledger leg export with "
+                    + response.getStatusCode());
+        }
+        MappingIterator<LedgerLeg> legs = legReader.readValues(response.getBody());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(legs, Spliterator.ORDERED), false)
+                .onClose(() -> {
+                    try {
+                        legs.close();
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    } finally {
+                        response.close();
+                    }
+                });
+    }
+}
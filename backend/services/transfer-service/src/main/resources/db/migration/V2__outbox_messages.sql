@@ -0,0 +1,15 @@
+-- Transactional outbox: messages are written with the state change that produced them and relayed to RabbitMQ
+-- afterwards, so a rolled back transaction never leaks a message and no broker round trip runs inside it.
+CREATE TABLE IF NOT EXISTS outbox_messages (
+    id UUID PRIMARY KEY,
+    exchange VARCHAR(120) NOT NULL,
+    routing_key VARCHAR(120) NOT NULL,
+    content_type VARCHAR(64) NOT NULL,
+    payload BYTEA NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error TEXT,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    published_at TIMESTAMPTZ
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_messages_pending ON outbox_messages (created_at) WHERE published_at IS NULL;
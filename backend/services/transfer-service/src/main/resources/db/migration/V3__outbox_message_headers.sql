@@ -0,0 +1,2 @@
+-- AMQP headers to set when relaying, as a JSON object of strings (e.g. the wallet id consistent-hash routing key).
+ALTER TABLE outbox_messages ADD COLUMN IF NOT EXISTS headers TEXT;
@@ -0,0 +1,13 @@
+-- Bulk submissions: one row per POST /api/v1/transfers/batch; transfers created by it point back to it.
+CREATE TABLE IF NOT EXISTS transfer_batches (
+    batch_id UUID PRIMARY KEY,
+    item_count INTEGER NOT NULL,
+    accepted_count INTEGER NOT NULL,
+    duplicate_count INTEGER NOT NULL,
+    rejected_count INTEGER NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+ALTER TABLE transfers ADD COLUMN IF NOT EXISTS batch_id UUID REFERENCES transfer_batches (batch_id);
+
+CREATE INDEX IF NOT EXISTS idx_transfers_batch ON transfers (batch_id) WHERE batch_id IS NOT NULL;
@@ -0,0 +1,14 @@
+-- Sent commands without a wallet result are resent from next_attempt_at on, with the wait doubling per resend.
+ALTER TABLE transfer_commands ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMPTZ;
+
+CREATE INDEX IF NOT EXISTS idx_transfer_commands_overdue ON transfer_commands (next_attempt_at) WHERE status = 'SENT';
+
+-- Commands were left PENDING after dispatch until now; pick up the ones an in-flight saga is still waiting on.
+UPDATE transfer_commands c
+   SET status = 'SENT', sent_at = c.created_at, next_attempt_at = CURRENT_TIMESTAMP
+  FROM transfers t
+ WHERE t.transfer_id = c.transfer_id
+   AND c.status = 'PENDING'
+   AND ((c.type = 'DEBIT' AND t.status = 'DEBIT_IN_PROGRESS')
+     OR (c.type = 'CREDIT' AND t.status = 'CREDIT_IN_PROGRESS')
+     OR (c.type = 'REVERSAL' AND t.status = 'COMPENSATION_PENDING'));
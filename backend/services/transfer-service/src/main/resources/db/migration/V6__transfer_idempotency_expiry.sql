@@ -0,0 +1,2 @@
+-- Expired idempotency rows are deleted in expiry order by the sweeper.
+CREATE INDEX IF NOT EXISTS idx_transfer_idempotency_expires ON transfer_idempotency (expires_at);
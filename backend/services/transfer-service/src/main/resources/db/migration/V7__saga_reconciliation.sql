@@ -0,0 +1,32 @@
+-- Saga reconciliation compares the transfers created in a time window with the ledger legs the wallet service posted
+-- for them. One row per window; the next run starts where the last finished one ended.
+CREATE TABLE IF NOT EXISTS saga_reconciliation_runs (
+    id UUID PRIMARY KEY,
+    window_from TIMESTAMPTZ NOT NULL,
+    window_to TIMESTAMPTZ NOT NULL,
+    started_at TIMESTAMPTZ NOT NULL,
+    finished_at TIMESTAMPTZ,
+    transfers_checked BIGINT NOT NULL DEFAULT 0,
+    transfers_in_flight BIGINT NOT NULL DEFAULT 0,
+    legs_checked BIGINT NOT NULL DEFAULT 0,
+    discrepancies_found BIGINT NOT NULL DEFAULT 0
+);
+
+-- At most one unfinished run; a second instance starting at the same time fails here and skips its turn.
+CREATE UNIQUE INDEX IF NOT EXISTS uq_saga_reconciliation_unfinished
+    ON saga_reconciliation_runs ((finished_at IS NULL)) WHERE finished_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_saga_reconciliation_window ON saga_reconciliation_runs (window_to);
+
+CREATE TABLE IF NOT EXISTS saga_reconciliation_discrepancies (
+    id UUID PRIMARY KEY,
+    run_id UUID NOT NULL REFERENCES saga_reconciliation_runs (id) ON DELETE CASCADE,
+    transfer_id UUID NOT NULL,
+    entry_id UUID,
+    wallet_id UUID,
+    type VARCHAR(32) NOT NULL,
+    detail TEXT,
+    detected_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_saga_discrepancy_run ON saga_reconciliation_discrepancies (run_id, transfer_id);
@@ -0,0 +1,11 @@
+-- Failed publishes are retried after an exponential backoff instead of on the next poll, and a message that keeps
+-- failing is parked after a bounded number of attempts so it cannot hold up the rest of the outbox. Parked rows stay
+-- for inspection; published rows are deleted once past the retention period.
+ALTER TABLE outbox_messages ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMPTZ;
+ALTER TABLE outbox_messages ADD COLUMN IF NOT EXISTS parked_at TIMESTAMPTZ;
+
+DROP INDEX IF EXISTS idx_outbox_messages_pending;
+CREATE INDEX IF NOT EXISTS idx_outbox_messages_pending ON outbox_messages (created_at)
+    WHERE published_at IS NULL AND parked_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_outbox_messages_published ON outbox_messages (published_at)
+    WHERE published_at IS NOT NULL;
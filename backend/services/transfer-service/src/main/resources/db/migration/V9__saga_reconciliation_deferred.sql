@@ -0,0 +1,7 @@
+-- Transfers a saga reconciliation run found still in flight. Later runs only cover newer windows, so each run also
+-- re-checks these and removes a row once its transfer is terminal and compared with its ledger legs.
+CREATE TABLE IF NOT EXISTS saga_reconciliation_deferred (
+    transfer_id UUID PRIMARY KEY,
+    deferred_at TIMESTAMPTZ NOT NULL,
+    outcome_unknown_reported_at TIMESTAMPTZ
+);
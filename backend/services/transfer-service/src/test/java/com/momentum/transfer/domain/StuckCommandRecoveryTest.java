@@ -0,0 +1,247 @@
+package com.momentum.transfer.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.momentum.transfer.api.dto.TransferRequest;
+import com.momentum.transfer.api.dto.TransferResponse;
+import com.momentum.transfer.config.CommandRecoveryProperties;
+import com.momentum.transfer.messaging.WalletCommandPublisher;
+import com.momentum.transfer.messaging.payload.WalletTransactionResultMessage;
+import com.momentum.transfer.persistence.command.TransferCommandEntity;
+import com.momentum.transfer.persistence.command.TransferCommandStatus;
+import com.momentum.transfer.persistence.command.TransferCommandType;
+import com.momentum.transfer.persistence.outbox.OutboxMessageEntity;
+import com.momentum.transfer.persistence.repository.OutboxMessageRepository;
+import com.momentum.transfer.persistence.repository.TransferCommandRepository;
+import com.momentum.transfer.persistence.repository.TransferIdempotencyRepository;
+import com.momentum.transfer.persistence.repository.TransferRepository;
+import com.momentum.transfer.persistence.transfer.TransferEntity;
+import com.momentum.transfer.persistence.transfer.TransferFailureStage;
+import com.momentum.transfer.persistence.transfer.TransferStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StuckCommandRecoveryTest {
+
+    @Autowired
+    private TransferSagaService transferSagaService;
+
+    @Autowired
+    private WalletCommandPublisher walletCommandPublisher;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private TransferCommandRepository transferCommandRepository;
+
+    @Autowired
+    private TransferIdempotencyRepository idempotencyRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StuckCommandRecovery recovery;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        recovery = new StuckCommandRecovery(
+                transferCommandRepository,
+                transferRepository,
+                walletCommandPublisher,
+                transferSagaService,
+                transactionManager,
+                new CommandRecoveryProperties(
+                        true, 10, Duration.ofSeconds(5), 5, Duration.ofSeconds(30), Duration.ofMinutes(10), 2),
+                meterRegistry);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        outboxMessageRepository.deleteAllInBatch();
+        idempotencyRepository.deleteAllInBatch();
+        transferCommandRepository.deleteAllInBatch();
+        transferRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void resendsOverdueCommandWithDoublingDelay() {
+        TransferResponse transfer = transferSagaService.initiateTransfer(request());
+        TransferCommandEntity debit = command(transfer.transferId(), TransferCommandType.DEBIT);
+        assertThat(debit.getStatus()).isEqualTo(TransferCommandStatus.SENT);
+        assertThat(Duration.between(debit.getSentAt(), debit.getNextAttemptAt())).isEqualTo(Duration.ofSeconds(30));
+
+        recovery.recoverOverdue();
+        assertThat(outboxMessageRepository.count()).isEqualTo(1);
+
+        makeOverdue(debit.getId());
+        recovery.recoverOverdue();
+
+        TransferCommandEntity resent = command(transfer.transferId(), TransferCommandType.DEBIT);
+        assertThat(resent.getRetryCount()).isEqualTo(1);
+        assertThat(Duration.between(resent.getSentAt(), resent.getNextAttemptAt())).isEqualTo(Duration.ofSeconds(60));
+        assertThat(outboxMessageRepository.findAll())
+                .extracting(OutboxMessageEntity::getRoutingKey)
+                .containsExactly("wallet.debit.command", "wallet.debit.command");
+        assertThat(meterRegistry.get("transfer.commands.resent").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void parksAbandonedDebitUntilLateResultSettlesIt() {
+        TransferResponse transfer = transferSagaService.initiateTransfer(request());
+        TransferCommandEntity debit = command(transfer.transferId(), TransferCommandType.DEBIT);
+        for (int attempt = 0; attempt < 3; attempt++) {
+            makeOverdue(debit.getId());
+            recovery.recoverOverdue();
+        }
+
+        assertThat(command(transfer.transferId(), TransferCommandType.DEBIT).getStatus())
+                .isEqualTo(TransferCommandStatus.UNANSWERED);
+        TransferEntity parked = transferRepository.findById(transfer.transferId()).orElseThrow();
+        assertThat(parked.getStatus()).isEqualTo(TransferStatus.OUTCOME_UNKNOWN);
+        assertThat(parked.getFailureStage()).isEqualTo(TransferFailureStage.DEBIT);
+        assertThat(meterRegistry.get("transfer.commands.abandoned").counter().count()).isEqualTo(1.0);
+
+        makeOverdue(debit.getId());
+        recovery.recoverOverdue();
+        assertThat(meterRegistry.get("transfer.commands.resent").counter().count()).isEqualTo(2.0);
+
+        transferSagaService.handleWalletResult(succeeded(debit));
+
+        TransferEntity settled = transferRepository.findById(transfer.transferId()).orElseThrow();
+        assertThat(settled.getStatus()).isEqualTo(TransferStatus.CREDIT_IN_PROGRESS);
+        assertThat(settled.getFailureStage()).isNull();
+        assertThat(command(transfer.transferId(), TransferCommandType.CREDIT).getStatus())
+                .isEqualTo(TransferCommandStatus.SENT);
+    }
+
+    @Test
+    void abandonedCreditIsParkedNotCompensated() {
+        TransferResponse transfer = transferSagaService.initiateTransfer(request());
+        transferSagaService.handleWalletResult(
+                succeeded(command(transfer.transferId(), TransferCommandType.DEBIT)));
+        TransferCommandEntity credit = command(transfer.transferId(), TransferCommandType.CREDIT);
+        assertThat(credit.getStatus()).isEqualTo(TransferCommandStatus.SENT);
+        jdbcTemplate.update("update transfer_commands set retry_count = 2 where command_id = ?", credit.getId());
+        makeOverdue(credit.getId());
+
+        recovery.recoverOverdue();
+
+        assertThat(transferRepository.findById(transfer.transferId()).orElseThrow().getStatus())
+                .isEqualTo(TransferStatus.OUTCOME_UNKNOWN);
+        assertThat(transferCommandRepository.findByTransfer_IdAndType(
+                        transfer.transferId(), TransferCommandType.REVERSAL))
+                .isEmpty();
+    }
+
+    @Test
+    void lateResultWaitsForConcurrentAbandonAndThenSettlesTheSaga() throws Exception {
+        TransferResponse transfer = transferSagaService.initiateTransfer(request());
+        TransferCommandEntity debit = command(transfer.transferId(), TransferCommandType.DEBIT);
+        jdbcTemplate.update("update transfer_commands set retry_count = 2 where command_id = ?", debit.getId());
+        makeOverdue(debit.getId());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> lateResult = new TransactionTemplate(transactionManager).execute(status -> {
+                TransferCommandEntity claimed =
+                        transferCommandRepository.lockOverdue(OffsetDateTime.now(), 10).get(0);
+                Future<?> handling = executor.submit(() -> transferSagaService.handleWalletResult(succeeded(debit)));
+                pause(Duration.ofMillis(300));
+                assertThat(handling).isNotDone();
+                transferSagaService.abandonCommand(claimed, "No wallet result after 2 resends");
+                return handling;
+            });
+            lateResult.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(command(transfer.transferId(), TransferCommandType.DEBIT).getStatus())
+                .isEqualTo(TransferCommandStatus.ACKED);
+        assertThat(transferRepository.findById(transfer.transferId()).orElseThrow().getStatus())
+                .isEqualTo(TransferStatus.CREDIT_IN_PROGRESS);
+        assertThat(command(transfer.transferId(), TransferCommandType.CREDIT).getStatus())
+                .isEqualTo(TransferCommandStatus.SENT);
+    }
+
+    private static void pause(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private void makeOverdue(UUID commandId) {
+        jdbcTemplate.update(
+                "update transfer_commands set next_attempt_at = ? where command_id = ?",
+                OffsetDateTime.now().minusSeconds(1),
+                commandId);
+    }
+
+    private WalletTransactionResultMessage succeeded(TransferCommandEntity command) {
+        return new WalletTransactionResultMessage(
+                UUID.randomUUID(),
+                OffsetDateTime.now(),
+                UUID.randomUUID(),
+                command.getId(),
+                "wallet.transaction.result",
+                "1.0.0",
+                new WalletTransactionResultMessage.Payload(
+                        command.getId(),
+                        command.getTransfer().getId(),
+                        command.getWalletId(),
+                        WalletTransactionResultMessage.Type.valueOf(command.getType().name()),
+                        WalletTransactionResultMessage.Status.SUCCEEDED,
+                        command.getAmountMinorUnits(),
+                        0L,
+                        "order-1",
+                        null));
+    }
+
+    private TransferCommandEntity command(UUID transferId, TransferCommandType type) {
+        return transferCommandRepository.findAllWithTransfer(transferId).stream()
+                .filter(command -> command.getType() == type)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private TransferRequest request() {
+        return new TransferRequest(
+                UUID.randomUUID(),
+                UUID.randomUUID(),
+                500L,
+                "USD",
+                "order-1",
+                null,
+                null,
+                "idem-" + UUID.randomUUID());
+    }
+}
@@ -0,0 +1,92 @@
+package com.momentum.transfer.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.momentum.sharedkernel.json.RawJson;
+import com.momentum.transfer.api.dto.BatchTransferItemResult;
+import com.momentum.transfer.api.dto.BatchTransferItemResult.Outcome;
+import com.momentum.transfer.api.dto.BatchTransferResponse;
+import com.momentum.transfer.api.dto.BatchTransferStatusResponse;
+import com.momentum.transfer.api.dto.TransferRequest;
+import com.momentum.transfer.api.dto.TransferResponse;
+import com.momentum.transfer.persistence.outbox.OutboxMessageEntity;
+import com.momentum.transfer.persistence.repository.OutboxMessageRepository;
+import com.momentum.transfer.persistence.repository.TransferCommandRepository;
+import com.momentum.transfer.persistence.transfer.TransferStatus;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransferBatchServiceTest {
+
+    @Autowired
+    private TransferBatchService transferBatchService;
+
+    @Autowired
+    private TransferSagaService transferSagaService;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private TransferCommandRepository transferCommandRepository;
+
+    @Test
+    @Transactional
+    void initiateBatch_reportsPerItemOutcomesAndStagesDebits() {
+        TransferRequest earlier = request(300, "idem-" + UUID.randomUUID());
+        TransferResponse existing = transferSagaService.initiateTransfer(earlier);
+        TransferRequest fresh = new TransferRequest(UUID.randomUUID(), UUID.randomUUID(), 500, "USD", "payout", null,
+                new RawJson("{\"channel\":\"batch\"}"), "idem-" + UUID.randomUUID());
+        TransferRequest reusedKey = new TransferRequest(
+                earlier.sourceWalletId(),
+                earlier.destinationWalletId(),
+                999,
+                "USD",
+                "payout",
+                null,
+                null,
+                earlier.idempotencyKey());
+        long outboxBefore = outboxMessageRepository.count();
+
+        BatchTransferResponse response = transferBatchService.initiateBatch(List.of(
+                fresh, request(0, "idem-" + UUID.randomUUID()), fresh, earlier, reusedKey));
+
+        assertThat(response.items()).extracting(BatchTransferItemResult::outcome).containsExactly(
+                Outcome.ACCEPTED, Outcome.REJECTED, Outcome.DUPLICATE, Outcome.DUPLICATE, Outcome.REJECTED);
+        assertThat(response.items().get(1).error()).contains("amountMinorUnits");
+        assertThat(response.items().get(2).transferId()).isEqualTo(response.items().get(0).transferId());
+        assertThat(response.items().get(3).transferId()).isEqualTo(existing.transferId());
+        assertThat(response.accepted()).isEqualTo(1);
+        assertThat(response.duplicates()).isEqualTo(2);
+        assertThat(response.rejected()).isEqualTo(2);
+
+        UUID acceptedId = response.items().get(0).transferId();
+        assertThat(transferCommandRepository.findAll())
+                .filteredOn(command -> command.getTransfer().getId().equals(acceptedId))
+                .hasSize(2);
+        List<OutboxMessageEntity> outbox = outboxMessageRepository.findAll();
+        assertThat(outbox).hasSize((int) outboxBefore + 1);
+        assertThat(outbox).anySatisfy(message -> {
+            assertThat(message.getRoutingKey()).isEqualTo("wallet.debit.command");
+            assertThat(message.getHeaders()).contains(fresh.sourceWalletId().toString());
+        });
+
+        BatchTransferStatusResponse status = transferBatchService.getBatch(response.batchId()).orElseThrow();
+        assertThat(status.itemCount()).isEqualTo(5);
+        assertThat(status.accepted()).isEqualTo(1);
+        assertThat(status.transfersByStatus()).containsExactly(Map.entry(TransferStatus.DEBIT_IN_PROGRESS, 1L));
+    }
+
+    private TransferRequest request(long amount, String idempotencyKey) {
+        return new TransferRequest(
+                UUID.randomUUID(), UUID.randomUUID(), amount, "USD", "payout", null, null, idempotencyKey);
+    }
+}
@@ -0,0 +1,132 @@
+package com.momentum.transfer.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.momentum.transfer.api.dto.TransferRequest;
+import com.momentum.transfer.api.dto.TransferResponse;
+import com.momentum.transfer.config.IdempotencyProperties;
+import com.momentum.transfer.idempotency.IdempotencyKeyFilter;
+import com.momentum.transfer.idempotency.IdempotencySweeper;
+import com.momentum.transfer.persistence.repository.OutboxMessageRepository;
+import com.momentum.transfer.persistence.repository.TransferCommandRepository;
+import com.momentum.transfer.persistence.repository.TransferIdempotencyRepository;
+import com.momentum.transfer.persistence.repository.TransferRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransferIdempotencyTest {
+
+    @Autowired
+    private TransferSagaService transferSagaService;
+
+    @Autowired
+    private IdempotencyKeyFilter idempotencyKeyFilter;
+
+    @Autowired
+    private IdempotencyProperties idempotencyProperties;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private TransferCommandRepository transferCommandRepository;
+
+    @Autowired
+    private TransferIdempotencyRepository idempotencyRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        outboxMessageRepository.deleteAllInBatch();
+        idempotencyRepository.deleteAllInBatch();
+        transferCommandRepository.deleteAllInBatch();
+        transferRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void repeatedRequestReturnsTheOriginalTransfer() {
+        TransferRequest request = request("idem-" + UUID.randomUUID(), 500L);
+
+        TransferResponse first = transferSagaService.initiateTransfer(request);
+        TransferResponse second = transferSagaService.initiateTransfer(request);
+
+        assertThat(second.transferId()).isEqualTo(first.transferId());
+        assertThat(transferRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void reusedKeyWithDifferentRequestIsRejected() {
+        String key = "idem-" + UUID.randomUUID();
+        transferSagaService.initiateTransfer(request(key, 500L));
+
+        assertThatThrownBy(() -> transferSagaService.initiateTransfer(request(key, 700L)))
+                .isInstanceOf(IdempotencyConflictException.class)
+                .hasMessageContaining(key);
+        assertThat(transferRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void keyTheFilterForgotIsResolvedByTheUniqueConstraint() {
+        TransferRequest request = request("idem-" + UUID.randomUUID(), 500L);
+        TransferResponse first = transferSagaService.initiateTransfer(request);
+        idempotencyKeyFilter.rotate();
+        idempotencyKeyFilter.rotate();
+        assertThat(idempotencyKeyFilter.mightContain(request.idempotencyKey())).isFalse();
+
+        TransferResponse second = transferSagaService.initiateTransfer(request);
+
+        assertThat(second.transferId()).isEqualTo(first.transferId());
+        assertThat(transferRepository.count()).isEqualTo(1);
+        assertThat(idempotencyKeyFilter.mightContain(request.idempotencyKey())).isTrue();
+    }
+
+    @Test
+    void sweeperDeletesOnlyExpiredRows() {
+        TransferResponse expired = transferSagaService.initiateTransfer(request("idem-" + UUID.randomUUID(), 500L));
+        TransferResponse live = transferSagaService.initiateTransfer(request("idem-" + UUID.randomUUID(), 500L));
+        jdbcTemplate.update(
+                "update transfer_idempotency set expires_at = ? where transfer_id = ?",
+                OffsetDateTime.now().minusMinutes(1),
+                expired.transferId());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        IdempotencySweeper sweeper =
+                new IdempotencySweeper(idempotencyRepository, transactionManager, idempotencyProperties, meterRegistry);
+
+        sweeper.sweepExpired();
+
+        assertThat(idempotencyRepository.findByTransfer_Id(expired.transferId())).isEmpty();
+        assertThat(idempotencyRepository.findByTransfer_Id(live.transferId())).isPresent();
+        assertThat(meterRegistry.get("transfer.idempotency.swept").counter().count()).isEqualTo(1.0);
+    }
+
+    private TransferRequest request(String idempotencyKey, long amountMinorUnits) {
+        return new TransferRequest(
+                UUID.fromString("00000000-0000-7000-8000-000000000001"),
+                UUID.fromString("00000000-0000-7000-8000-000000000002"),
+                amountMinorUnits,
+                "USD",
+                "order-1",
+                null,
+                null,
+                idempotencyKey);
+    }
+}
@@ -0,0 +1,135 @@
+package com.momentum.transfer.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.momentum.sharedkernel.id.UuidV7;
+import com.momentum.transfer.api.dto.TransferRequest;
+import com.momentum.transfer.idempotency.TransferRequestHasher;
+import com.momentum.transfer.persistence.command.TransferCommandEntity;
+import com.momentum.transfer.persistence.command.TransferCommandType;
+import com.momentum.transfer.persistence.idempotency.TransferIdempotencyEntity;
+import com.momentum.transfer.persistence.transfer.TransferEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * JDBC statements needed to stage a transfer when new entities are persisted directly versus merged.
+ * With ordered batching the inserts of one flush share a prepared statement per table, so the persist path
+ * approaches one statement per table while the merge path adds a select per entity.
+ *
+ * <p>The merge path reproduces what {@code save} did before the entities implemented {@code Persistable}: an
+ * assigned id made Spring Data call {@code merge}, which selects the row before inserting it.
+ *
+ * <p>Run with {@code ./gradlew :services:transfer-service:benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class TransferInsertBenchmark {
+
+    private static final int TRANSFERS = 500;
+
+    @Autowired
+    private TransferSagaService transferSagaService;
+
+    @Autowired
+    private TransferRequestHasher requestHasher;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void statementsPerTransfer() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Result merge = run(statistics, "merge", this::stageWithMerge);
+        Result persist = run(statistics, "persist", this::stageWithPersist);
+        Result initiate = run(statistics, "initiateTransfer", request -> transferSagaService.initiateTransfer(request));
+
+        System.out.printf("%-18s %12s %12s%n", "path", "stmts/xfer", "xfer/s");
+        for (Result result : new Result[] {merge, persist, initiate}) {
+            System.out.printf("%-18s %12.2f %12.0f%n",
+                    result.name(), result.statementsPerTransfer(), result.throughput());
+        }
+        assertThat(persist.statementsPerTransfer()).isLessThan(merge.statementsPerTransfer());
+    }
+
+    private Result run(Statistics statistics, String name, Consumer<TransferRequest> stage) {
+        for (int i = 0; i < 50; i++) {
+            stage.accept(request());
+        }
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < TRANSFERS; i++) {
+            stage.accept(request());
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return new Result(
+                name,
+                (double) statistics.getPrepareStatementCount() / TRANSFERS,
+                TRANSFERS / seconds);
+    }
+
+    private void stageWithPersist(TransferRequest request) {
+        transactionTemplate.executeWithoutResult(status -> {
+            TransferEntity transfer = transferSagaService.newTransfer(request);
+            entityManager.persist(transfer);
+            entityManager.persist(idempotency(request, transfer));
+            entityManager.persist(command(transfer, TransferCommandType.DEBIT));
+            entityManager.persist(command(transfer, TransferCommandType.CREDIT));
+        });
+    }
+
+    private void stageWithMerge(TransferRequest request) {
+        transactionTemplate.executeWithoutResult(status -> {
+            TransferEntity transfer = entityManager.merge(transferSagaService.newTransfer(request));
+            entityManager.merge(idempotency(request, transfer));
+            entityManager.merge(command(transfer, TransferCommandType.DEBIT));
+            entityManager.merge(command(transfer, TransferCommandType.CREDIT));
+        });
+    }
+
+    private TransferIdempotencyEntity idempotency(TransferRequest request, TransferEntity transfer) {
+        return new TransferIdempotencyEntity(
+                request.idempotencyKey(),
+                transfer,
+                requestHasher.hash(request),
+                transferSagaService.idempotencyExpiry(OffsetDateTime.now()));
+    }
+
+    private TransferCommandEntity command(TransferEntity transfer, TransferCommandType type) {
+        UUID walletId = type == TransferCommandType.DEBIT ? transfer.getSourceWalletId() : transfer.getDestinationWalletId();
+        return new TransferCommandEntity(UuidV7.next(), transfer, type, walletId, transfer.getAmountMinorUnits());
+    }
+
+    private TransferRequest request() {
+        return new TransferRequest(
+                UUID.randomUUID(),
+                UUID.randomUUID(),
+                100L,
+                "USD",
+                "bench",
+                null,
+                null,
+                "bench-" + UUID.randomUUID());
+    }
+
+    private record Result(String name, double statementsPerTransfer, double throughput) {}
+}
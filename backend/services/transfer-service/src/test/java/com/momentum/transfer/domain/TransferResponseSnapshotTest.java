@@ -0,0 +1,156 @@
+package com.momentum.transfer.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.momentum.sharedkernel.json.RawJson;
+import com.momentum.transfer.api.dto.TransferRequest;
+import com.momentum.transfer.api.dto.TransferResponse;
+import com.momentum.transfer.config.IdempotencyProperties;
+import com.momentum.transfer.idempotency.ResponseSnapshotStore;
+import com.momentum.transfer.messaging.payload.WalletTransactionResultMessage;
+import com.momentum.transfer.persistence.command.TransferCommandEntity;
+import com.momentum.transfer.persistence.command.TransferCommandType;
+import com.momentum.transfer.persistence.repository.OutboxMessageRepository;
+import com.momentum.transfer.persistence.repository.TransferCommandRepository;
+import com.momentum.transfer.persistence.repository.TransferIdempotencyRepository;
+import com.momentum.transfer.persistence.repository.TransferRepository;
+import com.momentum.transfer.persistence.transfer.TransferStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class TransferResponseSnapshotTest {
+
+    @Autowired
+    private TransferSagaService transferSagaService;
+
+    @Autowired
+    private TransferBatchService transferBatchService;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private TransferCommandRepository transferCommandRepository;
+
+    @Autowired
+    private TransferIdempotencyRepository idempotencyRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private IdempotencyProperties idempotencyProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        outboxMessageRepository.deleteAllInBatch();
+        idempotencyRepository.deleteAllInBatch();
+        transferCommandRepository.deleteAllInBatch();
+        transferRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void repeatedRequestIsAnsweredWithoutTouchingTheDatabase() {
+        TransferRequest request = request("idem-" + UUID.randomUUID());
+        TransferResponse first = transferSagaService.initiateTransfer(request);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        TransferResponse second = transferSagaService.initiateTransfer(request);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void storedSnapshotFollowsTheSagaAndIsReadWithoutLoadingTheTransfer() {
+        TransferRequest request = request("idem-" + UUID.randomUUID());
+        TransferResponse initiated = transferSagaService.initiateTransfer(request);
+        transferSagaService.handleWalletResult(succeeded(initiated.transferId(), TransferCommandType.DEBIT));
+        ResponseSnapshotStore uncached = uncachedStore();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        TransferResponse stored = uncached.find(request.idempotencyKey()).orElseThrow().response();
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(stored.transferId()).isEqualTo(initiated.transferId());
+        assertThat(stored.status()).isEqualTo(TransferStatus.CREDIT_IN_PROGRESS);
+        assertThat(stored.metadata()).isEqualTo(initiated.metadata());
+        assertThat(transferSagaService.initiateTransfer(request).status()).isEqualTo(TransferStatus.CREDIT_IN_PROGRESS);
+    }
+
+    @Test
+    void snapshotMissingFromABulkSubmissionIsBackfilledOnFirstRepeat() {
+        TransferRequest request = request("idem-" + UUID.randomUUID());
+        UUID transferId = transferBatchService.initiateBatch(List.of(request)).items().get(0).transferId();
+        assertThat(uncachedStore().find(request.idempotencyKey()).orElseThrow().response()).isNull();
+
+        TransferResponse repeated = transferSagaService.initiateTransfer(request);
+
+        assertThat(repeated.transferId()).isEqualTo(transferId);
+        assertThat(uncachedStore().find(request.idempotencyKey()).orElseThrow().response()).isEqualTo(repeated);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from transfers", Long.class)).isEqualTo(1);
+    }
+
+    private ResponseSnapshotStore uncachedStore() {
+        return new ResponseSnapshotStore(
+                idempotencyRepository, objectMapper, idempotencyProperties, new SimpleMeterRegistry());
+    }
+
+    private WalletTransactionResultMessage succeeded(UUID transferId, TransferCommandType type) {
+        TransferCommandEntity command = transferCommandRepository.findByTransfer_IdAndType(transferId, type).get(0);
+        return new WalletTransactionResultMessage(
+                UUID.randomUUID(),
+                OffsetDateTime.now(),
+                UUID.randomUUID(),
+                command.getId(),
+                "wallet.transaction.result",
+                "1.0.0",
+                new WalletTransactionResultMessage.Payload(
+                        command.getId(),
+                        transferId,
+                        command.getWalletId(),
+                        WalletTransactionResultMessage.Type.valueOf(type.name()),
+                        WalletTransactionResultMessage.Status.SUCCEEDED,
+                        command.getAmountMinorUnits(),
+                        0L,
+                        "order-1",
+                        null));
+    }
+
+    private TransferRequest request(String idempotencyKey) {
+        return new TransferRequest(
+                UUID.randomUUID(),
+                UUID.randomUUID(),
+                500L,
+                "USD",
+                "order-1",
+                null,
+                new RawJson("{\"channel\":\"api\"}"),
+                idempotencyKey);
+    }
+}
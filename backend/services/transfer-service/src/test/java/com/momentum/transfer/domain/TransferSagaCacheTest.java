@@ -0,0 +1,154 @@
+package com.momentum.transfer.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.momentum.transfer.api.dto.TransferRequest;
+import com.momentum.transfer.api.dto.TransferResponse;
+import com.momentum.transfer.cache.SagaStateCache;
+import com.momentum.transfer.messaging.payload.WalletTransactionResultMessage;
+import com.momentum.transfer.persistence.command.TransferCommandEntity;
+import com.momentum.transfer.persistence.command.TransferCommandStatus;
+import com.momentum.transfer.persistence.command.TransferCommandType;
+import com.momentum.transfer.persistence.repository.OutboxMessageRepository;
+import com.momentum.transfer.persistence.repository.TransferCommandRepository;
+import com.momentum.transfer.persistence.repository.TransferIdempotencyRepository;
+import com.momentum.transfer.persistence.repository.TransferRepository;
+import com.momentum.transfer.persistence.transfer.TransferStatus;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = {
+    "transfer.saga.cache.enabled=true",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+class TransferSagaCacheTest {
+
+    @Autowired
+    private TransferSagaService transferSagaService;
+
+    @Autowired
+    private SagaStateCache sagaStateCache;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private TransferCommandRepository transferCommandRepository;
+
+    @Autowired
+    private TransferIdempotencyRepository idempotencyRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        outboxMessageRepository.deleteAllInBatch();
+        idempotencyRepository.deleteAllInBatch();
+        transferCommandRepository.deleteAllInBatch();
+        transferRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void completesSagaFromCachedStateWithoutLoadingEntities() {
+        TransferResponse transfer = transferSagaService.initiateTransfer(request());
+        assertThat(sagaStateCache.contains(transfer.transferId())).isTrue();
+        WalletTransactionResultMessage debitResult = succeeded(transfer.transferId(), TransferCommandType.DEBIT);
+        WalletTransactionResultMessage creditResult = succeeded(transfer.transferId(), TransferCommandType.CREDIT);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        transferSagaService.handleWalletResult(debitResult);
+        transferSagaService.handleWalletResult(creditResult);
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(transferRepository.findById(transfer.transferId()).orElseThrow().getStatus())
+                .isEqualTo(TransferStatus.COMPLETED);
+        assertThat(transferCommandRepository.findByTransfer_Id(transfer.transferId()))
+                .extracting(TransferCommandEntity::getStatus)
+                .containsOnly(TransferCommandStatus.ACKED);
+        assertThat(outboxMessageRepository.findAll())
+                .extracting(message -> message.getRoutingKey())
+                .containsExactlyInAnyOrder("wallet.debit.command", "wallet.credit.command", "transfer.completed.event");
+        assertThat(sagaStateCache.contains(transfer.transferId())).isFalse();
+    }
+
+    @Test
+    void staleCachedTransferRollsBackAndRetryReadsTheDatabase() {
+        TransferResponse transfer = transferSagaService.initiateTransfer(request());
+        jdbcTemplate.update(
+                "update transfers set status = ? where transfer_id = ?",
+                TransferStatus.PENDING.name(),
+                transfer.transferId());
+        WalletTransactionResultMessage debitResult = succeeded(transfer.transferId(), TransferCommandType.DEBIT);
+
+        assertThatThrownBy(() -> transferSagaService.handleWalletResult(debitResult))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("changed concurrently");
+        assertThat(command(transfer.transferId(), TransferCommandType.DEBIT).getStatus())
+                .isEqualTo(TransferCommandStatus.SENT);
+        assertThat(sagaStateCache.contains(transfer.transferId())).isFalse();
+
+        transferSagaService.handleWalletResult(debitResult);
+
+        assertThat(command(transfer.transferId(), TransferCommandType.DEBIT).getStatus())
+                .isEqualTo(TransferCommandStatus.ACKED);
+        assertThat(transferRepository.findById(transfer.transferId()).orElseThrow().getStatus())
+                .isEqualTo(TransferStatus.CREDIT_IN_PROGRESS);
+        assertThat(sagaStateCache.contains(transfer.transferId())).isTrue();
+    }
+
+    private WalletTransactionResultMessage succeeded(UUID transferId, TransferCommandType type) {
+        TransferCommandEntity command = command(transferId, type);
+        return new WalletTransactionResultMessage(
+                UUID.randomUUID(),
+                OffsetDateTime.now(),
+                UUID.randomUUID(),
+                command.getId(),
+                "wallet.transaction.result",
+                "1.0.0",
+                new WalletTransactionResultMessage.Payload(
+                        command.getId(),
+                        transferId,
+                        command.getWalletId(),
+                        WalletTransactionResultMessage.Type.valueOf(type.name()),
+                        WalletTransactionResultMessage.Status.SUCCEEDED,
+                        command.getAmountMinorUnits(),
+                        0L,
+                        "order-1",
+                        null));
+    }
+
+    private TransferCommandEntity command(UUID transferId, TransferCommandType type) {
+        return transferCommandRepository.findByTransfer_IdAndType(transferId, type).get(0);
+    }
+
+    private TransferRequest request() {
+        return new TransferRequest(
+                UUID.randomUUID(),
+                UUID.randomUUID(),
+                500L,
+                "USD",
+                "order-1",
+                null,
+                null,
+                "idem-" + UUID.randomUUID());
+    }
+}
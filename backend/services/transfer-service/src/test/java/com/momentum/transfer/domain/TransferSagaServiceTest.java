@@ -0,0 +1,63 @@
+package com.momentum.transfer.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.momentum.sharedkernel.json.RawJson;
+import com.momentum.transfer.api.dto.TransferRequest;
+import com.momentum.transfer.api.dto.TransferResponse;
+import com.momentum.transfer.persistence.outbox.OutboxMessageEntity;
+import com.momentum.transfer.persistence.repository.OutboxMessageRepository;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransferSagaServiceTest {
+
+    @Autowired
+    private TransferSagaService transferSagaService;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @Transactional
+    void initiateTransfer_stagesDebitCommandInOutbox() throws Exception {
+        UUID sourceWalletId = UUID.randomUUID();
+        TransferRequest request = new TransferRequest(
+                sourceWalletId,
+                UUID.randomUUID(),
+                500L,
+                "USD",
+                "order-1",
+                null,
+                new RawJson("{\"channel\":\"test\"}"),
+                "idem-" + UUID.randomUUID());
+
+        TransferResponse response = transferSagaService.initiateTransfer(request);
+
+        List<OutboxMessageEntity> pending = outboxMessageRepository.findAll().stream()
+                .filter(message -> message.getPublishedAt() == null)
+                .toList();
+        assertThat(pending).hasSize(1);
+        OutboxMessageEntity message = pending.get(0);
+        assertThat(message.getRoutingKey()).isEqualTo("wallet.debit.command");
+        assertThat(message.getContentType()).isEqualTo("application/json");
+
+        JsonNode envelope = objectMapper.readTree(message.getPayload());
+        assertThat(envelope.get("messageId").asText()).isEqualTo(message.getId().toString());
+        assertThat(envelope.at("/payload/transferId").asText()).isEqualTo(response.transferId().toString());
+        assertThat(envelope.at("/payload/walletId").asText()).isEqualTo(sourceWalletId.toString());
+        assertThat(envelope.at("/payload/metadata/channel").asText()).isEqualTo("test");
+    }
+}
@@ -0,0 +1,62 @@
+package com.momentum.transfer.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.momentum.transfer.config.IdempotencyProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class IdempotencyKeyFilterTest {
+
+    private static final int KEYS = 20_000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final IdempotencyKeyFilter filter = new IdempotencyKeyFilter(
+            new IdempotencyProperties(Duration.ofDays(1), true, KEYS, 0.01, false, Duration.ofMinutes(1), 1000, 100, 10000, Duration.ofSeconds(30)),
+            mock(JdbcTemplate.class),
+            meterRegistry);
+
+    @Test
+    void reportsEveryKeyAsSeenUntilSeeded() {
+        assertThat(filter.mightContain("never-added")).isTrue();
+
+        filter.seed();
+
+        assertThat(filter.mightContain("never-added")).isFalse();
+    }
+
+    @Test
+    void neverForgetsAnAddedKeyAndRarelyReportsAnUnseenOne() {
+        filter.seed();
+        for (int i = 0; i < KEYS; i++) {
+            filter.add("seen-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < KEYS; i++) {
+            assertThat(filter.mightContain("seen-" + i)).isTrue();
+            if (filter.mightContain("unseen-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives).isLessThan(KEYS / 50);
+        assertThat(meterRegistry.get("transfer.idempotency.filter").tag("result", "skipped").counter().count())
+                .isEqualTo(KEYS - falsePositives);
+    }
+
+    @Test
+    void keepsKeysForOneGenerationAfterTheirOwn() {
+        filter.seed();
+        filter.add("key");
+
+        filter.rotate();
+        assertThat(filter.mightContain("key")).isTrue();
+
+        filter.rotate();
+        assertThat(filter.mightContain("key")).isFalse();
+    }
+}
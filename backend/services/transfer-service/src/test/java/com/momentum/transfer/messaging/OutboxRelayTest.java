@@ -0,0 +1,196 @@
+package com.momentum.transfer.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.momentum.transfer.config.OutboxProperties;
+import com.momentum.transfer.persistence.outbox.OutboxMessageEntity;
+import com.momentum.transfer.persistence.repository.OutboxMessageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        outboxMessageRepository.deleteAll();
+    }
+
+    @Test
+    void relayPending_marksConfirmedMessagesAndRetriesNacked() {
+        UUID acked = stage("transfer.completed.event");
+        UUID nacked = stage("transfer.failed.event");
+        RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+        doAnswer(invocation -> {
+                    CorrelationData correlation = invocation.getArgument(3);
+                    boolean ack = !correlation.getId().equals(nacked.toString());
+                    correlation.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "rejected"));
+                    return null;
+                })
+                .when(rabbitTemplate)
+                .send(eq("transfer.events.test"), anyString(), any(Message.class), any(CorrelationData.class));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OutboxRelay relay = new OutboxRelay(
+                outboxMessageRepository,
+                rabbitTemplate,
+                transactionManager,
+                properties(10),
+                new ObjectMapper(),
+                meterRegistry);
+
+        relay.relayPending();
+
+        OutboxMessageEntity published = outboxMessageRepository.findById(acked).orElseThrow();
+        OutboxMessageEntity pending = outboxMessageRepository.findById(nacked).orElseThrow();
+        assertThat(published.getPublishedAt()).isNotNull();
+        assertThat(pending.getPublishedAt()).isNull();
+        assertThat(pending.getAttempts()).isEqualTo(1);
+        assertThat(pending.getLastError()).contains("rejected");
+        assertThat(pending.getNextAttemptAt()).isAfter(OffsetDateTime.now());
+        assertThat(pending.getParkedAt()).isNull();
+        assertThat(meterRegistry.get("transfer.outbox.published").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("transfer.outbox.batch.size").summary().totalAmount()).isEqualTo(2.0);
+    }
+
+    @Test
+    void relayPending_setsStoredHeadersOnPublishedMessage() {
+        UUID id = UUID.randomUUID();
+        outboxMessageRepository.save(new OutboxMessageEntity(
+                id,
+                "wallet.commands.test",
+                "wallet.debit.command",
+                "application/json",
+                "{}".getBytes(StandardCharsets.UTF_8),
+                "{\"wallet-id\":\"w-1\"}"));
+        RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+        List<Message> sent = new ArrayList<>();
+        doAnswer(invocation -> {
+                    sent.add(invocation.getArgument(2));
+                    CorrelationData correlation = invocation.getArgument(3);
+                    correlation.getFuture().complete(new CorrelationData.Confirm(true, null));
+                    return null;
+                })
+                .when(rabbitTemplate)
+                .send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        OutboxRelay relay = new OutboxRelay(
+                outboxMessageRepository,
+                rabbitTemplate,
+                transactionManager,
+                properties(10),
+                new ObjectMapper(),
+                new SimpleMeterRegistry());
+
+        relay.relayPending();
+
+        assertThat(sent).singleElement().satisfies(message -> {
+            assertThat((String) message.getMessageProperties().getHeader("wallet-id")).isEqualTo("w-1");
+            assertThat(message.getMessageProperties().getMessageId()).isEqualTo(id.toString());
+        });
+    }
+
+    @Test
+    void relayPending_keepsRelayingPastFailingMessagesAndParksThem() {
+        UUID poisoned = stage("transfer.failed.event");
+        List<UUID> backlog = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            backlog.add(stage("transfer.completed.event"));
+        }
+        RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+        doAnswer(invocation -> {
+                    CorrelationData correlation = invocation.getArgument(3);
+                    boolean ack = !correlation.getId().equals(poisoned.toString());
+                    correlation.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "rejected"));
+                    return null;
+                })
+                .when(rabbitTemplate)
+                .send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OutboxRelay relay = new OutboxRelay(
+                outboxMessageRepository,
+                rabbitTemplate,
+                transactionManager,
+                new OutboxProperties(true, 2, Duration.ofMillis(100), 5, Duration.ofSeconds(1), 2, Duration.ZERO,
+                        Duration.ZERO, Duration.ofDays(7), Duration.ofMinutes(10), 100),
+                new ObjectMapper(),
+                meterRegistry);
+
+        relay.relayPending();
+
+        assertThat(outboxMessageRepository.findAllById(backlog))
+                .allSatisfy(message -> assertThat(message.getPublishedAt()).isNotNull());
+        OutboxMessageEntity parked = outboxMessageRepository.findById(poisoned).orElseThrow();
+        assertThat(parked.getParkedAt()).isNotNull();
+        assertThat(parked.getAttempts()).isEqualTo(2);
+        assertThat(meterRegistry.get("transfer.outbox.parked").counter().count()).isEqualTo(1.0);
+
+        relay.relayPending();
+
+        assertThat(outboxMessageRepository.findById(poisoned).orElseThrow().getAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    void purgePublished_deletesOnlyPublishedMessagesPastTheRetention() {
+        UUID old = stage("transfer.completed.event");
+        UUID recent = stage("transfer.completed.event");
+        UUID pending = stage("transfer.completed.event");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            outboxMessageRepository.findById(old).orElseThrow().markPublished(OffsetDateTime.now().minusDays(8));
+            outboxMessageRepository.findById(recent).orElseThrow().markPublished(OffsetDateTime.now().minusDays(1));
+        });
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OutboxRelay relay = new OutboxRelay(
+                outboxMessageRepository,
+                mock(RabbitTemplate.class),
+                transactionManager,
+                properties(10),
+                new ObjectMapper(),
+                meterRegistry);
+
+        relay.purgePublished();
+
+        assertThat(outboxMessageRepository.existsById(old)).isFalse();
+        assertThat(outboxMessageRepository.existsById(recent)).isTrue();
+        assertThat(outboxMessageRepository.existsById(pending)).isTrue();
+        assertThat(meterRegistry.get("transfer.outbox.purged").counter().count()).isEqualTo(1.0);
+    }
+
+    private static OutboxProperties properties(int batchSize) {
+        return new OutboxProperties(true, batchSize, Duration.ofMillis(100), 5, Duration.ofSeconds(1), 10,
+                Duration.ofSeconds(1), Duration.ofMinutes(5), Duration.ofDays(7), Duration.ofMinutes(10), 100);
+    }
+
+    private UUID stage(String routingKey) {
+        UUID id = UUID.randomUUID();
+        outboxMessageRepository.save(new OutboxMessageEntity(
+                id, "transfer.events.test", routingKey, "application/json", "{}".getBytes(StandardCharsets.UTF_8)));
+        return id;
+    }
+}
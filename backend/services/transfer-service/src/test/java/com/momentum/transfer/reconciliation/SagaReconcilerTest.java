@@ -0,0 +1,255 @@
+package com.momentum.transfer.reconciliation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.momentum.sharedkernel.id.UuidV7;
+import com.momentum.transfer.config.SagaReconciliationProperties;
+import com.momentum.transfer.persistence.reconciliation.SagaDiscrepancyEntity;
+import com.momentum.transfer.persistence.reconciliation.SagaDiscrepancyType;
+import com.momentum.transfer.persistence.reconciliation.SagaReconciliationRunEntity;
+import com.momentum.transfer.persistence.repository.SagaDeferredTransferRepository;
+import com.momentum.transfer.persistence.repository.SagaDiscrepancyRepository;
+import com.momentum.transfer.persistence.repository.SagaReconciliationRepository;
+import com.momentum.transfer.persistence.repository.SagaReconciliationRunRepository;
+import com.momentum.transfer.persistence.repository.TransferRepository;
+import com.momentum.transfer.persistence.transfer.TransferEntity;
+import com.momentum.transfer.persistence.transfer.TransferStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SagaReconcilerTest {
+
+    private static final long AMOUNT = 500L;
+
+    @Autowired
+    private TransferRepository transferRepository;
+
+    @Autowired
+    private SagaReconciliationRepository readRepository;
+
+    @Autowired
+    private SagaReconciliationRunRepository runRepository;
+
+    @Autowired
+    private SagaDiscrepancyRepository discrepancyRepository;
+
+    @Autowired
+    private SagaDeferredTransferRepository deferredRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<UUID> transferIds = new ArrayList<>();
+    private final List<LedgerLeg> ledger = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        discrepancyRepository.deleteAllInBatch();
+        deferredRepository.deleteAllInBatch();
+        runRepository.deleteAllInBatch();
+        transferRepository.deleteAllById(transferIds);
+    }
+
+    @Test
+    void mergeFlagsMissingDuplicatedUncompensatedAndOrphanedLegs() {
+        OffsetDateTime from = OffsetDateTime.now();
+        TransferEntity settled = transfer(TransferStatus.COMPLETED);
+        debit(settled, AMOUNT);
+        credit(settled, settled.getDestinationWalletId(), AMOUNT);
+
+        TransferEntity missingCredit = transfer(TransferStatus.COMPLETED);
+        debit(missingCredit, AMOUNT);
+
+        TransferEntity doubleDebit = transfer(TransferStatus.COMPLETED);
+        debit(doubleDebit, AMOUNT);
+        debit(doubleDebit, AMOUNT);
+        credit(doubleDebit, doubleDebit.getDestinationWalletId(), AMOUNT - 1);
+
+        UUID unknownTransfer = UuidV7.next();
+        LedgerLeg orphan = leg(unknownTransfer, UUID.randomUUID(), "CREDIT", AMOUNT);
+
+        TransferEntity compensated = transfer(TransferStatus.FAILED_COMPENSATED);
+        debit(compensated, AMOUNT);
+        credit(compensated, compensated.getSourceWalletId(), AMOUNT);
+
+        TransferEntity uncompensated = transfer(TransferStatus.FAILED_COMPENSATED);
+        LedgerLeg strandedDebit = debit(uncompensated, AMOUNT);
+
+        TransferEntity inFlight = transfer(TransferStatus.CREDIT_IN_PROGRESS);
+        debit(inFlight, AMOUNT);
+        OffsetDateTime to = OffsetDateTime.now().plusSeconds(1);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SagaReconciliationRunEntity run = reconciler(meterRegistry, Duration.ofHours(1)).reconcile(from, to);
+
+        assertThat(run.getFinishedAt()).isNotNull();
+        assertThat(run.getTransfersChecked()).isEqualTo(5);
+        assertThat(run.getTransfersInFlight()).isEqualTo(1);
+        assertThat(run.getLegsChecked()).isEqualTo(ledger.size());
+        assertThat(findings(run, settled)).isEmpty();
+        assertThat(findings(run, compensated)).isEmpty();
+        assertThat(findings(run, inFlight)).isEmpty();
+        assertThat(findings(run, missingCredit))
+                .singleElement()
+                .satisfies(finding -> {
+                    assertThat(finding.getType()).isEqualTo(SagaDiscrepancyType.MISSING_LEG);
+                    assertThat(finding.getWalletId()).isEqualTo(missingCredit.getDestinationWalletId());
+                    assertThat(finding.getEntryId()).isNull();
+                });
+        assertThat(findings(run, doubleDebit))
+                .extracting(SagaDiscrepancyEntity::getType)
+                .containsExactlyInAnyOrder(SagaDiscrepancyType.DUPLICATED_LEG, SagaDiscrepancyType.AMOUNT_MISMATCH);
+        assertThat(findings(run, uncompensated))
+                .singleElement()
+                .satisfies(finding -> {
+                    assertThat(finding.getType()).isEqualTo(SagaDiscrepancyType.UNCOMPENSATED_DEBIT);
+                    assertThat(finding.getEntryId()).isEqualTo(strandedDebit.entryId());
+                });
+        assertThat(discrepancyRepository.findByRunIdAndTransferId(run.getId(), unknownTransfer))
+                .singleElement()
+                .satisfies(finding -> {
+                    assertThat(finding.getType()).isEqualTo(SagaDiscrepancyType.ORPHANED_LEG);
+                    assertThat(finding.getEntryId()).isEqualTo(orphan.entryId());
+                });
+        assertThat(run.getDiscrepanciesFound()).isEqualTo(5);
+        assertThat(meterRegistry.get("transfer.reconciliation.discrepancies").counter().count()).isEqualTo(5.0);
+    }
+
+    @Test
+    void scheduledRunsStartWhereTheLastFinishedWindowEnded() throws Exception {
+        SagaReconciler reconciler = reconciler(new SimpleMeterRegistry(), Duration.ZERO);
+        reconciler.reconcileSettled();
+        SagaReconciliationRunEntity first = runRepository.findFirstByFinishedAtIsNotNullOrderByWindowToDesc()
+                .orElseThrow();
+        assertThat(first.getWindowFrom()).isEqualTo(first.getWindowTo());
+
+        TransferEntity lost = transfer(TransferStatus.COMPLETED);
+        Thread.sleep(5);
+        reconciler.reconcileSettled();
+
+        SagaReconciliationRunEntity second = runRepository.findFirstByFinishedAtIsNotNullOrderByWindowToDesc()
+                .orElseThrow();
+        assertThat(second.getWindowFrom()).isEqualTo(first.getWindowTo());
+        assertThat(findings(second, lost))
+                .extracting(SagaDiscrepancyEntity::getType)
+                .containsExactly(SagaDiscrepancyType.MISSING_LEG, SagaDiscrepancyType.MISSING_LEG);
+    }
+
+    @Test
+    void inFlightTransfersAreComparedOnceALaterRunFindsThemTerminal() {
+        OffsetDateTime from = OffsetDateTime.now();
+        TransferEntity inFlight = transfer(TransferStatus.CREDIT_IN_PROGRESS);
+        debit(inFlight, AMOUNT);
+        TransferEntity parked = transfer(TransferStatus.OUTCOME_UNKNOWN);
+        debit(parked, AMOUNT);
+        OffsetDateTime to = OffsetDateTime.now().plusSeconds(1);
+        SagaReconciler reconciler = reconciler(new SimpleMeterRegistry(), Duration.ofHours(1));
+
+        SagaReconciliationRunEntity first = reconciler.reconcile(from, to);
+
+        assertThat(first.getTransfersChecked()).isZero();
+        assertThat(first.getTransfersInFlight()).isEqualTo(2);
+        assertThat(findings(first, inFlight)).isEmpty();
+        assertThat(findings(first, parked))
+                .extracting(SagaDiscrepancyEntity::getType)
+                .containsExactly(SagaDiscrepancyType.OUTCOME_UNKNOWN);
+
+        inFlight.setStatus(TransferStatus.COMPLETED);
+        transferRepository.save(inFlight);
+        SagaReconciliationRunEntity second = reconciler.reconcile(to, to.plusSeconds(1));
+
+        assertThat(second.getTransfersChecked()).isEqualTo(1);
+        assertThat(second.getLegsChecked()).isEqualTo(1);
+        assertThat(findings(second, inFlight))
+                .singleElement()
+                .satisfies(finding -> {
+                    assertThat(finding.getType()).isEqualTo(SagaDiscrepancyType.MISSING_LEG);
+                    assertThat(finding.getWalletId()).isEqualTo(inFlight.getDestinationWalletId());
+                });
+        assertThat(findings(second, parked)).isEmpty();
+        assertThat(deferredRepository.existsById(inFlight.getId())).isFalse();
+        assertThat(deferredRepository.existsById(parked.getId())).isTrue();
+
+        SagaReconciliationRunEntity third = reconciler.reconcile(to.plusSeconds(1), to.plusSeconds(2));
+
+        assertThat(third.getTransfersChecked()).isZero();
+        assertThat(third.getDiscrepanciesFound()).isZero();
+    }
+
+    private SagaReconciler reconciler(SimpleMeterRegistry meterRegistry, Duration settleDelay) {
+        LedgerLegSource legSource = (fromTransferId, toTransferId) -> ledger.stream()
+                .filter(leg -> UuidV7.UNSIGNED_ORDER.compare(leg.transferId(), fromTransferId) >= 0
+                        && UuidV7.UNSIGNED_ORDER.compare(leg.transferId(), toTransferId) < 0)
+                .sorted(Comparator.comparing(LedgerLeg::transferId, UuidV7.UNSIGNED_ORDER)
+                        .thenComparing(LedgerLeg::entryId, UuidV7.UNSIGNED_ORDER));
+        return new SagaReconciler(
+                readRepository,
+                runRepository,
+                discrepancyRepository,
+                deferredRepository,
+                legSource,
+                transactionManager,
+                new SagaReconciliationProperties(
+                        true,
+                        URI.create("http://localhost:8080"),
+                        Duration.ofHours(1),
+                        settleDelay,
+                        Duration.ofDays(1),
+                        2,
+                        2,
+                        Duration.ofHours(6),
+                        Duration.ofSeconds(5),
+                        Duration.ofMinutes(5)),
+                meterRegistry);
+    }
+
+    private List<SagaDiscrepancyEntity> findings(SagaReconciliationRunEntity run, TransferEntity transfer) {
+        return discrepancyRepository.findByRunIdAndTransferId(run.getId(), transfer.getId());
+    }
+
+    private TransferEntity transfer(TransferStatus status) {
+        UUID id = UuidV7.next();
+        TransferEntity transfer = new TransferEntity(
+                id,
+                UUID.randomUUID(),
+                UUID.randomUUID(),
+                AMOUNT,
+                "USD",
+                "recon-" + id,
+                null,
+                null,
+                UUID.randomUUID(),
+                "recon-" + id);
+        transfer.setStatus(status);
+        transferIds.add(id);
+        return transferRepository.save(transfer);
+    }
+
+    private LedgerLeg debit(TransferEntity transfer, long amountMinorUnits) {
+        return leg(transfer.getId(), transfer.getSourceWalletId(), "DEBIT", amountMinorUnits);
+    }
+
+    private LedgerLeg credit(TransferEntity transfer, UUID walletId, long amountMinorUnits) {
+        return leg(transfer.getId(), walletId, "CREDIT", amountMinorUnits);
+    }
+
+    private LedgerLeg leg(UUID transferId, UUID walletId, String type, long amountMinorUnits) {
+        LedgerLeg leg = new LedgerLeg(transferId, UuidV7.next(), walletId, type, amountMinorUnits);
+        ledger.add(leg);
+        return leg;
+    }
+}
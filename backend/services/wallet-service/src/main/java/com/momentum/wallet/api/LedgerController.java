@@ -0,0 +1,61 @@
+package com.momentum.wallet.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.momentum.wallet.api.dto.TransferLegResponse;
+import com.momentum.wallet.domain.model.TransferLeg;
+import com.momentum.wallet.domain.service.WalletDomainService;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Ledger reads that span wallets.
+ */
+@RestController
+@RequestMapping("/api/v1/ledger")
+public class LedgerController {
+
+    private final WalletDomainService walletDomainService;
+    private final ObjectWriter transferLegWriter;
+
+    public LedgerController(WalletDomainService walletDomainService, ObjectMapper objectMapper) {
+        this.walletDomainService = walletDomainService;
+        this.transferLegWriter = objectMapper
+                .writerFor(TransferLegResponse.class)
+                .withRootValueSeparator("\n")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Streams the ledger legs of the transfers with ids in {@code [from, to)}, one document per line, sorted by
+     * transfer id and entry id so the transfer service can merge them with its own sorted view of the sagas.
+     */
+    @GetMapping(value = "/transfer-legs", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTransferLegs(@RequestParam UUID from, @RequestParam UUID to) {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter lines = transferLegWriter.writeValues(outputStream)) {
+                walletDomainService.exportTransferLegs(from, to, leg -> writeLine(lines, leg));
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeLine(SequenceWriter lines, TransferLeg leg) {
+        try {
+            lines.write(new TransferLegResponse(
+                    leg.transferId(), leg.entryId(), leg.walletId(), leg.type().name(), leg.amountMinorUnits()));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
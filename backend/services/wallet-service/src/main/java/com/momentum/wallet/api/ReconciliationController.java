@@ -0,0 +1,36 @@
+package com.momentum.wallet.api;
+
+import com.momentum.wallet.api.dto.ReconciliationRunResponse;
+import com.momentum.wallet.domain.model.ReconciliationProgress;
+import com.momentum.wallet.domain.service.ReconciliationStatusService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/reconciliation")
+public class ReconciliationController {
+
+    private final ReconciliationStatusService statusService;
+
+    public ReconciliationController(ReconciliationStatusService statusService) {
+        this.statusService = statusService;
+    }
+
+    @GetMapping("/runs/latest")
+    public ResponseEntity<ReconciliationRunResponse> getLatestRun() {
+        ReconciliationProgress progress = statusService.getLatestRun();
+        return ResponseEntity.ok(new ReconciliationRunResponse(
+                progress.runId(),
+                progress.status(),
+                progress.startedAt(),
+                progress.finishedAt(),
+                progress.rangesTotal(),
+                progress.rangesRemaining(),
+                progress.walletsChecked(),
+                progress.entriesChecked(),
+                progress.discrepanciesFound(),
+                progress.entriesPerSecond()));
+    }
+}
@@ -1,44 +1,67 @@
 package com.momentum.wallet.api;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import com.momentum.sharedkernel.domain.value.Money;
+import com.momentum.sharedkernel.id.UuidV7;
+import com.momentum.wallet.api.dto.BalanceResponse;
 import com.momentum.wallet.api.dto.CreateWalletRequest;
 import com.momentum.wallet.api.dto.LedgerEntryResponse;
+import com.momentum.wallet.api.dto.LedgerPageResponse;
+import com.momentum.wallet.api.dto.ShardWalletRequest;
 import com.momentum.wallet.api.dto.WalletResponse;
 import com.momentum.wallet.api.dto.WalletTransactionRequest;
 import com.momentum.wallet.domain.command.CreateWalletCommand;
 import com.momentum.wallet.domain.command.WalletTransactionCommand;
+import com.momentum.wallet.domain.model.HistoricalBalance;
+import com.momentum.wallet.domain.model.LedgerCursor;
 import com.momentum.wallet.domain.model.LedgerEntrySnapshot;
+import com.momentum.wallet.domain.model.LedgerPage;
 import com.momentum.wallet.domain.model.WalletSnapshot;
 import com.momentum.wallet.domain.service.WalletDomainService;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
 import java.util.Currency;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/wallets")
 public class WalletController {
 
     private final WalletDomainService walletDomainService;
+    private final ObjectWriter ledgerEntryWriter;
 
-    public WalletController(WalletDomainService walletDomainService) {
+    public WalletController(WalletDomainService walletDomainService, ObjectMapper objectMapper) {
         this.walletDomainService = walletDomainService;
+        this.ledgerEntryWriter = objectMapper
+                .writerFor(LedgerEntryResponse.class)
+                .withRootValueSeparator("\n")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
     @PostMapping
     public ResponseEntity<WalletResponse> createWallet(@Valid @RequestBody CreateWalletRequest request) {
         Currency currency = Currency.getInstance(request.currency());
         CreateWalletCommand command = new CreateWalletCommand(
-                UUID.randomUUID(),
+                UuidV7.next(),
                 request.userId(),
                 request.externalUserId(),
                 currency,
@@ -56,6 +79,22 @@ public class WalletController {
         return ResponseEntity.ok(toWalletResponse(snapshot));
     }
 
+    @GetMapping("/{walletId}/balance")
+    public ResponseEntity<BalanceResponse> getBalance(
+            @PathVariable UUID walletId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime at) {
+        HistoricalBalance balance = walletDomainService.getBalanceAt(walletId, at);
+        return ResponseEntity.ok(new BalanceResponse(
+                balance.walletId(), balance.currency(), balance.balanceMinorUnits(), balance.at()));
+    }
+
+    @PostMapping("/{walletId}/sharding")
+    public ResponseEntity<WalletResponse> shardWallet(
+            @PathVariable UUID walletId, @Valid @RequestBody(required = false) ShardWalletRequest request) {
+        WalletSnapshot snapshot = walletDomainService.shardWallet(walletId, request == null ? null : request.bucketCount());
+        return ResponseEntity.ok(toWalletResponse(snapshot));
+    }
+
     @GetMapping("/{walletId}/ledger")
     public ResponseEntity<List<LedgerEntryResponse>> getLedger(@PathVariable UUID walletId) {
         List<LedgerEntryResponse> entries = walletDomainService.getLedger(walletId).stream()
@@ -64,11 +103,37 @@ public class WalletController {
         return ResponseEntity.ok(entries);
     }
 
+    @GetMapping("/{walletId}/ledger/page")
+    public ResponseEntity<LedgerPageResponse> getLedgerPage(
+            @PathVariable UUID walletId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        LedgerCursor position = cursor == null || cursor.isBlank() ? null : LedgerCursor.decode(cursor);
+        LedgerPage page = walletDomainService.getLedgerPage(walletId, position, limit);
+        List<LedgerEntryResponse> entries = page.entries().stream()
+                .map(this::toLedgerEntryResponse)
+                .collect(Collectors.toList());
+        String nextCursor = page.hasNext() ? page.nextCursor().encode() : null;
+        return ResponseEntity.ok(new LedgerPageResponse(entries, nextCursor));
+    }
+
+    @GetMapping(value = "/{walletId}/ledger/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportLedger(@PathVariable UUID walletId) {
+        // resolve the wallet up front so a missing wallet is a 404 rather than a truncated stream
+        walletDomainService.getWallet(walletId);
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter lines = ledgerEntryWriter.writeValues(outputStream)) {
+                walletDomainService.exportLedger(walletId, snapshot -> writeLine(lines, snapshot));
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @PostMapping("/{walletId}/credit")
     public ResponseEntity<LedgerEntryResponse> credit(
             @PathVariable UUID walletId, @Valid @RequestBody WalletTransactionRequest request) {
         WalletTransactionCommand command = new WalletTransactionCommand(
-                UUID.randomUUID(),
+                UuidV7.next(),
                 walletId,
                 request.amountMinorUnits(),
                 request.reference(),
@@ -84,7 +149,7 @@ public class WalletController {
     public ResponseEntity<LedgerEntryResponse> debit(
             @PathVariable UUID walletId, @Valid @RequestBody WalletTransactionRequest request) {
         WalletTransactionCommand command = new WalletTransactionCommand(
-                UUID.randomUUID(),
+                UuidV7.next(),
                 walletId,
                 request.amountMinorUnits(),
                 request.reference(),
@@ -96,6 +161,14 @@ public class WalletController {
         return ResponseEntity.status(HttpStatus.CREATED).body(toLedgerEntryResponse(snapshot));
     }
 
+    private void writeLine(SequenceWriter lines, LedgerEntrySnapshot snapshot) {
+        try {
+            lines.write(toLedgerEntryResponse(snapshot));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
     private WalletResponse toWalletResponse(WalletSnapshot snapshot) {
         return new WalletResponse(
                 snapshot.walletId(),
@@ -103,6 +176,7 @@ public class WalletController {
                 snapshot.currency(),
                 snapshot.balanceMinorUnits(),
                 snapshot.status(),
+                snapshot.bucketCount(),
                 snapshot.updatedAt());
     }
 
@@ -113,6 +187,8 @@ public class WalletController {
                 snapshot.type(),
                 snapshot.amountMinorUnits(),
                 snapshot.runningBalanceMinorUnits(),
+                snapshot.bucketIndex(),
+                snapshot.bucketBalanceMinorUnits(),
                 snapshot.reference(),
                 snapshot.description(),
                 snapshot.metadata(),
@@ -0,0 +1,11 @@
+package com.momentum.wallet.api.dto;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record BalanceResponse(
+        UUID walletId,
+        String currency,
+        long balanceMinorUnits,
+        OffsetDateTime at) {
+}
@@ -9,7 +9,9 @@ public record LedgerEntryResponse(
         UUID walletId,
         LedgerEntryType type,
         long amountMinorUnits,
-        long runningBalanceMinorUnits,
+        Long runningBalanceMinorUnits,
+        Integer bucketIndex,
+        Long bucketBalanceMinorUnits,
         String reference,
         String description,
         String metadata,
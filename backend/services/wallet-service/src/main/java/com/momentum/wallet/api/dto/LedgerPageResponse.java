@@ -0,0 +1,8 @@
+package com.momentum.wallet.api.dto;
+
+import java.util.List;
+
+public record LedgerPageResponse(
+        List<LedgerEntryResponse> entries,
+        String nextCursor) {
+}
@@ -0,0 +1,18 @@
+package com.momentum.wallet.api.dto;
+
+import com.momentum.wallet.persistence.reconciliation.ReconciliationRunStatus;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record ReconciliationRunResponse(
+        UUID runId,
+        ReconciliationRunStatus status,
+        OffsetDateTime startedAt,
+        OffsetDateTime finishedAt,
+        long rangesTotal,
+        long rangesRemaining,
+        long walletsChecked,
+        long entriesChecked,
+        long discrepanciesFound,
+        double entriesPerSecond) {
+}
@@ -0,0 +1,6 @@
+package com.momentum.wallet.api.dto;
+
+import jakarta.validation.constraints.Positive;
+
+public record ShardWalletRequest(@Positive Integer bucketCount) {
+}
@@ -0,0 +1,11 @@
+package com.momentum.wallet.api.dto;
+
+import java.util.UUID;
+
+public record TransferLegResponse(
+        UUID transferId,
+        UUID entryId,
+        UUID walletId,
+        String type,
+        long amountMinorUnits) {
+}
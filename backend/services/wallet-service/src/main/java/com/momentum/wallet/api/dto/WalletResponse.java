@@ -10,5 +10,6 @@ public record WalletResponse(
         String currency,
         long balanceMinorUnits,
         WalletStatus status,
+        int bucketCount,
         OffsetDateTime updatedAt) {
 }
@@ -0,0 +1,106 @@
+package com.momentum.wallet.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.momentum.wallet.config.WalletCacheProperties;
+import com.momentum.wallet.domain.model.WalletSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shared Redis tier of the wallet snapshot cache.
+ *
+ * <p>Each wallet is a hash holding the snapshot JSON and its version. Writes go through a script that only replaces
+ * an older version, so a slow reader can never overwrite a snapshot written after a commit. Redis failures degrade to
+ * a miss instead of failing the read.
+ */
+@Component
+@ConditionalOnProperty(prefix = "wallet.cache.redis", name = "enabled", havingValue = "true")
+public class RedisWalletSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisWalletSnapshotStore.class);
+
+    private static final RedisScript<Long> PUT_IF_NEWER = RedisScript.of("""
+            local current = redis.call('HGET', KEYS[1], 'version')
+            if current and tonumber(current) >= tonumber(ARGV[1]) then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], 'version', ARGV[1], 'snapshot', ARGV[2])
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final WalletCacheProperties.Redis properties;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter errors;
+
+    public RedisWalletSnapshotStore(
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            WalletCacheProperties properties,
+            MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties.redis();
+        this.hits = Counter.builder("wallet.snapshots.redis.gets").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("wallet.snapshots.redis.gets").tag("result", "miss").register(meterRegistry);
+        this.errors = Counter.builder("wallet.snapshots.redis.errors")
+                .description("Redis cache operations that failed and fell back to the database")
+                .register(meterRegistry);
+    }
+
+    public WalletSnapshot find(UUID walletId) {
+        try {
+            Object json = redisTemplate.opsForHash().get(key(walletId), "snapshot");
+            if (json == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return objectMapper.readValue((String) json, WalletSnapshot.class);
+        } catch (DataAccessException | JsonProcessingException ex) {
+            errors.increment();
+            log.debug("Redis snapshot read failed for wallet {}: {}", walletId, ex.getMessage());
+            return null;
+        }
+    }
+
+    public void putIfNewer(WalletSnapshot snapshot) {
+        try {
+            redisTemplate.execute(
+                    PUT_IF_NEWER,
+                    List.of(key(snapshot.walletId())),
+                    Long.toString(snapshot.version()),
+                    objectMapper.writeValueAsString(snapshot),
+                    Long.toString(properties.ttl().toMillis()));
+        } catch (DataAccessException | JsonProcessingException ex) {
+            errors.increment();
+            log.debug("Redis snapshot write failed for wallet {}: {}", snapshot.walletId(), ex.getMessage());
+        }
+    }
+
+    public void publishInvalidation(UUID walletId, long version) {
+        try {
+            redisTemplate.convertAndSend(properties.invalidationChannel(), walletId + ":" + version);
+        } catch (DataAccessException ex) {
+            errors.increment();
+            log.warn("Could not broadcast snapshot invalidation for wallet {}: {}", walletId, ex.getMessage());
+        }
+    }
+
+    private String key(UUID walletId) {
+        return properties.keyPrefix() + walletId;
+    }
+}
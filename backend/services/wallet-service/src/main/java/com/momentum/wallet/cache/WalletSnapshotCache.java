@@ -0,0 +1,100 @@
+package com.momentum.wallet.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.momentum.wallet.config.WalletCacheProperties;
+import com.momentum.wallet.domain.model.WalletSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.UUID;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Two-tier cache of wallet snapshots: a Caffeine near-cache in front of an optional {@link RedisWalletSnapshotStore}.
+ *
+ * <p>Snapshots are ordered by the wallet row version and a tier never replaces a snapshot with an older one. Writers
+ * call {@link #invalidate} after commit. Locally that is enough on its own: Caffeine runs a miss's load under the
+ * entry lock, so a load that read the balance before the commit finishes before the invalidation removes it. With
+ * Redis the committed snapshot is written through at its new version and other instances drop older local copies.
+ * Sharded wallets are never cached because bucket writes do not bump the wallet version.
+ */
+@Component
+public class WalletSnapshotCache {
+
+    private static final Logger log = LoggerFactory.getLogger(WalletSnapshotCache.class);
+
+    private final Cache<UUID, WalletSnapshot> nearCache;
+    private final RedisWalletSnapshotStore redisStore;
+
+    public WalletSnapshotCache(
+            WalletCacheProperties properties,
+            ObjectProvider<RedisWalletSnapshotStore> redisStore,
+            MeterRegistry meterRegistry) {
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+                .build();
+        this.redisStore = redisStore.getIfAvailable();
+        CaffeineCacheMetrics.monitor(meterRegistry, nearCache, "wallet.snapshots");
+    }
+
+    /**
+     * Returns the cached snapshot, falling back to Redis and then to {@code loader}.
+     */
+    public WalletSnapshot get(UUID walletId, Function<UUID, WalletSnapshot> loader) {
+        WalletSnapshot snapshot = nearCache.get(walletId, id -> load(id, loader));
+        if (snapshot.bucketCount() > 0) {
+            nearCache.asMap().remove(walletId, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Drops the cached snapshot of a wallet whose transaction just committed.
+     *
+     * @param loader reads the committed snapshot; used only to write it through to Redis
+     */
+    public void invalidate(UUID walletId, Function<UUID, WalletSnapshot> loader) {
+        nearCache.invalidate(walletId);
+        if (redisStore == null) {
+            return;
+        }
+        try {
+            WalletSnapshot committed = loader.apply(walletId);
+            if (committed.bucketCount() == 0) {
+                redisStore.putIfNewer(committed);
+            }
+            redisStore.publishInvalidation(walletId, committed.version());
+        } catch (RuntimeException ex) {
+            // the transaction has already committed; the Redis TTL bounds how long other instances may lag
+            log.warn("Could not write through snapshot of wallet {}: {}", walletId, ex.getMessage());
+        }
+    }
+
+    /**
+     * Applies an invalidation broadcast by another instance: keeps the local snapshot only if it is at least
+     * {@code version}.
+     */
+    public void evictOlderThan(UUID walletId, long version) {
+        nearCache.asMap().computeIfPresent(walletId, (id, cached) -> cached.version() < version ? null : cached);
+    }
+
+    private WalletSnapshot load(UUID walletId, Function<UUID, WalletSnapshot> loader) {
+        if (redisStore != null) {
+            WalletSnapshot shared = redisStore.find(walletId);
+            if (shared != null) {
+                return shared;
+            }
+        }
+        WalletSnapshot snapshot = loader.apply(walletId);
+        if (redisStore != null && snapshot.bucketCount() == 0) {
+            redisStore.putIfNewer(snapshot);
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,23 @@
+package com.momentum.wallet.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Periodic per-wallet balance checkpoints backing point-in-time balance queries.
+ *
+ * @param enabled whether this instance writes checkpoints
+ * @param interval spacing of checkpoints; also bounds the ledger range scanned by a historical balance query
+ * @param settleDelay how long after a window closes it is checkpointed; entries recorded later are added to the
+ *     checkpoints they missed. Must exceed the time a ledger transaction can take to commit after its insert
+ * @param pollInterval delay between checks for a window that is ready to checkpoint
+ * @param batchSize wallets whose latest checkpoints are loaded per query
+ */
+@ConfigurationProperties(prefix = "wallet.ledger.checkpoints")
+public record BalanceCheckpointProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1h") Duration interval,
+        @DefaultValue("15m") Duration settleDelay,
+        @DefaultValue("1m") Duration pollInterval,
+        @DefaultValue("1000") int batchSize) {}
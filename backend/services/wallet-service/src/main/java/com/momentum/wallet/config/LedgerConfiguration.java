@@ -0,0 +1,13 @@
+package com.momentum.wallet.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({
+    WalletLedgerProperties.class,
+    WalletShardingProperties.class,
+    BalanceCheckpointProperties.class,
+    ReconciliationProperties.class
+})
+public class LedgerConfiguration {}
@@ -0,0 +1,10 @@
+package com.momentum.wallet.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(LedgerPartitionProperties.class)
+public class LedgerPartitionConfiguration {}
@@ -0,0 +1,23 @@
+package com.momentum.wallet.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Maintenance of the monthly {@code ledger_entries} partitions.
+ *
+ * @param enabled whether this instance creates, detaches and archives partitions
+ * @param maintenanceInterval delay between maintenance runs; the first runs at startup
+ * @param monthsAhead partitions kept ready beyond the current month
+ * @param retainedMonths months before the current one that stay attached; older partitions are archived
+ * @param archiveDirectory local directory receiving one gzip-compressed JSON lines file per archived partition
+ */
+@ConfigurationProperties(prefix = "wallet.ledger.partitions")
+public record LedgerPartitionProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1h") Duration maintenanceInterval,
+        @DefaultValue("3") int monthsAhead,
+        @DefaultValue("24") int retainedMonths,
+        @DefaultValue("ledger-archive") Path archiveDirectory) {}
@@ -1,31 +1,98 @@
 package com.momentum.wallet.config;
 
+import com.momentum.wallet.messaging.ConfirmedBatchingRabbitTemplate;
+import com.momentum.wallet.messaging.ListenerLagRecorder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
 import org.springframework.amqp.rabbit.annotation.EnableRabbit;
+import org.springframework.amqp.core.AmqpAdmin;
 import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Binding.DestinationType;
 import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.CustomExchange;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.QueueInformation;
 import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.batch.SimpleBatchingStrategy;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionListener;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 @Configuration
 @EnableRabbit
-@EnableConfigurationProperties(WalletMessagingProperties.class)
+@EnableConfigurationProperties({
+    WalletMessagingProperties.class,
+    WalletCommandBatchProperties.class,
+    WalletPublishingProperties.class,
+    WalletListenerProperties.class,
+    WalletPartitioningProperties.class
+})
 public class RabbitConfiguration {
 
+    private static final Logger log = LoggerFactory.getLogger(RabbitConfiguration.class);
+
     @Bean
-    public Jackson2JsonMessageConverter messageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter messageConverter(WalletMessagingProperties properties) {
+        return properties.codec().newConverter();
     }
 
+    /**
+     * Mandatory publishing so unroutable messages come back as returns instead of being dropped by the broker;
+     * confirms and returns are correlated per message by {@code ConfirmingRabbitPublisher}.
+     */
     @Bean
-    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, Jackson2JsonMessageConverter converter) {
+    @Primary
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, MessageConverter converter) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setMessageConverter(converter);
+        template.setMandatory(true);
+        template.addBeforePublishPostProcessors(RabbitConfiguration::stampTimestamp);
+        return template;
+    }
+
+    /**
+     * Event fan-out template that packs several events into one AMQP message. Each batch is published mandatory with
+     * a correlated confirm that completes the futures of the events it carries.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "wallet.messaging.publishing.batching", name = "enabled", havingValue = "true")
+    public ConfirmedBatchingRabbitTemplate batchingRabbitTemplate(
+            ConnectionFactory connectionFactory,
+            MessageConverter converter,
+            WalletPublishingProperties publishingProperties) {
+        WalletPublishingProperties.Batching batching = publishingProperties.batching();
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("wallet-event-batch-");
+        scheduler.initialize();
+        ConfirmedBatchingRabbitTemplate template = new ConfirmedBatchingRabbitTemplate(
+                connectionFactory,
+                new SimpleBatchingStrategy(
+                        batching.size(), (int) batching.bufferLimit().toBytes(), batching.timeout().toMillis()),
+                scheduler);
+        template.setMessageConverter(converter);
+        template.setMandatory(true);
+        template.addBeforePublishPostProcessors(RabbitConfiguration::stampTimestamp);
         return template;
     }
 
@@ -40,23 +107,176 @@ public class RabbitConfiguration {
     }
 
     @Bean
-    public Queue walletCommandQueue(WalletMessagingProperties properties) {
-        return new Queue(properties.commandQueue(), true);
+    public String[] walletCommandQueueNames(
+            WalletMessagingProperties properties, WalletPartitioningProperties partitioningProperties) {
+        return partitioningProperties.queueNames(properties.commandQueue());
+    }
+
+    /**
+     * Command queues and their bindings. Without partitioning this is the shared command queue bound to the command
+     * exchange. With partitioning the command exchange forwards debit and credit commands to a consistent-hash
+     * exchange that spreads them over single-active-consumer partition queues by wallet id.
+     *
+     * <p>When instances join or leave, the broker hands each partition to exactly one consumer at a time, so a wallet
+     * is never processed by two consumers concurrently; unacknowledged messages of a departed consumer are redelivered
+     * to its successor. Changing the partition count remaps part of the wallets, so drain the queues first.
+     */
+    @Bean
+    public Declarables walletCommandTopology(
+            TopicExchange walletCommandExchange,
+            WalletMessagingProperties properties,
+            WalletPartitioningProperties partitioningProperties,
+            String[] walletCommandQueueNames) {
+        List<String> routingKeys = List.of(properties.debitRoutingKey(), properties.creditRoutingKey());
+        List<Declarable> declarables = new ArrayList<>();
+        if (!partitioningProperties.enabled()) {
+            Queue queue = new Queue(properties.commandQueue(), true);
+            declarables.add(queue);
+            routingKeys.forEach(key -> declarables.add(BindingBuilder.bind(queue).to(walletCommandExchange).with(key)));
+            return new Declarables(declarables);
+        }
+
+        CustomExchange hashExchange = new CustomExchange(
+                partitioningProperties.exchange(),
+                "x-consistent-hash",
+                true,
+                false,
+                Map.of("hash-header", partitioningProperties.hashHeader()));
+        declarables.add(hashExchange);
+        routingKeys.forEach(key ->
+                declarables.add(BindingBuilder.bind(hashExchange).to(walletCommandExchange).with(key)));
+        for (String queueName : walletCommandQueueNames) {
+            Queue queue = QueueBuilder.durable(queueName).singleActiveConsumer().build();
+            declarables.add(queue);
+            // equal weights: each partition owns the same share of the hash ring
+            declarables.add(BindingBuilder.bind(queue).to(hashExchange).with("1").noargs());
+        }
+        return new Declarables(declarables);
+    }
+
+    /**
+     * With partitioning on, unbinds the shared command queue left behind by earlier deployments so commands are not
+     * delivered twice. Runs on every new broker connection, after which the declarations above are in place.
+     */
+    @Bean
+    public ConnectionListener legacyCommandBindingCleaner(
+            ConnectionFactory connectionFactory,
+            AmqpAdmin amqpAdmin,
+            WalletMessagingProperties properties,
+            WalletPartitioningProperties partitioningProperties) {
+        ConnectionListener cleaner = connection -> {
+            if (!partitioningProperties.enabled()) {
+                return;
+            }
+            for (String key : List.of(properties.debitRoutingKey(), properties.creditRoutingKey())) {
+                try {
+                    amqpAdmin.removeBinding(new Binding(
+                            properties.commandQueue(), DestinationType.QUEUE, properties.commandExchange(), key, null));
+                } catch (AmqpException ex) {
+                    log.debug("Legacy command binding {} not removed: {}", key, ex.getMessage());
+                }
+            }
+        };
+        connectionFactory.addConnectionListener(cleaner);
+        return cleaner;
+    }
+
+    /**
+     * Default container factory, replacing Boot's single-consumer default with the sizing from
+     * {@code wallet.messaging.listener}. Containers publish the {@code spring.rabbitmq.listener} timer per listener
+     * id and record delivery lag per queue. Without partitioning the shared command queue gets a single consumer,
+     * since competing consumers would apply one wallet's commands out of order.
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            WalletListenerProperties listenerProperties,
+            WalletPartitioningProperties partitioningProperties,
+            ListenerLagRecorder lagRecorder) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        applyListenerSettings(factory, listenerProperties, partitioningProperties, lagRecorder);
+        factory.setBatchSize(listenerProperties.batchSize());
+        return factory;
     }
 
+    /**
+     * Container factory for the group-commit command consumer: drains up to {@code size} messages per delivery so
+     * commands for the same wallet can share one transaction. Prefetch is kept at least as large as the batch.
+     */
     @Bean
-    public Binding debitCommandBinding(
-            Queue walletCommandQueue, TopicExchange walletCommandExchange, WalletMessagingProperties properties) {
-        return BindingBuilder.bind(walletCommandQueue)
-                .to(walletCommandExchange)
-                .with(properties.debitRoutingKey());
+    @ConditionalOnProperty(prefix = "wallet.messaging.batch", name = "enabled", havingValue = "true")
+    public SimpleRabbitListenerContainerFactory walletCommandBatchContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            WalletCommandBatchProperties batchProperties,
+            WalletListenerProperties listenerProperties,
+            WalletPartitioningProperties partitioningProperties,
+            ListenerLagRecorder lagRecorder) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        applyListenerSettings(factory, listenerProperties, partitioningProperties, lagRecorder);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchProperties.size());
+        factory.setReceiveTimeout(batchProperties.receiveTimeout().toMillis());
+        factory.setPrefetchCount(Math.max(listenerProperties.prefetch(), batchProperties.size()));
+        return factory;
     }
 
+    /**
+     * Queue depth of each wallet command queue, read with a passive declare on each scrape.
+     */
     @Bean
-    public Binding creditCommandBinding(
-            Queue walletCommandQueue, TopicExchange walletCommandExchange, WalletMessagingProperties properties) {
-        return BindingBuilder.bind(walletCommandQueue)
-                .to(walletCommandExchange)
-                .with(properties.creditRoutingKey());
+    public MeterBinder walletQueueDepthMetrics(AmqpAdmin amqpAdmin, String[] walletCommandQueueNames) {
+        return registry -> {
+            for (String queue : walletCommandQueueNames) {
+                Gauge.builder("wallet.messaging.queue.depth", amqpAdmin, admin -> queueDepth(admin, queue))
+                        .tag("queue", queue)
+                        .register(registry);
+            }
+        };
+    }
+
+    private static void applyListenerSettings(
+            SimpleRabbitListenerContainerFactory factory,
+            WalletListenerProperties listenerProperties,
+            WalletPartitioningProperties partitioningProperties,
+            ListenerLagRecorder lagRecorder) {
+        if (partitioningProperties.enabled()) {
+            factory.setConcurrentConsumers(listenerProperties.concurrency());
+            factory.setMaxConcurrentConsumers(
+                    Math.max(listenerProperties.concurrency(), listenerProperties.maxConcurrency()));
+        } else {
+            if (listenerProperties.maxConcurrency() > 1) {
+                log.warn("Wallet command partitioning is off; consuming the shared command queue with one consumer "
+                        + "instead of {} to keep each wallet's commands in order", listenerProperties.maxConcurrency());
+            }
+            factory.setConcurrentConsumers(1);
+            factory.setMaxConcurrentConsumers(1);
+        }
+        factory.setPrefetchCount(listenerProperties.prefetch());
+        factory.setAfterReceivePostProcessors(lagRecorder);
+        factory.setMicrometerEnabled(true);
+        if (listenerProperties.virtualThreads()) {
+            factory.setTaskExecutor(new VirtualThreadTaskExecutor("wallet-listener-"));
+        }
+    }
+
+    private static double queueDepth(AmqpAdmin admin, String queue) {
+        try {
+            QueueInformation information = admin.getQueueInfo(queue);
+            return information == null ? Double.NaN : information.getMessageCount();
+        } catch (AmqpException ex) {
+            return Double.NaN;
+        }
+    }
+
+    private static Message stampTimestamp(Message message) {
+        if (message.getMessageProperties().getTimestamp() == null) {
+            message.getMessageProperties().setTimestamp(new Date());
+        }
+        return message;
     }
 }
@@ -0,0 +1,31 @@
+package com.momentum.wallet.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Ledger reconciliation job.
+ *
+ * @param enabled whether this instance starts runs and works on their ranges; several instances may share a run
+ * @param schedule cron expression starting a run, unless one is still in progress
+ * @param resumeInterval delay between checks for unfinished ranges of the current run
+ * @param ranges wallet id ranges a run is split into; the unit of parallelism and of resumption
+ * @param parallelism ranges verified concurrently by this instance
+ * @param chunkSize wallets verified per read transaction; the resume point advances once per chunk
+ * @param fetchSize JDBC fetch size of the ledger cursor
+ * @param maxEntriesPerSecond ledger entries this instance may verify per second across all ranges; 0 disables the
+ *     throttle
+ * @param leaseDuration how long a range stays with its worker without progress before another may take it over
+ */
+@ConfigurationProperties(prefix = "wallet.reconciliation")
+public record ReconciliationProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("0 0 1 * * *") String schedule,
+        @DefaultValue("1m") Duration resumeInterval,
+        @DefaultValue("32") int ranges,
+        @DefaultValue("4") int parallelism,
+        @DefaultValue("500") int chunkSize,
+        @DefaultValue("1000") int fetchSize,
+        @DefaultValue("20000") long maxEntriesPerSecond,
+        @DefaultValue("5m") Duration leaseDuration) {}
@@ -0,0 +1,46 @@
+package com.momentum.wallet.config;
+
+import com.momentum.wallet.cache.WalletSnapshotCache;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+@EnableConfigurationProperties(WalletCacheProperties.class)
+public class WalletCacheConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(WalletCacheConfiguration.class);
+
+    /**
+     * Subscribes to snapshot invalidations broadcast by other instances so their writes evict local snapshots.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "wallet.cache.redis", name = "enabled", havingValue = "true")
+    public RedisMessageListenerContainer walletSnapshotInvalidationListener(
+            RedisConnectionFactory connectionFactory, WalletSnapshotCache cache, WalletCacheProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> {
+                    String body = new String(message.getBody(), StandardCharsets.UTF_8);
+                    int separator = body.lastIndexOf(':');
+                    try {
+                        cache.evictOlderThan(
+                                UUID.fromString(body.substring(0, separator)),
+                                Long.parseLong(body.substring(separator + 1)));
+                    } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+                        log.warn("Ignoring malformed snapshot invalidation '{}'", body);
+                    }
+                },
+                new ChannelTopic(properties.redis().invalidationChannel()));
+        return container;
+    }
+}
@@ -0,0 +1,33 @@
+package com.momentum.wallet.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Wallet snapshot cache used by balance reads.
+ *
+ * @param enabled serves {@code GET /wallets/{id}} from the cache
+ * @param maximumSize near-cache capacity; least recently used snapshots are evicted beyond it
+ * @param ttl near-cache time to live, bounding staleness if an invalidation is lost
+ * @param redis optional shared tier behind the near-cache
+ */
+@ConfigurationProperties(prefix = "wallet.cache")
+public record WalletCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10000") long maximumSize,
+        @DefaultValue("30s") Duration ttl,
+        @DefaultValue Redis redis) {
+
+    /**
+     * @param enabled keeps snapshots in Redis and broadcasts invalidations to the other instances
+     * @param ttl time to live of Redis entries
+     * @param keyPrefix prefix of the per-wallet Redis keys
+     * @param invalidationChannel pub/sub channel carrying {@code walletId:version} invalidations
+     */
+    public record Redis(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("5m") Duration ttl,
+            @DefaultValue("wallet:snapshot:") String keyPrefix,
+            @DefaultValue("wallet:snapshot:invalidations") String invalidationChannel) {}
+}
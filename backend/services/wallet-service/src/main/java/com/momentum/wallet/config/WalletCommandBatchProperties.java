@@ -0,0 +1,18 @@
+package com.momentum.wallet.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Group-commit consumption of the wallet command queue.
+ *
+ * @param enabled switches the command consumer from one transaction per message to batched groups
+ * @param size maximum number of messages drained into one batch
+ * @param receiveTimeout how long the consumer waits for more messages before handing over a partial batch
+ */
+@ConfigurationProperties(prefix = "wallet.messaging.batch")
+public record WalletCommandBatchProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("100") int size,
+        @DefaultValue("50ms") Duration receiveTimeout) {}
@@ -0,0 +1,17 @@
+package com.momentum.wallet.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Tuning knobs for ledger reads.
+ *
+ * @param defaultPageSize page size used when a client does not ask for one
+ * @param maxPageSize upper bound applied to client supplied page sizes
+ * @param exportFetchSize JDBC fetch size used while streaming ledger exports
+ */
+@ConfigurationProperties(prefix = "wallet.ledger")
+public record WalletLedgerProperties(
+        @DefaultValue("100") int defaultPageSize,
+        @DefaultValue("1000") int maxPageSize,
+        @DefaultValue("500") int exportFetchSize) {}
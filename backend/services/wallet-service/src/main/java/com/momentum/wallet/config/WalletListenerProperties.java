@@ -0,0 +1,22 @@
+package com.momentum.wallet.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Consumer sizing for wallet listener containers. Only applies with command partitioning; the unpartitioned shared
+ * command queue is always consumed by a single consumer.
+ *
+ * @param concurrency consumers started per listener
+ * @param maxConcurrency upper bound the container may scale consumers up to under load
+ * @param prefetch unacknowledged messages the broker may push to each consumer
+ * @param batchSize messages acknowledged together by a non-batch listener
+ * @param virtualThreads run consumers on virtual threads instead of a platform thread per consumer
+ */
+@ConfigurationProperties(prefix = "wallet.messaging.listener")
+public record WalletListenerProperties(
+        @DefaultValue("4") int concurrency,
+        @DefaultValue("8") int maxConcurrency,
+        @DefaultValue("100") int prefetch,
+        @DefaultValue("1") int batchSize,
+        @DefaultValue("false") boolean virtualThreads) {}
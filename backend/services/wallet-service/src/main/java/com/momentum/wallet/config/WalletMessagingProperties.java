@@ -1,7 +1,12 @@
 package com.momentum.wallet.config;
 
+import com.momentum.sharedkernel.messaging.MessageCodec;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 
+/**
+ * @param codec format of outgoing envelopes; incoming ones are decoded by their content type whatever this is
+ */
 @ConfigurationProperties(prefix = "wallet.messaging")
 public record WalletMessagingProperties(
         String commandQueue,
@@ -9,4 +14,5 @@ public record WalletMessagingProperties(
         String debitRoutingKey,
         String creditRoutingKey,
         String eventExchange,
-        String transactionResultRoutingKey) {}
+        String transactionResultRoutingKey,
+        @DefaultValue("json") MessageCodec codec) {}
@@ -0,0 +1,40 @@
+package com.momentum.wallet.config;
+
+import java.util.stream.IntStream;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Consistent-hash partitioning of the wallet command queue by wallet id.
+ *
+ * <p>Commands are routed from the command exchange to an {@code x-consistent-hash} exchange that hashes on
+ * {@code hashHeader} and spreads wallets over {@code partitions} queues. Every partition queue is a single active
+ * consumer queue, so each wallet's commands are consumed in order by exactly one consumer across all instances while
+ * different partitions run in parallel. Requires the {@code rabbitmq_consistent_hash_exchange} plugin.
+ *
+ * @param partitions number of partition queues; {@code 0} keeps the single shared command queue
+ * @param exchange name of the consistent-hash exchange
+ * @param hashHeader message header carrying the wallet id that commands are hashed on
+ */
+@ConfigurationProperties(prefix = "wallet.messaging.partitioning")
+public record WalletPartitioningProperties(
+        @DefaultValue("0") int partitions,
+        @DefaultValue("wallet.commands.partitioned") String exchange,
+        @DefaultValue("wallet-id") String hashHeader) {
+
+    public boolean enabled() {
+        return partitions > 0;
+    }
+
+    /**
+     * Queues the command listeners consume: the partition queues, or the shared queue when partitioning is off.
+     */
+    public String[] queueNames(String commandQueue) {
+        if (!enabled()) {
+            return new String[] {commandQueue};
+        }
+        return IntStream.range(0, partitions)
+                .mapToObj(partition -> commandQueue + ".p" + partition)
+                .toArray(String[]::new);
+    }
+}
@@ -0,0 +1,39 @@
+package com.momentum.wallet.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Outbound publishing of wallet events.
+ *
+ * @param maxInFlight publisher-confirm window: unconfirmed messages allowed before publishers block
+ * @param windowTimeout how long a publisher waits for a free slot in the confirm window
+ * @param confirmTimeout how long listeners wait for their results to be confirmed before the command is requeued
+ * @param maxRetries re-publish attempts for a nacked message
+ * @param batching optional {@code BatchingRabbitTemplate} mode for event fan-out
+ */
+@ConfigurationProperties(prefix = "wallet.messaging.publishing")
+public record WalletPublishingProperties(
+        @DefaultValue("1024") int maxInFlight,
+        @DefaultValue("5s") Duration windowTimeout,
+        @DefaultValue("10s") Duration confirmTimeout,
+        @DefaultValue("3") int maxRetries,
+        @DefaultValue Batching batching) {
+
+    /**
+     * Packs several events into one AMQP message; listener containers de-batch them transparently. Each batch is
+     * confirmed as a whole, and an event's result completes with the confirm of its batch.
+     *
+     * @param enabled publish events through a {@code BatchingRabbitTemplate}
+     * @param size maximum events per batch
+     * @param bufferLimit maximum batch payload size
+     * @param timeout how long a partial batch waits before it is flushed
+     */
+    public record Batching(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("100") int size,
+            @DefaultValue("64KB") DataSize bufferLimit,
+            @DefaultValue("10ms") Duration timeout) {}
+}
@@ -0,0 +1,20 @@
+package com.momentum.wallet.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Opt-in bucketed balances for hot wallets.
+ *
+ * <p>Transactions of a sharded wallet always go to its buckets; disabling sharding only stops new wallets from being
+ * sharded.
+ *
+ * @param enabled allows wallets to be sharded
+ * @param defaultBucketCount buckets created when a shard request does not specify a count
+ * @param maxBucketCount upper bound for a requested bucket count
+ */
+@ConfigurationProperties(prefix = "wallet.sharding")
+public record WalletShardingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("8") int defaultBucketCount,
+        @DefaultValue("64") int maxBucketCount) {}
@@ -0,0 +1,18 @@
+package com.momentum.wallet.domain.command;
+
+import com.momentum.wallet.persistence.ledger.LedgerEntryType;
+import java.util.Objects;
+
+/**
+ * A wallet command paired with the direction it should be applied in, used when commands are applied in groups.
+ *
+ * @param command credit or debit request
+ * @param type {@link LedgerEntryType#CREDIT} or {@link LedgerEntryType#DEBIT}
+ */
+public record PendingTransaction(WalletTransactionCommand command, LedgerEntryType type) {
+
+    public PendingTransaction {
+        Objects.requireNonNull(command, "command");
+        Objects.requireNonNull(type, "type");
+    }
+}
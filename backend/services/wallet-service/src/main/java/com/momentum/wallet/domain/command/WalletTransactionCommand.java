@@ -14,6 +14,7 @@ import java.util.UUID;
  * @param description optional human-readable note
  * @param metadata optional serialized metadata payload (JSON string)
  * @param occurredAt optional timestamp override
+ * @param transferId transfer saga the command is a leg of, or {@code null} for direct wallet operations
  */
 public record WalletTransactionCommand(
         UUID entryId,
@@ -22,11 +23,23 @@ public record WalletTransactionCommand(
         String reference,
         String description,
         String metadata,
-        OffsetDateTime occurredAt) {
+        OffsetDateTime occurredAt,
+        UUID transferId) {
 
     public WalletTransactionCommand {
         Objects.requireNonNull(entryId, "entryId");
         Objects.requireNonNull(walletId, "walletId");
         Objects.requireNonNull(reference, "reference");
     }
+
+    public WalletTransactionCommand(
+            UUID entryId,
+            UUID walletId,
+            long amountMinorUnits,
+            String reference,
+            String description,
+            String metadata,
+            OffsetDateTime occurredAt) {
+        this(entryId, walletId, amountMinorUnits, reference, description, metadata, occurredAt, null);
+    }
 }
@@ -0,0 +1,16 @@
+package com.momentum.wallet.domain.model;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Wallet balance including every ledger entry that occurred at or before {@code at}.
+ *
+ * @param checkpointAt checkpoint the balance was computed from; only entries after it were read
+ */
+public record HistoricalBalance(
+        UUID walletId,
+        String currency,
+        long balanceMinorUnits,
+        OffsetDateTime at,
+        OffsetDateTime checkpointAt) {}
@@ -0,0 +1,58 @@
+package com.momentum.wallet.domain.model;
+
+import com.momentum.sharedkernel.error.DomainException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Keyset position inside a wallet ledger, ordered by {@code (occurred_at, id)}.
+ *
+ * <p>Clients only ever see the opaque {@link #encode() encoded} form.
+ *
+ * @param occurredAt timestamp of the last entry already returned
+ * @param entryId identifier of the last entry already returned; breaks ties on equal timestamps
+ */
+public record LedgerCursor(OffsetDateTime occurredAt, UUID entryId) {
+
+    private static final char SEPARATOR = '|';
+
+    public LedgerCursor {
+        Objects.requireNonNull(occurredAt, "occurredAt");
+        Objects.requireNonNull(entryId, "entryId");
+    }
+
+    public static LedgerCursor after(LedgerEntrySnapshot entry) {
+        return new LedgerCursor(entry.occurredAt(), entry.entryId());
+    }
+
+    /**
+     * Parses a cursor previously produced by {@link #encode()}.
+     *
+     * @throws DomainException when the token is malformed
+     */
+    public static LedgerCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new DomainException("Invalid ledger cursor");
+            }
+            Instant occurredAt = Instant.parse(raw.substring(0, separator));
+            UUID entryId = UUID.fromString(raw.substring(separator + 1));
+            return new LedgerCursor(OffsetDateTime.ofInstant(occurredAt, ZoneOffset.UTC), entryId);
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new DomainException("Invalid ledger cursor", ex);
+        }
+    }
+
+    public String encode() {
+        String raw = occurredAt.toInstant().toString() + SEPARATOR + entryId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,20 +1,67 @@
 package com.momentum.wallet.domain.model;
 
+import com.momentum.wallet.domain.command.WalletTransactionCommand;
+import com.momentum.wallet.persistence.ledger.AppliedReference;
+import com.momentum.wallet.persistence.ledger.LedgerEntryEntity;
 import com.momentum.wallet.persistence.ledger.LedgerEntryType;
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
 /**
  * Immutable view of a persisted ledger entry.
+ *
+ * <p>{@code runningBalanceMinorUnits} is the wallet-wide balance after the entry. For sharded wallets it is only known
+ * when the entry was applied with every bucket locked and is {@code null} otherwise; {@code bucketBalanceMinorUnits}
+ * is then the balance of bucket {@code bucketIndex} after the entry.
  */
 public record LedgerEntrySnapshot(
         UUID entryId,
         UUID walletId,
         LedgerEntryType type,
         long amountMinorUnits,
-        long runningBalanceMinorUnits,
+        Long runningBalanceMinorUnits,
+        Integer bucketIndex,
+        Long bucketBalanceMinorUnits,
         String reference,
         String description,
         String metadata,
         OffsetDateTime occurredAt) {
+
+    public static LedgerEntrySnapshot from(LedgerEntryEntity entity) {
+        return new LedgerEntrySnapshot(
+                entity.getId(),
+                entity.getWallet().getId(),
+                entity.getType(),
+                entity.getAmountMinorUnits(),
+                entity.getRunningBalanceMinorUnits(),
+                entity.getBucketIndex(),
+                entity.getBucketBalanceMinorUnits(),
+                entity.getReference(),
+                entity.getDescription(),
+                entity.getMetadata(),
+                entity.getOccurredAt());
+    }
+
+    /**
+     * The entry a replayed command already produced. An archived entry is rebuilt from its {@code ledger_references}
+     * row and the replayed command, without balances.
+     */
+    public static LedgerEntrySnapshot replayed(
+            AppliedReference applied, WalletTransactionCommand command, LedgerEntryType type) {
+        if (applied.entry() != null) {
+            return from(applied.entry());
+        }
+        return new LedgerEntrySnapshot(
+                applied.reference().getEntryId(),
+                applied.reference().getId().walletId(),
+                type,
+                command.amountMinorUnits(),
+                null,
+                null,
+                null,
+                command.reference(),
+                command.description(),
+                command.metadata(),
+                applied.reference().getOccurredAt());
+    }
 }
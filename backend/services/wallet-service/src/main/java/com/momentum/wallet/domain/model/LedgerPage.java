@@ -0,0 +1,16 @@
+package com.momentum.wallet.domain.model;
+
+import java.util.List;
+
+/**
+ * One keyset page of ledger entries.
+ *
+ * @param entries entries in ledger order
+ * @param nextCursor position to resume from, or {@code null} when the ledger is exhausted
+ */
+public record LedgerPage(List<LedgerEntrySnapshot> entries, LedgerCursor nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.momentum.wallet.domain.model;
+
+import com.momentum.wallet.persistence.reconciliation.ReconciliationRunStatus;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Progress of a ledger reconciliation run.
+ *
+ * @param entriesPerSecond verified ledger entries per second of wall-clock time since the run started, up to its end
+ */
+public record ReconciliationProgress(
+        UUID runId,
+        ReconciliationRunStatus status,
+        OffsetDateTime startedAt,
+        OffsetDateTime finishedAt,
+        long rangesTotal,
+        long rangesRemaining,
+        long walletsChecked,
+        long entriesChecked,
+        long discrepanciesFound,
+        double entriesPerSecond) {}
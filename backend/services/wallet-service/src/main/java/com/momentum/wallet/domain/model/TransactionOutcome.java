@@ -0,0 +1,22 @@
+package com.momentum.wallet.domain.model;
+
+import com.momentum.wallet.domain.command.PendingTransaction;
+
+/**
+ * Per-command result of applying a group of transactions; exactly one of {@code entry} and
+ * {@code failureReason} is set.
+ */
+public record TransactionOutcome(PendingTransaction transaction, LedgerEntrySnapshot entry, String failureReason) {
+
+    public static TransactionOutcome succeeded(PendingTransaction transaction, LedgerEntrySnapshot entry) {
+        return new TransactionOutcome(transaction, entry, null);
+    }
+
+    public static TransactionOutcome failed(PendingTransaction transaction, String failureReason) {
+        return new TransactionOutcome(transaction, null, failureReason);
+    }
+
+    public boolean succeeded() {
+        return entry != null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.momentum.wallet.domain.model;
+
+import com.momentum.wallet.persistence.ledger.LedgerEntryType;
+import java.util.UUID;
+
+/**
+ * Ledger entry posted by a transfer saga, as compared against the transfer service's view of the saga.
+ */
+public record TransferLeg(
+        UUID transferId,
+        UUID entryId,
+        UUID walletId,
+        LedgerEntryType type,
+        long amountMinorUnits) {}
@@ -1,11 +1,14 @@
 package com.momentum.wallet.domain.model;
 
+import com.momentum.wallet.persistence.wallet.WalletEntity;
 import com.momentum.wallet.persistence.wallet.WalletStatus;
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
 /**
  * Immutable representation of wallet state returned by domain services.
+ *
+ * <p>{@code version} is the optimistic-lock version of the wallet row; caches use it to order snapshots.
  */
 public record WalletSnapshot(
         UUID walletId,
@@ -13,5 +16,26 @@ public record WalletSnapshot(
         String currency,
         long balanceMinorUnits,
         WalletStatus status,
-        OffsetDateTime updatedAt) {
+        int bucketCount,
+        OffsetDateTime updatedAt,
+        long version) {
+
+    public static WalletSnapshot from(WalletEntity wallet) {
+        return from(wallet, wallet.getBalanceMinorUnits());
+    }
+
+    /**
+     * Snapshot with an externally computed balance, used for sharded wallets whose balance lives in buckets.
+     */
+    public static WalletSnapshot from(WalletEntity wallet, long balanceMinorUnits) {
+        return new WalletSnapshot(
+                wallet.getId(),
+                wallet.getUser().getId(),
+                wallet.getCurrencyCode(),
+                balanceMinorUnits,
+                wallet.getStatus(),
+                wallet.getBucketCount(),
+                wallet.getUpdatedAt(),
+                wallet.getVersion());
+    }
 }
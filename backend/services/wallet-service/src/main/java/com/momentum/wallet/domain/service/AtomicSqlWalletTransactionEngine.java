@@ -0,0 +1,147 @@
+package com.momentum.wallet.domain.service;
+
+import com.momentum.wallet.domain.command.WalletTransactionCommand;
+import com.momentum.wallet.domain.model.LedgerEntrySnapshot;
+import com.momentum.wallet.persistence.ledger.LedgerEntryType;
+import com.momentum.wallet.persistence.repository.LedgerEntryRepository;
+import com.momentum.wallet.persistence.repository.WalletRepository;
+import com.momentum.wallet.persistence.wallet.WalletEntity;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Objects;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * PostgreSQL engine that checks and moves the balance with one conditional {@code UPDATE ... RETURNING} and
+ * writes the ledger entry and its {@code ledger_references} row from the same statement through data-modifying CTEs.
+ *
+ * <p>The happy path is a single round trip and the wallet row lock is held only for the duration of that statement.
+ * When no row comes back the engine falls back to ordinary reads to work out why (missing or inactive wallet,
+ * replayed reference, insufficient funds), so error reporting matches {@link JpaWalletTransactionEngine}. The update
+ * also skips sharded wallets; one sharded after the caller routed here is then handed to {@link ShardedWalletLedger}.
+ *
+ * <p>Two concurrent commands carrying the same reference can both pass the {@code NOT EXISTS} guard; the loser then
+ * fails on the primary key of {@code ledger_references} and its transaction rolls back, so a retry observes the
+ * original entry.
+ */
+@Component
+@ConditionalOnProperty(prefix = "wallet.transactions", name = "engine", havingValue = "atomic-sql")
+public class AtomicSqlWalletTransactionEngine implements WalletTransactionEngine {
+
+    private static final String APPLY_SQL = """
+            WITH updated AS (
+                UPDATE wallets
+                   SET balance_minor_units = balance_minor_units + :delta,
+                       version = version + 1,
+                       updated_at = CURRENT_TIMESTAMP
+                 WHERE id = :walletId
+                   AND status = 'ACTIVE'
+                   AND bucket_count = 0
+                   AND balance_minor_units >= :requiredBalance
+                   AND NOT EXISTS (
+                       SELECT 1 FROM ledger_references WHERE wallet_id = :walletId AND reference = :reference)
+             RETURNING id, balance_minor_units
+            ), referenced AS (
+                INSERT INTO ledger_references (wallet_id, reference, entry_id, occurred_at)
+                SELECT updated.id, :reference, :entryId, :occurredAt
+                  FROM updated
+            )
+            INSERT INTO ledger_entries (
+                id, wallet_id, type, amount_minor_units, running_balance_minor_units,
+                transfer_id, reference, description, metadata, occurred_at)
+            SELECT :entryId, updated.id, :type, :amount, updated.balance_minor_units,
+                   :transferId, :reference, :description, CAST(:metadata AS jsonb), :occurredAt
+              FROM updated
+            RETURNING running_balance_minor_units
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final WalletRepository walletRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final ShardedWalletLedger shardedWalletLedger;
+
+    AtomicSqlWalletTransactionEngine(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            WalletRepository walletRepository,
+            LedgerEntryRepository ledgerEntryRepository,
+            ShardedWalletLedger shardedWalletLedger) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.walletRepository = walletRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.shardedWalletLedger = shardedWalletLedger;
+    }
+
+    @Override
+    public LedgerEntrySnapshot apply(WalletTransactionCommand command, LedgerEntryType type) {
+        WalletRules.enforcePositiveAmount(command.amountMinorUnits());
+        long amount = command.amountMinorUnits();
+        long delta;
+        long requiredBalance;
+        if (type == LedgerEntryType.DEBIT) {
+            delta = -amount;
+            requiredBalance = amount;
+        } else if (type == LedgerEntryType.CREDIT) {
+            delta = amount;
+            requiredBalance = Long.MIN_VALUE;
+        } else {
+            throw WalletRules.unsupportedType(type);
+        }
+
+        OffsetDateTime occurredAt = Objects.requireNonNullElseGet(command.occurredAt(), OffsetDateTime::now);
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("walletId", command.walletId())
+                .addValue("delta", delta)
+                .addValue("requiredBalance", requiredBalance)
+                .addValue("entryId", command.entryId())
+                .addValue("type", type.name())
+                .addValue("amount", amount)
+                .addValue("transferId", command.transferId(), Types.OTHER)
+                .addValue("reference", command.reference())
+                .addValue("description", command.description(), Types.VARCHAR)
+                .addValue("metadata", command.metadata(), Types.VARCHAR)
+                .addValue("occurredAt", occurredAt);
+
+        List<Long> runningBalance = jdbcTemplate.queryForList(APPLY_SQL, parameters, Long.class);
+        if (runningBalance.isEmpty()) {
+            return resolveRejected(command, type);
+        }
+
+        return new LedgerEntrySnapshot(
+                command.entryId(),
+                command.walletId(),
+                type,
+                amount,
+                runningBalance.get(0),
+                null,
+                null,
+                command.reference(),
+                command.description(),
+                command.metadata(),
+                occurredAt);
+    }
+
+    private LedgerEntrySnapshot resolveRejected(WalletTransactionCommand command, LedgerEntryType type) {
+        WalletEntity wallet = walletRepository
+                .findById(command.walletId())
+                .orElseThrow(() -> WalletRules.walletNotFound(command.walletId()));
+        if (wallet.isSharded()) {
+            return shardedWalletLedger.apply(command, type);
+        }
+        WalletRules.ensureWalletActive(wallet.getId(), wallet.getStatus());
+
+        return ledgerEntryRepository
+                .findApplied(wallet.getId(), command.reference())
+                .map(applied -> LedgerEntrySnapshot.replayed(applied, command, type))
+                .orElseThrow(() -> {
+                    if (type == LedgerEntryType.DEBIT) {
+                        return WalletRules.insufficientFunds(wallet.getId());
+                    }
+                    return new IllegalStateException(
+                            "Credit to wallet %s was not applied".formatted(wallet.getId()));
+                });
+    }
+}
@@ -0,0 +1,144 @@
+package com.momentum.wallet.domain.service;
+
+import com.momentum.sharedkernel.domain.value.MoneyMath;
+import com.momentum.sharedkernel.error.DomainException;
+import com.momentum.wallet.domain.command.PendingTransaction;
+import com.momentum.wallet.domain.command.WalletTransactionCommand;
+import com.momentum.wallet.domain.model.LedgerEntrySnapshot;
+import com.momentum.wallet.domain.model.TransactionOutcome;
+import com.momentum.wallet.persistence.ledger.LedgerEntryEntity;
+import com.momentum.wallet.persistence.ledger.LedgerEntryType;
+import com.momentum.wallet.persistence.ledger.LedgerReferenceEntity;
+import com.momentum.wallet.persistence.repository.LedgerEntryRepository;
+import com.momentum.wallet.persistence.repository.LedgerReferenceRepository;
+import com.momentum.wallet.persistence.repository.WalletRepository;
+import com.momentum.wallet.persistence.wallet.WalletEntity;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default engine: locks the wallet row with {@code SELECT ... FOR UPDATE} and mutates it through JPA.
+ *
+ * <p>A wallet sharded after the caller routed here is handed to {@link ShardedWalletLedger} once the lock shows it,
+ * since its balance has moved to the buckets.
+ */
+@Component
+@ConditionalOnProperty(prefix = "wallet.transactions", name = "engine", havingValue = "jpa", matchIfMissing = true)
+public class JpaWalletTransactionEngine implements WalletTransactionEngine {
+
+    private final WalletRepository walletRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final LedgerReferenceRepository ledgerReferenceRepository;
+    private final ShardedWalletLedger shardedWalletLedger;
+
+    JpaWalletTransactionEngine(
+            WalletRepository walletRepository,
+            LedgerEntryRepository ledgerEntryRepository,
+            LedgerReferenceRepository ledgerReferenceRepository,
+            ShardedWalletLedger shardedWalletLedger) {
+        this.walletRepository = walletRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.ledgerReferenceRepository = ledgerReferenceRepository;
+        this.shardedWalletLedger = shardedWalletLedger;
+    }
+
+    @Override
+    public LedgerEntrySnapshot apply(WalletTransactionCommand command, LedgerEntryType type) {
+        WalletEntity wallet = walletRepository
+                .findByIdForUpdate(command.walletId())
+                .orElseThrow(() -> WalletRules.walletNotFound(command.walletId()));
+        if (wallet.isSharded()) {
+            return shardedWalletLedger.apply(command, type);
+        }
+
+        WalletRules.ensureWalletActive(wallet.getId(), wallet.getStatus());
+        WalletRules.enforcePositiveAmount(command.amountMinorUnits());
+
+        return ledgerEntryRepository
+                .findApplied(wallet.getId(), command.reference())
+                .map(applied -> LedgerEntrySnapshot.replayed(applied, command, type))
+                .orElseGet(() -> processTransaction(command, type, wallet));
+    }
+
+    /**
+     * Takes the wallet row lock once for the whole group and resolves replayed references with a single lookup.
+     */
+    @Override
+    public List<TransactionOutcome> applyAll(UUID walletId, List<PendingTransaction> transactions) {
+        WalletEntity wallet = walletRepository
+                .findByIdForUpdate(walletId)
+                .orElseThrow(() -> WalletRules.walletNotFound(walletId));
+        if (wallet.isSharded()) {
+            return shardedWalletLedger.applyAll(walletId, transactions);
+        }
+        WalletRules.ensureWalletActive(wallet.getId(), wallet.getStatus());
+
+        List<String> references = transactions.stream()
+                .map(transaction -> transaction.command().reference())
+                .toList();
+        Map<String, LedgerEntrySnapshot> applied = WalletRules.replayedEntries(
+                ledgerEntryRepository.findAllApplied(walletId, references), transactions);
+
+        List<TransactionOutcome> outcomes = new ArrayList<>(transactions.size());
+        for (PendingTransaction transaction : transactions) {
+            WalletTransactionCommand command = transaction.command();
+            LedgerEntrySnapshot existing = applied.get(command.reference());
+            if (existing != null) {
+                outcomes.add(TransactionOutcome.succeeded(transaction, existing));
+                continue;
+            }
+            try {
+                WalletRules.enforcePositiveAmount(command.amountMinorUnits());
+                LedgerEntrySnapshot entry = processTransaction(command, transaction.type(), wallet);
+                applied.put(command.reference(), entry);
+                outcomes.add(TransactionOutcome.succeeded(transaction, entry));
+            } catch (DomainException ex) {
+                outcomes.add(TransactionOutcome.failed(transaction, ex.getMessage()));
+            }
+        }
+        return outcomes;
+    }
+
+    private LedgerEntrySnapshot processTransaction(
+            WalletTransactionCommand command, LedgerEntryType type, WalletEntity wallet) {
+        long amount = command.amountMinorUnits();
+        if (type == LedgerEntryType.DEBIT) {
+            ensureSufficientBalance(wallet, amount);
+            wallet.debit(amount);
+        } else if (type == LedgerEntryType.CREDIT) {
+            wallet.credit(amount);
+        } else {
+            throw WalletRules.unsupportedType(type);
+        }
+
+        LedgerEntryEntity entry = new LedgerEntryEntity(
+                command.entryId(),
+                wallet,
+                type,
+                amount,
+                wallet.getBalanceMinorUnits(),
+                null,
+                command.transferId(),
+                command.reference(),
+                command.description(),
+                command.metadata(),
+                Objects.requireNonNullElseGet(command.occurredAt(), OffsetDateTime::now));
+
+        LedgerEntryEntity savedEntry = ledgerEntryRepository.save(entry);
+        ledgerReferenceRepository.save(new LedgerReferenceEntity(savedEntry));
+        walletRepository.save(wallet);
+        return LedgerEntrySnapshot.from(savedEntry);
+    }
+
+    private void ensureSufficientBalance(WalletEntity wallet, long amountMinorUnits) {
+        if (MoneyMath.compare(wallet.getBalanceMinorUnits(), amountMinorUnits) < 0) {
+            throw WalletRules.insufficientFunds(wallet.getId());
+        }
+    }
+}
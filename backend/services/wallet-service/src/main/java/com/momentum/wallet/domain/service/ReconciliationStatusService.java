@@ -0,0 +1,46 @@
+package com.momentum.wallet.domain.service;
+
+import com.momentum.wallet.domain.model.ReconciliationProgress;
+import com.momentum.wallet.persistence.reconciliation.ReconciliationRunEntity;
+import com.momentum.wallet.persistence.repository.ReconciliationRangeRepository;
+import com.momentum.wallet.persistence.repository.ReconciliationRunRepository;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Read-only view of ledger reconciliation runs, available whether or not this instance runs the reconciler.
+ */
+@Service
+public class ReconciliationStatusService {
+
+    private final ReconciliationRunRepository runRepository;
+    private final ReconciliationRangeRepository rangeRepository;
+
+    public ReconciliationStatusService(
+            ReconciliationRunRepository runRepository, ReconciliationRangeRepository rangeRepository) {
+        this.runRepository = runRepository;
+        this.rangeRepository = rangeRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public ReconciliationProgress getLatestRun() {
+        ReconciliationRunEntity run = runRepository
+                .findFirstByOrderByStartedAtDesc()
+                .orElseThrow(() -> new ResourceNotFoundException("No ledger reconciliation run found"));
+        OffsetDateTime end = run.getFinishedAt() == null ? OffsetDateTime.now() : run.getFinishedAt();
+        long elapsedMillis = Math.max(1, Duration.between(run.getStartedAt(), end).toMillis());
+        return new ReconciliationProgress(
+                run.getId(),
+                run.getStatus(),
+                run.getStartedAt(),
+                run.getFinishedAt(),
+                rangeRepository.countByRunId(run.getId()),
+                rangeRepository.countByRunIdAndCompletedAtIsNull(run.getId()),
+                run.getWalletsChecked(),
+                run.getEntriesChecked(),
+                run.getDiscrepanciesFound(),
+                run.getEntriesChecked() * 1000.0 / elapsedMillis);
+    }
+}
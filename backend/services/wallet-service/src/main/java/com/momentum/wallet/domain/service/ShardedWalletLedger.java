@@ -0,0 +1,251 @@
+package com.momentum.wallet.domain.service;
+
+import com.momentum.sharedkernel.domain.value.MoneyMath;
+import com.momentum.sharedkernel.error.DomainException;
+import com.momentum.sharedkernel.id.UuidV7;
+import com.momentum.wallet.domain.command.PendingTransaction;
+import com.momentum.wallet.domain.command.WalletTransactionCommand;
+import com.momentum.wallet.domain.model.LedgerEntrySnapshot;
+import com.momentum.wallet.domain.model.TransactionOutcome;
+import com.momentum.wallet.persistence.ledger.LedgerEntryEntity;
+import com.momentum.wallet.persistence.ledger.LedgerEntryType;
+import com.momentum.wallet.persistence.ledger.LedgerReferenceEntity;
+import com.momentum.wallet.persistence.repository.LedgerEntryRepository;
+import com.momentum.wallet.persistence.repository.LedgerReferenceRepository;
+import com.momentum.wallet.persistence.repository.WalletBalanceBucketRepository;
+import com.momentum.wallet.persistence.repository.WalletRepository;
+import com.momentum.wallet.persistence.wallet.WalletBalanceBucketEntity;
+import com.momentum.wallet.persistence.wallet.WalletEntity;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies transactions to sharded wallets, whose balance is split across {@code wallet_balance_buckets} rows.
+ *
+ * <p>The wallet row is only read, never locked or updated, so concurrent transactions contend on buckets instead.
+ * A credit locks one random bucket. A debit first locks a random bucket that can cover it, skipping buckets held by
+ * other transactions, and otherwise sweeps: it locks every bucket in index order and drains them until the amount is
+ * covered. Ledger entries record the bucket they touched and that bucket's balance. The wallet-wide running balance
+ * is only recorded when every bucket is held, by sweeps and grouped batches; an entry holding a single bucket cannot
+ * know it and leaves it {@code null}.
+ *
+ * <p>Concurrent duplicates of one reference are caught by the primary key of {@code ledger_references}; the loser
+ * rolls back and its retry replays the original entry.
+ */
+@Component
+class ShardedWalletLedger {
+
+    private final WalletRepository walletRepository;
+    private final WalletBalanceBucketRepository bucketRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final LedgerReferenceRepository ledgerReferenceRepository;
+
+    ShardedWalletLedger(
+            WalletRepository walletRepository,
+            WalletBalanceBucketRepository bucketRepository,
+            LedgerEntryRepository ledgerEntryRepository,
+            LedgerReferenceRepository ledgerReferenceRepository) {
+        this.walletRepository = walletRepository;
+        this.bucketRepository = bucketRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.ledgerReferenceRepository = ledgerReferenceRepository;
+    }
+
+    LedgerEntrySnapshot apply(WalletTransactionCommand command, LedgerEntryType type) {
+        WalletEntity wallet = loadActiveWallet(command.walletId());
+        WalletRules.enforcePositiveAmount(command.amountMinorUnits());
+
+        return ledgerEntryRepository
+                .findApplied(wallet.getId(), command.reference())
+                .map(applied -> LedgerEntrySnapshot.replayed(applied, command, type))
+                .orElseGet(() -> switch (type) {
+                    case CREDIT -> credit(wallet, command);
+                    case DEBIT -> debit(wallet, command);
+                    default -> throw WalletRules.unsupportedType(type);
+                });
+    }
+
+    /**
+     * Locks all buckets once for the group, in index order, and applies the commands against them in memory.
+     */
+    List<TransactionOutcome> applyAll(UUID walletId, List<PendingTransaction> transactions) {
+        WalletEntity wallet = loadActiveWallet(walletId);
+        List<WalletBalanceBucketEntity> buckets = bucketRepository.findAllForUpdate(walletId);
+
+        List<String> references = transactions.stream()
+                .map(transaction -> transaction.command().reference())
+                .toList();
+        Map<String, LedgerEntrySnapshot> applied = WalletRules.replayedEntries(
+                ledgerEntryRepository.findAllApplied(walletId, references), transactions);
+
+        List<TransactionOutcome> outcomes = new ArrayList<>(transactions.size());
+        for (PendingTransaction transaction : transactions) {
+            WalletTransactionCommand command = transaction.command();
+            LedgerEntrySnapshot existing = applied.get(command.reference());
+            if (existing != null) {
+                outcomes.add(TransactionOutcome.succeeded(transaction, existing));
+                continue;
+            }
+            try {
+                WalletRules.enforcePositiveAmount(command.amountMinorUnits());
+                LedgerEntrySnapshot entry = switch (transaction.type()) {
+                    case CREDIT -> creditLocked(wallet, command, buckets);
+                    case DEBIT -> debitLocked(wallet, command, buckets);
+                    default -> throw WalletRules.unsupportedType(transaction.type());
+                };
+                applied.put(command.reference(), entry);
+                outcomes.add(TransactionOutcome.succeeded(transaction, entry));
+            } catch (DomainException ex) {
+                outcomes.add(TransactionOutcome.failed(transaction, ex.getMessage()));
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * Splits the wallet balance into {@code bucketCount} buckets, seeding the current balance into bucket 0.
+     */
+    WalletEntity shard(UUID walletId, int bucketCount) {
+        WalletEntity wallet = walletRepository
+                .findByIdForUpdate(walletId)
+                .orElseThrow(() -> WalletRules.walletNotFound(walletId));
+        WalletRules.ensureWalletActive(wallet.getId(), wallet.getStatus());
+        if (wallet.isSharded()) {
+            throw new DomainException("Wallet %s is already sharded".formatted(walletId));
+        }
+
+        long seed = wallet.shardBalance(bucketCount).toMinorUnits();
+        List<WalletBalanceBucketEntity> buckets = new ArrayList<>(bucketCount);
+        for (int index = 0; index < bucketCount; index++) {
+            buckets.add(new WalletBalanceBucketEntity(UuidV7.next(), wallet, index, index == 0 ? seed : 0L));
+        }
+        bucketRepository.saveAll(buckets);
+        return walletRepository.save(wallet);
+    }
+
+    /**
+     * Wallet-wide balance: the bucket total plus anything left on the wallet row.
+     */
+    long balanceOf(WalletEntity wallet) {
+        return MoneyMath.add(wallet.getBalanceMinorUnits(), bucketRepository.sumBalance(wallet.getId()));
+    }
+
+    private WalletEntity loadActiveWallet(UUID walletId) {
+        WalletEntity wallet = walletRepository
+                .findById(walletId)
+                .orElseThrow(() -> WalletRules.walletNotFound(walletId));
+        WalletRules.ensureWalletActive(wallet.getId(), wallet.getStatus());
+        return wallet;
+    }
+
+    private LedgerEntrySnapshot credit(WalletEntity wallet, WalletTransactionCommand command) {
+        int index = ThreadLocalRandom.current().nextInt(wallet.getBucketCount());
+        WalletBalanceBucketEntity bucket = bucketRepository
+                .findForUpdate(wallet.getId(), index)
+                .orElseThrow(() -> new IllegalStateException(
+                        "Bucket %d of wallet %s is missing".formatted(index, wallet.getId())));
+        bucket.credit(command.amountMinorUnits());
+        return record(wallet, command, LedgerEntryType.CREDIT, null, bucket);
+    }
+
+    private LedgerEntrySnapshot debit(WalletEntity wallet, WalletTransactionCommand command) {
+        return bucketRepository
+                .lockDebitCandidate(wallet.getId(), command.amountMinorUnits())
+                .map(bucket -> {
+                    bucket.debit(command.amountMinorUnits());
+                    return record(wallet, command, LedgerEntryType.DEBIT, null, bucket);
+                })
+                .orElseGet(() -> debitLocked(wallet, command, bucketRepository.findAllForUpdate(wallet.getId())));
+    }
+
+    /**
+     * Credits one random bucket out of buckets the caller has already locked.
+     */
+    private LedgerEntrySnapshot creditLocked(
+            WalletEntity wallet, WalletTransactionCommand command, List<WalletBalanceBucketEntity> buckets) {
+        WalletBalanceBucketEntity bucket = randomBucket(buckets);
+        bucket.credit(command.amountMinorUnits());
+        return record(wallet, command, LedgerEntryType.CREDIT, walletBalance(wallet, buckets), bucket);
+    }
+
+    /**
+     * Debits from buckets the caller has already locked: one random bucket when a single bucket can cover the
+     * amount, otherwise a sweep across all of them.
+     */
+    private LedgerEntrySnapshot debitLocked(
+            WalletEntity wallet, WalletTransactionCommand command, List<WalletBalanceBucketEntity> buckets) {
+        long amount = command.amountMinorUnits();
+        List<WalletBalanceBucketEntity> candidates = buckets.stream()
+                .filter(bucket -> bucket.getBalanceMinorUnits() >= amount)
+                .toList();
+        if (!candidates.isEmpty()) {
+            WalletBalanceBucketEntity bucket = randomBucket(candidates);
+            bucket.debit(amount);
+            return record(wallet, command, LedgerEntryType.DEBIT, walletBalance(wallet, buckets), bucket);
+        }
+
+        long total = buckets.stream().mapToLong(WalletBalanceBucketEntity::getBalanceMinorUnits).sum();
+        if (total < amount) {
+            throw WalletRules.insufficientFunds(wallet.getId());
+        }
+        long remaining = amount;
+        for (WalletBalanceBucketEntity bucket : buckets) {
+            long drawn = Math.min(bucket.getBalanceMinorUnits(), remaining);
+            bucket.debit(drawn);
+            remaining -= drawn;
+            if (remaining == 0) {
+                break;
+            }
+        }
+        return record(wallet, command, LedgerEntryType.DEBIT, walletBalance(wallet, buckets), null);
+    }
+
+    private WalletBalanceBucketEntity randomBucket(List<WalletBalanceBucketEntity> buckets) {
+        return buckets.get(ThreadLocalRandom.current().nextInt(buckets.size()));
+    }
+
+    /**
+     * Exact wallet-wide balance; only valid while the caller holds every bucket in {@code buckets}.
+     */
+    private static long walletBalance(WalletEntity wallet, List<WalletBalanceBucketEntity> buckets) {
+        long balance = wallet.getBalanceMinorUnits();
+        for (WalletBalanceBucketEntity bucket : buckets) {
+            balance = MoneyMath.add(balance, bucket.getBalanceMinorUnits());
+        }
+        return balance;
+    }
+
+    /**
+     * @param runningBalanceMinorUnits wallet-wide balance after the entry, or {@code null} when it is not known
+     * @param bucket bucket the entry was applied to, or {@code null} for a sweep
+     */
+    private LedgerEntrySnapshot record(
+            WalletEntity wallet,
+            WalletTransactionCommand command,
+            LedgerEntryType type,
+            Long runningBalanceMinorUnits,
+            WalletBalanceBucketEntity bucket) {
+        LedgerEntryEntity entry = new LedgerEntryEntity(
+                command.entryId(),
+                wallet,
+                type,
+                command.amountMinorUnits(),
+                runningBalanceMinorUnits,
+                bucket == null ? null : bucket.getBucketIndex(),
+                bucket == null ? null : bucket.getBalanceMinorUnits(),
+                command.transferId(),
+                command.reference(),
+                command.description(),
+                command.metadata(),
+                Objects.requireNonNullElseGet(command.occurredAt(), OffsetDateTime::now));
+        LedgerEntryEntity savedEntry = ledgerEntryRepository.save(entry);
+        ledgerReferenceRepository.save(new LedgerReferenceEntity(savedEntry));
+        return LedgerEntrySnapshot.from(savedEntry);
+    }
+}
@@ -2,29 +2,53 @@ package com.momentum.wallet.domain.service;
 
 import com.momentum.sharedkernel.domain.value.Money;
 import com.momentum.sharedkernel.error.DomainException;
+import com.momentum.sharedkernel.id.UuidV7;
+import com.momentum.wallet.cache.WalletSnapshotCache;
+import com.momentum.wallet.config.WalletCacheProperties;
+import com.momentum.wallet.config.WalletLedgerProperties;
+import com.momentum.wallet.config.WalletShardingProperties;
 import com.momentum.wallet.domain.command.CreateWalletCommand;
+import com.momentum.wallet.domain.command.PendingTransaction;
 import com.momentum.wallet.domain.command.WalletTransactionCommand;
+import com.momentum.wallet.domain.model.HistoricalBalance;
+import com.momentum.wallet.domain.model.LedgerCursor;
 import com.momentum.wallet.domain.model.LedgerEntrySnapshot;
+import com.momentum.wallet.domain.model.LedgerPage;
+import com.momentum.wallet.domain.model.TransactionOutcome;
+import com.momentum.wallet.domain.model.TransferLeg;
 import com.momentum.wallet.domain.model.WalletSnapshot;
-import com.momentum.wallet.persistence.ledger.LedgerEntryEntity;
 import com.momentum.wallet.persistence.ledger.LedgerEntryType;
 import com.momentum.wallet.persistence.repository.LedgerEntryRepository;
+import com.momentum.wallet.persistence.repository.LedgerExportRepository;
 import com.momentum.wallet.persistence.repository.UserRepository;
+import com.momentum.wallet.persistence.repository.WalletBalanceCheckpointRepository;
 import com.momentum.wallet.persistence.repository.WalletRepository;
 import com.momentum.wallet.persistence.user.UserEntity;
 import com.momentum.wallet.persistence.user.UserStatus;
+import com.momentum.wallet.persistence.wallet.WalletBalanceCheckpointEntity;
 import com.momentum.wallet.persistence.wallet.WalletEntity;
-import com.momentum.wallet.persistence.wallet.WalletStatus;
 import java.time.OffsetDateTime;
 import java.util.List;
-import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Application-layer service that coordinates wallet persistence, ledger writes, and idempotency.
+ *
+ * <p>Balance mutations are delegated to the configured {@link WalletTransactionEngine}, or to
+ * {@link ShardedWalletLedger} for sharded wallets. Wallet reads go through the
+ * {@link WalletSnapshotCache}, which every balance mutation invalidates once its transaction has committed.
+ * Historical balances are answered from the nearest earlier {@link WalletBalanceCheckpointEntity checkpoint}.
  */
 @Service
 public class WalletDomainService {
@@ -32,14 +56,44 @@ public class WalletDomainService {
     private final UserRepository userRepository;
     private final WalletRepository walletRepository;
     private final LedgerEntryRepository ledgerEntryRepository;
+    private final LedgerExportRepository ledgerExportRepository;
+    private final WalletBalanceCheckpointRepository checkpointRepository;
+    private final WalletTransactionEngine transactionEngine;
+    private final WalletLedgerProperties ledgerProperties;
+    private final ShardedWalletLedger shardedWalletLedger;
+    private final WalletShardingProperties shardingProperties;
+    private final WalletSnapshotCache snapshotCache;
+    private final WalletCacheProperties cacheProperties;
+    private final TransactionTemplate readTransaction;
 
     public WalletDomainService(
             UserRepository userRepository,
             WalletRepository walletRepository,
-            LedgerEntryRepository ledgerEntryRepository) {
+            LedgerEntryRepository ledgerEntryRepository,
+            LedgerExportRepository ledgerExportRepository,
+            WalletBalanceCheckpointRepository checkpointRepository,
+            WalletTransactionEngine transactionEngine,
+            WalletLedgerProperties ledgerProperties,
+            ShardedWalletLedger shardedWalletLedger,
+            WalletShardingProperties shardingProperties,
+            WalletSnapshotCache snapshotCache,
+            WalletCacheProperties cacheProperties,
+            PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
         this.walletRepository = walletRepository;
         this.ledgerEntryRepository = ledgerEntryRepository;
+        this.ledgerExportRepository = ledgerExportRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionEngine = transactionEngine;
+        this.ledgerProperties = ledgerProperties;
+        this.shardedWalletLedger = shardedWalletLedger;
+        this.shardingProperties = shardingProperties;
+        this.snapshotCache = snapshotCache;
+        this.cacheProperties = cacheProperties;
+        // REQUIRES_NEW so snapshots can also be read from afterCommit callbacks
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     @Transactional
@@ -65,25 +119,112 @@ public class WalletDomainService {
                 initialBalance);
 
         WalletEntity persisted = walletRepository.save(wallet);
-        return toWalletSnapshot(persisted);
+        checkpointRepository.save(new WalletBalanceCheckpointEntity(
+                UuidV7.next(), persisted, OffsetDateTime.now(), persisted.getBalanceMinorUnits()));
+        return WalletSnapshot.from(persisted);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Returns the wallet from the snapshot cache; a database transaction is only opened on a miss. Callers inside a
+     * transaction bypass the cache so they see their own uncommitted changes.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public WalletSnapshot getWallet(UUID walletId) {
-        WalletEntity wallet = walletRepository
-                .findById(walletId)
-                .orElseThrow(() -> new ResourceNotFoundException("Wallet %s not found".formatted(walletId)));
-        return toWalletSnapshot(wallet);
+        if (!cacheProperties.enabled() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return toSnapshot(findWallet(walletId));
+        }
+        return snapshotCache.get(walletId, this::loadSnapshot);
+    }
+
+    /**
+     * Returns the balance including every ledger entry that occurred at or before {@code at}: the nearest earlier
+     * checkpoint plus the entries after it, so at most one checkpoint interval of the ledger is read.
+     *
+     * @param at point in time; {@code null} means now
+     */
+    @Transactional(readOnly = true)
+    public HistoricalBalance getBalanceAt(UUID walletId, OffsetDateTime at) {
+        WalletEntity wallet = findWallet(walletId);
+        OffsetDateTime pointInTime = at == null ? OffsetDateTime.now() : at;
+        WalletBalanceCheckpointEntity checkpoint = checkpointRepository
+                .findFirstByWallet_IdAndCheckpointAtLessThanEqualOrderByCheckpointAtDesc(walletId, pointInTime)
+                .orElseThrow(() -> new DomainException("Wallet %s did not exist at %s".formatted(walletId, pointInTime)));
+        long balance = checkpoint.getBalanceMinorUnits()
+                + ledgerEntryRepository.sumSignedAmounts(walletId, checkpoint.getCheckpointAt(), pointInTime);
+        return new HistoricalBalance(
+                walletId, wallet.getCurrencyCode(), balance, pointInTime, checkpoint.getCheckpointAt());
+    }
+
+    /**
+     * Splits the wallet's balance across {@code bucketCount} bucket rows so concurrent transactions stop contending
+     * on the wallet row.
+     *
+     * @param bucketCount number of buckets; {@code null} falls back to the configured default
+     */
+    @Transactional
+    public WalletSnapshot shardWallet(UUID walletId, Integer bucketCount) {
+        if (!shardingProperties.enabled()) {
+            throw new DomainException("Wallet sharding is disabled");
+        }
+        int buckets = bucketCount == null ? shardingProperties.defaultBucketCount() : bucketCount;
+        if (buckets < 2 || buckets > shardingProperties.maxBucketCount()) {
+            throw new DomainException("Bucket count must be between 2 and %d"
+                    .formatted(shardingProperties.maxBucketCount()));
+        }
+        invalidateAfterCommit(walletId);
+        return toSnapshot(shardedWalletLedger.shard(walletId, buckets));
     }
 
     @Transactional(readOnly = true)
     public List<LedgerEntrySnapshot> getLedger(UUID walletId) {
         ensureWalletExists(walletId);
         return ledgerEntryRepository.findByWalletIdOrderByOccurredAtAsc(walletId).stream()
-                .map(this::toLedgerEntrySnapshot)
+                .map(LedgerEntrySnapshot::from)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Returns one keyset page of the ledger, resuming after {@code cursor} when present.
+     *
+     * @param limit requested page size; {@code null} falls back to the configured default
+     */
+    @Transactional(readOnly = true)
+    public LedgerPage getLedgerPage(UUID walletId, LedgerCursor cursor, Integer limit) {
+        ensureWalletExists(walletId);
+        int pageSize = resolvePageSize(limit);
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<LedgerEntrySnapshot> entries = (cursor == null
+                        ? ledgerEntryRepository.findByWalletIdOrderByOccurredAtAscIdAsc(walletId, fetchLimit)
+                        : ledgerEntryRepository.findPageAfter(walletId, cursor.occurredAt(), cursor.entryId(), fetchLimit))
+                .stream()
+                .map(LedgerEntrySnapshot::from)
+                .collect(Collectors.toList());
+
+        if (entries.size() <= pageSize) {
+            return new LedgerPage(entries, null);
+        }
+        List<LedgerEntrySnapshot> page = entries.subList(0, pageSize);
+        return new LedgerPage(page, LedgerCursor.after(page.get(pageSize - 1)));
+    }
+
+    /**
+     * Pushes every ledger entry of the wallet to {@code sink} in ledger order without materialising the ledger.
+     */
+    @Transactional(readOnly = true)
+    public void exportLedger(UUID walletId, Consumer<LedgerEntrySnapshot> sink) {
+        ensureWalletExists(walletId);
+        ledgerExportRepository.streamByWallet(walletId, sink);
+    }
+
+    /**
+     * Pushes the ledger legs of every transfer with {@code fromTransferId <= transfer id < toTransferId} to
+     * {@code sink}, sorted by transfer id and entry id.
+     */
+    @Transactional(readOnly = true)
+    public void exportTransferLegs(UUID fromTransferId, UUID toTransferId, Consumer<TransferLeg> sink) {
+        ledgerExportRepository.streamTransferLegs(fromTransferId, toTransferId, sink);
+    }
+
     @Transactional
     public LedgerEntrySnapshot credit(WalletTransactionCommand command) {
         return applyTransaction(command, LedgerEntryType.CREDIT);
@@ -94,92 +235,85 @@ public class WalletDomainService {
         return applyTransaction(command, LedgerEntryType.DEBIT);
     }
 
+    /**
+     * Applies several commands for the same wallet in one transaction so they share a single commit.
+     *
+     * <p>Each command keeps its own idempotency and insufficient-funds semantics: a rejected command is reported in
+     * its outcome without rolling back the others. Infrastructure failures still abort the whole group.
+     */
+    @Transactional
+    public List<TransactionOutcome> applyGroup(UUID walletId, List<PendingTransaction> transactions) {
+        for (PendingTransaction transaction : transactions) {
+            if (!walletId.equals(transaction.command().walletId())) {
+                throw new IllegalArgumentException("Transaction %s does not target wallet %s"
+                        .formatted(transaction.command().entryId(), walletId));
+            }
+        }
+        invalidateAfterCommit(walletId);
+        if (isSharded(walletId)) {
+            return shardedWalletLedger.applyAll(walletId, transactions);
+        }
+        return transactionEngine.applyAll(walletId, transactions);
+    }
+
     private LedgerEntrySnapshot applyTransaction(WalletTransactionCommand command, LedgerEntryType type) {
-        WalletEntity wallet = walletRepository
-                .findByIdForUpdate(command.walletId())
-                .orElseThrow(() -> new ResourceNotFoundException("Wallet %s not found".formatted(command.walletId())));
-
-        ensureWalletActive(wallet);
-        enforcePositiveAmount(command.amountMinorUnits());
-
-        return ledgerEntryRepository
-                .findByWalletIdAndReference(wallet.getId(), command.reference())
-                .map(this::toLedgerEntrySnapshot)
-                .orElseGet(() -> processTransaction(command, type, wallet));
-    }
-
-    private LedgerEntrySnapshot processTransaction(
-            WalletTransactionCommand command, LedgerEntryType type, WalletEntity wallet) {
-        Money amount = Money.ofMinor(command.amountMinorUnits(), wallet.getCurrency());
-        if (type == LedgerEntryType.DEBIT) {
-            ensureSufficientBalance(wallet, amount);
-            wallet.debit(amount);
-        } else if (type == LedgerEntryType.CREDIT) {
-            wallet.credit(amount);
-        } else {
-            throw new DomainException("Unsupported ledger entry type: %s".formatted(type));
+        invalidateAfterCommit(command.walletId());
+        if (isSharded(command.walletId())) {
+            return shardedWalletLedger.apply(command, type);
         }
+        return transactionEngine.apply(command, type);
+    }
 
-        LedgerEntryEntity entry = new LedgerEntryEntity(
-                command.entryId(),
-                wallet,
-                type,
-                amount.toMinorUnits(),
-                wallet.getBalance().toMinorUnits(),
-                command.reference(),
-                command.description(),
-                command.metadata(),
-                Objects.requireNonNullElseGet(command.occurredAt(), OffsetDateTime::now));
+    /**
+     * Routes on the wallet alone: wallets sharded before the feature was switched off keep their funds in buckets.
+     *
+     * <p>The read takes no lock, so a wallet sharded concurrently may still be routed to the engine; engines re-check
+     * under the wallet lock and hand such wallets to {@link ShardedWalletLedger}.
+     */
+    private boolean isSharded(UUID walletId) {
+        return walletRepository.findBucketCountById(walletId).orElse(0) > 0;
+    }
 
-        LedgerEntryEntity savedEntry = ledgerEntryRepository.save(entry);
-        walletRepository.save(wallet);
-        return toLedgerEntrySnapshot(savedEntry);
+    private WalletSnapshot loadSnapshot(UUID walletId) {
+        return readTransaction.execute(status -> toSnapshot(findWallet(walletId)));
     }
 
-    private void ensureWalletExists(UUID walletId) {
-        if (!walletRepository.existsById(walletId)) {
-            throw new ResourceNotFoundException("Wallet %s not found".formatted(walletId));
-        }
+    private WalletEntity findWallet(UUID walletId) {
+        return walletRepository.findById(walletId).orElseThrow(() -> WalletRules.walletNotFound(walletId));
     }
 
-    private void ensureWalletActive(WalletEntity wallet) {
-        if (wallet.getStatus() != WalletStatus.ACTIVE) {
-            throw new DomainException("Wallet %s is not active".formatted(wallet.getId()));
+    private void invalidateAfterCommit(UUID walletId) {
+        if (!cacheProperties.enabled()) {
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                snapshotCache.invalidate(walletId, WalletDomainService.this::loadSnapshot);
+            }
+        });
     }
 
-    private void enforcePositiveAmount(long amountMinorUnits) {
-        if (amountMinorUnits <= 0) {
-            throw new DomainException("Amount must be greater than zero");
+    private WalletSnapshot toSnapshot(WalletEntity wallet) {
+        if (wallet.isSharded()) {
+            return WalletSnapshot.from(wallet, shardedWalletLedger.balanceOf(wallet));
         }
+        return WalletSnapshot.from(wallet);
     }
 
-    private void ensureSufficientBalance(WalletEntity wallet, Money amount) {
-        if (wallet.getBalance().compareTo(amount) < 0) {
-            throw new DomainException("Insufficient funds for wallet %s".formatted(wallet.getId()));
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return ledgerProperties.defaultPageSize();
         }
+        if (limit <= 0) {
+            throw new DomainException("Page size must be greater than zero");
+        }
+        return Math.min(limit, ledgerProperties.maxPageSize());
     }
 
-    private WalletSnapshot toWalletSnapshot(WalletEntity wallet) {
-        return new WalletSnapshot(
-                wallet.getId(),
-                wallet.getUser().getId(),
-                wallet.getCurrency().getCurrencyCode(),
-                wallet.getBalance().toMinorUnits(),
-                wallet.getStatus(),
-                wallet.getUpdatedAt());
-    }
-
-    private LedgerEntrySnapshot toLedgerEntrySnapshot(LedgerEntryEntity entity) {
-        return new LedgerEntrySnapshot(
-                entity.getId(),
-                entity.getWallet().getId(),
-                entity.getType(),
-                entity.getAmountMinorUnits(),
-                entity.getRunningBalanceMinorUnits(),
-                entity.getReference(),
-                entity.getDescription(),
-                entity.getMetadata(),
-                entity.getOccurredAt());
+    private void ensureWalletExists(UUID walletId) {
+        if (!walletRepository.existsById(walletId)) {
+            throw WalletRules.walletNotFound(walletId);
+        }
     }
 }
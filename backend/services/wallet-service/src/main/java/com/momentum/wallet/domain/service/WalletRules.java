@@ -0,0 +1,62 @@
+package com.momentum.wallet.domain.service;
+
+import com.momentum.sharedkernel.error.DomainException;
+import com.momentum.wallet.domain.command.PendingTransaction;
+import com.momentum.wallet.domain.model.LedgerEntrySnapshot;
+import com.momentum.wallet.persistence.ledger.AppliedReference;
+import com.momentum.wallet.persistence.wallet.WalletStatus;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Wallet invariants shared by the transaction engines so every engine reports violations identically.
+ */
+final class WalletRules {
+
+    private WalletRules() {}
+
+    static ResourceNotFoundException walletNotFound(UUID walletId) {
+        return new ResourceNotFoundException("Wallet %s not found".formatted(walletId));
+    }
+
+    static void ensureWalletActive(UUID walletId, WalletStatus status) {
+        if (status != WalletStatus.ACTIVE) {
+            throw new DomainException("Wallet %s is not active".formatted(walletId));
+        }
+    }
+
+    static void enforcePositiveAmount(long amountMinorUnits) {
+        if (amountMinorUnits <= 0) {
+            throw new DomainException("Amount must be greater than zero");
+        }
+    }
+
+    static DomainException insufficientFunds(UUID walletId) {
+        return new DomainException("Insufficient funds for wallet %s".formatted(walletId));
+    }
+
+    static DomainException unsupportedType(Object type) {
+        return new DomainException("Unsupported ledger entry type: %s".formatted(type));
+    }
+
+    /**
+     * Entries the group's replayed references already produced, keyed by reference.
+     */
+    static Map<String, LedgerEntrySnapshot> replayedEntries(
+            List<AppliedReference> applied, List<PendingTransaction> transactions) {
+        Map<String, AppliedReference> byReference = new HashMap<>();
+        applied.forEach(reference -> byReference.put(reference.referenceValue(), reference));
+        Map<String, LedgerEntrySnapshot> entries = new HashMap<>();
+        for (PendingTransaction transaction : transactions) {
+            AppliedReference reference = byReference.get(transaction.command().reference());
+            if (reference != null) {
+                entries.putIfAbsent(
+                        reference.referenceValue(),
+                        LedgerEntrySnapshot.replayed(reference, transaction.command(), transaction.type()));
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,47 @@
+package com.momentum.wallet.domain.service;
+
+import com.momentum.sharedkernel.error.DomainException;
+import com.momentum.wallet.domain.command.PendingTransaction;
+import com.momentum.wallet.domain.command.WalletTransactionCommand;
+import com.momentum.wallet.domain.model.LedgerEntrySnapshot;
+import com.momentum.wallet.domain.model.TransactionOutcome;
+import com.momentum.wallet.persistence.ledger.LedgerEntryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Strategy that applies a single credit or debit to a wallet and records its ledger entry.
+ *
+ * <p>Implementations run inside the caller's transaction and must be idempotent on
+ * {@link WalletTransactionCommand#reference()}: replaying a reference returns the original entry. Callers route here
+ * without a lock, so implementations must re-check under the wallet lock that the wallet is not sharded.
+ * The active engine is chosen with {@code wallet.transactions.engine}.
+ */
+public interface WalletTransactionEngine {
+
+    /**
+     * @param command validated command with a positive amount
+     * @param type {@link LedgerEntryType#CREDIT} or {@link LedgerEntryType#DEBIT}
+     * @return the newly written entry, or the existing one when the reference was already applied
+     */
+    LedgerEntrySnapshot apply(WalletTransactionCommand command, LedgerEntryType type);
+
+    /**
+     * Applies commands for one wallet in order within the caller's transaction. A {@link DomainException} only fails
+     * its own command; any other exception aborts the whole group.
+     *
+     * <p>Engines must not leave the transaction rollback-only when a single command is rejected.
+     */
+    default List<TransactionOutcome> applyAll(UUID walletId, List<PendingTransaction> transactions) {
+        List<TransactionOutcome> outcomes = new ArrayList<>(transactions.size());
+        for (PendingTransaction transaction : transactions) {
+            try {
+                outcomes.add(TransactionOutcome.succeeded(transaction, apply(transaction.command(), transaction.type())));
+            } catch (DomainException ex) {
+                outcomes.add(TransactionOutcome.failed(transaction, ex.getMessage()));
+            }
+        }
+        return outcomes;
+    }
+}
@@ -0,0 +1,168 @@
+package com.momentum.wallet.messaging;
+
+import com.momentum.sharedkernel.id.UuidV7;
+import com.momentum.wallet.messaging.ConfirmingRabbitPublisher.PublishNotConfirmedException;
+import com.rabbitmq.client.Channel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.batch.BatchingStrategy;
+import org.springframework.amqp.rabbit.batch.MessageBatch;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.BatchingRabbitTemplate;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.scheduling.TaskScheduler;
+
+/**
+ * {@link BatchingRabbitTemplate} that publishes each batch with a correlated confirm and completes a future per
+ * event once the batch carrying it is confirmed.
+ *
+ * <p>The stock template sends batches without correlation data, so a caller cannot tell when its event reached the
+ * broker. Here {@link #publish} registers a future for the event before it enters the batching strategy. Under the
+ * template's lock the strategy records which futures each released batch carries; batches hold consecutive events
+ * and report their size in {@link AmqpHeaders#BATCH_SIZE}. The batch is then sent with its own correlation. An ack
+ * completes every future of the batch; a nack, a return or a failed send fails them all.
+ */
+public class ConfirmedBatchingRabbitTemplate extends BatchingRabbitTemplate {
+
+    private final TrackingStrategy strategy;
+
+    public ConfirmedBatchingRabbitTemplate(
+            ConnectionFactory connectionFactory, BatchingStrategy batchingStrategy, TaskScheduler scheduler) {
+        this(connectionFactory, new TrackingStrategy(batchingStrategy), scheduler);
+    }
+
+    private ConfirmedBatchingRabbitTemplate(
+            ConnectionFactory connectionFactory, TrackingStrategy strategy, TaskScheduler scheduler) {
+        super(connectionFactory, strategy, scheduler);
+        this.strategy = strategy;
+    }
+
+    /**
+     * Adds the event to the current batch.
+     *
+     * @return completes when the broker confirms the batch carrying the event
+     */
+    public CompletableFuture<Void> publish(String exchange, String routingKey, Object payload) {
+        Message message = convertMessageIfNecessary(payload);
+        CompletableFuture<Void> confirmed = new CompletableFuture<>();
+        strategy.expect(message, confirmed);
+        send(exchange, routingKey, message);
+        return confirmed;
+    }
+
+    @Override
+    public void doSend(
+            Channel channel,
+            String exchange,
+            String routingKey,
+            Message message,
+            boolean mandatory,
+            CorrelationData correlationData) {
+        List<CompletableFuture<Void>> events = correlationData == null ? strategy.released(message) : null;
+        if (events == null) {
+            super.doSend(channel, exchange, routingKey, message, mandatory, correlationData);
+            return;
+        }
+        CorrelationData correlation = new CorrelationData(UuidV7.next().toString());
+        correlation.getFuture().whenComplete((confirm, error) -> {
+            ReturnedMessage returned = correlation.getReturned();
+            if (error == null && confirm.isAck() && returned == null) {
+                events.forEach(event -> event.complete(null));
+                return;
+            }
+            String reason = returned != null
+                    ? "returned: " + returned.getReplyText()
+                    : "nacked: " + (error != null ? error.getMessage() : confirm.getReason());
+            PublishNotConfirmedException failure = new PublishNotConfirmedException(
+                    "Event batch to %s/%s was %s".formatted(exchange, routingKey, reason), error);
+            events.forEach(event -> event.completeExceptionally(failure));
+        });
+        try {
+            boolean returnable = Boolean.TRUE.equals(isMandatoryFor(message));
+            super.doSend(channel, exchange, routingKey, message, returnable, correlation);
+        } catch (RuntimeException ex) {
+            events.forEach(event -> event.completeExceptionally(ex));
+            throw ex;
+        }
+    }
+
+    /**
+     * Delegating strategy that tracks the futures of the events in each batch. Apart from {@link #expect}, every
+     * method runs under the template's lock.
+     */
+    private static final class TrackingStrategy implements BatchingStrategy {
+
+        private final BatchingStrategy delegate;
+        private final Map<Message, CompletableFuture<Void>> expected =
+                Collections.synchronizedMap(new IdentityHashMap<>());
+        private final Deque<CompletableFuture<Void>> batched = new ArrayDeque<>();
+        private final Map<Message, List<CompletableFuture<Void>>> released = new IdentityHashMap<>();
+
+        TrackingStrategy(BatchingStrategy delegate) {
+            this.delegate = delegate;
+        }
+
+        void expect(Message message, CompletableFuture<Void> confirmed) {
+            expected.put(message, confirmed);
+        }
+
+        List<CompletableFuture<Void>> released(Message batch) {
+            return released.remove(batch);
+        }
+
+        @Override
+        public MessageBatch addToBatch(String exchange, String routingKey, Message message) {
+            CompletableFuture<Void> confirmed = expected.remove(message);
+            // events sent without publish() still take their place in the batch
+            batched.addLast(confirmed != null ? confirmed : new CompletableFuture<>());
+            return track(delegate.addToBatch(exchange, routingKey, message));
+        }
+
+        @Override
+        public Date nextRelease() {
+            return delegate.nextRelease();
+        }
+
+        @Override
+        public Collection<MessageBatch> releaseBatches() {
+            return delegate.releaseBatches().stream().map(this::track).toList();
+        }
+
+        @Override
+        public boolean canDebatch(MessageProperties properties) {
+            return delegate.canDebatch(properties);
+        }
+
+        @Override
+        public void deBatch(Message message, Consumer<Message> fragmentListener) {
+            delegate.deBatch(message, fragmentListener);
+        }
+
+        private MessageBatch track(MessageBatch batch) {
+            if (batch == null) {
+                return null;
+            }
+            Object size = batch.getMessage().getMessageProperties().getHeader(AmqpHeaders.BATCH_SIZE);
+            int count = size instanceof Integer value ? value : 1;
+            List<CompletableFuture<Void>> events = new ArrayList<>(count);
+            for (int i = 0; i < count && !batched.isEmpty(); i++) {
+                events.add(batched.pollFirst());
+            }
+            released.put(batch.getMessage(), events);
+            return batch;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.momentum.wallet.messaging;
+
+import com.momentum.sharedkernel.id.UuidV7;
+import com.momentum.wallet.config.WalletPublishingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes with correlated publisher confirms inside a bounded in-flight window.
+ *
+ * <p>Sends are pipelined: {@link #publish} returns as soon as the message is written and the returned future
+ * completes from the asynchronous confirm. A permit of the window is held from send until confirm, so a slow broker
+ * applies back-pressure instead of letting unconfirmed messages pile up. Nacked messages are re-published up to
+ * {@code maxRetries} times under the same permit; unroutable (returned) messages fail immediately. Callers that must
+ * not lose a message wait with {@link #awaitConfirms} before acknowledging their own input.
+ */
+@Component
+public class ConfirmingRabbitPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfirmingRabbitPublisher.class);
+
+    private final RabbitTemplate rabbitTemplate;
+    private final WalletPublishingProperties properties;
+    private final Semaphore window;
+    private final Counter confirmedCounter;
+    private final Counter nackedCounter;
+    private final Counter returnedCounter;
+    private final Timer confirmTimer;
+
+    public ConfirmingRabbitPublisher(
+            RabbitTemplate rabbitTemplate, WalletPublishingProperties properties, MeterRegistry meterRegistry) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.properties = properties;
+        this.window = new Semaphore(properties.maxInFlight());
+        this.confirmedCounter = Counter.builder("wallet.messaging.publish.confirmed").register(meterRegistry);
+        this.nackedCounter = Counter.builder("wallet.messaging.publish.nacked").register(meterRegistry);
+        this.returnedCounter = Counter.builder("wallet.messaging.publish.returned").register(meterRegistry);
+        this.confirmTimer = Timer.builder("wallet.messaging.publish.confirm.latency")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("wallet.messaging.publish.in-flight", window, w -> properties.maxInFlight() - w.availablePermits())
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws AmqpTimeoutException when no slot frees up in the confirm window within {@code windowTimeout}
+     */
+    public CompletableFuture<Void> publish(String exchange, String routingKey, Object payload) {
+        Message message = rabbitTemplate.getMessageConverter().toMessage(payload, new MessageProperties());
+        acquireSlot();
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        send(exchange, routingKey, message, result, 0);
+        return result;
+    }
+
+    /**
+     * Blocks until every future is confirmed, failing when any of them is rejected or the confirm timeout elapses.
+     */
+    public void awaitConfirms(Collection<CompletableFuture<Void>> confirms) {
+        try {
+            CompletableFuture.allOf(confirms.toArray(CompletableFuture[]::new))
+                    .get(properties.confirmTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            throw new AmqpTimeoutException("Publisher confirms timed out", ex);
+        } catch (ExecutionException ex) {
+            throw new PublishNotConfirmedException(ex.getCause().getMessage(), ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new AmqpTimeoutException("Interrupted while awaiting publisher confirms", ex);
+        }
+    }
+
+    private void send(String exchange, String routingKey, Message message, CompletableFuture<Void> result, int attempt) {
+        AtomicBoolean released = new AtomicBoolean();
+        long started = System.nanoTime();
+        CorrelationData correlation = new CorrelationData(UuidV7.next().toString());
+        // handled off the connection thread: retries publish again and must not run on the thread delivering confirms
+        correlation.getFuture().whenCompleteAsync((confirm, error) -> {
+            confirmTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            ReturnedMessage returned = correlation.getReturned();
+            if (error == null && confirm.isAck() && returned == null) {
+                release(released);
+                confirmedCounter.increment();
+                result.complete(null);
+            } else if (returned != null) {
+                release(released);
+                returnedCounter.increment();
+                log.error("Message to {}/{} was returned: {}", exchange, routingKey, returned.getReplyText());
+                result.completeExceptionally(new PublishNotConfirmedException(
+                        "Message returned: " + returned.getReplyText(), null));
+            } else {
+                nackedCounter.increment();
+                String reason = error != null ? error.getMessage() : confirm.getReason();
+                if (attempt < properties.maxRetries() && released.compareAndSet(false, true)) {
+                    log.warn("Message to {}/{} was nacked ({}), retrying", exchange, routingKey, reason);
+                    send(exchange, routingKey, message, result, attempt + 1);
+                } else {
+                    release(released);
+                    log.error("Message to {}/{} was nacked ({}), giving up", exchange, routingKey, reason);
+                    result.completeExceptionally(new PublishNotConfirmedException("Message nacked: " + reason, error));
+                }
+            }
+        });
+        try {
+            rabbitTemplate.send(exchange, routingKey, message, correlation);
+        } catch (AmqpException ex) {
+            release(released);
+            result.completeExceptionally(ex);
+        }
+    }
+
+    private void acquireSlot() {
+        try {
+            if (!window.tryAcquire(properties.windowTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new AmqpTimeoutException("Publisher confirm window is full");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new AmqpTimeoutException("Interrupted while waiting for the publisher confirm window", ex);
+        }
+    }
+
+    private void release(AtomicBoolean released) {
+        if (released.compareAndSet(false, true)) {
+            window.release();
+        }
+    }
+
+    /**
+     * Raised when the broker nacks or returns a message that callers expected to be delivered.
+     */
+    public static class PublishNotConfirmedException extends AmqpException {
+        public PublishNotConfirmedException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.momentum.wallet.messaging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records how long each consumed message waited between publish and delivery, per queue, from the AMQP timestamp
+ * stamped by the publishing template.
+ */
+@Component
+public class ListenerLagRecorder implements MessagePostProcessor {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public ListenerLagRecorder(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Message postProcessMessage(Message message) {
+        Date timestamp = message.getMessageProperties().getTimestamp();
+        if (timestamp != null) {
+            String queue = message.getMessageProperties().getConsumerQueue();
+            long lagMillis = Math.max(0, System.currentTimeMillis() - timestamp.getTime());
+            timers.computeIfAbsent(queue == null ? "unknown" : queue, this::timer)
+                    .record(lagMillis, TimeUnit.MILLISECONDS);
+        }
+        return message;
+    }
+
+    private Timer timer(String queue) {
+        return Timer.builder("wallet.messaging.consume.lag")
+                .description("Time between publish and delivery to a wallet listener")
+                .tag("queue", queue)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,112 @@
+package com.momentum.wallet.messaging;
+
+import com.momentum.sharedkernel.error.DomainException;
+import com.momentum.wallet.domain.command.PendingTransaction;
+import com.momentum.wallet.domain.model.TransactionOutcome;
+import com.momentum.wallet.domain.service.WalletDomainService;
+import com.momentum.wallet.messaging.payload.WalletCommandMessage;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Group-commit consumer for wallet commands.
+ *
+ * <p>A delivered batch is split by wallet and each wallet's commands are applied in a single transaction, so a hot
+ * wallet pays for one row lock and one commit per batch instead of per message. Results are published only after the
+ * group has committed, pipelined through the publisher-confirm window, and the batch is acknowledged once every result
+ * is confirmed. A publishing failure requeues the batch, which is safe because replayed commands are resolved by their
+ * idempotency reference.
+ */
+@Component
+@ConditionalOnProperty(prefix = "wallet.messaging.batch", name = "enabled", havingValue = "true")
+public class WalletCommandBatchListener {
+
+    private static final Logger log = LoggerFactory.getLogger(WalletCommandBatchListener.class);
+
+    private final WalletDomainService walletDomainService;
+    private final WalletEventPublisher walletEventPublisher;
+    private final WalletCommandMapper commandMapper;
+
+    public WalletCommandBatchListener(
+            WalletDomainService walletDomainService,
+            WalletEventPublisher walletEventPublisher,
+            WalletCommandMapper commandMapper) {
+        this.walletDomainService = walletDomainService;
+        this.walletEventPublisher = walletEventPublisher;
+        this.commandMapper = commandMapper;
+    }
+
+    @RabbitListener(
+            id = "wallet-commands-batch",
+            queues = "#{walletCommandQueueNames}",
+            containerFactory = "walletCommandBatchContainerFactory")
+    public void handleBatch(List<WalletCommandMessage> messages) {
+        Map<UUID, List<WalletCommandMessage>> byWallet = new LinkedHashMap<>();
+        for (WalletCommandMessage message : messages) {
+            byWallet.computeIfAbsent(message.payload().walletId(), ignored -> new ArrayList<>()).add(message);
+        }
+        List<CompletableFuture<Void>> published = new ArrayList<>(messages.size());
+        byWallet.forEach((walletId, group) -> handleGroup(walletId, group, published));
+        walletEventPublisher.awaitConfirms(published);
+    }
+
+    private void handleGroup(
+            UUID walletId, List<WalletCommandMessage> messages, List<CompletableFuture<Void>> published) {
+        List<WalletCommandMessage> accepted = new ArrayList<>(messages.size());
+        List<PendingTransaction> transactions = new ArrayList<>(messages.size());
+        for (WalletCommandMessage message : messages) {
+            try {
+                transactions.add(commandMapper.toTransaction(message));
+                accepted.add(message);
+            } catch (IllegalArgumentException ex) {
+                log.warn("Wallet command failed: {}", ex.getMessage());
+                published.add(walletEventPublisher.publishFailure(
+                        message, commandMapper.resultType(message), ex.getMessage()));
+            }
+        }
+        if (transactions.isEmpty()) {
+            return;
+        }
+
+        List<TransactionOutcome> outcomes;
+        try {
+            outcomes = walletDomainService.applyGroup(walletId, transactions);
+        } catch (DomainException | IllegalArgumentException ex) {
+            log.warn("Wallet command group for {} failed: {}", walletId, ex.getMessage());
+            publishFailures(accepted, ex.getMessage(), published);
+            return;
+        } catch (Exception ex) {
+            log.error("Unexpected error handling wallet command group for {}", walletId, ex);
+            publishFailures(accepted, "Internal error", published);
+            return;
+        }
+
+        for (int i = 0; i < outcomes.size(); i++) {
+            WalletCommandMessage message = accepted.get(i);
+            TransactionOutcome outcome = outcomes.get(i);
+            String resultType = commandMapper.resultType(message);
+            if (outcome.succeeded()) {
+                published.add(walletEventPublisher.publishSuccess(message, resultType, outcome.entry()));
+            } else {
+                log.warn("Wallet command failed: {}", outcome.failureReason());
+                published.add(walletEventPublisher.publishFailure(message, resultType, outcome.failureReason()));
+            }
+        }
+    }
+
+    private void publishFailures(
+            List<WalletCommandMessage> messages, String reason, List<CompletableFuture<Void>> published) {
+        for (WalletCommandMessage message : messages) {
+            published.add(walletEventPublisher.publishFailure(message, commandMapper.resultType(message), reason));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.momentum.wallet.messaging;
+
+import com.momentum.sharedkernel.json.RawJson;
+import com.momentum.wallet.domain.command.PendingTransaction;
+import com.momentum.wallet.domain.command.WalletTransactionCommand;
+import com.momentum.wallet.messaging.payload.WalletCommandMessage;
+import com.momentum.wallet.persistence.ledger.LedgerEntryType;
+import java.time.OffsetDateTime;
+import org.springframework.stereotype.Component;
+
+/**
+ * Translates inbound wallet command envelopes into domain commands.
+ */
+@Component
+public class WalletCommandMapper {
+
+    /**
+     * @throws IllegalArgumentException when the message type is unknown
+     */
+    public PendingTransaction toTransaction(WalletCommandMessage message) {
+        LedgerEntryType type = switch (message.messageType()) {
+            case "wallet.debit.command" -> LedgerEntryType.DEBIT;
+            case "wallet.credit.command" -> LedgerEntryType.CREDIT;
+            default -> throw new IllegalArgumentException("Unsupported command type: " + message.messageType());
+        };
+        return new PendingTransaction(toCommand(message), type);
+    }
+
+    public String resultType(WalletCommandMessage message) {
+        return message.messageType().contains("debit") ? "DEBIT" : "CREDIT";
+    }
+
+    private WalletTransactionCommand toCommand(WalletCommandMessage message) {
+        return new WalletTransactionCommand(
+                message.payload().commandId(),
+                message.payload().walletId(),
+                message.payload().amountMinorUnits(),
+                message.payload().reference(),
+                message.payload().description(),
+                RawJson.toStored(message.payload().metadata()),
+                message.occurredAt() != null ? message.occurredAt() : OffsetDateTime.now(),
+                message.payload().transferId());
+    }
+}
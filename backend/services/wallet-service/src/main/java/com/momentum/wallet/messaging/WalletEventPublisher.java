@@ -1,29 +1,42 @@
 package com.momentum.wallet.messaging;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.momentum.sharedkernel.id.UuidV7;
 import com.momentum.wallet.config.WalletMessagingProperties;
 import com.momentum.wallet.domain.model.LedgerEntrySnapshot;
 import com.momentum.wallet.messaging.payload.WalletCommandMessage;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.UUID;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
 
+/**
+ * Publishes transaction results. Results go through {@link ConfirmingRabbitPublisher}, or through the
+ * {@link ConfirmedBatchingRabbitTemplate} when event batching is enabled; either way the returned future completes on
+ * the broker confirm covering the result.
+ */
 @Component
 public class WalletEventPublisher {
 
     private static final String PAYLOAD_VERSION = "1.0.0";
 
-    private final RabbitTemplate rabbitTemplate;
+    private final ConfirmingRabbitPublisher confirmingPublisher;
+    private final ConfirmedBatchingRabbitTemplate batchingTemplate;
     private final WalletMessagingProperties properties;
 
     public WalletEventPublisher(
-            RabbitTemplate rabbitTemplate, WalletMessagingProperties properties, ObjectMapper objectMapper) {
-        this.rabbitTemplate = rabbitTemplate;
+            ConfirmingRabbitPublisher confirmingPublisher,
+            ObjectProvider<ConfirmedBatchingRabbitTemplate> batchingTemplate,
+            WalletMessagingProperties properties,
+            ObjectMapper objectMapper) {
+        this.confirmingPublisher = confirmingPublisher;
+        this.batchingTemplate = batchingTemplate.getIfAvailable();
         this.properties = properties;
     }
 
-    public void publishSuccess(WalletCommandMessage message, String commandType, LedgerEntrySnapshot snapshot) {
+    public CompletableFuture<Void> publishSuccess(WalletCommandMessage message, String commandType, LedgerEntrySnapshot snapshot) {
         Payload payload = new Payload(
                 message.payload().commandId(),
                 message.payload().transferId(),
@@ -37,7 +50,7 @@ public class WalletEventPublisher {
                 null);
 
         Envelope envelope = new Envelope(
-                UUID.randomUUID(),
+                UuidV7.next(),
                 OffsetDateTime.now(),
                 message.correlationId(),
                 message.messageId(),
@@ -45,10 +58,10 @@ public class WalletEventPublisher {
                 PAYLOAD_VERSION,
                 payload);
 
-        rabbitTemplate.convertAndSend(properties.eventExchange(), properties.transactionResultRoutingKey(), envelope);
+        return send(properties.transactionResultRoutingKey(), envelope);
     }
 
-    public void publishFailure(WalletCommandMessage message, String commandType, String failureReason) {
+    public CompletableFuture<Void> publishFailure(WalletCommandMessage message, String commandType, String failureReason) {
         Payload payload = new Payload(
                 message.payload().commandId(),
                 message.payload().transferId(),
@@ -62,7 +75,7 @@ public class WalletEventPublisher {
                 failureReason);
 
         Envelope envelope = new Envelope(
-                UUID.randomUUID(),
+                UuidV7.next(),
                 OffsetDateTime.now(),
                 message.correlationId(),
                 message.messageId(),
@@ -70,7 +83,21 @@ public class WalletEventPublisher {
                 PAYLOAD_VERSION,
                 payload);
 
-        rabbitTemplate.convertAndSend(properties.eventExchange(), properties.transactionResultRoutingKey(), envelope);
+        return send(properties.transactionResultRoutingKey(), envelope);
+    }
+
+    /**
+     * Waits until the given results are confirmed by the broker.
+     */
+    public void awaitConfirms(Collection<CompletableFuture<Void>> published) {
+        confirmingPublisher.awaitConfirms(published);
+    }
+
+    private CompletableFuture<Void> send(String routingKey, Envelope envelope) {
+        if (batchingTemplate != null) {
+            return batchingTemplate.publish(properties.eventExchange(), routingKey, envelope);
+        }
+        return confirmingPublisher.publish(properties.eventExchange(), routingKey, envelope);
     }
 
     private record Envelope(
@@ -1,7 +1,7 @@
 package com.momentum.wallet.messaging.payload;
 
+import com.momentum.sharedkernel.json.RawJson;
 import java.time.OffsetDateTime;
-import java.util.Map;
 import java.util.UUID;
 
 public record WalletCommandMessage(
@@ -21,5 +21,5 @@ public record WalletCommandMessage(
             String currency,
             String reference,
             String description,
-            Map<String, Object> metadata) {}
+            RawJson metadata) {}
 }
@@ -0,0 +1,12 @@
+package com.momentum.wallet.persistence.ledger;
+
+/**
+ * A reference already taken on a wallet, with the entry that took it. {@code entry} is {@code null} once the
+ * entry's partition has been archived; the {@code ledger_references} row outlives it.
+ */
+public record AppliedReference(LedgerReferenceEntity reference, LedgerEntryEntity entry) {
+
+    public String referenceValue() {
+        return reference.getId().reference();
+    }
+}
@@ -0,0 +1,182 @@
+package com.momentum.wallet.persistence.ledger;
+
+import com.momentum.sharedkernel.id.UuidV7;
+import com.momentum.wallet.config.BalanceCheckpointProperties;
+import com.momentum.wallet.persistence.repository.BalanceCheckpointProgressRepository;
+import com.momentum.wallet.persistence.repository.LedgerEntryRepository;
+import com.momentum.wallet.persistence.repository.LedgerEntryRepository.LateBalanceDelta;
+import com.momentum.wallet.persistence.repository.LedgerEntryRepository.WalletBalanceDelta;
+import com.momentum.wallet.persistence.repository.WalletBalanceCheckpointRepository;
+import com.momentum.wallet.persistence.wallet.BalanceCheckpointProgressEntity;
+import com.momentum.wallet.persistence.wallet.WalletBalanceCheckpointEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Writes a balance checkpoint at the end of every checkpoint interval for each wallet whose ledger changed during it,
+ * so a point-in-time balance only has to add up the entries after the nearest earlier checkpoint.
+ *
+ * <p>Work is incremental: the progress row records the last checkpointed time and each window aggregates only the
+ * ledger entries after it, adding each wallet's net change to its previous checkpoint. A run that fell behind writes
+ * one checkpoint per elapsed interval, each window in its own transaction. A window is checkpointed once
+ * {@code settleDelay} has passed since it closed. Entries carry the {@code occurred_at} of their command, so one can
+ * still be recorded after its window was checkpointed: each window therefore counts only the entries recorded by its
+ * end, per the server-assigned {@code recorded_at}, and adds the entries recorded during it that belong to earlier
+ * windows to every checkpoint of their wallet from their {@code occurred_at} on. The progress row is locked for each
+ * window, so concurrent instances checkpoint each window once.
+ */
+@Component
+@ConditionalOnProperty(prefix = "wallet.ledger.checkpoints", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class BalanceCheckpointer {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceCheckpointer.class);
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final WalletBalanceCheckpointRepository checkpointRepository;
+    private final BalanceCheckpointProgressRepository progressRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BalanceCheckpointProperties properties;
+    private final Counter checkpointsWritten;
+    private final Counter lateEntries;
+
+    public BalanceCheckpointer(
+            LedgerEntryRepository ledgerEntryRepository,
+            WalletBalanceCheckpointRepository checkpointRepository,
+            BalanceCheckpointProgressRepository progressRepository,
+            PlatformTransactionManager transactionManager,
+            BalanceCheckpointProperties properties,
+            MeterRegistry meterRegistry) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.progressRepository = progressRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.checkpointsWritten = Counter.builder("wallet.ledger.checkpoints.written")
+                .description("Wallet balance checkpoints written")
+                .register(meterRegistry);
+        this.lateEntries = Counter.builder("wallet.ledger.checkpoints.late-entries")
+                .description("Ledger entry groups recorded after their window was checkpointed and added afterwards")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.ledger.checkpoints.poll-interval:1m}")
+    public void checkpoint() {
+        checkpointUpTo(alignDown(OffsetDateTime.now().minus(properties.settleDelay())));
+    }
+
+    /**
+     * Checkpoints every interval between the recorded progress and {@code target}, one window at a time.
+     *
+     * @return number of checkpoints written
+     */
+    public int checkpointUpTo(OffsetDateTime target) {
+        int written = 0;
+        Window window;
+        do {
+            window = transactionTemplate.execute(status -> checkpointNextWindow(target));
+            written += window.written();
+            if (window.written() > 0) {
+                checkpointsWritten.increment(window.written());
+                log.info("Wrote {} wallet balance checkpoints at {}", window.written(), window.end());
+            }
+        } while (window.end().isBefore(target));
+        return written;
+    }
+
+    private Window checkpointNextWindow(OffsetDateTime target) {
+        Optional<BalanceCheckpointProgressEntity> progress =
+                progressRepository.findByNameForUpdate(BalanceCheckpointProgressEntity.BALANCE);
+        OffsetDateTime from = progress
+                .map(BalanceCheckpointProgressEntity::getCheckpointedTo)
+                .or(checkpointRepository::findEarliestCheckpointAt)
+                .orElse(target);
+        if (!target.isAfter(from)) {
+            return new Window(target, 0);
+        }
+        OffsetDateTime nextBoundary = alignDown(from).plus(properties.interval());
+        OffsetDateTime end = nextBoundary.isBefore(target) ? nextBoundary : target;
+
+        addLateEntries(from, end);
+        int count = 0;
+        List<WalletBalanceDelta> deltas = ledgerEntryRepository.sumSignedAmountsByWallet(from, end);
+        for (int start = 0; start < deltas.size(); start += properties.batchSize()) {
+            count += checkpointBatch(deltas.subList(start, Math.min(start + properties.batchSize(), deltas.size())),
+                    from, end);
+        }
+
+        if (progress.isPresent()) {
+            progress.get().advanceTo(end);
+        } else {
+            progressRepository.save(new BalanceCheckpointProgressEntity(BalanceCheckpointProgressEntity.BALANCE, end));
+        }
+        return new Window(end, count);
+    }
+
+    /**
+     * Adds entries recorded in {@code (from, end]} that occurred in an already checkpointed window to every checkpoint
+     * of their wallet they should have been part of.
+     */
+    private void addLateEntries(OffsetDateTime from, OffsetDateTime end) {
+        List<LateBalanceDelta> late = ledgerEntryRepository.sumLateSignedAmounts(from, end);
+        for (LateBalanceDelta delta : late) {
+            checkpointRepository.shiftBalances(delta.getWalletId(), delta.getOccurredAt(), delta.getDeltaMinorUnits());
+        }
+        if (!late.isEmpty()) {
+            lateEntries.increment(late.size());
+            log.info("Added {} late ledger entry groups to existing balance checkpoints", late.size());
+        }
+    }
+
+    private int checkpointBatch(List<WalletBalanceDelta> deltas, OffsetDateTime from, OffsetDateTime target) {
+        Map<UUID, WalletBalanceCheckpointEntity> latest = checkpointRepository
+                .findLatestAtOrBefore(deltas.stream().map(WalletBalanceDelta::getWalletId).toList(), target)
+                .stream()
+                .collect(Collectors.toMap(checkpoint -> checkpoint.getWallet().getId(), Function.identity()));
+
+        List<WalletBalanceCheckpointEntity> checkpoints = new ArrayList<>(deltas.size());
+        for (WalletBalanceDelta delta : deltas) {
+            WalletBalanceCheckpointEntity base = latest.get(delta.getWalletId());
+            if (base == null) {
+                log.warn("Wallet {} has ledger entries but no balance checkpoint before {}", delta.getWalletId(), target);
+                continue;
+            }
+            if (!base.getCheckpointAt().isBefore(target)) {
+                continue;
+            }
+            // a wallet opened inside the window only moved after its opening checkpoint
+            long change = base.getCheckpointAt().isAfter(from)
+                    ? ledgerEntryRepository.sumSignedAmountsRecordedBy(
+                            delta.getWalletId(), base.getCheckpointAt(), target, target)
+                    : delta.getDeltaMinorUnits();
+            checkpoints.add(new WalletBalanceCheckpointEntity(
+                    UuidV7.next(), base.getWallet(), target, base.getBalanceMinorUnits() + change));
+        }
+        checkpointRepository.saveAll(checkpoints);
+        return checkpoints.size();
+    }
+
+    private OffsetDateTime alignDown(OffsetDateTime time) {
+        long intervalMillis = properties.interval().toMillis();
+        long millis = time.toInstant().toEpochMilli();
+        return Instant.ofEpochMilli(millis - Math.floorMod(millis, intervalMillis)).atOffset(ZoneOffset.UTC);
+    }
+
+    private record Window(OffsetDateTime end, int written) {}
+}
@@ -13,6 +13,7 @@ import jakarta.persistence.Table;
 import java.time.OffsetDateTime;
 import java.util.Objects;
 import java.util.UUID;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "ledger_entries")
@@ -32,8 +33,17 @@ public class LedgerEntryEntity {
     @Column(name = "amount_minor_units", nullable = false)
     private long amountMinorUnits;
 
-    @Column(name = "running_balance_minor_units", nullable = false)
-    private long runningBalanceMinorUnits;
+    @Column(name = "running_balance_minor_units")
+    private Long runningBalanceMinorUnits;
+
+    @Column(name = "bucket_index")
+    private Integer bucketIndex;
+
+    @Column(name = "bucket_balance_minor_units")
+    private Long bucketBalanceMinorUnits;
+
+    @Column(name = "transfer_id")
+    private UUID transferId;
 
     @Column(name = "reference", nullable = false, length = 120)
     private String reference;
@@ -47,6 +57,24 @@ public class LedgerEntryEntity {
     @Column(name = "occurred_at", nullable = false)
     private OffsetDateTime occurredAt;
 
+    /**
+     * Server time of the insert, set by the column default: {@code clock_timestamp()} on PostgreSQL, so that it is
+     * taken at the insert rather than at the start of its transaction.
+     */
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "recorded_at", nullable = false, insertable = false, updatable = false)
+    private OffsetDateTime recordedAt;
+
+    /**
+     * Insertion order, assigned by the database; follows the order entries of one wallet were applied in.
+     */
+    @Column(
+            name = "sequence_number",
+            insertable = false,
+            updatable = false,
+            columnDefinition = "bigint generated by default as identity")
+    private Long sequenceNumber;
+
     protected LedgerEntryEntity() {
         // JPA
     }
@@ -61,12 +89,71 @@ public class LedgerEntryEntity {
             String description,
             String metadata,
             OffsetDateTime occurredAt) {
+        this(id, wallet, type, amountMinorUnits, runningBalanceMinorUnits, null, reference, description, metadata,
+                occurredAt);
+    }
+
+    public LedgerEntryEntity(
+            UUID id,
+            WalletEntity wallet,
+            LedgerEntryType type,
+            long amountMinorUnits,
+            long runningBalanceMinorUnits,
+            Integer bucketIndex,
+            String reference,
+            String description,
+            String metadata,
+            OffsetDateTime occurredAt) {
+        this(id, wallet, type, amountMinorUnits, runningBalanceMinorUnits, bucketIndex, null, reference, description,
+                metadata, occurredAt);
+    }
+
+    /**
+     * @param transferId transfer saga the entry is a leg of, or {@code null} for entries not posted by a transfer
+     */
+    public LedgerEntryEntity(
+            UUID id,
+            WalletEntity wallet,
+            LedgerEntryType type,
+            long amountMinorUnits,
+            long runningBalanceMinorUnits,
+            Integer bucketIndex,
+            UUID transferId,
+            String reference,
+            String description,
+            String metadata,
+            OffsetDateTime occurredAt) {
+        this(id, wallet, type, amountMinorUnits, runningBalanceMinorUnits, bucketIndex, null, transferId, reference,
+                description, metadata, occurredAt);
+    }
+
+    /**
+     * @param runningBalanceMinorUnits wallet-wide balance after the entry, or {@code null} when it is not known
+     * @param bucketBalanceMinorUnits balance of bucket {@code bucketIndex} after the entry; {@code null} without one
+     * @param transferId transfer saga the entry is a leg of, or {@code null} for entries not posted by a transfer
+     */
+    public LedgerEntryEntity(
+            UUID id,
+            WalletEntity wallet,
+            LedgerEntryType type,
+            long amountMinorUnits,
+            Long runningBalanceMinorUnits,
+            Integer bucketIndex,
+            Long bucketBalanceMinorUnits,
+            UUID transferId,
+            String reference,
+            String description,
+            String metadata,
+            OffsetDateTime occurredAt) {
         this.id = Objects.requireNonNull(id, "id");
         this.wallet = Objects.requireNonNull(wallet, "wallet");
         this.type = Objects.requireNonNull(type, "type");
         this.reference = Objects.requireNonNull(reference, "reference");
         this.amountMinorUnits = amountMinorUnits;
         this.runningBalanceMinorUnits = runningBalanceMinorUnits;
+        this.bucketIndex = bucketIndex;
+        this.bucketBalanceMinorUnits = bucketBalanceMinorUnits;
+        this.transferId = transferId;
         this.description = description;
         this.metadata = metadata;
         this.occurredAt = Objects.requireNonNull(occurredAt, "occurredAt");
@@ -88,10 +175,22 @@ public class LedgerEntryEntity {
         return amountMinorUnits;
     }
 
-    public long getRunningBalanceMinorUnits() {
+    public Long getRunningBalanceMinorUnits() {
         return runningBalanceMinorUnits;
     }
 
+    public Integer getBucketIndex() {
+        return bucketIndex;
+    }
+
+    public Long getBucketBalanceMinorUnits() {
+        return bucketBalanceMinorUnits;
+    }
+
+    public UUID getTransferId() {
+        return transferId;
+    }
+
     public String getReference() {
         return reference;
     }
@@ -107,4 +206,12 @@ public class LedgerEntryEntity {
     public OffsetDateTime getOccurredAt() {
         return occurredAt;
     }
+
+    public OffsetDateTime getRecordedAt() {
+        return recordedAt;
+    }
+
+    public Long getSequenceNumber() {
+        return sequenceNumber;
+    }
 }
@@ -0,0 +1,52 @@
+package com.momentum.wallet.persistence.ledger;
+
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+/**
+ * The {@code ledger_entries} partition holding one UTC month, named {@code ledger_entries_pYYYYMM}.
+ */
+public record LedgerPartition(YearMonth month) implements Comparable<LedgerPartition> {
+
+    static final String NAME_PREFIX = "ledger_entries_p";
+
+    private static final DateTimeFormatter NAME_SUFFIX = DateTimeFormatter.ofPattern("uuuuMM");
+
+    /**
+     * @return the partition a table of that name holds, empty if the name does not follow the partition scheme
+     */
+    public static Optional<LedgerPartition> fromTableName(String tableName) {
+        if (!tableName.startsWith(NAME_PREFIX)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new LedgerPartition(
+                    YearMonth.parse(tableName.substring(NAME_PREFIX.length()), NAME_SUFFIX)));
+        } catch (DateTimeParseException ex) {
+            return Optional.empty();
+        }
+    }
+
+    public String tableName() {
+        return NAME_PREFIX + month.format(NAME_SUFFIX);
+    }
+
+    /** Inclusive lower bound of {@code occurred_at}. */
+    public OffsetDateTime from() {
+        return month.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+    }
+
+    /** Exclusive upper bound of {@code occurred_at}. */
+    public OffsetDateTime to() {
+        return month.plusMonths(1).atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+    }
+
+    @Override
+    public int compareTo(LedgerPartition other) {
+        return month.compareTo(other.month);
+    }
+}
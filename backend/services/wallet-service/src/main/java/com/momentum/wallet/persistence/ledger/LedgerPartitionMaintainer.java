@@ -0,0 +1,293 @@
+package com.momentum.wallet.persistence.ledger;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.momentum.wallet.config.LedgerPartitionProperties;
+import com.momentum.wallet.persistence.repository.LedgerExportRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the monthly partitions of {@code ledger_entries} ahead of the clock and moves old months to local archive
+ * files. PostgreSQL only.
+ *
+ * <p>Every step holds locks that let ledger reads and writes continue: future partitions are created standalone and
+ * then attached, which only takes a {@code SHARE UPDATE EXCLUSIVE} lock on the parent, and partitions older than
+ * {@code retainedMonths} are detached {@code CONCURRENTLY}. A detached partition is streamed into a gzip-compressed
+ * JSON lines file, synced to disk and renamed into place before its table is dropped. Each statement commits on its
+ * own, so a run interrupted at any point is finished by the next one: a pending detach is finalized and a detached
+ * table that is still present is archived again.
+ *
+ * <p>Entries whose {@code occurred_at} has no monthly partition land in the {@code ledger_entries_default} partition.
+ * Attaching a month moves that month's rows out of it in the same transaction: the default partition is locked,
+ * the rows are copied into the new table and deleted from the default, and the attach then finds no conflicting row.
+ * The lock blocks only statements that touch the default partition, and only while its rows of one month are moved.
+ * Rows of a month that has no partition yet, or no longer has one, stay in the default partition and are reported on
+ * every run.
+ *
+ * <p>A run holds a session-level advisory lock on a connection of its own, so only one instance maintains the
+ * partitions at a time; instances that do not get the lock skip the run.
+ *
+ * <p>{@code ledger_references} rows are kept, so a reference whose entry was archived cannot be reused; a command
+ * replaying it is answered from the reference row.
+ */
+@Component
+@ConditionalOnProperty(prefix = "wallet.ledger.partitions", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LedgerPartitionMaintainer {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerPartitionMaintainer.class);
+
+    private static final String ATTACHED_SQL = """
+            SELECT c.relname, i.inhdetachpending
+              FROM pg_inherits i
+              JOIN pg_class c ON c.oid = i.inhrelid
+             WHERE i.inhparent = 'ledger_entries'::regclass
+            """;
+
+    private static final String DETACHED_SQL = """
+            SELECT c.relname
+              FROM pg_class c
+             WHERE c.relkind = 'r'
+               AND c.relnamespace = (SELECT relnamespace FROM pg_class WHERE oid = 'ledger_entries'::regclass)
+               AND c.relname LIKE 'ledger\\_entries\\_p%'
+               AND NOT EXISTS (SELECT 1 FROM pg_inherits i WHERE i.inhrelid = c.oid)
+            """;
+
+    private static final String DEFAULT_PARTITION = "ledger_entries_default";
+
+    /**
+     * Advisory lock key shared by every instance.
+     */
+    private static final long MAINTENANCE_LOCK = 0x4C45444745525054L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LedgerExportRepository exportRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final LedgerPartitionProperties properties;
+    private final Counter archivedPartitions;
+    private final Counter archivedEntries;
+
+    public LedgerPartitionMaintainer(
+            JdbcTemplate jdbcTemplate,
+            LedgerExportRepository exportRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            LedgerPartitionProperties properties,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.exportRepository = exportRepository;
+        this.objectMapper = objectMapper;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+        this.archivedPartitions = Counter.builder("wallet.ledger.partitions.archived")
+                .description("Ledger partitions written to the archive directory and dropped")
+                .register(meterRegistry);
+        this.archivedEntries = Counter.builder("wallet.ledger.entries.archived")
+                .description("Ledger entries written to archive files")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.ledger.partitions.maintenance-interval:1h}")
+    public void maintain() throws IOException {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                if (!advisoryLock(connection, "pg_try_advisory_lock")) {
+                    log.debug("Ledger partition maintenance is running on another instance");
+                    return null;
+                }
+                try {
+                    maintainPartitions();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                } finally {
+                    advisoryLock(connection, "pg_advisory_unlock");
+                }
+                return null;
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private static boolean advisoryLock(Connection connection, String function) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT %s(?)".formatted(function))) {
+            statement.setLong(1, MAINTENANCE_LOCK);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private void maintainPartitions() throws IOException {
+        YearMonth currentMonth = YearMonth.now(ZoneOffset.UTC);
+        YearMonth oldestRetained = currentMonth.minusMonths(properties.retainedMonths());
+        Map<LedgerPartition, Boolean> attached = attachedPartitions();
+        TreeSet<LedgerPartition> detached = detachedPartitions();
+
+        for (int ahead = 0; ahead <= properties.monthsAhead(); ahead++) {
+            LedgerPartition partition = new LedgerPartition(currentMonth.plusMonths(ahead));
+            if (!attached.containsKey(partition)) {
+                attach(partition, detached.remove(partition));
+            }
+        }
+        reportDefaultPartition();
+        attached.forEach((partition, detachPending) -> {
+            if (partition.month().isBefore(oldestRetained)) {
+                detach(partition, detachPending);
+                detached.add(partition);
+            }
+        });
+        for (LedgerPartition partition : detached) {
+            if (partition.month().isBefore(oldestRetained)) {
+                archive(partition);
+            }
+        }
+    }
+
+    private Map<LedgerPartition, Boolean> attachedPartitions() {
+        Map<LedgerPartition, Boolean> attached = new HashMap<>();
+        jdbcTemplate.query(ATTACHED_SQL, rs -> {
+            Optional<LedgerPartition> partition = LedgerPartition.fromTableName(rs.getString("relname"));
+            if (partition.isPresent()) {
+                attached.put(partition.get(), rs.getBoolean("inhdetachpending"));
+            }
+        });
+        return attached;
+    }
+
+    private TreeSet<LedgerPartition> detachedPartitions() {
+        TreeSet<LedgerPartition> detached = new TreeSet<>();
+        jdbcTemplate.query(DETACHED_SQL, rs -> {
+            LedgerPartition.fromTableName(rs.getString("relname")).ifPresent(detached::add);
+        });
+        return detached;
+    }
+
+    /**
+     * Creates the partition unless its table is left over from an earlier run, moves its rows out of the default
+     * partition and attaches it, in one transaction.
+     */
+    void attach(LedgerPartition partition, boolean tableExists) {
+        int moved = transaction.execute(status -> {
+            // the attach takes this lock anyway; taking it first keeps new rows of the month out of the default
+            jdbcTemplate.execute("LOCK TABLE %s IN ACCESS EXCLUSIVE MODE".formatted(DEFAULT_PARTITION));
+            if (!tableExists) {
+                jdbcTemplate.execute("CREATE TABLE %s (LIKE ledger_entries INCLUDING DEFAULTS INCLUDING CONSTRAINTS)"
+                        .formatted(partition.tableName()));
+            }
+            int count = jdbcTemplate.update(
+                    "INSERT INTO %s SELECT * FROM %s WHERE occurred_at >= ? AND occurred_at < ?"
+                            .formatted(partition.tableName(), DEFAULT_PARTITION),
+                    partition.from(),
+                    partition.to());
+            if (count > 0) {
+                jdbcTemplate.update(
+                        "DELETE FROM %s WHERE occurred_at >= ? AND occurred_at < ?".formatted(DEFAULT_PARTITION),
+                        partition.from(),
+                        partition.to());
+            }
+            jdbcTemplate.execute("ALTER TABLE ledger_entries ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')"
+                    .formatted(partition.tableName(), partition.from(), partition.to()));
+            return count;
+        });
+        log.info("Attached ledger partition {} with {} entries moved out of {}",
+                partition.tableName(), moved, DEFAULT_PARTITION);
+    }
+
+    private void reportDefaultPartition() {
+        jdbcTemplate.query("SELECT count(*) AS entries, min(occurred_at) AS oldest, max(occurred_at) AS newest FROM "
+                + DEFAULT_PARTITION, rs -> {
+            long entries = rs.getLong("entries");
+            if (entries > 0) {
+                log.warn("{} holds {} ledger entries outside every monthly partition, occurred between {} and {}",
+                        DEFAULT_PARTITION, entries, rs.getObject("oldest"), rs.getObject("newest"));
+            }
+        });
+    }
+
+    private void detach(LedgerPartition partition, boolean detachPending) {
+        jdbcTemplate.execute("ALTER TABLE ledger_entries DETACH PARTITION %s %s"
+                .formatted(partition.tableName(), detachPending ? "FINALIZE" : "CONCURRENTLY"));
+        log.info("Detached ledger partition {}", partition.tableName());
+    }
+
+    /**
+     * Writes a detached partition to {@code <archiveDirectory>/<table>.jsonl.gz} and drops its table.
+     */
+    void archive(LedgerPartition partition) throws IOException {
+        Path directory = properties.archiveDirectory();
+        Files.createDirectories(directory);
+        Path target = directory.resolve(partition.tableName() + ".jsonl.gz");
+        Path partial = directory.resolve(partition.tableName() + ".jsonl.gz.part");
+
+        long entries;
+        try (FileChannel channel = FileChannel.open(partial,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            GZIPOutputStream gzip = new GZIPOutputStream(Channels.newOutputStream(channel), 64 * 1024);
+            entries = writeEntries(partition, gzip);
+            gzip.finish();
+            channel.force(true);
+        }
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        jdbcTemplate.execute("DROP TABLE " + partition.tableName());
+        archivedPartitions.increment();
+        archivedEntries.increment(entries);
+        log.info("Archived {} ledger entries of {} to {}", entries, partition.tableName(), target);
+    }
+
+    private long writeEntries(LedgerPartition partition, OutputStream out) throws IOException {
+        long[] entries = {0};
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+            readOnlyTransaction.executeWithoutResult(status ->
+                    exportRepository.streamTable(partition.tableName(), entry -> {
+                        try {
+                            writer.write(entry);
+                        } catch (IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                        entries[0]++;
+                    }));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        return entries[0];
+    }
+}
@@ -0,0 +1,69 @@
+package com.momentum.wallet.persistence.ledger;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.UUID;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Unique {@code (wallet_id, reference)} of a ledger entry, with the entry's id and partition key.
+ *
+ * <p>Rows outlive the partition of their entry, so a reference stays taken after its month is archived.
+ */
+@Entity
+@Table(name = "ledger_references")
+public class LedgerReferenceEntity implements Persistable<LedgerReferenceId> {
+
+    @EmbeddedId
+    private LedgerReferenceId id;
+
+    @Column(name = "entry_id", nullable = false, updatable = false)
+    private UUID entryId;
+
+    @Column(name = "occurred_at", nullable = false, updatable = false)
+    private OffsetDateTime occurredAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected LedgerReferenceEntity() {
+        // JPA
+    }
+
+    public LedgerReferenceEntity(LedgerEntryEntity entry) {
+        this.id = new LedgerReferenceId(entry.getWallet().getId(), entry.getReference());
+        this.entryId = Objects.requireNonNull(entry.getId(), "entryId");
+        this.occurredAt = Objects.requireNonNull(entry.getOccurredAt(), "occurredAt");
+    }
+
+    @Override
+    public LedgerReferenceId getId() {
+        return id;
+    }
+
+    public UUID getEntryId() {
+        return entryId;
+    }
+
+    public OffsetDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -0,0 +1,12 @@
+package com.momentum.wallet.persistence.ledger;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import java.io.Serializable;
+import java.util.UUID;
+
+@Embeddable
+public record LedgerReferenceId(
+        @Column(name = "wallet_id", nullable = false, updatable = false) UUID walletId,
+        @Column(name = "reference", nullable = false, updatable = false, length = 120) String reference)
+        implements Serializable {}
@@ -0,0 +1,19 @@
+package com.momentum.wallet.persistence.reconciliation;
+
+/**
+ * Kinds of ledger inconsistency reported by reconciliation. Expected and actual values are in minor units.
+ */
+public enum DiscrepancyType {
+    /**
+     * An entry's running balance is not the previous entry's running balance plus the entry's signed amount.
+     */
+    CHAIN_BREAK,
+    /**
+     * The wallet balance differs from the running balance of its last ledger entry. Not checked for sharded wallets.
+     */
+    BALANCE_MISMATCH,
+    /**
+     * The wallet balance, including its buckets, differs from its latest balance checkpoint plus the entries after it.
+     */
+    LEDGER_SUM_MISMATCH
+}
@@ -0,0 +1,121 @@
+package com.momentum.wallet.persistence.reconciliation;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.UUID;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Inconsistency found in one wallet's ledger during a reconciliation run.
+ */
+@Entity
+@Table(name = "ledger_reconciliation_discrepancies")
+public class ReconciliationDiscrepancyEntity implements Persistable<UUID> {
+    @Id
+    @Column(name = "id", nullable = false, updatable = false)
+    private UUID id;
+
+    @Column(name = "run_id", nullable = false, updatable = false)
+    private UUID runId;
+
+    @Column(name = "wallet_id", nullable = false, updatable = false)
+    private UUID walletId;
+
+    @Column(name = "entry_id", updatable = false)
+    private UUID entryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, updatable = false, length = 32)
+    private DiscrepancyType type;
+
+    @Column(name = "expected_minor_units", nullable = false, updatable = false)
+    private long expectedMinorUnits;
+
+    @Column(name = "actual_minor_units", nullable = false, updatable = false)
+    private long actualMinorUnits;
+
+    @Column(name = "detected_at", nullable = false, updatable = false)
+    private OffsetDateTime detectedAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected ReconciliationDiscrepancyEntity() {
+        // for JPA
+    }
+
+    /**
+     * @param entryId offending ledger entry, or {@code null} for wallet-level discrepancies
+     */
+    public ReconciliationDiscrepancyEntity(
+            UUID id,
+            UUID runId,
+            UUID walletId,
+            UUID entryId,
+            DiscrepancyType type,
+            long expectedMinorUnits,
+            long actualMinorUnits,
+            OffsetDateTime detectedAt) {
+        this.id = Objects.requireNonNull(id, "id");
+        this.runId = Objects.requireNonNull(runId, "runId");
+        this.walletId = Objects.requireNonNull(walletId, "walletId");
+        this.entryId = entryId;
+        this.type = Objects.requireNonNull(type, "type");
+        this.expectedMinorUnits = expectedMinorUnits;
+        this.actualMinorUnits = actualMinorUnits;
+        this.detectedAt = Objects.requireNonNull(detectedAt, "detectedAt");
+    }
+
+    @Override
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getRunId() {
+        return runId;
+    }
+
+    public UUID getWalletId() {
+        return walletId;
+    }
+
+    public UUID getEntryId() {
+        return entryId;
+    }
+
+    public DiscrepancyType getType() {
+        return type;
+    }
+
+    public long getExpectedMinorUnits() {
+        return expectedMinorUnits;
+    }
+
+    public long getActualMinorUnits() {
+        return actualMinorUnits;
+    }
+
+    public OffsetDateTime getDetectedAt() {
+        return detectedAt;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
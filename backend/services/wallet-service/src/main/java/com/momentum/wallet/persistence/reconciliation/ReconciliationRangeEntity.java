@@ -0,0 +1,88 @@
+package com.momentum.wallet.persistence.reconciliation;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Contiguous slice of the wallet id space checked by one worker at a time.
+ */
+@Entity
+@Table(name = "ledger_reconciliation_ranges")
+public class ReconciliationRangeEntity {
+    @Id
+    @Column(name = "id", nullable = false, updatable = false)
+    private UUID id;
+
+    @Column(name = "run_id", nullable = false, updatable = false)
+    private UUID runId;
+
+    @Column(name = "range_index", nullable = false, updatable = false)
+    private int rangeIndex;
+
+    @Column(name = "lower_bound", updatable = false)
+    private UUID lowerBound;
+
+    @Column(name = "upper_bound", updatable = false)
+    private UUID upperBound;
+
+    @Column(name = "last_wallet_id")
+    private UUID lastWalletId;
+
+    @Column(name = "lease_owner", length = 128)
+    private String leaseOwner;
+
+    @Column(name = "lease_until")
+    private OffsetDateTime leaseUntil;
+
+    @Column(name = "completed_at")
+    private OffsetDateTime completedAt;
+
+    protected ReconciliationRangeEntity() {
+        // for JPA
+    }
+
+    /**
+     * @param lowerBound smallest wallet id in the range, or {@code null} for no lower bound
+     * @param upperBound first wallet id past the range, or {@code null} for no upper bound
+     */
+    public ReconciliationRangeEntity(UUID id, UUID runId, int rangeIndex, UUID lowerBound, UUID upperBound) {
+        this.id = Objects.requireNonNull(id, "id");
+        this.runId = Objects.requireNonNull(runId, "runId");
+        this.rangeIndex = rangeIndex;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getRunId() {
+        return runId;
+    }
+
+    public int getRangeIndex() {
+        return rangeIndex;
+    }
+
+    public UUID getLowerBound() {
+        return lowerBound;
+    }
+
+    public UUID getUpperBound() {
+        return upperBound;
+    }
+
+    public UUID getLastWalletId() {
+        return lastWalletId;
+    }
+
+    public OffsetDateTime getCompletedAt() {
+        return completedAt;
+    }
+}
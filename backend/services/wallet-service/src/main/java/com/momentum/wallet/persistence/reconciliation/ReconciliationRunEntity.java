@@ -0,0 +1,79 @@
+package com.momentum.wallet.persistence.reconciliation;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * One pass of ledger reconciliation over every wallet. Counters are advanced by the range workers as they commit.
+ */
+@Entity
+@Table(name = "ledger_reconciliation_runs")
+public class ReconciliationRunEntity {
+    @Id
+    @Column(name = "id", nullable = false, updatable = false)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 24)
+    private ReconciliationRunStatus status;
+
+    @Column(name = "started_at", nullable = false, updatable = false)
+    private OffsetDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private OffsetDateTime finishedAt;
+
+    @Column(name = "wallets_checked", nullable = false)
+    private long walletsChecked;
+
+    @Column(name = "entries_checked", nullable = false)
+    private long entriesChecked;
+
+    @Column(name = "discrepancies_found", nullable = false)
+    private long discrepanciesFound;
+
+    protected ReconciliationRunEntity() {
+        // for JPA
+    }
+
+    public ReconciliationRunEntity(UUID id, OffsetDateTime startedAt) {
+        this.id = Objects.requireNonNull(id, "id");
+        this.startedAt = Objects.requireNonNull(startedAt, "startedAt");
+        this.status = ReconciliationRunStatus.RUNNING;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public ReconciliationRunStatus getStatus() {
+        return status;
+    }
+
+    public OffsetDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public OffsetDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public long getWalletsChecked() {
+        return walletsChecked;
+    }
+
+    public long getEntriesChecked() {
+        return entriesChecked;
+    }
+
+    public long getDiscrepanciesFound() {
+        return discrepanciesFound;
+    }
+}
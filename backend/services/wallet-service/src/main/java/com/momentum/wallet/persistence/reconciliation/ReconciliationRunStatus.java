@@ -0,0 +1,6 @@
+package com.momentum.wallet.persistence.reconciliation;
+
+public enum ReconciliationRunStatus {
+    RUNNING,
+    COMPLETED
+}
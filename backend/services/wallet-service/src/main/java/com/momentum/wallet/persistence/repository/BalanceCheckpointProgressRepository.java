@@ -0,0 +1,16 @@
+package com.momentum.wallet.persistence.repository;
+
+import com.momentum.wallet.persistence.wallet.BalanceCheckpointProgressEntity;
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface BalanceCheckpointProgressRepository extends JpaRepository<BalanceCheckpointProgressEntity, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from BalanceCheckpointProgressEntity p where p.name = :name")
+    Optional<BalanceCheckpointProgressEntity> findByNameForUpdate(@Param("name") String name);
+}
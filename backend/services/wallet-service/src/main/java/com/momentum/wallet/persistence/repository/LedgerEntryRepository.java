@@ -1,13 +1,142 @@
 package com.momentum.wallet.persistence.repository;
 
+import com.momentum.wallet.persistence.ledger.AppliedReference;
 import com.momentum.wallet.persistence.ledger.LedgerEntryEntity;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface LedgerEntryRepository extends JpaRepository<LedgerEntryEntity, UUID> {
     List<LedgerEntryEntity> findByWalletIdOrderByOccurredAtAsc(UUID walletId);
 
-    Optional<LedgerEntryEntity> findByWalletIdAndReference(UUID walletId, String reference);
+    /**
+     * Resolves the reference through {@code ledger_references}, whose {@code occurred_at} confines the entry lookup
+     * to a single partition. The reference is still found after its entry has been archived.
+     */
+    @Query("""
+            select new com.momentum.wallet.persistence.ledger.AppliedReference(r, e)
+            from LedgerReferenceEntity r
+            left join LedgerEntryEntity e on e.id = r.entryId and e.occurredAt = r.occurredAt
+            where r.id.walletId = :walletId
+              and r.id.reference = :reference
+            """)
+    Optional<AppliedReference> findApplied(@Param("walletId") UUID walletId, @Param("reference") String reference);
+
+    @Query("""
+            select new com.momentum.wallet.persistence.ledger.AppliedReference(r, e)
+            from LedgerReferenceEntity r
+            left join LedgerEntryEntity e on e.id = r.entryId and e.occurredAt = r.occurredAt
+            where r.id.walletId = :walletId
+              and r.id.reference in :references
+            """)
+    List<AppliedReference> findAllApplied(
+            @Param("walletId") UUID walletId, @Param("references") Collection<String> references);
+
+    List<LedgerEntryEntity> findByWalletIdOrderByOccurredAtAscIdAsc(UUID walletId, Limit limit);
+
+    /**
+     * Keyset page following {@code (occurredAt, id)}. The redundant {@code occurredAt >=} bound lets the planner
+     * turn the predicate into a range scan on {@code idx_ledger_wallet_date} and skip the partitions of earlier
+     * months.
+     */
+    @Query("""
+            select e from LedgerEntryEntity e
+            where e.wallet.id = :walletId
+              and e.occurredAt >= :occurredAt
+              and (e.occurredAt > :occurredAt or e.id > :entryId)
+            order by e.occurredAt asc, e.id asc
+            """)
+    List<LedgerEntryEntity> findPageAfter(
+            @Param("walletId") UUID walletId,
+            @Param("occurredAt") OffsetDateTime occurredAt,
+            @Param("entryId") UUID entryId,
+            Limit limit);
+
+    /**
+     * Net change of the wallet balance over {@code (from, to]}: debits subtract, credits and reversals add. A range
+     * scan on {@code idx_ledger_wallet_date}.
+     */
+    @Query("""
+            select coalesce(sum(case when e.type = com.momentum.wallet.persistence.ledger.LedgerEntryType.DEBIT
+                                     then -e.amountMinorUnits else e.amountMinorUnits end), 0)
+            from LedgerEntryEntity e
+            where e.wallet.id = :walletId
+              and e.occurredAt > :from
+              and e.occurredAt <= :to
+            """)
+    long sumSignedAmounts(
+            @Param("walletId") UUID walletId, @Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to);
+
+    /**
+     * {@link #sumSignedAmounts} restricted to entries recorded by {@code recordedTo}.
+     */
+    @Query("""
+            select coalesce(sum(case when e.type = com.momentum.wallet.persistence.ledger.LedgerEntryType.DEBIT
+                                     then -e.amountMinorUnits else e.amountMinorUnits end), 0)
+            from LedgerEntryEntity e
+            where e.wallet.id = :walletId
+              and e.occurredAt > :from
+              and e.occurredAt <= :to
+              and e.recordedAt <= :recordedTo
+            """)
+    long sumSignedAmountsRecordedBy(
+            @Param("walletId") UUID walletId,
+            @Param("from") OffsetDateTime from,
+            @Param("to") OffsetDateTime to,
+            @Param("recordedTo") OffsetDateTime recordedTo);
+
+    /**
+     * Net balance change of every wallet with entries that occurred in {@code (from, to]} and were recorded by
+     * {@code to}.
+     */
+    @Query("""
+            select e.wallet.id as walletId,
+                   sum(case when e.type = com.momentum.wallet.persistence.ledger.LedgerEntryType.DEBIT
+                            then -e.amountMinorUnits else e.amountMinorUnits end) as deltaMinorUnits
+            from LedgerEntryEntity e
+            where e.occurredAt > :from
+              and e.occurredAt <= :to
+              and e.recordedAt <= :to
+            group by e.wallet.id
+            """)
+    List<WalletBalanceDelta> sumSignedAmountsByWallet(
+            @Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to);
+
+    /**
+     * Net change per wallet and {@code occurred_at} of the entries recorded in {@code (from, to]} that occurred at or
+     * before {@code from}, after the window they belong to had been checkpointed. A range scan on
+     * {@code idx_ledger_recorded_brin}.
+     */
+    @Query("""
+            select e.wallet.id as walletId,
+                   e.occurredAt as occurredAt,
+                   sum(case when e.type = com.momentum.wallet.persistence.ledger.LedgerEntryType.DEBIT
+                            then -e.amountMinorUnits else e.amountMinorUnits end) as deltaMinorUnits
+            from LedgerEntryEntity e
+            where e.recordedAt > :from
+              and e.recordedAt <= :to
+              and e.occurredAt <= :from
+            group by e.wallet.id, e.occurredAt
+            """)
+    List<LateBalanceDelta> sumLateSignedAmounts(@Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to);
+
+    interface WalletBalanceDelta {
+        UUID getWalletId();
+
+        long getDeltaMinorUnits();
+    }
+
+    interface LateBalanceDelta {
+        UUID getWalletId();
+
+        OffsetDateTime getOccurredAt();
+
+        long getDeltaMinorUnits();
+    }
 }
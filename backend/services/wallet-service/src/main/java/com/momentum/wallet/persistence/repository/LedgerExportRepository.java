@@ -0,0 +1,114 @@
+package com.momentum.wallet.persistence.repository;
+
+import com.momentum.wallet.config.WalletLedgerProperties;
+import com.momentum.wallet.domain.model.LedgerEntrySnapshot;
+import com.momentum.wallet.domain.model.TransferLeg;
+import com.momentum.wallet.persistence.ledger.LedgerEntryType;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Streams ledger rows straight off a forward-only JDBC cursor so exports and partition archival run in constant
+ * memory.
+ *
+ * <p>PostgreSQL only honours the fetch size inside a transaction, so callers must hold one open.
+ */
+@Repository
+public class LedgerExportRepository {
+
+    private static final String EXPORT_SQL = """
+            SELECT id, wallet_id, type, amount_minor_units, running_balance_minor_units, bucket_index,
+                   bucket_balance_minor_units, reference, description, metadata, occurred_at
+              FROM ledger_entries
+             WHERE wallet_id = ?
+             ORDER BY occurred_at, id
+            """;
+
+    private static final String TABLE_SQL = """
+            SELECT id, wallet_id, type, amount_minor_units, running_balance_minor_units, bucket_index,
+                   bucket_balance_minor_units, reference, description, metadata, occurred_at
+              FROM %s
+             ORDER BY occurred_at, id
+            """;
+
+    private static final String TRANSFER_LEGS_SQL = """
+            SELECT transfer_id, id, wallet_id, type, amount_minor_units
+              FROM ledger_entries
+             WHERE transfer_id >= ? AND transfer_id < ?
+             ORDER BY transfer_id, id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public LedgerExportRepository(JdbcTemplate jdbcTemplate, WalletLedgerProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = properties.exportFetchSize();
+    }
+
+    public void streamByWallet(UUID walletId, Consumer<LedgerEntrySnapshot> consumer) {
+        stream(EXPORT_SQL, consumer, walletId);
+    }
+
+    /**
+     * Streams every row of a ledger table with the {@code ledger_entries} columns, such as a detached partition.
+     * {@code tableName} is interpolated into the statement and must not come from user input.
+     */
+    public void streamTable(String tableName, Consumer<LedgerEntrySnapshot> consumer) {
+        stream(TABLE_SQL.formatted(tableName), consumer);
+    }
+
+    /**
+     * Streams the legs of every transfer with {@code fromTransferId <= transfer id < toTransferId}, sorted by transfer
+     * id and then entry id.
+     */
+    public void streamTransferLegs(UUID fromTransferId, UUID toTransferId, Consumer<TransferLeg> consumer) {
+        jdbcTemplate.query(
+                connection -> prepare(connection, TRANSFER_LEGS_SQL, fromTransferId, toTransferId),
+                (RowCallbackHandler) rs -> consumer.accept(new TransferLeg(
+                        rs.getObject("transfer_id", UUID.class),
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("wallet_id", UUID.class),
+                        LedgerEntryType.valueOf(rs.getString("type")),
+                        rs.getLong("amount_minor_units"))));
+    }
+
+    private void stream(String sql, Consumer<LedgerEntrySnapshot> consumer, Object... parameters) {
+        jdbcTemplate.query(
+                connection -> prepare(connection, sql, parameters),
+                (RowCallbackHandler) rs -> consumer.accept(mapRow(rs)));
+    }
+
+    private PreparedStatement prepare(Connection connection, String sql, Object... parameters) throws SQLException {
+        PreparedStatement statement =
+                connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(fetchSize);
+        for (int i = 0; i < parameters.length; i++) {
+            statement.setObject(i + 1, parameters[i]);
+        }
+        return statement;
+    }
+
+    private static LedgerEntrySnapshot mapRow(ResultSet rs) throws SQLException {
+        return new LedgerEntrySnapshot(
+                rs.getObject("id", UUID.class),
+                rs.getObject("wallet_id", UUID.class),
+                LedgerEntryType.valueOf(rs.getString("type")),
+                rs.getLong("amount_minor_units"),
+                rs.getObject("running_balance_minor_units", Long.class),
+                rs.getObject("bucket_index", Integer.class),
+                rs.getObject("bucket_balance_minor_units", Long.class),
+                rs.getString("reference"),
+                rs.getString("description"),
+                rs.getString("metadata"),
+                rs.getObject("occurred_at", OffsetDateTime.class));
+    }
+}
@@ -0,0 +1,152 @@
+package com.momentum.wallet.persistence.repository;
+
+import com.momentum.wallet.persistence.ledger.LedgerEntryType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Read side of ledger reconciliation: wallet id range boundaries, wallet balances in id order and the ledger of a
+ * contiguous block of wallets streamed off a forward-only cursor, so a chunk is verified in constant memory.
+ *
+ * <p>PostgreSQL only honours the fetch size inside a transaction, so callers must hold one open.
+ */
+@Repository
+public class LedgerReconciliationRepository {
+
+    private static final String BOUNDS_SQL = """
+            SELECT id
+              FROM (SELECT id, row_number() OVER (ORDER BY id) AS rn FROM wallets) numbered
+             WHERE MOD(rn - 1, ?) = 0
+             ORDER BY id
+            """;
+
+    private static final String WALLETS_SQL = """
+            SELECT w.id, w.balance_minor_units, w.bucket_count,
+                   COALESCE((SELECT sum(b.balance_minor_units)
+                               FROM wallet_balance_buckets b WHERE b.wallet_id = w.id), 0) AS bucket_balance,
+                   (SELECT c.checkpoint_at FROM wallet_balance_checkpoints c
+                     WHERE c.wallet_id = w.id ORDER BY c.checkpoint_at DESC LIMIT 1) AS checkpoint_at,
+                   (SELECT c.balance_minor_units FROM wallet_balance_checkpoints c
+                     WHERE c.wallet_id = w.id ORDER BY c.checkpoint_at DESC LIMIT 1) AS checkpoint_balance
+              FROM wallets w
+             WHERE %s
+             ORDER BY w.id
+             LIMIT ?
+            """;
+
+    private static final String ENTRIES_SQL = """
+            SELECT id, wallet_id, type, amount_minor_units, running_balance_minor_units, bucket_index,
+                   bucket_balance_minor_units, occurred_at
+              FROM ledger_entries
+             WHERE wallet_id >= ? AND wallet_id <= ?
+             ORDER BY wallet_id, sequence_number
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LedgerReconciliationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Splits the wallets into at most {@code ranges} ranges of similar size.
+     *
+     * @return the smallest wallet id of each range, ascending; empty when there are no wallets
+     */
+    public List<UUID> findRangeLowerBounds(int ranges) {
+        Long wallets = jdbcTemplate.queryForObject("SELECT count(*) FROM wallets", Long.class);
+        long step = Math.max(1, (wallets + ranges - 1) / ranges);
+        return jdbcTemplate.queryForList(BOUNDS_SQL, UUID.class, step);
+    }
+
+    /**
+     * Wallets with {@code after < id < upperBound}, or {@code lowerBound <= id < upperBound} when {@code after} is
+     * {@code null}, in id order. {@code null} bounds are open.
+     */
+    public List<WalletBalances> findWallets(UUID after, UUID lowerBound, UUID upperBound, int limit) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+        if (after != null) {
+            conditions.add("w.id > ?");
+            parameters.add(after);
+        } else if (lowerBound != null) {
+            conditions.add("w.id >= ?");
+            parameters.add(lowerBound);
+        }
+        if (upperBound != null) {
+            conditions.add("w.id < ?");
+            parameters.add(upperBound);
+        }
+        parameters.add(limit);
+        String where = conditions.isEmpty() ? "TRUE" : String.join(" AND ", conditions);
+        return jdbcTemplate.query(
+                WALLETS_SQL.formatted(where),
+                (rs, row) -> new WalletBalances(
+                        rs.getObject("id", UUID.class),
+                        rs.getLong("balance_minor_units"),
+                        rs.getInt("bucket_count"),
+                        rs.getLong("bucket_balance"),
+                        rs.getObject("checkpoint_at", OffsetDateTime.class),
+                        rs.getObject("checkpoint_balance", Long.class)),
+                parameters.toArray());
+    }
+
+    /**
+     * Streams the entries of every wallet with {@code first <= id <= last}, grouped by wallet and in the order they
+     * were applied, per {@code sequence_number}; {@code occurred_at} comes from the command and may run backwards.
+     */
+    public void streamEntries(UUID first, UUID last, int fetchSize, Consumer<EntryRow> consumer) {
+        jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                            ENTRIES_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(fetchSize);
+                    statement.setObject(1, first);
+                    statement.setObject(2, last);
+                    return statement;
+                },
+                (RowCallbackHandler) rs -> consumer.accept(new EntryRow(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("wallet_id", UUID.class),
+                        LedgerEntryType.valueOf(rs.getString("type")),
+                        rs.getLong("amount_minor_units"),
+                        rs.getObject("running_balance_minor_units", Long.class),
+                        rs.getObject("bucket_index", Integer.class),
+                        rs.getObject("bucket_balance_minor_units", Long.class),
+                        rs.getObject("occurred_at", OffsetDateTime.class))));
+    }
+
+    /**
+     * @param bucketBalanceMinorUnits sum of the wallet's balance buckets
+     * @param checkpointAt latest balance checkpoint, or {@code null} if the wallet has none
+     */
+    public record WalletBalances(
+            UUID walletId,
+            long balanceMinorUnits,
+            int bucketCount,
+            long bucketBalanceMinorUnits,
+            OffsetDateTime checkpointAt,
+            Long checkpointBalanceMinorUnits) {}
+
+    /**
+     * @param runningBalanceMinorUnits wallet-wide balance after the entry, or {@code null} when it was not known
+     * @param bucketBalanceMinorUnits balance of bucket {@code bucketIndex} after the entry
+     */
+    public record EntryRow(
+            UUID entryId,
+            UUID walletId,
+            LedgerEntryType type,
+            long amountMinorUnits,
+            Long runningBalanceMinorUnits,
+            Integer bucketIndex,
+            Long bucketBalanceMinorUnits,
+            OffsetDateTime occurredAt) {}
+}
@@ -0,0 +1,7 @@
+package com.momentum.wallet.persistence.repository;
+
+import com.momentum.wallet.persistence.ledger.LedgerReferenceEntity;
+import com.momentum.wallet.persistence.ledger.LedgerReferenceId;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface LedgerReferenceRepository extends JpaRepository<LedgerReferenceEntity, LedgerReferenceId> {}
@@ -0,0 +1,11 @@
+package com.momentum.wallet.persistence.repository;
+
+import com.momentum.wallet.persistence.reconciliation.ReconciliationDiscrepancyEntity;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ReconciliationDiscrepancyRepository extends JpaRepository<ReconciliationDiscrepancyEntity, UUID> {
+
+    List<ReconciliationDiscrepancyEntity> findByRunIdAndWalletId(UUID runId, UUID walletId);
+}
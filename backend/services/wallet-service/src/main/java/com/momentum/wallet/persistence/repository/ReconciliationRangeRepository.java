@@ -0,0 +1,52 @@
+package com.momentum.wallet.persistence.repository;
+
+import com.momentum.wallet.persistence.reconciliation.ReconciliationRangeEntity;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ReconciliationRangeRepository extends JpaRepository<ReconciliationRangeEntity, UUID> {
+
+    List<ReconciliationRangeEntity> findByRunIdAndCompletedAtIsNullOrderByRangeIndex(UUID runId);
+
+    long countByRunId(UUID runId);
+
+    long countByRunIdAndCompletedAtIsNull(UUID runId);
+
+    /**
+     * Takes the lease of an unfinished range that is unowned, expired or already held by {@code owner}.
+     *
+     * @return {@code 1} if the lease was taken
+     */
+    @Modifying
+    @Query("update ReconciliationRangeEntity r set r.leaseOwner = :owner, r.leaseUntil = :leaseUntil "
+            + "where r.id = :id and r.completedAt is null "
+            + "and (r.leaseUntil is null or r.leaseUntil < :now or r.leaseOwner = :owner)")
+    int claim(
+            @Param("id") UUID id,
+            @Param("owner") String owner,
+            @Param("now") OffsetDateTime now,
+            @Param("leaseUntil") OffsetDateTime leaseUntil);
+
+    /**
+     * Moves the resume point past a committed chunk and extends the lease, unless another worker took the range over.
+     */
+    @Modifying
+    @Query("update ReconciliationRangeEntity r set r.lastWalletId = :lastWalletId, r.leaseUntil = :leaseUntil "
+            + "where r.id = :id and r.leaseOwner = :owner")
+    int advance(
+            @Param("id") UUID id,
+            @Param("owner") String owner,
+            @Param("lastWalletId") UUID lastWalletId,
+            @Param("leaseUntil") OffsetDateTime leaseUntil);
+
+    @Modifying
+    @Query("update ReconciliationRangeEntity r set r.completedAt = :completedAt, r.leaseOwner = null, r.leaseUntil = null "
+            + "where r.id = :id and r.leaseOwner = :owner")
+    int complete(
+            @Param("id") UUID id, @Param("owner") String owner, @Param("completedAt") OffsetDateTime completedAt);
+}
@@ -0,0 +1,39 @@
+package com.momentum.wallet.persistence.repository;
+
+import com.momentum.wallet.persistence.reconciliation.ReconciliationRunEntity;
+import com.momentum.wallet.persistence.reconciliation.ReconciliationRunStatus;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ReconciliationRunRepository extends JpaRepository<ReconciliationRunEntity, UUID> {
+
+    Optional<ReconciliationRunEntity> findFirstByStatus(ReconciliationRunStatus status);
+
+    Optional<ReconciliationRunEntity> findFirstByOrderByStartedAtDesc();
+
+    /**
+     * Adds a committed chunk to the run's counters; workers of different ranges call this concurrently.
+     */
+    @Modifying
+    @Query("update ReconciliationRunEntity r set r.walletsChecked = r.walletsChecked + :wallets, "
+            + "r.entriesChecked = r.entriesChecked + :entries, "
+            + "r.discrepanciesFound = r.discrepanciesFound + :discrepancies "
+            + "where r.id = :id")
+    int addProgress(
+            @Param("id") UUID id,
+            @Param("wallets") long wallets,
+            @Param("entries") long entries,
+            @Param("discrepancies") long discrepancies);
+
+    @Modifying
+    @Query("update ReconciliationRunEntity r set r.status = "
+            + "com.momentum.wallet.persistence.reconciliation.ReconciliationRunStatus.COMPLETED, "
+            + "r.finishedAt = :finishedAt "
+            + "where r.id = :id and r.status = com.momentum.wallet.persistence.reconciliation.ReconciliationRunStatus.RUNNING")
+    int complete(@Param("id") UUID id, @Param("finishedAt") OffsetDateTime finishedAt);
+}
@@ -0,0 +1,44 @@
+package com.momentum.wallet.persistence.repository;
+
+import com.momentum.wallet.persistence.wallet.WalletBalanceBucketEntity;
+import jakarta.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface WalletBalanceBucketRepository extends JpaRepository<WalletBalanceBucketEntity, UUID> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from WalletBalanceBucketEntity b where b.wallet.id = :walletId and b.bucketIndex = :bucketIndex")
+    Optional<WalletBalanceBucketEntity> findForUpdate(
+            @Param("walletId") UUID walletId, @Param("bucketIndex") int bucketIndex);
+
+    /**
+     * Locks every bucket of the wallet in index order, so concurrent sweeps cannot deadlock each other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from WalletBalanceBucketEntity b where b.wallet.id = :walletId order by b.bucketIndex")
+    List<WalletBalanceBucketEntity> findAllForUpdate(@Param("walletId") UUID walletId);
+
+    /**
+     * Locks one random bucket able to cover {@code amount}, skipping buckets other transactions hold.
+     */
+    @Query(
+            value = """
+                    SELECT * FROM wallet_balance_buckets
+                     WHERE wallet_id = :walletId AND balance_minor_units >= :amount
+                     ORDER BY random()
+                     LIMIT 1
+                       FOR UPDATE SKIP LOCKED
+                    """,
+            nativeQuery = true)
+    Optional<WalletBalanceBucketEntity> lockDebitCandidate(
+            @Param("walletId") UUID walletId, @Param("amount") long amountMinorUnits);
+
+    @Query("select coalesce(sum(b.balanceMinorUnits), 0) from WalletBalanceBucketEntity b where b.wallet.id = :walletId")
+    long sumBalance(@Param("walletId") UUID walletId);
+}
@@ -0,0 +1,52 @@
+package com.momentum.wallet.persistence.repository;
+
+import com.momentum.wallet.persistence.wallet.WalletBalanceCheckpointEntity;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface WalletBalanceCheckpointRepository extends JpaRepository<WalletBalanceCheckpointEntity, UUID> {
+
+    /**
+     * Latest checkpoint at or before {@code at}: one backward probe of {@code uq_checkpoint_wallet_time}.
+     */
+    Optional<WalletBalanceCheckpointEntity> findFirstByWallet_IdAndCheckpointAtLessThanEqualOrderByCheckpointAtDesc(
+            UUID walletId, OffsetDateTime at);
+
+    /**
+     * Latest checkpoint at or before {@code at} of each of {@code walletIds} that has one.
+     */
+    @Query("""
+            select c from WalletBalanceCheckpointEntity c
+            where c.wallet.id in :walletIds
+              and c.checkpointAt = (
+                  select max(p.checkpointAt) from WalletBalanceCheckpointEntity p
+                  where p.wallet = c.wallet and p.checkpointAt <= :at)
+            """)
+    List<WalletBalanceCheckpointEntity> findLatestAtOrBefore(
+            @Param("walletIds") Collection<UUID> walletIds, @Param("at") OffsetDateTime at);
+
+    @Query("select min(c.checkpointAt) from WalletBalanceCheckpointEntity c")
+    Optional<OffsetDateTime> findEarliestCheckpointAt();
+
+    /**
+     * Adds {@code deltaMinorUnits} to every checkpoint of the wallet at or after {@code from}.
+     */
+    @Modifying
+    @Query("""
+            update WalletBalanceCheckpointEntity c
+            set c.balanceMinorUnits = c.balanceMinorUnits + :deltaMinorUnits
+            where c.wallet.id = :walletId
+              and c.checkpointAt >= :from
+            """)
+    int shiftBalances(
+            @Param("walletId") UUID walletId,
+            @Param("from") OffsetDateTime from,
+            @Param("deltaMinorUnits") long deltaMinorUnits);
+}
@@ -18,4 +18,7 @@ public interface WalletRepository extends JpaRepository<WalletEntity, UUID> {
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select w from WalletEntity w where w.id = :id")
     Optional<WalletEntity> findByIdForUpdate(@Param("id") UUID id);
+
+    @Query("select w.bucketCount from WalletEntity w where w.id = :id")
+    Optional<Integer> findBucketCountById(@Param("id") UUID id);
 }
@@ -0,0 +1,45 @@
+package com.momentum.wallet.persistence.wallet;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+
+/**
+ * Time up to which every wallet with ledger activity has a balance checkpoint.
+ */
+@Entity
+@Table(name = "wallet_balance_checkpoint_progress")
+public class BalanceCheckpointProgressEntity {
+    public static final String BALANCE = "balance";
+
+    @Id
+    @Column(name = "name", nullable = false, updatable = false, length = 64)
+    private String name;
+
+    @Column(name = "checkpointed_to", nullable = false)
+    private OffsetDateTime checkpointedTo;
+
+    protected BalanceCheckpointProgressEntity() {
+        // for JPA
+    }
+
+    public BalanceCheckpointProgressEntity(String name, OffsetDateTime checkpointedTo) {
+        this.name = Objects.requireNonNull(name, "name");
+        this.checkpointedTo = Objects.requireNonNull(checkpointedTo, "checkpointedTo");
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public OffsetDateTime getCheckpointedTo() {
+        return checkpointedTo;
+    }
+
+    public void advanceTo(OffsetDateTime checkpointedTo) {
+        this.checkpointedTo = Objects.requireNonNull(checkpointedTo, "checkpointedTo");
+    }
+}
@@ -0,0 +1,81 @@
+package com.momentum.wallet.persistence.wallet;
+
+import com.momentum.sharedkernel.domain.value.MoneyMath;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.UUID;
+import org.hibernate.annotations.UpdateTimestamp;
+
+/**
+ * One slice of a sharded wallet's balance. The wallet balance is the sum of its buckets.
+ */
+@Entity
+@Table(name = "wallet_balance_buckets")
+public class WalletBalanceBucketEntity {
+    @Id
+    @Column(name = "id", nullable = false, updatable = false)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "wallet_id", nullable = false, updatable = false)
+    private WalletEntity wallet;
+
+    @Column(name = "bucket_index", nullable = false, updatable = false)
+    private int bucketIndex;
+
+    @Column(name = "balance_minor_units", nullable = false)
+    private long balanceMinorUnits;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    protected WalletBalanceBucketEntity() {
+        // for JPA
+    }
+
+    public WalletBalanceBucketEntity(UUID id, WalletEntity wallet, int bucketIndex, long balanceMinorUnits) {
+        this.id = Objects.requireNonNull(id, "id");
+        this.wallet = Objects.requireNonNull(wallet, "wallet");
+        this.bucketIndex = bucketIndex;
+        this.balanceMinorUnits = balanceMinorUnits;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public WalletEntity getWallet() {
+        return wallet;
+    }
+
+    public int getBucketIndex() {
+        return bucketIndex;
+    }
+
+    public long getBalanceMinorUnits() {
+        return balanceMinorUnits;
+    }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void credit(long amountMinorUnits) {
+        balanceMinorUnits = MoneyMath.add(balanceMinorUnits, amountMinorUnits);
+    }
+
+    public void debit(long amountMinorUnits) {
+        if (amountMinorUnits > balanceMinorUnits) {
+            throw new IllegalArgumentException("Bucket %d cannot cover %d".formatted(bucketIndex, amountMinorUnits));
+        }
+        balanceMinorUnits = MoneyMath.subtract(balanceMinorUnits, amountMinorUnits);
+    }
+}
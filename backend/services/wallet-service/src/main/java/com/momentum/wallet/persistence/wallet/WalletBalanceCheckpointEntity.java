@@ -0,0 +1,85 @@
+package com.momentum.wallet.persistence.wallet;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.UUID;
+import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Wallet-wide balance including every ledger entry that occurred at or before {@code checkpointAt}.
+ */
+@Entity
+@Table(name = "wallet_balance_checkpoints")
+public class WalletBalanceCheckpointEntity implements Persistable<UUID> {
+    @Id
+    @Column(name = "id", nullable = false, updatable = false)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "wallet_id", nullable = false, updatable = false)
+    private WalletEntity wallet;
+
+    @Column(name = "checkpoint_at", nullable = false, updatable = false)
+    private OffsetDateTime checkpointAt;
+
+    @Column(name = "balance_minor_units", nullable = false, updatable = false)
+    private long balanceMinorUnits;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected WalletBalanceCheckpointEntity() {
+        // for JPA
+    }
+
+    public WalletBalanceCheckpointEntity(
+            UUID id, WalletEntity wallet, OffsetDateTime checkpointAt, long balanceMinorUnits) {
+        this.id = Objects.requireNonNull(id, "id");
+        this.wallet = Objects.requireNonNull(wallet, "wallet");
+        this.checkpointAt = Objects.requireNonNull(checkpointAt, "checkpointAt");
+        this.balanceMinorUnits = balanceMinorUnits;
+    }
+
+    @Override
+    public UUID getId() {
+        return id;
+    }
+
+    public WalletEntity getWallet() {
+        return wallet;
+    }
+
+    public OffsetDateTime getCheckpointAt() {
+        return checkpointAt;
+    }
+
+    public long getBalanceMinorUnits() {
+        return balanceMinorUnits;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
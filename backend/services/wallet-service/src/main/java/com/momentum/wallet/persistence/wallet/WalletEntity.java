@@ -1,6 +1,8 @@
 package com.momentum.wallet.persistence.wallet;
 
+import com.momentum.sharedkernel.domain.value.CurrencyRegistry;
 import com.momentum.sharedkernel.domain.value.Money;
+import com.momentum.sharedkernel.domain.value.MoneyMath;
 import com.momentum.wallet.persistence.user.UserEntity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -43,6 +45,9 @@ public class WalletEntity {
     @Column(name = "status", nullable = false, length = 24)
     private WalletStatus status = WalletStatus.ACTIVE;
 
+    @Column(name = "bucket_count", nullable = false)
+    private int bucketCount;
+
     @Version
     @Column(name = "version", nullable = false)
     private long version;
@@ -79,17 +84,33 @@ public class WalletEntity {
     }
 
     public Currency getCurrency() {
-        return Currency.getInstance(currencyCode);
+        return CurrencyRegistry.currency(currencyCode);
+    }
+
+    public String getCurrencyCode() {
+        return currencyCode;
     }
 
     public Money getBalance() {
         return Money.ofMinor(balanceMinorUnits, getCurrency());
     }
 
+    public long getBalanceMinorUnits() {
+        return balanceMinorUnits;
+    }
+
     public WalletStatus getStatus() {
         return status;
     }
 
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    public boolean isSharded() {
+        return bucketCount > 0;
+    }
+
     public long getVersion() {
         return version;
     }
@@ -104,12 +125,39 @@ public class WalletEntity {
 
     public void credit(Money amount) {
         ensureCurrencyMatch(amount, getCurrency());
-        balanceMinorUnits += amount.toMinorUnits();
+        credit(amount.toMinorUnits());
     }
 
     public void debit(Money amount) {
         ensureCurrencyMatch(amount, getCurrency());
-        balanceMinorUnits -= amount.toMinorUnits();
+        debit(amount.toMinorUnits());
+    }
+
+    /**
+     * Credits an amount already known to be in the wallet's currency without allocating.
+     */
+    public void credit(long amountMinorUnits) {
+        balanceMinorUnits = MoneyMath.add(balanceMinorUnits, amountMinorUnits);
+    }
+
+    /**
+     * Debits an amount already known to be in the wallet's currency without allocating.
+     */
+    public void debit(long amountMinorUnits) {
+        balanceMinorUnits = MoneyMath.subtract(balanceMinorUnits, amountMinorUnits);
+    }
+
+    /**
+     * Switches the wallet to bucketed balances and hands back the balance the caller must seed into the buckets.
+     */
+    public Money shardBalance(int bucketCount) {
+        if (isSharded()) {
+            throw new IllegalStateException("Wallet %s is already sharded".formatted(id));
+        }
+        Money moved = getBalance();
+        this.bucketCount = bucketCount;
+        this.balanceMinorUnits = 0;
+        return moved;
     }
 
     public void setStatus(WalletStatus status) {
@@ -0,0 +1,278 @@
+package com.momentum.wallet.reconciliation;
+
+import com.momentum.sharedkernel.id.UuidV7;
+import com.momentum.wallet.config.ReconciliationProperties;
+import com.momentum.wallet.persistence.reconciliation.ReconciliationDiscrepancyEntity;
+import com.momentum.wallet.persistence.reconciliation.ReconciliationRangeEntity;
+import com.momentum.wallet.persistence.reconciliation.ReconciliationRunEntity;
+import com.momentum.wallet.persistence.reconciliation.ReconciliationRunStatus;
+import com.momentum.wallet.persistence.repository.LedgerReconciliationRepository;
+import com.momentum.wallet.persistence.repository.LedgerReconciliationRepository.WalletBalances;
+import com.momentum.wallet.persistence.repository.ReconciliationDiscrepancyRepository;
+import com.momentum.wallet.persistence.repository.ReconciliationRangeRepository;
+import com.momentum.wallet.persistence.repository.ReconciliationRunRepository;
+import com.momentum.wallet.reconciliation.WalletLedgerVerifier.Finding;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Verifies that every wallet's ledger is consistent: running balances chain from entry to entry, the wallet balance
+ * equals the last running balance, and the balance including buckets equals the latest balance checkpoint plus the
+ * entries after it. Findings go to {@code ledger_reconciliation_discrepancies}.
+ *
+ * <p>A run splits the wallets into id ranges of similar size. Workers on a fixed thread pool claim ranges through a
+ * lease and walk them in chunks of wallets: each chunk is read in one repeatable-read transaction, so balances and
+ * entries come from the same snapshot, with the entries streamed off a server-side cursor into a
+ * {@link WalletLedgerVerifier} per wallet. A chunk's findings, the range's resume point and the run's counters are
+ * committed together, so a run interrupted anywhere resumes after its last committed chunk without reporting anything
+ * twice, on this or any other instance. Verified entries are paced by a throttle shared by all workers, so a run can
+ * go on during business hours.
+ */
+@Component
+@ConditionalOnProperty(prefix = "wallet.reconciliation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LedgerReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerReconciler.class);
+
+    private final LedgerReconciliationRepository readRepository;
+    private final ReconciliationRunRepository runRepository;
+    private final ReconciliationRangeRepository rangeRepository;
+    private final ReconciliationDiscrepancyRepository discrepancyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final ReconciliationProperties properties;
+    private final ExecutorService pool;
+    private final Throttle throttle;
+    private final String owner = "reconciler-" + UuidV7.next();
+    private final AtomicLong pendingRanges = new AtomicLong();
+    private final Counter walletsCounter;
+    private final Counter entriesCounter;
+    private final Counter discrepanciesCounter;
+
+    public LedgerReconciler(
+            LedgerReconciliationRepository readRepository,
+            ReconciliationRunRepository runRepository,
+            ReconciliationRangeRepository rangeRepository,
+            ReconciliationDiscrepancyRepository discrepancyRepository,
+            PlatformTransactionManager transactionManager,
+            ReconciliationProperties properties,
+            MeterRegistry meterRegistry) {
+        this.readRepository = readRepository;
+        this.runRepository = runRepository;
+        this.rangeRepository = rangeRepository;
+        this.discrepancyRepository = discrepancyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.properties = properties;
+        // workers block on JDBC and the throttle, so plain threads rather than a work-stealing pool
+        this.pool = Executors.newFixedThreadPool(
+                properties.parallelism(), Thread.ofPlatform().name("ledger-reconciler-", 0).factory());
+        this.throttle = new Throttle(properties.maxEntriesPerSecond());
+        this.walletsCounter = Counter.builder("wallet.reconciliation.wallets")
+                .description("Wallets verified by ledger reconciliation")
+                .register(meterRegistry);
+        this.entriesCounter = Counter.builder("wallet.reconciliation.entries")
+                .description("Ledger entries verified by ledger reconciliation")
+                .register(meterRegistry);
+        this.discrepanciesCounter = Counter.builder("wallet.reconciliation.discrepancies")
+                .description("Ledger discrepancies found by reconciliation")
+                .register(meterRegistry);
+        Gauge.builder("wallet.reconciliation.ranges.pending", pendingRanges, AtomicLong::get)
+                .description("Unfinished wallet ranges of the run this instance is working on")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${wallet.reconciliation.schedule:0 0 1 * * *}")
+    public void startRun() {
+        start();
+    }
+
+    /**
+     * Starts a run over every wallet, unless one is already in progress.
+     *
+     * @return id of the run in progress
+     */
+    public UUID start() {
+        try {
+            return transactionTemplate.execute(status -> runRepository
+                    .findFirstByStatus(ReconciliationRunStatus.RUNNING)
+                    .map(ReconciliationRunEntity::getId)
+                    .orElseGet(this::createRun));
+        } catch (DataIntegrityViolationException ex) {
+            // another instance started a run at the same time
+            return runRepository.findFirstByStatus(ReconciliationRunStatus.RUNNING)
+                    .map(ReconciliationRunEntity::getId)
+                    .orElseThrow(() -> ex);
+        }
+    }
+
+    private UUID createRun() {
+        ReconciliationRunEntity run = runRepository.save(new ReconciliationRunEntity(UuidV7.next(), OffsetDateTime.now()));
+        List<UUID> lowerBounds = readRepository.findRangeLowerBounds(properties.ranges());
+        List<ReconciliationRangeEntity> ranges = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, lowerBounds.size()); i++) {
+            UUID lower = i == 0 ? null : lowerBounds.get(i);
+            UUID upper = i + 1 < lowerBounds.size() ? lowerBounds.get(i + 1) : null;
+            ranges.add(new ReconciliationRangeEntity(UuidV7.next(), run.getId(), i, lower, upper));
+        }
+        rangeRepository.saveAll(ranges);
+        log.info("Started ledger reconciliation run {} over {} wallet ranges", run.getId(), ranges.size());
+        return run.getId();
+    }
+
+    /**
+     * Works on the unfinished ranges of the run in progress until none is left that this instance can claim, and
+     * completes the run once all its ranges are done.
+     */
+    @Scheduled(fixedDelayString = "${wallet.reconciliation.resume-interval:1m}")
+    public void reconcile() throws InterruptedException {
+        ReconciliationRunEntity run = runRepository.findFirstByStatus(ReconciliationRunStatus.RUNNING).orElse(null);
+        if (run == null) {
+            return;
+        }
+        Queue<ReconciliationRangeEntity> ranges =
+                new ConcurrentLinkedQueue<>(rangeRepository.findByRunIdAndCompletedAtIsNullOrderByRangeIndex(run.getId()));
+        pendingRanges.set(ranges.size());
+
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(properties.parallelism(), ranges.size()); i++) {
+            workers.add(() -> {
+                ReconciliationRangeEntity range;
+                while ((range = ranges.poll()) != null) {
+                    verifyRange(range);
+                }
+                return null;
+            });
+        }
+        for (Future<Void> worker : pool.invokeAll(workers)) {
+            try {
+                worker.get();
+            } catch (ExecutionException ex) {
+                log.error("Ledger reconciliation worker of run {} failed", run.getId(), ex.getCause());
+            }
+        }
+
+        if (rangeRepository.countByRunIdAndCompletedAtIsNull(run.getId()) == 0) {
+            Integer completed = transactionTemplate.execute(status -> runRepository.complete(run.getId(), OffsetDateTime.now()));
+            if (completed != null && completed > 0) {
+                ReconciliationRunEntity finished = runRepository.findById(run.getId()).orElseThrow();
+                log.info("Ledger reconciliation run {} verified {} wallets and {} entries, {} discrepancies",
+                        run.getId(), finished.getWalletsChecked(), finished.getEntriesChecked(),
+                        finished.getDiscrepanciesFound());
+            }
+        }
+    }
+
+    private void verifyRange(ReconciliationRangeEntity range) throws InterruptedException {
+        OffsetDateTime now = OffsetDateTime.now();
+        Integer claimed = transactionTemplate.execute(status ->
+                rangeRepository.claim(range.getId(), owner, now, now.plus(properties.leaseDuration())));
+        if (claimed == null || claimed == 0) {
+            return;
+        }
+
+        UUID cursor = range.getLastWalletId();
+        while (true) {
+            UUID after = cursor;
+            Chunk chunk = snapshotTransaction.execute(status -> verifyChunk(range, after));
+            if (chunk.wallets() == 0) {
+                transactionTemplate.executeWithoutResult(status ->
+                        rangeRepository.complete(range.getId(), owner, OffsetDateTime.now()));
+                pendingRanges.decrementAndGet();
+                return;
+            }
+            throttle.acquire(chunk.entries());
+            if (!Boolean.TRUE.equals(transactionTemplate.execute(status -> commitChunk(range, chunk, status)))) {
+                log.info("Lost the lease on reconciliation range {} of run {}", range.getRangeIndex(), range.getRunId());
+                return;
+            }
+            walletsCounter.increment(chunk.wallets());
+            entriesCounter.increment(chunk.entries());
+            discrepanciesCounter.increment(chunk.findings().size());
+            if (!chunk.findings().isEmpty()) {
+                log.warn("Ledger reconciliation found {} discrepancies in range {} of run {}",
+                        chunk.findings().size(), range.getRangeIndex(), range.getRunId());
+            }
+            cursor = chunk.lastWalletId();
+        }
+    }
+
+    private Chunk verifyChunk(ReconciliationRangeEntity range, UUID after) {
+        List<WalletBalances> wallets = readRepository.findWallets(
+                after, range.getLowerBound(), range.getUpperBound(), properties.chunkSize());
+        if (wallets.isEmpty()) {
+            return new Chunk(after, 0, 0, List.of());
+        }
+        Map<UUID, WalletLedgerVerifier> verifiers = new LinkedHashMap<>();
+        wallets.forEach(wallet -> verifiers.put(wallet.walletId(), new WalletLedgerVerifier(wallet)));
+        readRepository.streamEntries(
+                wallets.get(0).walletId(),
+                wallets.get(wallets.size() - 1).walletId(),
+                properties.fetchSize(),
+                entry -> verifiers.get(entry.walletId()).accept(entry));
+
+        long entries = 0;
+        List<Finding> findings = new ArrayList<>();
+        for (WalletLedgerVerifier verifier : verifiers.values()) {
+            entries += verifier.entries();
+            findings.addAll(verifier.finish());
+        }
+        return new Chunk(wallets.get(wallets.size() - 1).walletId(), wallets.size(), entries, findings);
+    }
+
+    private boolean commitChunk(ReconciliationRangeEntity range, Chunk chunk, TransactionStatus status) {
+        OffsetDateTime now = OffsetDateTime.now();
+        if (rangeRepository.advance(range.getId(), owner, chunk.lastWalletId(), now.plus(properties.leaseDuration())) == 0) {
+            status.setRollbackOnly();
+            return false;
+        }
+        discrepancyRepository.saveAll(chunk.findings().stream()
+                .map(finding -> new ReconciliationDiscrepancyEntity(
+                        UuidV7.next(),
+                        range.getRunId(),
+                        finding.walletId(),
+                        finding.entryId(),
+                        finding.type(),
+                        finding.expectedMinorUnits(),
+                        finding.actualMinorUnits(),
+                        now))
+                .toList());
+        runRepository.addProgress(range.getRunId(), chunk.wallets(), chunk.entries(), chunk.findings().size());
+        return true;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private record Chunk(UUID lastWalletId, int wallets, long entries, List<Finding> findings) {}
+}
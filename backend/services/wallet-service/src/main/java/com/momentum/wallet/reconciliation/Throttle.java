@@ -0,0 +1,36 @@
+package com.momentum.wallet.reconciliation;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paces work to a rate shared by all callers. A caller pays for the permits it used after the fact, so a large
+ * chunk delays the next acquisition instead of the current one; idle time is not saved up as a burst.
+ */
+final class Throttle {
+
+    private final long permitsPerSecond;
+    private long nextFreeNanos = System.nanoTime();
+
+    /**
+     * @param permitsPerSecond sustained rate; {@code 0} or less never waits
+     */
+    Throttle(long permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    void acquire(long permits) throws InterruptedException {
+        if (permitsPerSecond <= 0 || permits <= 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long start = Math.max(now, nextFreeNanos);
+            nextFreeNanos = start + TimeUnit.SECONDS.toNanos(permits) / permitsPerSecond;
+            waitNanos = start - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.momentum.wallet.reconciliation;
+
+import com.momentum.wallet.persistence.ledger.LedgerEntryType;
+import com.momentum.wallet.persistence.reconciliation.DiscrepancyType;
+import com.momentum.wallet.persistence.repository.LedgerReconciliationRepository.EntryRow;
+import com.momentum.wallet.persistence.repository.LedgerReconciliationRepository.WalletBalances;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Checks one wallet's ledger as its entries stream past in ledger order, keeping only running totals.
+ *
+ * <p>Wallet-wide running balances are chained from one entry that records them to the next, adding up the entries
+ * in between that do not (single-bucket entries of a sharded wallet). Bucket balances are chained per bucket between
+ * entries that touch every bucket at once, such as sweeps. After a chain break the chain resumes from the stored
+ * balance, so one bad entry is reported once.
+ */
+final class WalletLedgerVerifier {
+
+    private final WalletBalances wallet;
+    private final List<Finding> findings = new ArrayList<>();
+    private final Map<Integer, Long> bucketBalances = new HashMap<>();
+    private EntryRow lastRunning;
+    private long sinceRunning;
+    private long sinceCheckpoint;
+    private long entries;
+
+    WalletLedgerVerifier(WalletBalances wallet) {
+        this.wallet = wallet;
+    }
+
+    void accept(EntryRow entry) {
+        entries++;
+        long signed = signedAmount(entry);
+        if (wallet.checkpointAt() != null && entry.occurredAt().isAfter(wallet.checkpointAt())) {
+            sinceCheckpoint += signed;
+        }
+        if (entry.runningBalanceMinorUnits() != null) {
+            if (lastRunning != null) {
+                check(entry, lastRunning.runningBalanceMinorUnits() + sinceRunning + signed,
+                        entry.runningBalanceMinorUnits());
+            }
+            lastRunning = entry;
+            sinceRunning = 0;
+        } else {
+            sinceRunning += signed;
+        }
+        if (entry.bucketIndex() == null) {
+            bucketBalances.clear();
+        } else if (entry.bucketBalanceMinorUnits() != null) {
+            Long bucketBalance = bucketBalances.put(entry.bucketIndex(), entry.bucketBalanceMinorUnits());
+            if (bucketBalance != null) {
+                check(entry, bucketBalance + signed, entry.bucketBalanceMinorUnits());
+            }
+        }
+    }
+
+    /**
+     * @return discrepancies of the whole wallet; call once every entry has been accepted
+     */
+    List<Finding> finish() {
+        if (wallet.bucketCount() == 0 && lastRunning != null
+                && wallet.balanceMinorUnits() != lastRunning.runningBalanceMinorUnits()) {
+            findings.add(new Finding(
+                    wallet.walletId(), lastRunning.entryId(), DiscrepancyType.BALANCE_MISMATCH,
+                    lastRunning.runningBalanceMinorUnits(), wallet.balanceMinorUnits()));
+        }
+        if (wallet.checkpointAt() != null) {
+            long expected = wallet.checkpointBalanceMinorUnits() + sinceCheckpoint;
+            long actual = wallet.balanceMinorUnits() + wallet.bucketBalanceMinorUnits();
+            if (actual != expected) {
+                findings.add(new Finding(
+                        wallet.walletId(), null, DiscrepancyType.LEDGER_SUM_MISMATCH, expected, actual));
+            }
+        }
+        return findings;
+    }
+
+    long entries() {
+        return entries;
+    }
+
+    private void check(EntryRow entry, long expected, long actual) {
+        if (actual != expected) {
+            findings.add(new Finding(wallet.walletId(), entry.entryId(), DiscrepancyType.CHAIN_BREAK, expected, actual));
+        }
+    }
+
+    private static long signedAmount(EntryRow entry) {
+        return entry.type() == LedgerEntryType.DEBIT ? -entry.amountMinorUnits() : entry.amountMinorUnits();
+    }
+
+    /**
+     * @param entryId offending entry, or {@code null} for wallet-level findings
+     */
+    record Finding(UUID walletId, UUID entryId, DiscrepancyType type, long expectedMinorUnits, long actualMinorUnits) {}
+}
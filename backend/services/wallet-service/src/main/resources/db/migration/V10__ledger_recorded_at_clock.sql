@@ -0,0 +1,5 @@
+-- now() is the start time of the inserting transaction, so an entry of a long ledger transaction could carry a
+-- recorded_at inside a window that BalanceCheckpointer closed before the entry committed, and be counted by neither
+-- that window nor the late-entry scan of the next one. clock_timestamp() is taken at the insert itself, which leaves
+-- only the rest of the transaction for settle-delay to cover. Also applies to existing partitions.
+ALTER TABLE ledger_entries ALTER COLUMN recorded_at SET DEFAULT clock_timestamp();
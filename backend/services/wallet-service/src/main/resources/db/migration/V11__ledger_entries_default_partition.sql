@@ -0,0 +1,4 @@
+-- Catch-all partition for entries whose occurred_at has no monthly partition: a command dated beyond the months
+-- created ahead, or into a month that was already archived. Without it such an insert fails. LedgerPartitionMaintainer
+-- moves the rows of every month it creates out of this partition before attaching the month.
+CREATE TABLE IF NOT EXISTS ledger_entries_default PARTITION OF ledger_entries DEFAULT;
@@ -0,0 +1,16 @@
+-- Sharded (hot) wallets keep their balance split across bucket rows so concurrent credits do not
+-- serialise on the wallets row. bucket_count = 0 means the wallet is not sharded.
+ALTER TABLE wallets ADD COLUMN IF NOT EXISTS bucket_count INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS wallet_balance_buckets (
+    id UUID PRIMARY KEY,
+    wallet_id UUID NOT NULL REFERENCES wallets (id) ON UPDATE CASCADE ON DELETE RESTRICT,
+    bucket_index INTEGER NOT NULL,
+    balance_minor_units BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_bucket_wallet_index UNIQUE (wallet_id, bucket_index),
+    CONSTRAINT ck_bucket_balance_non_negative CHECK (balance_minor_units >= 0)
+);
+
+-- Bucket the entry was applied to; NULL for unsharded wallets and for multi-bucket sweeps.
+ALTER TABLE ledger_entries ADD COLUMN IF NOT EXISTS bucket_index INTEGER;
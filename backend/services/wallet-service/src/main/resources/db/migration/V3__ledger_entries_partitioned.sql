@@ -0,0 +1,67 @@
+-- ledger_entries is range-partitioned by month on occurred_at so old months can be detached and archived instead
+-- of being vacuumed and backed up forever. PostgreSQL only enforces uniqueness per partition unless the partition key
+-- is part of the constraint, so (wallet_id, reference) moves to ledger_references: a narrow side index that also
+-- tells reference lookups which partition holds the entry. It is kept when a partition is archived.
+--
+-- Downtime: the whole ledger is copied in this migration's transaction. The SHARE lock below blocks ledger writes
+-- from the start, so none can land in the old table after the copy read it, and DROP TABLE then blocks reads too until
+-- the commit. The migration takes as long as the copy, so run it in a maintenance window with the wallet services
+-- stopped.
+LOCK TABLE ledger_entries IN SHARE MODE;
+
+CREATE TABLE ledger_references (
+    wallet_id UUID NOT NULL,
+    reference VARCHAR(120) NOT NULL,
+    entry_id UUID NOT NULL,
+    occurred_at TIMESTAMPTZ NOT NULL,
+    CONSTRAINT pk_ledger_references PRIMARY KEY (wallet_id, reference)
+);
+
+CREATE TABLE ledger_entries_partitioned (
+    id UUID NOT NULL,
+    wallet_id UUID NOT NULL REFERENCES wallets (id) ON UPDATE CASCADE ON DELETE RESTRICT,
+    type VARCHAR(24) NOT NULL,
+    amount_minor_units BIGINT NOT NULL,
+    running_balance_minor_units BIGINT NOT NULL,
+    reference VARCHAR(120) NOT NULL,
+    description TEXT,
+    metadata JSONB,
+    occurred_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    bucket_index INTEGER,
+    CONSTRAINT pk_ledger_entries PRIMARY KEY (id, occurred_at)
+) PARTITION BY RANGE (occurred_at);
+
+-- One partition per UTC month, from the oldest existing entry to three months ahead; LedgerPartitionMaintainer keeps
+-- creating them from there.
+DO $$
+DECLARE
+    month DATE := date_trunc('month', COALESCE((SELECT min(occurred_at) FROM ledger_entries), now()) AT TIME ZONE 'UTC');
+    last_month DATE := greatest(
+        date_trunc('month', COALESCE((SELECT max(occurred_at) FROM ledger_entries), now()) AT TIME ZONE 'UTC'),
+        date_trunc('month', now() AT TIME ZONE 'UTC') + INTERVAL '3 months');
+BEGIN
+    WHILE month <= last_month LOOP
+        EXECUTE format(
+            'CREATE TABLE ledger_entries_p%s PARTITION OF ledger_entries_partitioned FOR VALUES FROM (%L) TO (%L)',
+            to_char(month, 'YYYYMM'),
+            month::timestamp AT TIME ZONE 'UTC',
+            (month + INTERVAL '1 month')::timestamp AT TIME ZONE 'UTC');
+        month := month + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO ledger_entries_partitioned (
+    id, wallet_id, type, amount_minor_units, running_balance_minor_units, reference, description, metadata,
+    occurred_at, bucket_index)
+SELECT id, wallet_id, type, amount_minor_units, running_balance_minor_units, reference, description, metadata,
+       occurred_at, bucket_index
+  FROM ledger_entries;
+
+INSERT INTO ledger_references (wallet_id, reference, entry_id, occurred_at)
+SELECT wallet_id, reference, id, occurred_at
+  FROM ledger_entries;
+
+DROP TABLE ledger_entries;
+ALTER TABLE ledger_entries_partitioned RENAME TO ledger_entries;
+
+CREATE INDEX idx_ledger_wallet_date ON ledger_entries (wallet_id, occurred_at);
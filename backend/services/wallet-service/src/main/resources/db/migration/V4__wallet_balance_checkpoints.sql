@@ -0,0 +1,42 @@
+-- Wallet-wide balance at a point in time, so a historical balance is the nearest earlier checkpoint plus the ledger
+-- entries after it. Written when a wallet is opened and then by BalanceCheckpointer for every wallet with entries in
+-- a checkpoint interval. A balance is the sum of signed entry amounts: debits subtract, everything else adds.
+CREATE TABLE IF NOT EXISTS wallet_balance_checkpoints (
+    id UUID PRIMARY KEY,
+    wallet_id UUID NOT NULL REFERENCES wallets (id) ON UPDATE CASCADE ON DELETE RESTRICT,
+    checkpoint_at TIMESTAMPTZ NOT NULL,
+    balance_minor_units BIGINT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_checkpoint_wallet_time UNIQUE (wallet_id, checkpoint_at)
+);
+
+-- How far BalanceCheckpointer has checkpointed every wallet; locked by the instance running a window.
+CREATE TABLE IF NOT EXISTS wallet_balance_checkpoint_progress (
+    name VARCHAR(64) PRIMARY KEY,
+    checkpointed_to TIMESTAMPTZ NOT NULL
+);
+
+-- The checkpointer aggregates one time window across all wallets; a BRIN index fits the append-ordered occurred_at.
+CREATE INDEX IF NOT EXISTS idx_ledger_occurred_brin ON ledger_entries USING brin (occurred_at);
+
+-- Existing wallets get an opening checkpoint, derived back from their current balance, and one at the current balance.
+INSERT INTO wallet_balance_checkpoints (id, wallet_id, checkpoint_at, balance_minor_units)
+SELECT gen_random_uuid(),
+       w.id,
+       w.created_at,
+       w.balance_minor_units
+           + COALESCE((SELECT sum(b.balance_minor_units) FROM wallet_balance_buckets b WHERE b.wallet_id = w.id), 0)
+           - COALESCE((SELECT sum(CASE WHEN e.type = 'DEBIT' THEN -e.amount_minor_units ELSE e.amount_minor_units END)
+                         FROM ledger_entries e WHERE e.wallet_id = w.id), 0)
+  FROM wallets w;
+
+INSERT INTO wallet_balance_checkpoints (id, wallet_id, checkpoint_at, balance_minor_units)
+SELECT gen_random_uuid(),
+       w.id,
+       now(),
+       w.balance_minor_units
+           + COALESCE((SELECT sum(b.balance_minor_units) FROM wallet_balance_buckets b WHERE b.wallet_id = w.id), 0)
+  FROM wallets w
+ WHERE w.created_at < now();
+
+INSERT INTO wallet_balance_checkpoint_progress (name, checkpointed_to) VALUES ('balance', now());
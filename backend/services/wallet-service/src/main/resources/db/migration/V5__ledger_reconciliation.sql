@@ -0,0 +1,42 @@
+-- Ledger reconciliation: one row per run, the wallet id ranges its workers claim, and the discrepancies they found.
+CREATE TABLE IF NOT EXISTS ledger_reconciliation_runs (
+    id UUID PRIMARY KEY,
+    status VARCHAR(24) NOT NULL,
+    started_at TIMESTAMPTZ NOT NULL,
+    finished_at TIMESTAMPTZ,
+    wallets_checked BIGINT NOT NULL DEFAULT 0,
+    entries_checked BIGINT NOT NULL DEFAULT 0,
+    discrepancies_found BIGINT NOT NULL DEFAULT 0
+);
+
+-- At most one run in progress; a second instance starting a run at the same time fails here and resumes the first.
+CREATE UNIQUE INDEX IF NOT EXISTS uq_reconciliation_running
+    ON ledger_reconciliation_runs ((status)) WHERE status = 'RUNNING';
+
+-- Wallets with lower_bound <= id < upper_bound (NULL = unbounded); last_wallet_id is the resume point. A worker owns a
+-- range while lease_until is in the future and extends the lease with every chunk it commits.
+CREATE TABLE IF NOT EXISTS ledger_reconciliation_ranges (
+    id UUID PRIMARY KEY,
+    run_id UUID NOT NULL REFERENCES ledger_reconciliation_runs (id) ON DELETE CASCADE,
+    range_index INT NOT NULL,
+    lower_bound UUID,
+    upper_bound UUID,
+    last_wallet_id UUID,
+    lease_owner VARCHAR(128),
+    lease_until TIMESTAMPTZ,
+    completed_at TIMESTAMPTZ,
+    CONSTRAINT uq_reconciliation_range UNIQUE (run_id, range_index)
+);
+
+CREATE TABLE IF NOT EXISTS ledger_reconciliation_discrepancies (
+    id UUID PRIMARY KEY,
+    run_id UUID NOT NULL REFERENCES ledger_reconciliation_runs (id) ON DELETE CASCADE,
+    wallet_id UUID NOT NULL,
+    entry_id UUID,
+    type VARCHAR(32) NOT NULL,
+    expected_minor_units BIGINT NOT NULL,
+    actual_minor_units BIGINT NOT NULL,
+    detected_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_reconciliation_discrepancy_run ON ledger_reconciliation_discrepancies (run_id, wallet_id);
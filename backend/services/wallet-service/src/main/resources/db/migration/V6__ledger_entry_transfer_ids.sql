@@ -0,0 +1,6 @@
+-- Ledger entries posted by a transfer saga record the transfer they are a leg of, so the transfer service can compare
+-- its sagas with the ledger by merging two streams sorted by transfer id. Entries written before this migration
+-- carry no transfer id; the transfer-side reconciliation only starts with transfers created after the deploy.
+ALTER TABLE ledger_entries ADD COLUMN IF NOT EXISTS transfer_id UUID;
+
+CREATE INDEX IF NOT EXISTS idx_ledger_transfer ON ledger_entries (transfer_id, id) WHERE transfer_id IS NOT NULL;
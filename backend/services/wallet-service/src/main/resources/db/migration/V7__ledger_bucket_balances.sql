@@ -0,0 +1,11 @@
+-- A single-bucket entry of a sharded wallet only holds its bucket's lock, so it cannot know the wallet-wide running
+-- balance. Until now it stored the bucket's balance in running_balance_minor_units, which made that column mean two
+-- different things. The bucket balance gets its own column and running_balance_minor_units is NULL where the
+-- wallet-wide balance is unknown; entries written with every bucket locked (sweeps, grouped batches) carry both.
+ALTER TABLE ledger_entries ADD COLUMN IF NOT EXISTS bucket_balance_minor_units BIGINT;
+ALTER TABLE ledger_entries ALTER COLUMN running_balance_minor_units DROP NOT NULL;
+
+UPDATE ledger_entries
+   SET bucket_balance_minor_units = running_balance_minor_units,
+       running_balance_minor_units = NULL
+ WHERE bucket_index IS NOT NULL;
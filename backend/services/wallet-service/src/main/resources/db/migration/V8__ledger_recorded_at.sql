@@ -0,0 +1,7 @@
+-- Server-assigned insertion time of a ledger entry. occurred_at comes from the command and can lag without bound, so
+-- BalanceCheckpointer finds the entries that landed in an already checkpointed window by recorded_at. Existing rows
+-- get -infinity, a metadata-only change that also keeps them out of every late-entry scan; new rows default to now().
+ALTER TABLE ledger_entries ADD COLUMN IF NOT EXISTS recorded_at TIMESTAMPTZ NOT NULL DEFAULT '-infinity';
+ALTER TABLE ledger_entries ALTER COLUMN recorded_at SET DEFAULT now();
+
+CREATE INDEX IF NOT EXISTS idx_ledger_recorded_brin ON ledger_entries USING brin (recorded_at);
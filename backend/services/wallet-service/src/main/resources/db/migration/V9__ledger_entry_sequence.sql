@@ -0,0 +1,20 @@
+-- Insertion order of ledger entries. An entry is inserted while its wallet row (or, for a sharded wallet, its bucket)
+-- is locked, so within a wallet the sequence follows the order entries were applied in, which occurred_at, taken from
+-- the command, does not. Reconciliation chains running balances in this order. Existing rows are numbered in their
+-- previous (occurred_at, id) order.
+CREATE SEQUENCE IF NOT EXISTS ledger_entry_seq;
+
+ALTER TABLE ledger_entries ADD COLUMN IF NOT EXISTS sequence_number BIGINT;
+
+UPDATE ledger_entries e
+   SET sequence_number = numbered.rn
+  FROM (SELECT id, occurred_at, row_number() OVER (ORDER BY occurred_at, id) AS rn FROM ledger_entries) numbered
+ WHERE e.id = numbered.id
+   AND e.occurred_at = numbered.occurred_at;
+
+SELECT setval('ledger_entry_seq', COALESCE((SELECT max(sequence_number) FROM ledger_entries), 0) + 1, false);
+
+ALTER TABLE ledger_entries ALTER COLUMN sequence_number SET DEFAULT nextval('ledger_entry_seq');
+ALTER TABLE ledger_entries ALTER COLUMN sequence_number SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_ledger_wallet_sequence ON ledger_entries (wallet_id, sequence_number);
@@ -0,0 +1,98 @@
+package com.momentum.wallet.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.momentum.sharedkernel.domain.value.Money;
+import com.momentum.sharedkernel.id.UuidV7;
+import com.momentum.wallet.domain.command.CreateWalletCommand;
+import com.momentum.wallet.domain.command.WalletTransactionCommand;
+import com.momentum.wallet.domain.model.WalletSnapshot;
+import com.momentum.wallet.domain.service.WalletDomainService;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LedgerControllerTest {
+
+    private static final Currency USD = Currency.getInstance("USD");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private WalletDomainService walletDomainService;
+
+    @Test
+    void transferLegsStreamSortedByTransferAndEntry() throws Exception {
+        WalletSnapshot source = createWallet(1_000L);
+        WalletSnapshot destination = createWallet(0L);
+        UUID from = UuidV7.next();
+        UUID first = UuidV7.next();
+        UUID second = UuidV7.next();
+        UUID to = UuidV7.next();
+        UUID outside = UuidV7.next();
+
+        walletDomainService.debit(leg(second, source.walletId(), "legs-2", 40L));
+        walletDomainService.debit(leg(first, source.walletId(), "legs-1", 25L));
+        walletDomainService.credit(leg(first, destination.walletId(), "legs-1", 25L));
+        walletDomainService.debit(leg(outside, source.walletId(), "legs-3", 10L));
+        walletDomainService.credit(new WalletTransactionCommand(
+                UuidV7.next(), destination.walletId(), 5L, "legs-direct", null, null, null));
+
+        MvcResult pending = mockMvc.perform(get("/api/v1/ledger/transfer-legs")
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        List<JsonNode> legs = new ArrayList<>();
+        for (String line : body.strip().split("\n")) {
+            legs.add(objectMapper.readTree(line));
+        }
+        assertThat(legs).extracting(leg -> leg.get("transferId").asText())
+                .containsExactly(first.toString(), first.toString(), second.toString());
+        assertThat(legs.get(0).get("entryId").asText())
+                .isLessThan(legs.get(1).get("entryId").asText());
+        assertThat(legs.get(2).get("type").asText()).isEqualTo("DEBIT");
+        assertThat(legs.get(2).get("amountMinorUnits").asLong()).isEqualTo(40L);
+    }
+
+    private WalletTransactionCommand leg(UUID transferId, UUID walletId, String reference, long amountMinorUnits) {
+        return new WalletTransactionCommand(
+                UuidV7.next(), walletId, amountMinorUnits, reference, null, null, null, transferId);
+    }
+
+    private WalletSnapshot createWallet(long initialBalance) {
+        UUID userId = UUID.randomUUID();
+        return walletDomainService.createWallet(new CreateWalletCommand(
+                UUID.randomUUID(), userId, "legs-" + userId, USD, Money.ofMinor(initialBalance, USD)));
+    }
+}
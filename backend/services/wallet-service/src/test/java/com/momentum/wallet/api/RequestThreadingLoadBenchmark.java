@@ -0,0 +1,164 @@
+package com.momentum.wallet.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.momentum.wallet.WalletServiceApplication;
+import com.momentum.wallet.api.dto.CreateWalletRequest;
+import com.momentum.wallet.api.dto.WalletTransactionRequest;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * HTTP throughput and latency with Tomcat on its platform-thread pool versus on virtual threads, on a real
+ * PostgreSQL and with the same connection pool in both modes.
+ *
+ * <p>More clients than Tomcat has platform threads mix cached wallet reads with credits that hold a pooled
+ * connection, so in platform mode reads queue behind requests blocked on the pool. Run with
+ * {@code ./gradlew :services:wallet-service:benchmark}.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+class RequestThreadingLoadBenchmark {
+
+    private static final int CLIENTS = 400;
+    private static final int REQUESTS_PER_CLIENT = 100;
+    private static final int WARMUP_REQUESTS_PER_CLIENT = 10;
+    private static final int WALLETS = 200;
+    private static final int POOL_SIZE = 20;
+    /** Every fifth request is a credit; the rest are wallet reads. */
+    private static final int CREDIT_EVERY = 5;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:17.6");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void compareRequestThreadingModes() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%-10s %10s %10s %10s %10s%n", "threads", "req/s", "p50 (ms)", "p99 (ms)", "errors");
+        System.out.println(platform.format("platform"));
+        System.out.println(virtual.format("virtual"));
+
+        assertThat(platform.throughput()).isPositive();
+        assertThat(virtual.throughput()).isPositive();
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(WalletServiceApplication.class)
+                        .profiles("test")
+                        .properties(properties(virtualThreads))
+                        .run();
+                HttpClient client = HttpClient.newBuilder()
+                        .executor(Executors.newVirtualThreadPerTaskExecutor())
+                        .build()) {
+            URI base = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            List<UUID> wallets = createWallets(client, base);
+            drive(client, base, wallets, WARMUP_REQUESTS_PER_CLIENT);
+            return drive(client, base, wallets, REQUESTS_PER_CLIENT);
+        }
+    }
+
+    private static Map<String, Object> properties(boolean virtualThreads) {
+        return Map.of(
+                "server.port", 0,
+                "spring.threads.virtual.enabled", virtualThreads,
+                "spring.datasource.url", POSTGRES.getJdbcUrl(),
+                "spring.datasource.username", POSTGRES.getUsername(),
+                "spring.datasource.password", POSTGRES.getPassword(),
+                "spring.datasource.driver-class-name", "org.postgresql.Driver",
+                "spring.datasource.hikari.maximum-pool-size", POOL_SIZE,
+                "spring.datasource.hikari.connection-timeout", 3000,
+                "spring.flyway.enabled", true,
+                "spring.jpa.hibernate.ddl-auto", "validate");
+    }
+
+    private List<UUID> createWallets(HttpClient client, URI base) throws Exception {
+        List<UUID> wallets = new ArrayList<>(WALLETS);
+        for (int i = 0; i < WALLETS; i++) {
+            UUID userId = UUID.randomUUID();
+            CreateWalletRequest request = new CreateWalletRequest(userId, "load-" + userId, "USD", 0L);
+            HttpResponse<String> response = client.send(
+                    post(base.resolve("/api/v1/wallets"), request), HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).isEqualTo(201);
+            wallets.add(UUID.fromString(objectMapper.readTree(response.body()).get("walletId").asText()));
+        }
+        return wallets;
+    }
+
+    private Result drive(HttpClient client, URI base, List<UUID> wallets, int requestsPerClient) throws Exception {
+        long[] latencies = new long[CLIENTS * requestsPerClient];
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        long began;
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                int clientIndex = c;
+                clients.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        UUID walletId = wallets.get((clientIndex + i) % wallets.size());
+                        HttpRequest request = i % CREDIT_EVERY == 0
+                                ? post(base.resolve("/api/v1/wallets/" + walletId + "/credit"),
+                                        new WalletTransactionRequest(1L, "load-" + UUID.randomUUID(), null, null))
+                                : HttpRequest.newBuilder(base.resolve("/api/v1/wallets/" + walletId)).GET().build();
+                        long sent = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        latencies[clientIndex * requestsPerClient + i] = System.nanoTime() - sent;
+                        if (response.statusCode() >= 300) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            began = System.nanoTime();
+            start.countDown();
+        }
+        long elapsed = System.nanoTime() - began;
+
+        Arrays.sort(latencies);
+        double throughput = latencies.length / (elapsed / 1_000_000_000.0);
+        return new Result(throughput, percentile(latencies, 0.50), percentile(latencies, 0.99), errors.get());
+    }
+
+    private HttpRequest post(URI uri, Object body) throws Exception {
+        return HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private record Result(double throughput, double p50Millis, double p99Millis, int errors) {
+
+        String format(String mode) {
+            return "%-10s %10.0f %10.2f %10.2f %10d".formatted(mode, throughput, p50Millis, p99Millis, errors);
+        }
+    }
+}
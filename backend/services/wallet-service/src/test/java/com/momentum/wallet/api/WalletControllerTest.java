@@ -1,12 +1,18 @@
 package com.momentum.wallet.api;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.momentum.wallet.api.dto.CreateWalletRequest;
 import com.momentum.wallet.api.dto.WalletTransactionRequest;
@@ -18,6 +24,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -98,6 +105,87 @@ class WalletControllerTest {
                 .andExpect(jsonPath("$.message").value("Insufficient funds for wallet " + wallet.walletId()));
     }
 
+    @Test
+    void ledgerPagesFollowCursorUntilExhausted() throws Exception {
+        WalletResponseBody wallet = createWallet();
+        for (int i = 0; i < 3; i++) {
+            credit(wallet, "page-" + i, 10L);
+        }
+
+        String firstPage = mockMvc.perform(get("/api/v1/wallets/{walletId}/ledger/page", wallet.walletId())
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entries", hasSize(2)))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String cursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/v1/wallets/{walletId}/ledger/page", wallet.walletId())
+                        .param("limit", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entries", hasSize(1)))
+                .andExpect(jsonPath("$.entries[0].runningBalanceMinorUnits", equalTo(30)))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+    }
+
+    @Test
+    void ledgerPageRejectsMalformedCursor() throws Exception {
+        WalletResponseBody wallet = createWallet();
+
+        mockMvc.perform(get("/api/v1/wallets/{walletId}/ledger/page", wallet.walletId())
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid ledger cursor"));
+    }
+
+    @Test
+    void ledgerExportStreamsOneJsonDocumentPerLine() throws Exception {
+        WalletResponseBody wallet = createWallet();
+        credit(wallet, "export-1", 25L);
+        credit(wallet, "export-2", 75L);
+
+        MvcResult pending = mockMvc.perform(get("/api/v1/wallets/{walletId}/ledger/export", wallet.walletId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = body.strip().split("\n");
+        assertThat(lines).hasSize(2);
+        JsonNode last = objectMapper.readTree(lines[1]);
+        assertThat(last.get("reference").asText()).isEqualTo("export-2");
+        assertThat(last.get("runningBalanceMinorUnits").asLong()).isEqualTo(100L);
+    }
+
+    @Test
+    void balanceEndpointAnswersNowAndRejectsTimesBeforeTheWalletExisted() throws Exception {
+        WalletResponseBody wallet = createWallet();
+        credit(wallet, "balance-1", 250L);
+
+        mockMvc.perform(get("/api/v1/wallets/{walletId}/balance", wallet.walletId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.currency", equalTo("USD")))
+                .andExpect(jsonPath("$.balanceMinorUnits", equalTo(250)));
+
+        mockMvc.perform(get("/api/v1/wallets/{walletId}/balance", wallet.walletId())
+                        .param("at", "2000-01-01T00:00:00Z"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void credit(WalletResponseBody wallet, String reference, long amountMinorUnits) throws Exception {
+        WalletTransactionRequest credit = new WalletTransactionRequest(amountMinorUnits, reference, null, null);
+        mockMvc.perform(post("/api/v1/wallets/{walletId}/credit", wallet.walletId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(credit)))
+                .andExpect(status().isCreated());
+    }
+
     private WalletResponseBody createWallet() throws Exception {
         UUID userId = UUID.randomUUID();
         CreateWalletRequest request = new CreateWalletRequest(userId, "api-" + userId + "@test.com", "USD", 0L);
@@ -0,0 +1,91 @@
+package com.momentum.wallet.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.momentum.wallet.config.WalletCacheProperties;
+import com.momentum.wallet.domain.model.WalletSnapshot;
+import com.momentum.wallet.persistence.wallet.WalletStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+class WalletSnapshotCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID walletId = UUID.randomUUID();
+    private final AtomicLong version = new AtomicLong(1);
+    private final AtomicInteger loads = new AtomicInteger();
+    private WalletSnapshotCache cache;
+
+    @BeforeEach
+    void setUp() {
+        WalletCacheProperties properties = new WalletCacheProperties(
+                true,
+                100,
+                Duration.ofMinutes(1),
+                new WalletCacheProperties.Redis(false, Duration.ofMinutes(5), "wallet:snapshot:", "invalidations"));
+        cache = new WalletSnapshotCache(
+                properties,
+                new StaticListableBeanFactory().getBeanProvider(RedisWalletSnapshotStore.class),
+                meterRegistry);
+    }
+
+    @Test
+    void get_servesRepeatedReadsFromNearCacheUntilInvalidated() {
+        assertThat(cache.get(walletId, loader(0)).version()).isEqualTo(1);
+        assertThat(cache.get(walletId, loader(0)).version()).isEqualTo(1);
+        assertThat(loads).hasValue(1);
+
+        version.set(2);
+        cache.invalidate(walletId, loader(0));
+
+        assertThat(cache.get(walletId, loader(0)).version()).isEqualTo(2);
+        assertThat(loads).hasValue(2);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void evictOlderThan_keepsSnapshotsAtOrAboveVersion() {
+        version.set(5);
+        cache.get(walletId, loader(0));
+
+        cache.evictOlderThan(walletId, 5);
+        cache.get(walletId, loader(0));
+        assertThat(loads).hasValue(1);
+
+        cache.evictOlderThan(walletId, 6);
+        cache.get(walletId, loader(0));
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_doesNotCacheShardedWallets() {
+        cache.get(walletId, loader(4));
+        cache.get(walletId, loader(4));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private Function<UUID, WalletSnapshot> loader(int bucketCount) {
+        return id -> {
+            loads.incrementAndGet();
+            return new WalletSnapshot(
+                    id,
+                    UUID.randomUUID(),
+                    "USD",
+                    1_000,
+                    WalletStatus.ACTIVE,
+                    bucketCount,
+                    OffsetDateTime.now(),
+                    version.get());
+        };
+    }
+}
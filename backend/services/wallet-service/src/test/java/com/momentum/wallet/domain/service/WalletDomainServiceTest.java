@@ -6,16 +6,30 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import com.momentum.sharedkernel.domain.value.Money;
 import com.momentum.sharedkernel.error.DomainException;
 import com.momentum.wallet.domain.command.CreateWalletCommand;
+import com.momentum.wallet.domain.command.PendingTransaction;
 import com.momentum.wallet.domain.command.WalletTransactionCommand;
 import com.momentum.wallet.domain.model.LedgerEntrySnapshot;
+import com.momentum.wallet.domain.model.TransactionOutcome;
 import com.momentum.wallet.domain.model.WalletSnapshot;
+import com.momentum.wallet.persistence.ledger.LedgerEntryType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.Duration;
 import java.util.Currency;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -26,6 +40,15 @@ class WalletDomainServiceTest {
     @Autowired
     private WalletDomainService walletDomainService;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Test
     @Transactional
     void createWallet_persistsInitialBalance() {
@@ -74,6 +97,28 @@ class WalletDomainServiceTest {
         assertThat(updated.balanceMinorUnits()).isEqualTo(100L);
     }
 
+    @Test
+    @Transactional
+    void replayOfArchivedEntryIsAnsweredFromItsReference() {
+        WalletSnapshot wallet = createWalletWithBalance(0L);
+        WalletTransactionCommand tx = new WalletTransactionCommand(
+                UUID.randomUUID(), wallet.walletId(), 100L, "archived-1", null, null, null);
+        LedgerEntrySnapshot first = walletDomainService.credit(tx);
+        entityManager.flush();
+        jdbcTemplate.update("delete from ledger_entries where id = ?", first.entryId());
+        entityManager.clear();
+
+        LedgerEntrySnapshot replayed = walletDomainService.credit(tx);
+        List<TransactionOutcome> grouped = walletDomainService.applyGroup(
+                wallet.walletId(), List.of(new PendingTransaction(tx, LedgerEntryType.CREDIT)));
+
+        assertThat(replayed.entryId()).isEqualTo(first.entryId());
+        assertThat(replayed.runningBalanceMinorUnits()).isNull();
+        assertThat(grouped.get(0).succeeded()).isTrue();
+        assertThat(grouped.get(0).entry().entryId()).isEqualTo(first.entryId());
+        assertThat(walletDomainService.getWallet(wallet.walletId()).balanceMinorUnits()).isEqualTo(100L);
+    }
+
     @Test
     @Transactional
     void debit_failsWhenBalanceInsufficient() {
@@ -102,6 +147,123 @@ class WalletDomainServiceTest {
                 .hasMessageContaining("Wallet already exists");
     }
 
+    @Test
+    @Transactional
+    void applyGroup_rejectsIndividualCommandsWithoutRollingBackTheGroup() {
+        WalletSnapshot wallet = createWalletWithBalance(100L);
+        PendingTransaction credit = new PendingTransaction(new WalletTransactionCommand(
+                UUID.randomUUID(), wallet.walletId(), 50L, "group-credit", null, null, null), LedgerEntryType.CREDIT);
+        PendingTransaction overdraft = new PendingTransaction(new WalletTransactionCommand(
+                UUID.randomUUID(), wallet.walletId(), 500L, "group-overdraft", null, null, null), LedgerEntryType.DEBIT);
+        PendingTransaction debit = new PendingTransaction(new WalletTransactionCommand(
+                UUID.randomUUID(), wallet.walletId(), 120L, "group-debit", null, null, null), LedgerEntryType.DEBIT);
+
+        List<TransactionOutcome> outcomes =
+                walletDomainService.applyGroup(wallet.walletId(), List.of(credit, overdraft, debit, credit));
+        WalletSnapshot updated = walletDomainService.getWallet(wallet.walletId());
+
+        assertThat(outcomes).extracting(TransactionOutcome::succeeded).containsExactly(true, false, true, true);
+        assertThat(outcomes.get(1).failureReason()).contains("Insufficient funds");
+        assertThat(outcomes.get(2).entry().runningBalanceMinorUnits()).isEqualTo(30L);
+        assertThat(outcomes.get(3).entry().entryId()).isEqualTo(outcomes.get(0).entry().entryId());
+        assertThat(updated.balanceMinorUnits()).isEqualTo(30L);
+    }
+
+    @Test
+    @Transactional
+    void applyGroup_rejectsCommandsForOtherWallets() {
+        WalletSnapshot wallet = createWalletWithBalance(0L);
+        PendingTransaction foreign = new PendingTransaction(new WalletTransactionCommand(
+                UUID.randomUUID(), UUID.randomUUID(), 10L, "foreign", null, null, null), LedgerEntryType.CREDIT);
+
+        assertThatThrownBy(() -> walletDomainService.applyGroup(wallet.walletId(), List.of(foreign)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @Transactional
+    void shardedWallet_keepsAggregateBalanceAcrossBuckets() {
+        WalletSnapshot wallet = createWalletWithBalance(100L);
+
+        WalletSnapshot sharded = walletDomainService.shardWallet(wallet.walletId(), 4);
+        LedgerEntrySnapshot credit = null;
+        for (int i = 0; i < 20; i++) {
+            credit = walletDomainService.credit(new WalletTransactionCommand(
+                    UUID.randomUUID(), wallet.walletId(), 10L, "shard-credit-" + i, null, null, null));
+        }
+        LedgerEntrySnapshot sweep = walletDomainService.debit(new WalletTransactionCommand(
+                UUID.randomUUID(), wallet.walletId(), 290L, "shard-sweep", null, null, null));
+        WalletSnapshot updated = walletDomainService.getWallet(wallet.walletId());
+
+        assertThat(sharded.bucketCount()).isEqualTo(4);
+        assertThat(sharded.balanceMinorUnits()).isEqualTo(100L);
+        assertThat(credit.bucketIndex()).isNotNull();
+        assertThat(credit.bucketBalanceMinorUnits()).isPositive();
+        assertThat(credit.runningBalanceMinorUnits()).isNull();
+        assertThat(sweep.bucketIndex()).isNull();
+        assertThat(sweep.runningBalanceMinorUnits()).isEqualTo(10L);
+        assertThat(updated.balanceMinorUnits()).isEqualTo(10L);
+        assertThatThrownBy(() -> walletDomainService.debit(new WalletTransactionCommand(
+                        UUID.randomUUID(), wallet.walletId(), 11L, "shard-overdraft", null, null, null)))
+                .isInstanceOf(DomainException.class)
+                .hasMessageContaining("Insufficient funds");
+    }
+
+    @Test
+    @Transactional
+    void shardedWallet_appliesGroupsAgainstBuckets() {
+        WalletSnapshot wallet = createWalletWithBalance(50L);
+        walletDomainService.shardWallet(wallet.walletId(), 2);
+        PendingTransaction credit = new PendingTransaction(new WalletTransactionCommand(
+                UUID.randomUUID(), wallet.walletId(), 25L, "shard-group-credit", null, null, null), LedgerEntryType.CREDIT);
+        PendingTransaction debit = new PendingTransaction(new WalletTransactionCommand(
+                UUID.randomUUID(), wallet.walletId(), 70L, "shard-group-debit", null, null, null), LedgerEntryType.DEBIT);
+
+        List<TransactionOutcome> outcomes =
+                walletDomainService.applyGroup(wallet.walletId(), List.of(credit, debit, credit));
+
+        assertThat(outcomes).extracting(TransactionOutcome::succeeded).containsExactly(true, true, true);
+        assertThat(outcomes.get(0).entry().runningBalanceMinorUnits()).isEqualTo(75L);
+        assertThat(outcomes.get(1).entry().runningBalanceMinorUnits()).isEqualTo(5L);
+        assertThat(outcomes.get(2).entry().entryId()).isEqualTo(outcomes.get(0).entry().entryId());
+        assertThat(walletDomainService.getWallet(wallet.walletId()).balanceMinorUnits()).isEqualTo(5L);
+    }
+
+    @Test
+    void debitRoutedBeforeAConcurrentShardIsAppliedToTheBuckets() throws Exception {
+        WalletSnapshot wallet = createWalletWithBalance(100L);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            AtomicReference<Future<LedgerEntrySnapshot>> debit = new AtomicReference<>();
+            transactionTemplate.executeWithoutResult(status -> {
+                walletDomainService.shardWallet(wallet.walletId(), 2);
+                debit.set(executor.submit(() -> walletDomainService.debit(new WalletTransactionCommand(
+                        UUID.randomUUID(), wallet.walletId(), 60L, "shard-race-debit", null, null, null))));
+                pause(Duration.ofMillis(300));
+                assertThat(debit.get()).isNotDone();
+            });
+
+            LedgerEntrySnapshot entry = debit.get().get(5, TimeUnit.SECONDS);
+
+            assertThat(entry.bucketIndex()).isZero();
+            assertThat(entry.bucketBalanceMinorUnits()).isEqualTo(40L);
+            assertThat(walletDomainService.getWallet(wallet.walletId()).balanceMinorUnits()).isEqualTo(40L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @Transactional
+    void shardWallet_rejectsAlreadyShardedWallet() {
+        WalletSnapshot wallet = createWalletWithBalance(0L);
+        walletDomainService.shardWallet(wallet.walletId(), 2);
+
+        assertThatThrownBy(() -> walletDomainService.shardWallet(wallet.walletId(), 2))
+                .isInstanceOf(DomainException.class)
+                .hasMessageContaining("already sharded");
+    }
+
     private WalletSnapshot createWalletWithBalance(long balanceMinorUnits) {
         UUID userId = UUID.randomUUID();
         CreateWalletCommand command = new CreateWalletCommand(
@@ -112,4 +274,13 @@ class WalletDomainServiceTest {
                 Money.ofMinor(balanceMinorUnits, USD));
         return walletDomainService.createWallet(command);
     }
+
+    private static void pause(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
 }
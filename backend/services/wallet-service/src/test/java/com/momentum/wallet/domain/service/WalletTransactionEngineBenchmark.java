@@ -0,0 +1,154 @@
+package com.momentum.wallet.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.momentum.sharedkernel.domain.value.Money;
+import com.momentum.wallet.domain.command.CreateWalletCommand;
+import com.momentum.wallet.domain.command.WalletTransactionCommand;
+import com.momentum.wallet.domain.model.WalletSnapshot;
+import com.momentum.wallet.persistence.ledger.LedgerEntryType;
+import com.momentum.wallet.persistence.repository.LedgerEntryRepository;
+import com.momentum.wallet.persistence.repository.WalletRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Hot-wallet credit throughput of the JPA engine versus the single-statement engine on a real PostgreSQL.
+ *
+ * <p>Run with {@code ./gradlew :services:wallet-service:benchmark}.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest
+@ActiveProfiles("test")
+class WalletTransactionEngineBenchmark {
+
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final int THREADS = 32;
+    private static final int OPERATIONS_PER_THREAD = 250;
+    private static final int WARMUP_OPERATIONS = 500;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:17.6");
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> THREADS);
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Autowired
+    private WalletDomainService walletDomainService;
+
+    @Autowired
+    private JpaWalletTransactionEngine jpaEngine;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardedWalletLedger shardedWalletLedger;
+
+    @Test
+    void compareEnginesOnHotWallet() throws Exception {
+        WalletTransactionEngine atomicEngine =
+                new AtomicSqlWalletTransactionEngine(
+                        jdbcTemplate, walletRepository, ledgerEntryRepository, shardedWalletLedger);
+
+        run(jpaEngine, WARMUP_OPERATIONS / THREADS);
+        run(atomicEngine, WARMUP_OPERATIONS / THREADS);
+
+        Result jpa = run(jpaEngine, OPERATIONS_PER_THREAD);
+        Result atomic = run(atomicEngine, OPERATIONS_PER_THREAD);
+
+        System.out.printf("%-12s %10s %10s %10s%n", "engine", "ops/s", "p50 (ms)", "p99 (ms)");
+        System.out.println(jpa.format("jpa"));
+        System.out.println(atomic.format("atomic-sql"));
+
+        long expected = (long) THREADS * OPERATIONS_PER_THREAD;
+        assertThat(walletDomainService.getWallet(jpa.walletId()).balanceMinorUnits()).isEqualTo(expected);
+        assertThat(walletDomainService.getWallet(atomic.walletId()).balanceMinorUnits()).isEqualTo(expected);
+    }
+
+    private Result run(WalletTransactionEngine engine, int operationsPerThread) throws Exception {
+        WalletSnapshot wallet = walletDomainService.createWallet(new CreateWalletCommand(
+                UUID.randomUUID(), UUID.randomUUID(), "bench-" + UUID.randomUUID(), USD, Money.zero(USD)));
+
+        long[] latencies = new long[THREADS * operationsPerThread];
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int offset = t * operationsPerThread;
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < operationsPerThread; i++) {
+                    WalletTransactionCommand command = new WalletTransactionCommand(
+                            UUID.randomUUID(), wallet.walletId(), 1L, "bench-" + UUID.randomUUID(), null, null, null);
+                    long began = System.nanoTime();
+                    transactionTemplate.executeWithoutResult(
+                            status -> engine.apply(command, LedgerEntryType.CREDIT));
+                    latencies[offset + i] = System.nanoTime() - began;
+                }
+                return null;
+            }));
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        long elapsed = System.nanoTime() - began;
+        executor.shutdown();
+
+        Arrays.sort(latencies);
+        double throughput = latencies.length / (elapsed / 1_000_000_000.0);
+        return new Result(wallet.walletId(), throughput, percentile(latencies, 0.50), percentile(latencies, 0.99));
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private record Result(UUID walletId, double throughput, double p50Millis, double p99Millis) {
+
+        String format(String engine) {
+            return "%-12s %10.0f %10.2f %10.2f".formatted(engine, throughput, p50Millis, p99Millis);
+        }
+    }
+}
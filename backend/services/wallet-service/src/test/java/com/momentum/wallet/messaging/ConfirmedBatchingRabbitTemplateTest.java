@@ -0,0 +1,97 @@
+package com.momentum.wallet.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.rabbit.batch.SimpleBatchingStrategy;
+import org.springframework.amqp.rabbit.connection.ChannelProxy;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.connection.PendingConfirm;
+import org.springframework.amqp.rabbit.connection.PublisherCallbackChannel;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+class ConfirmedBatchingRabbitTemplateTest {
+
+    private final PublisherCallbackChannel channel =
+            mock(PublisherCallbackChannel.class, withSettings().extraInterfaces(ChannelProxy.class));
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+    private ConfirmedBatchingRabbitTemplate template;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        Connection connection = mock(Connection.class);
+        when(connectionFactory.isPublisherConfirms()).thenReturn(true);
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        when(connection.createChannel(anyBoolean())).thenReturn(channel);
+        when(((ChannelProxy) channel).isPublisherConfirms()).thenReturn(true);
+        when(((ChannelProxy) channel).getTargetChannel()).thenReturn(channel);
+        when(channel.isOpen()).thenReturn(true);
+        when(channel.getNextPublishSeqNo()).thenReturn(1L);
+        scheduler.initialize();
+        template = new ConfirmedBatchingRabbitTemplate(
+                connectionFactory, new SimpleBatchingStrategy(2, 64 * 1024, 10_000), scheduler);
+        template.setMessageConverter(new Jackson2JsonMessageConverter());
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void eventsCompleteOnlyWhenTheirBatchIsAcked() {
+        CompletableFuture<Void> first = template.publish("wallet.events", "wallet.transaction.result", Map.of("a", 1));
+
+        assertThat(first).isNotDone();
+
+        CompletableFuture<Void> second = template.publish("wallet.events", "wallet.transaction.result", Map.of("a", 2));
+        CorrelationData correlation = pendingConfirm();
+
+        assertThat(first).isNotDone();
+        assertThat(second).isNotDone();
+
+        correlation.getFuture().complete(new CorrelationData.Confirm(true, null));
+
+        assertThat(first).isCompleted();
+        assertThat(second).isCompleted();
+    }
+
+    @Test
+    void nackedBatchFailsEveryEventItCarries() {
+        CompletableFuture<Void> first = template.publish("wallet.events", "wallet.transaction.result", Map.of("a", 1));
+        CompletableFuture<Void> second = template.publish("wallet.events", "wallet.transaction.result", Map.of("a", 2));
+
+        pendingConfirm().getFuture().complete(new CorrelationData.Confirm(false, "overloaded"));
+
+        assertThat(first).isCompletedExceptionally();
+        assertThat(second)
+                .failsWithin(Duration.ZERO)
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(ConfirmingRabbitPublisher.PublishNotConfirmedException.class)
+                .withMessageContaining("overloaded");
+    }
+
+    private CorrelationData pendingConfirm() {
+        ArgumentCaptor<PendingConfirm> pending = ArgumentCaptor.forClass(PendingConfirm.class);
+        verify(channel).addPendingConfirm(any(), anyLong(), pending.capture());
+        return pending.getValue().getCorrelationData();
+    }
+}
@@ -0,0 +1,83 @@
+package com.momentum.wallet.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.momentum.wallet.config.WalletPublishingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.util.unit.DataSize;
+
+class ConfirmingRabbitPublisherTest {
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ConfirmingRabbitPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        when(rabbitTemplate.getMessageConverter()).thenReturn(new Jackson2JsonMessageConverter());
+        WalletPublishingProperties properties = new WalletPublishingProperties(
+                2,
+                Duration.ofMillis(200),
+                Duration.ofSeconds(2),
+                1,
+                new WalletPublishingProperties.Batching(false, 100, DataSize.ofKilobytes(64), Duration.ofMillis(10)));
+        publisher = new ConfirmingRabbitPublisher(rabbitTemplate, properties, meterRegistry);
+    }
+
+    @Test
+    void publish_retriesNackedMessageAndReleasesWindowOnConfirm() {
+        AtomicInteger sends = new AtomicInteger();
+        doAnswer(invocation -> {
+                    CorrelationData correlation = invocation.getArgument(3);
+                    boolean ack = sends.incrementAndGet() > 1;
+                    correlation.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "overloaded"));
+                    return null;
+                })
+                .when(rabbitTemplate)
+                .send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        CompletableFuture<Void> confirmed = publisher.publish("wallet.events", "wallet.transaction.result", Map.of("a", 1));
+        publisher.awaitConfirms(List.of(confirmed));
+
+        verify(rabbitTemplate, times(2)).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        assertThat(meterRegistry.get("wallet.messaging.publish.in-flight").gauge().value()).isZero();
+        assertThat(meterRegistry.get("wallet.messaging.publish.nacked").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void awaitConfirms_failsWhenRetriesAreExhausted() {
+        doAnswer(invocation -> {
+                    CorrelationData correlation = invocation.getArgument(3);
+                    correlation.getFuture().complete(new CorrelationData.Confirm(false, "overloaded"));
+                    return null;
+                })
+                .when(rabbitTemplate)
+                .send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        CompletableFuture<Void> confirmed = publisher.publish("wallet.events", "wallet.transaction.result", Map.of("a", 1));
+
+        assertThatThrownBy(() -> publisher.awaitConfirms(List.of(confirmed)))
+                .isInstanceOf(ConfirmingRabbitPublisher.PublishNotConfirmedException.class)
+                .hasMessageContaining("overloaded");
+        assertThat(meterRegistry.get("wallet.messaging.publish.in-flight").gauge().value()).isZero();
+    }
+}
@@ -0,0 +1,160 @@
+package com.momentum.wallet.persistence.ledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.momentum.sharedkernel.domain.value.Money;
+import com.momentum.sharedkernel.error.DomainException;
+import com.momentum.wallet.config.BalanceCheckpointProperties;
+import com.momentum.wallet.domain.command.CreateWalletCommand;
+import com.momentum.wallet.domain.command.WalletTransactionCommand;
+import com.momentum.wallet.domain.model.WalletSnapshot;
+import com.momentum.wallet.domain.service.WalletDomainService;
+import com.momentum.wallet.persistence.repository.BalanceCheckpointProgressRepository;
+import com.momentum.wallet.persistence.repository.LedgerEntryRepository;
+import com.momentum.wallet.persistence.repository.WalletBalanceCheckpointRepository;
+import com.momentum.wallet.persistence.wallet.BalanceCheckpointProgressEntity;
+import com.momentum.wallet.persistence.wallet.WalletBalanceCheckpointEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Currency;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BalanceCheckpointerTest {
+
+    private static final Currency USD = Currency.getInstance("USD");
+
+    @Autowired
+    private WalletDomainService walletDomainService;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private WalletBalanceCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private BalanceCheckpointProgressRepository progressRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void historicalBalancesAddEntriesAfterTheNearestCheckpoint() {
+        WalletSnapshot wallet = walletDomainService.createWallet(new CreateWalletCommand(
+                UUID.randomUUID(), UUID.randomUUID(), "history@example.com", USD, Money.ofMinor(1_000L, USD)));
+        OffsetDateTime opened = checkpointRepository
+                .findFirstByWallet_IdAndCheckpointAtLessThanEqualOrderByCheckpointAtDesc(
+                        wallet.walletId(), OffsetDateTime.now())
+                .orElseThrow()
+                .getCheckpointAt();
+        checkpointedTo(opened);
+        credit(wallet.walletId(), "history-1", 500L, opened.plusMinutes(1));
+        walletDomainService.debit(new WalletTransactionCommand(
+                UUID.randomUUID(), wallet.walletId(), 200L, "history-2", null, null, opened.plusMinutes(2)));
+        credit(wallet.walletId(), "history-3", 50L, opened.plusMinutes(90));
+        OffsetDateTime target = opened.plusHours(1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BalanceCheckpointer checkpointer = checkpointer(meterRegistry);
+
+        assertThat(checkpointer.checkpointUpTo(target)).isPositive();
+        assertThat(checkpointer.checkpointUpTo(target)).isZero();
+
+        WalletBalanceCheckpointEntity checkpoint = checkpointRepository
+                .findFirstByWallet_IdAndCheckpointAtLessThanEqualOrderByCheckpointAtDesc(wallet.walletId(), target)
+                .orElseThrow();
+        assertThat(checkpoint.getCheckpointAt()).isAfter(opened);
+        assertThat(checkpoint.getBalanceMinorUnits()).isEqualTo(1_300L);
+        assertThat(meterRegistry.get("wallet.ledger.checkpoints.written").counter().count()).isPositive();
+
+        assertThat(balanceAt(wallet.walletId(), opened.plusSeconds(30))).isEqualTo(1_000L);
+        assertThat(balanceAt(wallet.walletId(), opened.plusMinutes(1))).isEqualTo(1_500L);
+        assertThat(balanceAt(wallet.walletId(), target)).isEqualTo(1_300L);
+        assertThat(balanceAt(wallet.walletId(), opened.plusHours(2))).isEqualTo(1_350L);
+        assertThat(walletDomainService.getBalanceAt(wallet.walletId(), opened.plusHours(2)).checkpointAt())
+                .isEqualTo(checkpoint.getCheckpointAt());
+        assertThatThrownBy(() -> walletDomainService.getBalanceAt(wallet.walletId(), opened.minusMinutes(1)))
+                .isInstanceOf(DomainException.class);
+    }
+
+    @Test
+    void catchesUpOneWindowAtATimeAndAddsLateEntriesToPastCheckpoints() {
+        WalletSnapshot wallet = walletDomainService.createWallet(new CreateWalletCommand(
+                UUID.randomUUID(), UUID.randomUUID(), "late@example.com", USD, Money.ofMinor(1_000L, USD)));
+        OffsetDateTime opened = checkpointRepository
+                .findFirstByWallet_IdAndCheckpointAtLessThanEqualOrderByCheckpointAtDesc(
+                        wallet.walletId(), OffsetDateTime.now())
+                .orElseThrow()
+                .getCheckpointAt();
+        checkpointedTo(opened);
+        OffsetDateTime boundary = opened.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        credit(wallet.walletId(), "late-1", 100L, boundary.plusMinutes(10));
+        credit(wallet.walletId(), "late-2", 20L, boundary.plusMinutes(70));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BalanceCheckpointer checkpointer = checkpointer(meterRegistry);
+
+        assertThat(checkpointer.checkpointUpTo(boundary.plusHours(2))).isGreaterThanOrEqualTo(2);
+        assertThat(checkpointAt(wallet.walletId(), boundary.plusHours(1))).isEqualTo(1_100L);
+        assertThat(checkpointAt(wallet.walletId(), boundary.plusHours(2))).isEqualTo(1_120L);
+
+        walletDomainService.debit(new WalletTransactionCommand(
+                UUID.randomUUID(), wallet.walletId(), 300L, "late-3", null, null, boundary.plusMinutes(30)));
+        jdbcTemplate.update(
+                "update ledger_entries set recorded_at = ? where reference = 'late-3'",
+                boundary.plusHours(2).plusMinutes(5));
+        checkpointer.checkpointUpTo(boundary.plusHours(3));
+
+        assertThat(checkpointAt(wallet.walletId(), boundary.plusHours(1))).isEqualTo(800L);
+        assertThat(checkpointAt(wallet.walletId(), boundary.plusHours(2))).isEqualTo(820L);
+        assertThat(balanceAt(wallet.walletId(), boundary.plusHours(3))).isEqualTo(820L);
+        assertThat(meterRegistry.get("wallet.ledger.checkpoints.late-entries").counter().count()).isEqualTo(1.0);
+    }
+
+    private BalanceCheckpointer checkpointer(SimpleMeterRegistry meterRegistry) {
+        return new BalanceCheckpointer(
+                ledgerEntryRepository,
+                checkpointRepository,
+                progressRepository,
+                transactionManager,
+                new BalanceCheckpointProperties(true, Duration.ofHours(1), Duration.ofMinutes(15), Duration.ofMinutes(1), 2),
+                meterRegistry);
+    }
+
+    /**
+     * Progress is shared by every wallet in the database; tests start their windows at their own wallet.
+     */
+    private void checkpointedTo(OffsetDateTime checkpointedTo) {
+        progressRepository.save(
+                new BalanceCheckpointProgressEntity(BalanceCheckpointProgressEntity.BALANCE, checkpointedTo));
+    }
+
+    private long checkpointAt(UUID walletId, OffsetDateTime at) {
+        WalletBalanceCheckpointEntity checkpoint = checkpointRepository
+                .findFirstByWallet_IdAndCheckpointAtLessThanEqualOrderByCheckpointAtDesc(walletId, at)
+                .orElseThrow();
+        assertThat(checkpoint.getCheckpointAt()).isEqualTo(at);
+        return checkpoint.getBalanceMinorUnits();
+    }
+
+    private void credit(UUID walletId, String reference, long amountMinorUnits, OffsetDateTime occurredAt) {
+        walletDomainService.credit(new WalletTransactionCommand(
+                UUID.randomUUID(), walletId, amountMinorUnits, reference, null, null, occurredAt));
+    }
+
+    private long balanceAt(UUID walletId, OffsetDateTime at) {
+        return walletDomainService.getBalanceAt(walletId, at).balanceMinorUnits();
+    }
+}
@@ -0,0 +1,112 @@
+package com.momentum.wallet.persistence.ledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.momentum.wallet.config.LedgerPartitionProperties;
+import com.momentum.wallet.persistence.repository.LedgerExportRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LedgerPartitionMaintainerTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LedgerExportRepository exportRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path archiveDirectory;
+
+    @Test
+    void partitionNamesMapToUtcMonths() {
+        LedgerPartition partition = LedgerPartition.fromTableName("ledger_entries_p202402").orElseThrow();
+
+        assertThat(partition.month()).isEqualTo(YearMonth.of(2024, 2));
+        assertThat(partition.tableName()).isEqualTo("ledger_entries_p202402");
+        assertThat(partition.from()).isEqualTo(OffsetDateTime.of(2024, 2, 1, 0, 0, 0, 0, ZoneOffset.UTC));
+        assertThat(partition.to()).isEqualTo(OffsetDateTime.of(2024, 3, 1, 0, 0, 0, 0, ZoneOffset.UTC));
+        assertThat(LedgerPartition.fromTableName("ledger_entries_pending")).isEmpty();
+        assertThat(LedgerPartition.fromTableName("ledger_references")).isEmpty();
+    }
+
+    @Test
+    void archiveWritesCompressedEntriesAndDropsTheTable() throws Exception {
+        LedgerPartition partition = new LedgerPartition(YearMonth.of(2020, 1));
+        jdbcTemplate.execute("CREATE TABLE %s AS SELECT * FROM ledger_entries WHERE 1 = 0".formatted(partition.tableName()));
+        UUID walletId = UUID.randomUUID();
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update(
+                    "INSERT INTO %s (id, wallet_id, type, amount_minor_units, running_balance_minor_units, reference, "
+                            .formatted(partition.tableName())
+                            + "occurred_at) VALUES (?, ?, 'CREDIT', 100, ?, ?, ?)",
+                    UUID.randomUUID(),
+                    walletId,
+                    100L * (i + 1),
+                    "archived-" + i,
+                    partition.from().plusDays(i));
+        }
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LedgerPartitionMaintainer maintainer = new LedgerPartitionMaintainer(
+                jdbcTemplate,
+                exportRepository,
+                objectMapper,
+                transactionManager,
+                new LedgerPartitionProperties(true, Duration.ofHours(1), 3, 24, archiveDirectory),
+                meterRegistry);
+
+        maintainer.archive(partition);
+
+        Path archive = archiveDirectory.resolve("ledger_entries_p202001.jsonl.gz");
+        List<JsonNode> entries;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(archive)), StandardCharsets.UTF_8))) {
+            entries = reader.lines().map(this::readTree).toList();
+        }
+        assertThat(entries).extracting(entry -> entry.get("reference").asText())
+                .containsExactly("archived-0", "archived-1", "archived-2");
+        assertThat(entries).allSatisfy(entry -> assertThat(entry.get("walletId").asText()).isEqualTo(walletId.toString()));
+        assertThat(Files.list(archiveDirectory)).containsExactly(archive);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM information_schema.tables WHERE table_name = ?",
+                Long.class,
+                partition.tableName())).isZero();
+        assertThat(meterRegistry.get("wallet.ledger.entries.archived").counter().count()).isEqualTo(3.0);
+    }
+
+    private JsonNode readTree(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.momentum.wallet.persistence.ledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.momentum.sharedkernel.domain.value.Money;
+import com.momentum.sharedkernel.error.DomainException;
+import com.momentum.wallet.config.LedgerPartitionProperties;
+import com.momentum.wallet.domain.command.CreateWalletCommand;
+import com.momentum.wallet.domain.command.WalletTransactionCommand;
+import com.momentum.wallet.domain.model.LedgerEntrySnapshot;
+import com.momentum.wallet.domain.model.WalletSnapshot;
+import com.momentum.wallet.domain.service.WalletDomainService;
+import com.momentum.wallet.persistence.repository.LedgerExportRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Currency;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * The Flyway migrations and the PostgreSQL-only ledger paths on a real PostgreSQL; the H2 test profile builds its
+ * schema from the entities and skips both. Hibernate validates the migrated schema at startup, and wallets are moved
+ * by the single-statement engine and its CTE.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest
+@ActiveProfiles("test")
+class LedgerPostgresMigrationTest {
+
+    private static final Currency USD = Currency.getInstance("USD");
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:17.6");
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("wallet.transactions.engine", () -> "atomic-sql");
+    }
+
+    @Autowired
+    private WalletDomainService walletDomainService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LedgerExportRepository exportRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path archiveDirectory;
+
+    @Test
+    void atomicEngineRecordsEntriesThroughTheLedgerCte() {
+        WalletSnapshot wallet = createWallet(1_000L);
+
+        LedgerEntrySnapshot credit = walletDomainService.credit(command(wallet.walletId(), 250L, "pg-credit", null));
+        LedgerEntrySnapshot debit = walletDomainService.debit(command(wallet.walletId(), 750L, "pg-debit", null));
+        LedgerEntrySnapshot replay = walletDomainService.debit(command(wallet.walletId(), 750L, "pg-debit", null));
+
+        assertThat(credit.runningBalanceMinorUnits()).isEqualTo(1_250L);
+        assertThat(debit.runningBalanceMinorUnits()).isEqualTo(500L);
+        assertThat(replay.entryId()).isEqualTo(debit.entryId());
+        assertThatThrownBy(() -> walletDomainService.debit(command(wallet.walletId(), 501L, "pg-overdraw", null)))
+                .isInstanceOf(DomainException.class)
+                .hasMessageContaining("Insufficient funds");
+        assertThat(walletDomainService.getWallet(wallet.walletId()).balanceMinorUnits()).isEqualTo(500L);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM ledger_entries WHERE wallet_id = ? AND recorded_at > '-infinity' "
+                        + "AND sequence_number IS NOT NULL",
+                Long.class,
+                wallet.walletId())).isEqualTo(2L);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM ledger_references WHERE wallet_id = ?", Long.class, wallet.walletId()))
+                .isEqualTo(2L);
+    }
+
+    @Test
+    void entryWithoutMonthlyPartitionIsMovedOutOfTheDefaultOnceItsMonthIsAttached() throws Exception {
+        YearMonth month = YearMonth.now(ZoneOffset.UTC).plusMonths(9);
+        LedgerPartition partition = new LedgerPartition(month);
+        WalletSnapshot wallet = createWallet(0L);
+
+        LedgerEntrySnapshot entry = walletDomainService.credit(
+                command(wallet.walletId(), 100L, "pg-future", partition.from().plusDays(3)));
+
+        assertThat(holdingTable(entry)).isEqualTo("ledger_entries_default");
+
+        maintainer().maintain();
+
+        assertThat(holdingTable(entry)).isEqualTo(partition.tableName());
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM ledger_entries_default", Long.class)).isZero();
+        assertThat(walletDomainService.getLedger(wallet.walletId()))
+                .extracting(LedgerEntrySnapshot::entryId)
+                .containsExactly(entry.entryId());
+    }
+
+    private LedgerPartitionMaintainer maintainer() {
+        return new LedgerPartitionMaintainer(
+                jdbcTemplate,
+                exportRepository,
+                objectMapper,
+                transactionManager,
+                new LedgerPartitionProperties(true, Duration.ofHours(1), 9, 24, archiveDirectory),
+                new SimpleMeterRegistry());
+    }
+
+    private String holdingTable(LedgerEntrySnapshot entry) {
+        return jdbcTemplate.queryForObject(
+                "SELECT tableoid::regclass::text FROM ledger_entries WHERE id = ?", String.class, entry.entryId());
+    }
+
+    private WalletSnapshot createWallet(long initialBalance) {
+        UUID userId = UUID.randomUUID();
+        return walletDomainService.createWallet(new CreateWalletCommand(
+                UUID.randomUUID(), userId, "pg-" + userId, USD, Money.ofMinor(initialBalance, USD)));
+    }
+
+    private WalletTransactionCommand command(UUID walletId, long amount, String reference, OffsetDateTime occurredAt) {
+        return new WalletTransactionCommand(UUID.randomUUID(), walletId, amount, reference, null, null, occurredAt);
+    }
+}
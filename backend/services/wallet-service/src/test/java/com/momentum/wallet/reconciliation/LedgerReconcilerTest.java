@@ -0,0 +1,222 @@
+package com.momentum.wallet.reconciliation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.momentum.sharedkernel.domain.value.Money;
+import com.momentum.wallet.config.ReconciliationProperties;
+import com.momentum.wallet.domain.command.CreateWalletCommand;
+import com.momentum.wallet.domain.command.PendingTransaction;
+import com.momentum.wallet.domain.command.WalletTransactionCommand;
+import com.momentum.wallet.domain.model.LedgerEntrySnapshot;
+import com.momentum.wallet.domain.model.WalletSnapshot;
+import com.momentum.wallet.domain.service.WalletDomainService;
+import com.momentum.wallet.persistence.ledger.LedgerEntryType;
+import com.momentum.wallet.persistence.reconciliation.DiscrepancyType;
+import com.momentum.wallet.persistence.reconciliation.ReconciliationDiscrepancyEntity;
+import com.momentum.wallet.persistence.reconciliation.ReconciliationRunStatus;
+import com.momentum.wallet.persistence.repository.LedgerReconciliationRepository;
+import com.momentum.wallet.persistence.repository.ReconciliationDiscrepancyRepository;
+import com.momentum.wallet.persistence.repository.ReconciliationRangeRepository;
+import com.momentum.wallet.persistence.repository.ReconciliationRunRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LedgerReconcilerTest {
+
+    private static final Currency USD = Currency.getInstance("USD");
+
+    @Autowired
+    private WalletDomainService walletDomainService;
+
+    @Autowired
+    private LedgerReconciliationRepository readRepository;
+
+    @Autowired
+    private ReconciliationRunRepository runRepository;
+
+    @Autowired
+    private ReconciliationRangeRepository rangeRepository;
+
+    @Autowired
+    private ReconciliationDiscrepancyRepository discrepancyRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void runReportsBrokenChainsAndBalancesPerWallet() throws Exception {
+        OffsetDateTime base = OffsetDateTime.now().plusMinutes(1);
+        WalletSnapshot consistent = createWallet(1_000L);
+        credit(consistent.walletId(), "recon-ok-1", 300L, base.plusMinutes(1));
+        walletDomainService.debit(new WalletTransactionCommand(
+                UUID.randomUUID(), consistent.walletId(), 500L, "recon-ok-2", null, null, base.plusMinutes(2)));
+
+        WalletSnapshot broken = createWallet(0L);
+        credit(broken.walletId(), "recon-broken-1", 300L, base.plusMinutes(1));
+        LedgerEntrySnapshot tampered = credit(broken.walletId(), "recon-broken-2", 200L, base.plusMinutes(2));
+        jdbcTemplate.update(
+                "update ledger_entries set running_balance_minor_units = 999 where id = ?", tampered.entryId());
+
+        WalletSnapshot drifted = createWallet(100L);
+        jdbcTemplate.update("update wallets set balance_minor_units = 150 where id = ?", drifted.walletId());
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LedgerReconciler reconciler = reconciler(meterRegistry);
+        UUID runId = reconciler.start();
+        reconciler.reconcile();
+
+        assertThat(runRepository.findById(runId).orElseThrow().getStatus()).isEqualTo(ReconciliationRunStatus.COMPLETED);
+        assertThat(runRepository.findById(runId).orElseThrow().getWalletsChecked()).isGreaterThanOrEqualTo(3);
+        assertThat(discrepancyRepository.findByRunIdAndWalletId(runId, consistent.walletId())).isEmpty();
+
+        List<ReconciliationDiscrepancyEntity> brokenFindings =
+                discrepancyRepository.findByRunIdAndWalletId(runId, broken.walletId());
+        assertThat(brokenFindings)
+                .extracting(ReconciliationDiscrepancyEntity::getType)
+                .containsExactlyInAnyOrder(DiscrepancyType.CHAIN_BREAK, DiscrepancyType.BALANCE_MISMATCH);
+        ReconciliationDiscrepancyEntity chainBreak = brokenFindings.stream()
+                .filter(finding -> finding.getType() == DiscrepancyType.CHAIN_BREAK)
+                .findFirst()
+                .orElseThrow();
+        assertThat(chainBreak.getEntryId()).isEqualTo(tampered.entryId());
+        assertThat(chainBreak.getExpectedMinorUnits()).isEqualTo(500L);
+        assertThat(chainBreak.getActualMinorUnits()).isEqualTo(999L);
+
+        assertThat(discrepancyRepository.findByRunIdAndWalletId(runId, drifted.walletId()))
+                .singleElement()
+                .satisfies(finding -> {
+                    assertThat(finding.getType()).isEqualTo(DiscrepancyType.LEDGER_SUM_MISMATCH);
+                    assertThat(finding.getExpectedMinorUnits()).isEqualTo(100L);
+                    assertThat(finding.getActualMinorUnits()).isEqualTo(150L);
+                });
+        assertThat(meterRegistry.get("wallet.reconciliation.entries").counter().count()).isGreaterThanOrEqualTo(4.0);
+        assertThat(meterRegistry.get("wallet.reconciliation.ranges.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    void entriesAppliedOutOfTimestampOrderAreChainedInApplyOrder() throws Exception {
+        OffsetDateTime base = OffsetDateTime.now().plusMinutes(1);
+        WalletSnapshot wallet = createWallet(0L);
+        credit(wallet.walletId(), "recon-late-1", 300L, base.plusMinutes(5));
+        credit(wallet.walletId(), "recon-late-2", 200L, base.plusMinutes(1));
+
+        LedgerReconciler reconciler = reconciler(new SimpleMeterRegistry());
+        UUID runId = reconciler.start();
+        reconciler.reconcile();
+
+        assertThat(runRepository.findById(runId).orElseThrow().getStatus()).isEqualTo(ReconciliationRunStatus.COMPLETED);
+        assertThat(discrepancyRepository.findByRunIdAndWalletId(runId, wallet.walletId())).isEmpty();
+    }
+
+    @Test
+    void shardedWalletsAreChainedAcrossSingleBucketEntries() throws Exception {
+        WalletSnapshot consistent = shardedWallet("recon-sharded-ok");
+        WalletSnapshot tampered = shardedWallet("recon-sharded-bad");
+        LedgerEntrySnapshot grouped = walletDomainService.applyGroup(tampered.walletId(), List.of(new PendingTransaction(
+                        new WalletTransactionCommand(UUID.randomUUID(), tampered.walletId(), 1L,
+                                "recon-sharded-bad-group-2", null, null, null),
+                        LedgerEntryType.CREDIT)))
+                .get(0)
+                .entry();
+        jdbcTemplate.update(
+                "update ledger_entries set running_balance_minor_units = 999 where id = ?", grouped.entryId());
+
+        LedgerReconciler reconciler = reconciler(new SimpleMeterRegistry());
+        UUID runId = reconciler.start();
+        reconciler.reconcile();
+
+        assertThat(discrepancyRepository.findByRunIdAndWalletId(runId, consistent.walletId())).isEmpty();
+        assertThat(discrepancyRepository.findByRunIdAndWalletId(runId, tampered.walletId()))
+                .singleElement()
+                .satisfies(finding -> {
+                    assertThat(finding.getType()).isEqualTo(DiscrepancyType.CHAIN_BREAK);
+                    assertThat(finding.getEntryId()).isEqualTo(grouped.entryId());
+                    assertThat(finding.getExpectedMinorUnits()).isEqualTo(152L);
+                    assertThat(finding.getActualMinorUnits()).isEqualTo(999L);
+                });
+    }
+
+    @Test
+    void rangeLeasedByAnotherWorkerIsResumedOnceTheLeaseExpires() throws Exception {
+        createWallet(10L);
+        createWallet(20L);
+        LedgerReconciler reconciler = reconciler(new SimpleMeterRegistry());
+        UUID runId = reconciler.start();
+        jdbcTemplate.update(
+                "update ledger_reconciliation_ranges set lease_owner = 'other', lease_until = ? "
+                        + "where run_id = ? and range_index = 0",
+                OffsetDateTime.now().plusMinutes(5),
+                runId);
+
+        reconciler.reconcile();
+
+        assertThat(runRepository.findById(runId).orElseThrow().getStatus()).isEqualTo(ReconciliationRunStatus.RUNNING);
+        assertThat(rangeRepository.countByRunIdAndCompletedAtIsNull(runId)).isEqualTo(1);
+
+        jdbcTemplate.update(
+                "update ledger_reconciliation_ranges set lease_until = ? where run_id = ? and range_index = 0",
+                OffsetDateTime.now().minusSeconds(1),
+                runId);
+        reconciler.reconcile();
+
+        assertThat(runRepository.findById(runId).orElseThrow().getStatus()).isEqualTo(ReconciliationRunStatus.COMPLETED);
+        assertThat(runRepository.findById(runId).orElseThrow().getWalletsChecked())
+                .isEqualTo(jdbcTemplate.queryForObject("select count(*) from wallets", Long.class));
+    }
+
+    private LedgerReconciler reconciler(SimpleMeterRegistry meterRegistry) {
+        return new LedgerReconciler(
+                readRepository,
+                runRepository,
+                rangeRepository,
+                discrepancyRepository,
+                transactionManager,
+                new ReconciliationProperties(
+                        true, "-", Duration.ofMinutes(1), 3, 2, 2, 10, 0, Duration.ofMinutes(5)),
+                meterRegistry);
+    }
+
+    /**
+     * Balance 151 after an unsharded credit, five single-bucket credits and a grouped credit that records the
+     * wallet-wide balance.
+     */
+    private WalletSnapshot shardedWallet(String reference) {
+        WalletSnapshot wallet = createWallet(0L);
+        credit(wallet.walletId(), reference + "-seed", 100L, null);
+        walletDomainService.shardWallet(wallet.walletId(), 2);
+        for (int i = 0; i < 5; i++) {
+            credit(wallet.walletId(), reference + "-" + i, 10L, null);
+        }
+        walletDomainService.applyGroup(wallet.walletId(), List.of(new PendingTransaction(
+                new WalletTransactionCommand(UUID.randomUUID(), wallet.walletId(), 1L, reference + "-group", null,
+                        null, null),
+                LedgerEntryType.CREDIT)));
+        return wallet;
+    }
+
+    private WalletSnapshot createWallet(long initialBalance) {
+        UUID userId = UUID.randomUUID();
+        return walletDomainService.createWallet(new CreateWalletCommand(
+                UUID.randomUUID(), userId, "recon-" + userId, USD, Money.ofMinor(initialBalance, USD)));
+    }
+
+    private LedgerEntrySnapshot credit(UUID walletId, String reference, long amountMinorUnits, OffsetDateTime occurredAt) {
+        return walletDomainService.credit(new WalletTransactionCommand(
+                UUID.randomUUID(), walletId, amountMinorUnits, reference, null, null, occurredAt));
+    }
+}
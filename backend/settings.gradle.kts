@@ -8,6 +8,7 @@
 rootProject.name = "momentum-backend"
 
 include(
+    "benchmarks",
     "gateway",
     "libs:shared-kernel",
     "services:wallet-service",